@@ -38,22 +38,8 @@
  */
 package org.semanticweb.owlapi.io;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.SocketTimeoutException;
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.Locale;
-import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.Inflater;
-import java.util.zip.InflaterInputStream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -73,15 +59,6 @@ import org.xml.sax.InputSource;
  */
 public abstract class AbstractOWLParser implements OWLParser {
 
-    private static final Logger logger = Logger
-            .getLogger(AbstractOWLParser.class.getName());
-    private static final String ZIP_FILE_EXTENSION = ".zip";
-    private static final String CONTENT_DISPOSITION_HEADER = "Content-Disposition";
-    private static final Pattern CONTENT_DISPOSITION_FILE_NAME_PATTERN = Pattern
-            .compile(".*filename=\"([^\\s;]*)\".*");
-    private static final int CONTENT_DISPOSITION_FILE_NAME_PATTERN_GROUP = 1;
-    private static final Pattern ZIP_ENTRY_ONTOLOGY_NAME_PATTERN = Pattern
-            .compile(".*owl|rdf|xml|mos");
     private OWLOntologyManager owlOntologyManager;
 
     protected AbstractOWLParser() {}
@@ -104,7 +81,7 @@ public abstract class AbstractOWLParser implements OWLParser {
     }
 
     protected String getRequestTypes() {
-        return "application/rdf+xml, application/xml; q=0.5, text/xml; q=0.3, */*; q=0.2";
+        return DocumentStreamUtils.DEFAULT_REQUEST_TYPES;
     }
 
     /**
@@ -120,131 +97,13 @@ public abstract class AbstractOWLParser implements OWLParser {
      * @throws IOException
      *         if there was an {@code IOException} in obtaining the input stream
      *         from the URI.
+     * @see DocumentStreamUtils#getInputStream(IRI,
+     *      OWLOntologyLoaderConfiguration, String)
      */
     protected InputStream getInputStream(IRI documentIRI,
             OWLOntologyLoaderConfiguration config) throws IOException {
-        String requestType = getRequestTypes();
-        URL originalURL = documentIRI.toURI().toURL();
-        String originalProtocol = originalURL.getProtocol();
-        URLConnection conn = originalURL.openConnection();
-        conn.addRequestProperty("Accept", requestType);
-        if (IOProperties.getInstance().isConnectionAcceptHTTPCompression()) {
-            conn.setRequestProperty("Accept-Encoding", "gzip, deflate");
-        }
-        int connectionTimeout = IOProperties.getInstance()
-                .getConnectionTimeout();
-        conn.setConnectTimeout(connectionTimeout);
-        if (conn instanceof HttpURLConnection && config.isFollowRedirects()) {
-            // follow redirects to HTTPS
-            HttpURLConnection con = (HttpURLConnection) conn;
-            con.connect();
-            int responseCode = con.getResponseCode();
-            // redirect
-            if (responseCode == HttpURLConnection.HTTP_MOVED_TEMP
-                    || responseCode == HttpURLConnection.HTTP_MOVED_PERM
-                    || responseCode == HttpURLConnection.HTTP_SEE_OTHER) {
-                String location = con.getHeaderField("Location");
-                URL newURL = new URL(location);
-                String newProtocol = newURL.getProtocol();
-                if (!originalProtocol.equals(newProtocol)) {
-                    // then different protocols: redirect won't follow
-                    // automatically
-                    conn = newURL.openConnection();
-                    conn.addRequestProperty("Accept", requestType);
-                    if (IOProperties.getInstance()
-                            .isConnectionAcceptHTTPCompression()) {
-                        conn.setRequestProperty("Accept-Encoding",
-                                "gzip, deflate");
-                    }
-                    conn.setConnectTimeout(connectionTimeout);
-                }
-            }
-        }
-        String contentEncoding = conn.getContentEncoding();
-        // hardcode five retries with increasing timeouts here
-        InputStream is = null;
-        int count = 0;
-        while (count < 5 && is == null) {
-            try {
-                is = getInputStreamFromContentEncoding(conn, contentEncoding);
-            } catch (SocketTimeoutException e) {
-                count++;
-                if (count == 5) {
-                    throw e;
-                }
-                conn.setConnectTimeout(connectionTimeout + connectionTimeout
-                        * count);
-            }
-        }
-        if (is == null) {
-            throw new IOException("cannot connect to " + documentIRI
-                    + "; retry limit exhausted");
-        }
-        if (isZipName(documentIRI, conn)) {
-            ZipInputStream zis = new ZipInputStream(is);
-            ZipEntry entry = zis.getNextEntry();
-            while (!couldBeOntology(entry)) {
-                ZipEntry nextEntry = zis.getNextEntry();
-                if (nextEntry != null) {
-                    entry = nextEntry;
-                } else {
-                    break;
-                }
-            }
-            is = new BufferedInputStream(zis);
-        }
-        return is;
-    }
-
-    private boolean couldBeOntology(ZipEntry zipEntry) {
-        String name = zipEntry.getName();
-        Matcher matcher = ZIP_ENTRY_ONTOLOGY_NAME_PATTERN.matcher(name);
-        return matcher.matches();
-    }
-
-    private InputStream getInputStreamFromContentEncoding(URLConnection conn,
-            String contentEncoding) throws IOException {
-        InputStream is;
-        if ("gzip".equals(contentEncoding)) {
-            logger.fine("URL connection input stream is compressed using gzip");
-            is = new BufferedInputStream(new GZIPInputStream(
-                    conn.getInputStream()));
-        } else if ("deflate".equals(contentEncoding)) {
-            logger.fine("URL connection input stream is compressed using deflate");
-            is = new BufferedInputStream(new InflaterInputStream(
-                    conn.getInputStream(), new Inflater(true)));
-        } else {
-            is = new BufferedInputStream(conn.getInputStream());
-        }
-        return is;
-    }
-
-    private boolean isZipName(IRI documentIRI, URLConnection connection) {
-        if (isZipFileName(documentIRI.toString())) {
-            return true;
-        } else {
-            String fileName = getFileNameFromContentDisposition(connection);
-            return fileName != null && isZipFileName(fileName);
-        }
-    }
-
-    private String getFileNameFromContentDisposition(URLConnection connection) {
-        String contentDispositionHeaderValue = connection
-                .getHeaderField(CONTENT_DISPOSITION_HEADER);
-        if (contentDispositionHeaderValue != null) {
-            Matcher matcher = CONTENT_DISPOSITION_FILE_NAME_PATTERN
-                    .matcher(contentDispositionHeaderValue);
-            if (matcher.matches()) {
-                return matcher
-                        .group(CONTENT_DISPOSITION_FILE_NAME_PATTERN_GROUP);
-            }
-        }
-        return null;
-    }
-
-    private boolean isZipFileName(String fileName) {
-        return fileName.toLowerCase(Locale.getDefault()).endsWith(
-                ZIP_FILE_EXTENSION);
+        return DocumentStreamUtils.getInputStream(documentIRI, config,
+                getRequestTypes());
     }
 
     protected InputSource getInputSource(
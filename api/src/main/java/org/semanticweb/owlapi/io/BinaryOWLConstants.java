@@ -0,0 +1,144 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.io;
+
+/**
+ * Record tags of the binary ontology encoding written by
+ * {@link BinaryOWLEncoder} and read by {@link BinaryOWLDecoder}. Tags are
+ * written as varints; all of them fit in one byte. Axiom tags and object tags
+ * are disjoint, so that a corrupt stream is detected early.
+ */
+final class BinaryOWLConstants {
+
+    private BinaryOWLConstants() {}
+
+    /** magic number at the start of a document: "OWLB" */
+    static final byte[] MAGIC = { 'O', 'W', 'L', 'B' };
+    /** version of the encoding */
+    static final int VERSION = 1;
+    // axioms
+    static final int DECLARATION = 1;
+    static final int SUBCLASS_OF = 2;
+    static final int NEGATIVE_OBJECT_PROPERTY_ASSERTION = 3;
+    static final int ASYMMETRIC_OBJECT_PROPERTY = 4;
+    static final int REFLEXIVE_OBJECT_PROPERTY = 5;
+    static final int DISJOINT_CLASSES = 6;
+    static final int DATA_PROPERTY_DOMAIN = 7;
+    static final int OBJECT_PROPERTY_DOMAIN = 8;
+    static final int EQUIVALENT_OBJECT_PROPERTIES = 9;
+    static final int NEGATIVE_DATA_PROPERTY_ASSERTION = 10;
+    static final int DIFFERENT_INDIVIDUALS = 11;
+    static final int DISJOINT_DATA_PROPERTIES = 12;
+    static final int DISJOINT_OBJECT_PROPERTIES = 13;
+    static final int OBJECT_PROPERTY_RANGE = 14;
+    static final int OBJECT_PROPERTY_ASSERTION = 15;
+    static final int FUNCTIONAL_OBJECT_PROPERTY = 16;
+    static final int SUB_OBJECT_PROPERTY = 17;
+    static final int DISJOINT_UNION = 18;
+    static final int SYMMETRIC_OBJECT_PROPERTY = 19;
+    static final int DATA_PROPERTY_RANGE = 20;
+    static final int FUNCTIONAL_DATA_PROPERTY = 21;
+    static final int EQUIVALENT_DATA_PROPERTIES = 22;
+    static final int CLASS_ASSERTION = 23;
+    static final int EQUIVALENT_CLASSES = 24;
+    static final int DATA_PROPERTY_ASSERTION = 25;
+    static final int TRANSITIVE_OBJECT_PROPERTY = 26;
+    static final int IRREFLEXIVE_OBJECT_PROPERTY = 27;
+    static final int SUB_DATA_PROPERTY = 28;
+    static final int INVERSE_FUNCTIONAL_OBJECT_PROPERTY = 29;
+    static final int SAME_INDIVIDUAL = 30;
+    static final int SUB_PROPERTY_CHAIN_OF = 31;
+    static final int INVERSE_OBJECT_PROPERTIES = 32;
+    static final int HAS_KEY = 33;
+    static final int DATATYPE_DEFINITION = 34;
+    static final int SWRL_RULE = 35;
+    static final int ANNOTATION_ASSERTION = 36;
+    static final int SUB_ANNOTATION_PROPERTY_OF = 37;
+    static final int ANNOTATION_PROPERTY_DOMAIN = 38;
+    static final int ANNOTATION_PROPERTY_RANGE = 39;
+    static final int LAST_AXIOM = ANNOTATION_PROPERTY_RANGE;
+    // entities and other leaves
+    static final int CLASS = 50;
+    static final int OBJECT_PROPERTY = 51;
+    static final int DATA_PROPERTY = 52;
+    static final int NAMED_INDIVIDUAL = 53;
+    static final int DATATYPE = 54;
+    static final int ANNOTATION_PROPERTY = 55;
+    static final int ANONYMOUS_INDIVIDUAL = 56;
+    static final int OBJECT_INVERSE_OF = 57;
+    static final int LITERAL = 58;
+    static final int IRI_VALUE = 59;
+    static final int FACET_RESTRICTION = 60;
+    static final int ANNOTATION = 61;
+    // class expressions
+    static final int OBJECT_INTERSECTION_OF = 62;
+    static final int OBJECT_UNION_OF = 63;
+    static final int OBJECT_COMPLEMENT_OF = 64;
+    static final int OBJECT_SOME_VALUES_FROM = 65;
+    static final int OBJECT_ALL_VALUES_FROM = 66;
+    static final int OBJECT_HAS_VALUE = 67;
+    static final int OBJECT_MIN_CARDINALITY = 68;
+    static final int OBJECT_EXACT_CARDINALITY = 69;
+    static final int OBJECT_MAX_CARDINALITY = 70;
+    static final int OBJECT_HAS_SELF = 71;
+    static final int OBJECT_ONE_OF = 72;
+    static final int DATA_SOME_VALUES_FROM = 73;
+    static final int DATA_ALL_VALUES_FROM = 74;
+    static final int DATA_HAS_VALUE = 75;
+    static final int DATA_MIN_CARDINALITY = 76;
+    static final int DATA_EXACT_CARDINALITY = 77;
+    static final int DATA_MAX_CARDINALITY = 78;
+    // data ranges
+    static final int DATA_ONE_OF = 79;
+    static final int DATA_COMPLEMENT_OF = 80;
+    static final int DATA_INTERSECTION_OF = 81;
+    static final int DATA_UNION_OF = 82;
+    static final int DATATYPE_RESTRICTION = 83;
+    // SWRL
+    static final int SWRL_CLASS_ATOM = 84;
+    static final int SWRL_DATA_RANGE_ATOM = 85;
+    static final int SWRL_OBJECT_PROPERTY_ATOM = 86;
+    static final int SWRL_DATA_PROPERTY_ATOM = 87;
+    static final int SWRL_BUILT_IN_ATOM = 88;
+    static final int SWRL_VARIABLE = 89;
+    static final int SWRL_INDIVIDUAL_ARGUMENT = 90;
+    static final int SWRL_LITERAL_ARGUMENT = 91;
+    static final int SWRL_SAME_INDIVIDUAL_ATOM = 92;
+    static final int SWRL_DIFFERENT_INDIVIDUALS_ATOM = 93;
+}
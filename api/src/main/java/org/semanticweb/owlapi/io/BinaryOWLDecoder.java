@@ -0,0 +1,890 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.io;
+
+import static org.semanticweb.owlapi.io.BinaryOWLConstants.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnnotationSubject;
+import org.semanticweb.owlapi.model.OWLAnnotationValue;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
+import org.semanticweb.owlapi.model.OWLDataRange;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLPropertyExpression;
+import org.semanticweb.owlapi.model.SWRLAtom;
+import org.semanticweb.owlapi.model.SWRLDArgument;
+import org.semanticweb.owlapi.model.SWRLIArgument;
+import org.semanticweb.owlapi.model.SetOntologyID;
+import org.semanticweb.owlapi.model.UnloadableImportException;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+/**
+ * Reads documents written by {@link BinaryOWLEncoder}. The decoder works on a
+ * {@link ByteBuffer}, which can be a memory mapped file; the document starts
+ * at the position of the buffer when the decoder is created. The tables and
+ * the header are read when the decoder is created, but IRIs, literals and
+ * axioms are only decoded when they are asked for, so axioms can be read one
+ * at a time, in any order, by offset. The decoder only uses absolute reads
+ * and never changes the buffer, so it can be used by several threads at once.
+ * The node IDs of anonymous individuals are local to the document: each ID is
+ * read as a fresh anonymous individual, the same one every time the ID is
+ * read, so that documents written by other processes cannot share anonymous
+ * individuals with other ontologies by accident. Malformed documents cause
+ * {@link OWLParserException}s.
+ */
+public class BinaryOWLDecoder {
+
+    /** number of axioms decoded by each task when decoding in parallel */
+    private static final int CHUNK_SIZE = 5000;
+    private final ByteBuffer buffer;
+    private final OWLDataFactory df;
+    private final int[] iriOffsets;
+    private final AtomicReferenceArray<IRI> iris;
+    /** entities by entity tag and IRI index */
+    private final List<AtomicReferenceArray<OWLEntity>> entities;
+    private final int[] literalOffsets;
+    private final AtomicReferenceArray<OWLLiteral> literals;
+    /** the anonymous individual read for each node ID in the document */
+    private final ConcurrentMap<String, OWLAnonymousIndividual> anonymousIndividuals = new ConcurrentHashMap<String, OWLAnonymousIndividual>();
+    /** the node ID in the document of each anonymous individual read */
+    private final ConcurrentMap<OWLAnonymousIndividual, String> nodeIDs = new ConcurrentHashMap<OWLAnonymousIndividual, String>();
+    private final Map<String, String> prefixes;
+    private final OWLOntologyID ontologyID;
+    private final Set<OWLImportsDeclaration> importsDeclarations;
+    private final Set<OWLAnnotation> ontologyAnnotations;
+    private final int axiomCount;
+    private final int firstAxiomOffset;
+
+    /**
+     * @param buffer
+     *        the buffer holding the document, from its current position
+     * @param df
+     *        the data factory used to create the objects read
+     * @throws OWLParserException
+     *         if the buffer does not hold a binary ontology document
+     */
+    public BinaryOWLDecoder(ByteBuffer buffer, OWLDataFactory df) {
+        this.buffer = buffer;
+        this.df = df;
+        try {
+            Cursor c = new Cursor(buffer.position());
+            for (byte b : MAGIC) {
+                if (buffer.get(c.pos++) != b) {
+                    throw new OWLParserException(
+                            "Not a binary ontology document");
+                }
+            }
+            int version = c.readVarint();
+            if (version != VERSION) {
+                throw new OWLParserException(
+                        "Unsupported binary ontology document version "
+                                + version);
+            }
+            iriOffsets = new int[c.readVarint()];
+            for (int i = 0; i < iriOffsets.length; i++) {
+                iriOffsets[i] = c.pos;
+                c.skipString();
+            }
+            iris = new AtomicReferenceArray<IRI>(iriOffsets.length);
+            entities = new ArrayList<AtomicReferenceArray<OWLEntity>>();
+            for (int i = CLASS; i <= ANNOTATION_PROPERTY; i++) {
+                entities.add(new AtomicReferenceArray<OWLEntity>(
+                        iriOffsets.length));
+            }
+            literalOffsets = new int[c.readVarint()];
+            for (int i = 0; i < literalOffsets.length; i++) {
+                literalOffsets[i] = c.pos;
+                c.readVarint();
+                c.skipString();
+                c.skipString();
+            }
+            literals = new AtomicReferenceArray<OWLLiteral>(
+                    literalOffsets.length);
+            int prefixCount = c.readVarint();
+            Map<String, String> map = new LinkedHashMap<String, String>();
+            for (int i = 0; i < prefixCount; i++) {
+                map.put(c.readString(), c.readString());
+            }
+            prefixes = Collections.unmodifiableMap(map);
+            IRI ontologyIRI = c.readOptionalIRI();
+            IRI versionIRI = c.readOptionalIRI();
+            ontologyID = ontologyIRI == null ? new OWLOntologyID()
+                    : new OWLOntologyID(ontologyIRI, versionIRI);
+            int importCount = c.readVarint();
+            Set<OWLImportsDeclaration> imports = new HashSet<OWLImportsDeclaration>();
+            for (int i = 0; i < importCount; i++) {
+                imports.add(df.getOWLImportsDeclaration(c.readIRI()));
+            }
+            importsDeclarations = Collections.unmodifiableSet(imports);
+            ontologyAnnotations = Collections.unmodifiableSet(c
+                    .readAnnotations());
+            axiomCount = c.readVarint();
+            firstAxiomOffset = c.pos;
+        } catch (OWLParserException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new OWLParserException(
+                    "Malformed binary ontology document", e);
+        }
+    }
+
+    /** @return the prefixes stored with the ontology */
+    public Map<String, String> getPrefixes() {
+        return prefixes;
+    }
+
+    /** @return the ontology id */
+    public OWLOntologyID getOntologyID() {
+        return ontologyID;
+    }
+
+    /** @return the imports declarations of the ontology */
+    public Set<OWLImportsDeclaration> getImportsDeclarations() {
+        return importsDeclarations;
+    }
+
+    /** @return the ontology annotations */
+    public Set<OWLAnnotation> getOntologyAnnotations() {
+        return ontologyAnnotations;
+    }
+
+    /** @return the number of axioms in the document */
+    public int getAxiomCount() {
+        return axiomCount;
+    }
+
+    /**
+     * @return the offset of the first axiom record; meaningful only if the
+     *         document has axioms
+     */
+    public int getFirstAxiomOffset() {
+        return firstAxiomOffset;
+    }
+
+    /**
+     * @param offset
+     *        the offset of an axiom record
+     * @return the offset of the next axiom record, or of the end of the
+     *         document for the last record
+     */
+    public int nextAxiomOffset(int offset) {
+        try {
+            Cursor c = new Cursor(offset);
+            int length = c.readVarint();
+            return c.pos + length;
+        } catch (RuntimeException e) {
+            throw new OWLParserException("Malformed axiom record at " + offset,
+                    e);
+        }
+    }
+
+    /**
+     * @param offset
+     *        the offset of an axiom record
+     * @return the axiom
+     */
+    public OWLAxiom readAxiom(int offset) {
+        try {
+            Cursor c = new Cursor(offset);
+            c.readVarint();
+            return c.readAxiom();
+        } catch (OWLParserException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new OWLParserException("Malformed axiom record at " + offset,
+                    e);
+        }
+    }
+
+    /**
+     * @param offset
+     *        the offset of an object encoded with
+     *        {@link BinaryOWLEncoder#encode(OWLObject)}
+     * @return the object
+     */
+    public OWLObject readObject(int offset) {
+        try {
+            return new Cursor(offset).readObject();
+        } catch (OWLParserException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new OWLParserException("Malformed object at " + offset, e);
+        }
+    }
+
+    /** @return the number of IRIs in the IRI table */
+    public int getIRICount() {
+        return iriOffsets.length;
+    }
+
+    /** @return the number of literals in the literal table */
+    public int getLiteralCount() {
+        return literalOffsets.length;
+    }
+
+    /** @return all the axioms in the document */
+    public List<OWLAxiom> readAxioms() {
+        return readAxioms(firstAxiomOffset, axiomCount);
+    }
+
+    private List<OWLAxiom> readAxioms(int firstOffset, int count) {
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>(count);
+        int offset = firstOffset;
+        for (int i = 0; i < count; i++) {
+            axioms.add(readAxiom(offset));
+            offset = nextAxiomOffset(offset);
+        }
+        return axioms;
+    }
+
+    /**
+     * Adds the content of the document to an ontology, as a parser does: the
+     * ontology id is set, the imports are added and loaded, and the ontology
+     * annotations and the axioms are added. If the configuration asks for more
+     * than one parsing thread, chunks of axioms are decoded on a pool of
+     * threads and added, in document order, by the calling thread.
+     *
+     * @param ontology
+     *        the ontology to fill
+     * @param configuration
+     *        the load configuration
+     * @throws UnloadableImportException
+     *         if an import cannot be loaded
+     */
+    public void addTo(OWLOntology ontology,
+            OWLOntologyLoaderConfiguration configuration)
+            throws UnloadableImportException {
+        OWLOntologyManager manager = ontology.getOWLOntologyManager();
+        if (!ontologyID.isAnonymous()) {
+            manager.applyChange(new SetOntologyID(ontology, ontologyID));
+        }
+        for (OWLImportsDeclaration decl : importsDeclarations) {
+            manager.applyChange(new AddImport(ontology, decl));
+            manager.makeLoadImportRequest(decl, configuration);
+        }
+        for (OWLAnnotation annotation : ontologyAnnotations) {
+            manager.applyChange(new AddOntologyAnnotation(ontology, annotation));
+        }
+        int threads = configuration.getParsingThreads();
+        if (threads < 2 || axiomCount <= CHUNK_SIZE) {
+            addAxioms(ontology, readAxioms(), configuration);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LinkedList<Future<List<OWLAxiom>>> results = new LinkedList<Future<List<OWLAxiom>>>();
+        try {
+            int offset = firstAxiomOffset;
+            int remaining = axiomCount;
+            while (remaining > 0 || !results.isEmpty()) {
+                if (remaining > 0 && results.size() < threads * 2) {
+                    final int chunkOffset = offset;
+                    final int chunkSize = Math.min(CHUNK_SIZE, remaining);
+                    results.add(executor
+                            .submit(new Callable<List<OWLAxiom>>() {
+
+                                @Override
+                                public List<OWLAxiom> call() {
+                                    return readAxioms(chunkOffset, chunkSize);
+                                }
+                            }));
+                    // skipping records is cheap compared to decoding them
+                    for (int i = 0; i < chunkSize; i++) {
+                        offset = nextAxiomOffset(offset);
+                    }
+                    remaining -= chunkSize;
+                } else {
+                    addAxioms(ontology, getChunk(results.removeFirst()),
+                            configuration);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<OWLAxiom> getChunk(Future<List<OWLAxiom>> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLParserException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new OWLParserException(cause);
+        }
+    }
+
+    private static void addAxioms(OWLOntology ontology, List<OWLAxiom> axioms,
+            OWLOntologyLoaderConfiguration configuration) {
+        List<OWLAxiom> toAdd = axioms;
+        if (!configuration.isLoadAnnotationAxioms()) {
+            toAdd = new ArrayList<OWLAxiom>(axioms.size());
+            for (OWLAxiom ax : axioms) {
+                if (!ax.isAnnotationAxiom()) {
+                    toAdd.add(ax);
+                }
+            }
+        }
+        ontology.getOWLOntologyManager().addAxiomsInBulk(ontology, toAdd);
+    }
+
+    /**
+     * @param index
+     *        an index in the IRI table
+     * @return the IRI
+     */
+    public IRI getIRI(int index) {
+        IRI iri = iris.get(index);
+        if (iri == null) {
+            iri = IRI.create(new Cursor(iriOffsets[index]).readString());
+            iris.set(index, iri);
+        }
+        return iri;
+    }
+
+    private OWLEntity getEntity(int tag, int index) {
+        AtomicReferenceArray<OWLEntity> cache = entities.get(tag - CLASS);
+        OWLEntity entity = cache.get(index);
+        if (entity == null) {
+            IRI iri = getIRI(index);
+            switch (tag) {
+                case CLASS:
+                    entity = df.getOWLClass(iri);
+                    break;
+                case OBJECT_PROPERTY:
+                    entity = df.getOWLObjectProperty(iri);
+                    break;
+                case DATA_PROPERTY:
+                    entity = df.getOWLDataProperty(iri);
+                    break;
+                case NAMED_INDIVIDUAL:
+                    entity = df.getOWLNamedIndividual(iri);
+                    break;
+                case DATATYPE:
+                    entity = df.getOWLDatatype(iri);
+                    break;
+                default:
+                    entity = df.getOWLAnnotationProperty(iri);
+                    break;
+            }
+            cache.set(index, entity);
+        }
+        return entity;
+    }
+
+    /**
+     * @param index
+     *        an index in the literal table
+     * @return the literal
+     */
+    public OWLLiteral getLiteral(int index) {
+        OWLLiteral literal = literals.get(index);
+        if (literal == null) {
+            Cursor c = new Cursor(literalOffsets[index]);
+            IRI datatype = c.readIRI();
+            String lang = c.readString();
+            String lexical = c.readString();
+            if (lang.length() > 0
+                    || datatype.equals(OWL2Datatype.RDF_PLAIN_LITERAL.getIRI())) {
+                literal = df.getOWLLiteral(lexical, lang);
+            } else {
+                literal = df.getOWLLiteral(lexical, df.getOWLDatatype(datatype));
+            }
+            literals.set(index, literal);
+        }
+        return literal;
+    }
+
+    /**
+     * @param nodeID
+     *        a node ID in the document
+     * @return the anonymous individual read for the node ID
+     */
+    private OWLAnonymousIndividual getAnonymousIndividual(String nodeID) {
+        OWLAnonymousIndividual individual = anonymousIndividuals.get(nodeID);
+        if (individual == null) {
+            OWLAnonymousIndividual fresh = df.getOWLAnonymousIndividual();
+            // the reverse mapping goes first, so that it is there as soon
+            // as another thread can read the individual
+            nodeIDs.put(fresh, nodeID);
+            individual = anonymousIndividuals.putIfAbsent(nodeID, fresh);
+            if (individual == null) {
+                individual = fresh;
+            } else {
+                nodeIDs.remove(fresh);
+            }
+        }
+        return individual;
+    }
+
+    /**
+     * @param individual
+     *        an anonymous individual
+     * @return the node ID the individual has in the document, or null if the
+     *         individual was not read by this decoder
+     */
+    public String getNodeID(OWLAnonymousIndividual individual) {
+        return nodeIDs.get(individual);
+    }
+
+    private String decode(int offset, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset,
+                    length, BinaryOWLEncoder.UTF8);
+        }
+        // a duplicate has its own position, so other threads are not affected
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return new String(bytes, BinaryOWLEncoder.UTF8);
+    }
+
+    /** Reads forward from an offset. */
+    private class Cursor {
+
+        int pos;
+
+        Cursor(int pos) {
+            this.pos = pos;
+        }
+
+        int readVarint() {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = buffer.get(pos++);
+                result |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return result;
+                }
+            }
+            throw new OWLParserException("Malformed varint at " + pos);
+        }
+
+        String readString() {
+            int length = readVarint();
+            String s = decode(pos, length);
+            pos += length;
+            return s;
+        }
+
+        void skipString() {
+            int length = readVarint();
+            pos += length;
+        }
+
+        IRI readIRI() {
+            return getIRI(readVarint());
+        }
+
+        IRI readOptionalIRI() {
+            int i = readVarint();
+            return i == 0 ? null : getIRI(i - 1);
+        }
+
+        <T> T read(Class<T> type) {
+            OWLObject o = readObject();
+            if (!type.isInstance(o)) {
+                throw new OWLParserException("Expected "
+                        + type.getSimpleName() + " but found " + o
+                        + " before " + pos);
+            }
+            return type.cast(o);
+        }
+
+        <T> Set<T> readSet(Class<T> type) {
+            int size = readVarint();
+            Set<T> set = new HashSet<T>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                set.add(read(type));
+            }
+            return set;
+        }
+
+        <T> List<T> readList(Class<T> type) {
+            int size = readVarint();
+            List<T> list = new ArrayList<T>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(read(type));
+            }
+            return list;
+        }
+
+        Set<OWLAnnotation> readAnnotations() {
+            if (buffer.get(pos) == 0) {
+                pos++;
+                return Collections.emptySet();
+            }
+            return readSet(OWLAnnotation.class);
+        }
+
+        OWLObjectPropertyExpression objectProperty() {
+            return read(OWLObjectPropertyExpression.class);
+        }
+
+        OWLDataPropertyExpression dataProperty() {
+            return read(OWLDataPropertyExpression.class);
+        }
+
+        OWLAnnotationProperty annotationProperty() {
+            return read(OWLAnnotationProperty.class);
+        }
+
+        OWLClassExpression classExpression() {
+            return read(OWLClassExpression.class);
+        }
+
+        OWLDataRange dataRange() {
+            return read(OWLDataRange.class);
+        }
+
+        OWLIndividual individual() {
+            return read(OWLIndividual.class);
+        }
+
+        OWLLiteral literal() {
+            return read(OWLLiteral.class);
+        }
+
+        SWRLIArgument iArgument() {
+            return read(SWRLIArgument.class);
+        }
+
+        SWRLDArgument dArgument() {
+            return read(SWRLDArgument.class);
+        }
+
+        OWLAxiom readAxiom() {
+            int tag = readVarint();
+            if (tag < DECLARATION || tag > LAST_AXIOM) {
+                throw new OWLParserException("Unknown axiom tag " + tag
+                        + " before " + pos);
+            }
+            Set<OWLAnnotation> a = readAnnotations();
+            switch (tag) {
+                case DECLARATION:
+                    return df.getOWLDeclarationAxiom(read(OWLEntity.class), a);
+                case SUBCLASS_OF:
+                    return df.getOWLSubClassOfAxiom(classExpression(),
+                            classExpression(), a);
+                case NEGATIVE_OBJECT_PROPERTY_ASSERTION:
+                    return df.getOWLNegativeObjectPropertyAssertionAxiom(
+                            objectProperty(), individual(), individual(), a);
+                case ASYMMETRIC_OBJECT_PROPERTY:
+                    return df.getOWLAsymmetricObjectPropertyAxiom(
+                            objectProperty(), a);
+                case REFLEXIVE_OBJECT_PROPERTY:
+                    return df.getOWLReflexiveObjectPropertyAxiom(
+                            objectProperty(), a);
+                case DISJOINT_CLASSES:
+                    return df.getOWLDisjointClassesAxiom(
+                            readSet(OWLClassExpression.class), a);
+                case DATA_PROPERTY_DOMAIN:
+                    return df.getOWLDataPropertyDomainAxiom(dataProperty(),
+                            classExpression(), a);
+                case OBJECT_PROPERTY_DOMAIN:
+                    return df.getOWLObjectPropertyDomainAxiom(
+                            objectProperty(), classExpression(), a);
+                case EQUIVALENT_OBJECT_PROPERTIES:
+                    return df.getOWLEquivalentObjectPropertiesAxiom(
+                            readSet(OWLObjectPropertyExpression.class), a);
+                case NEGATIVE_DATA_PROPERTY_ASSERTION:
+                    return df.getOWLNegativeDataPropertyAssertionAxiom(
+                            dataProperty(), individual(), literal(), a);
+                case DIFFERENT_INDIVIDUALS:
+                    return df.getOWLDifferentIndividualsAxiom(
+                            readSet(OWLIndividual.class), a);
+                case DISJOINT_DATA_PROPERTIES:
+                    return df.getOWLDisjointDataPropertiesAxiom(
+                            readSet(OWLDataPropertyExpression.class), a);
+                case DISJOINT_OBJECT_PROPERTIES:
+                    return df.getOWLDisjointObjectPropertiesAxiom(
+                            readSet(OWLObjectPropertyExpression.class), a);
+                case OBJECT_PROPERTY_RANGE:
+                    return df.getOWLObjectPropertyRangeAxiom(objectProperty(),
+                            classExpression(), a);
+                case OBJECT_PROPERTY_ASSERTION:
+                    return df.getOWLObjectPropertyAssertionAxiom(
+                            objectProperty(), individual(), individual(), a);
+                case FUNCTIONAL_OBJECT_PROPERTY:
+                    return df.getOWLFunctionalObjectPropertyAxiom(
+                            objectProperty(), a);
+                case SUB_OBJECT_PROPERTY:
+                    return df.getOWLSubObjectPropertyOfAxiom(objectProperty(),
+                            objectProperty(), a);
+                case DISJOINT_UNION:
+                    return df.getOWLDisjointUnionAxiom(read(OWLClass.class),
+                            readSet(OWLClassExpression.class), a);
+                case SYMMETRIC_OBJECT_PROPERTY:
+                    return df.getOWLSymmetricObjectPropertyAxiom(
+                            objectProperty(), a);
+                case DATA_PROPERTY_RANGE:
+                    return df.getOWLDataPropertyRangeAxiom(dataProperty(),
+                            dataRange(), a);
+                case FUNCTIONAL_DATA_PROPERTY:
+                    return df.getOWLFunctionalDataPropertyAxiom(
+                            dataProperty(), a);
+                case EQUIVALENT_DATA_PROPERTIES:
+                    return df.getOWLEquivalentDataPropertiesAxiom(
+                            readSet(OWLDataPropertyExpression.class), a);
+                case CLASS_ASSERTION:
+                    return df.getOWLClassAssertionAxiom(classExpression(),
+                            individual(), a);
+                case EQUIVALENT_CLASSES:
+                    return df.getOWLEquivalentClassesAxiom(
+                            readSet(OWLClassExpression.class), a);
+                case DATA_PROPERTY_ASSERTION:
+                    return df.getOWLDataPropertyAssertionAxiom(dataProperty(),
+                            individual(), literal(), a);
+                case TRANSITIVE_OBJECT_PROPERTY:
+                    return df.getOWLTransitiveObjectPropertyAxiom(
+                            objectProperty(), a);
+                case IRREFLEXIVE_OBJECT_PROPERTY:
+                    return df.getOWLIrreflexiveObjectPropertyAxiom(
+                            objectProperty(), a);
+                case SUB_DATA_PROPERTY:
+                    return df.getOWLSubDataPropertyOfAxiom(dataProperty(),
+                            dataProperty(), a);
+                case INVERSE_FUNCTIONAL_OBJECT_PROPERTY:
+                    return df.getOWLInverseFunctionalObjectPropertyAxiom(
+                            objectProperty(), a);
+                case SAME_INDIVIDUAL:
+                    return df.getOWLSameIndividualAxiom(
+                            readSet(OWLIndividual.class), a);
+                case SUB_PROPERTY_CHAIN_OF:
+                    return df.getOWLSubPropertyChainOfAxiom(
+                            readList(OWLObjectPropertyExpression.class),
+                            objectProperty(), a);
+                case INVERSE_OBJECT_PROPERTIES:
+                    return df.getOWLInverseObjectPropertiesAxiom(
+                            objectProperty(), objectProperty(), a);
+                case HAS_KEY: {
+                    OWLClassExpression ce = classExpression();
+                    int size = readVarint();
+                    Set<OWLPropertyExpression<?, ?>> properties = new HashSet<OWLPropertyExpression<?, ?>>();
+                    for (int i = 0; i < size; i++) {
+                        properties.add(read(OWLPropertyExpression.class));
+                    }
+                    return df.getOWLHasKeyAxiom(ce, properties, a);
+                }
+                case DATATYPE_DEFINITION:
+                    return df.getOWLDatatypeDefinitionAxiom(
+                            read(OWLDatatype.class), dataRange(), a);
+                case SWRL_RULE:
+                    return df.getSWRLRule(readSet(SWRLAtom.class),
+                            readSet(SWRLAtom.class), a);
+                case ANNOTATION_ASSERTION:
+                    return df.getOWLAnnotationAssertionAxiom(
+                            annotationProperty(),
+                            read(OWLAnnotationSubject.class),
+                            read(OWLAnnotationValue.class), a);
+                case SUB_ANNOTATION_PROPERTY_OF:
+                    return df.getOWLSubAnnotationPropertyOfAxiom(
+                            annotationProperty(), annotationProperty(), a);
+                case ANNOTATION_PROPERTY_DOMAIN:
+                    return df.getOWLAnnotationPropertyDomainAxiom(
+                            annotationProperty(), readIRI(), a);
+                default:
+                    return df.getOWLAnnotationPropertyRangeAxiom(
+                            annotationProperty(), readIRI(), a);
+            }
+        }
+
+        OWLObject readObject() {
+            int tag = readVarint();
+            switch (tag) {
+                case CLASS:
+                case OBJECT_PROPERTY:
+                case DATA_PROPERTY:
+                case NAMED_INDIVIDUAL:
+                case DATATYPE:
+                case ANNOTATION_PROPERTY:
+                    return getEntity(tag, readVarint());
+                case ANONYMOUS_INDIVIDUAL:
+                    return getAnonymousIndividual(readString());
+                case OBJECT_INVERSE_OF:
+                    return df.getOWLObjectInverseOf(objectProperty());
+                case LITERAL:
+                    return getLiteral(readVarint());
+                case IRI_VALUE:
+                    return readIRI();
+                case FACET_RESTRICTION: {
+                    OWLFacet facet = OWLFacet.getFacet(readIRI());
+                    if (facet == null) {
+                        throw new OWLParserException("Unknown facet before "
+                                + pos);
+                    }
+                    return df.getOWLFacetRestriction(facet, literal());
+                }
+                case ANNOTATION: {
+                    Set<OWLAnnotation> a = readAnnotations();
+                    return df.getOWLAnnotation(annotationProperty(),
+                            read(OWLAnnotationValue.class), a);
+                }
+                case OBJECT_INTERSECTION_OF:
+                    return df.getOWLObjectIntersectionOf(readSet(OWLClassExpression.class));
+                case OBJECT_UNION_OF:
+                    return df.getOWLObjectUnionOf(readSet(OWLClassExpression.class));
+                case OBJECT_COMPLEMENT_OF:
+                    return df.getOWLObjectComplementOf(classExpression());
+                case OBJECT_SOME_VALUES_FROM:
+                    return df.getOWLObjectSomeValuesFrom(objectProperty(),
+                            classExpression());
+                case OBJECT_ALL_VALUES_FROM:
+                    return df.getOWLObjectAllValuesFrom(objectProperty(),
+                            classExpression());
+                case OBJECT_HAS_VALUE:
+                    return df.getOWLObjectHasValue(objectProperty(),
+                            individual());
+                case OBJECT_MIN_CARDINALITY:
+                    return df.getOWLObjectMinCardinality(readVarint(),
+                            objectProperty(), classExpression());
+                case OBJECT_EXACT_CARDINALITY:
+                    return df.getOWLObjectExactCardinality(readVarint(),
+                            objectProperty(), classExpression());
+                case OBJECT_MAX_CARDINALITY:
+                    return df.getOWLObjectMaxCardinality(readVarint(),
+                            objectProperty(), classExpression());
+                case OBJECT_HAS_SELF:
+                    return df.getOWLObjectHasSelf(objectProperty());
+                case OBJECT_ONE_OF:
+                    return df.getOWLObjectOneOf(readSet(OWLIndividual.class));
+                case DATA_SOME_VALUES_FROM:
+                    return df.getOWLDataSomeValuesFrom(dataProperty(),
+                            dataRange());
+                case DATA_ALL_VALUES_FROM:
+                    return df.getOWLDataAllValuesFrom(dataProperty(),
+                            dataRange());
+                case DATA_HAS_VALUE:
+                    return df.getOWLDataHasValue(dataProperty(), literal());
+                case DATA_MIN_CARDINALITY:
+                    return df.getOWLDataMinCardinality(readVarint(),
+                            dataProperty(), dataRange());
+                case DATA_EXACT_CARDINALITY:
+                    return df.getOWLDataExactCardinality(readVarint(),
+                            dataProperty(), dataRange());
+                case DATA_MAX_CARDINALITY:
+                    return df.getOWLDataMaxCardinality(readVarint(),
+                            dataProperty(), dataRange());
+                case DATA_ONE_OF:
+                    return df.getOWLDataOneOf(readSet(OWLLiteral.class));
+                case DATA_COMPLEMENT_OF:
+                    return df.getOWLDataComplementOf(dataRange());
+                case DATA_INTERSECTION_OF:
+                    return df.getOWLDataIntersectionOf(readSet(OWLDataRange.class));
+                case DATA_UNION_OF:
+                    return df.getOWLDataUnionOf(readSet(OWLDataRange.class));
+                case DATATYPE_RESTRICTION:
+                    return df.getOWLDatatypeRestriction(
+                            read(OWLDatatype.class),
+                            readSet(OWLFacetRestriction.class));
+                case SWRL_CLASS_ATOM:
+                    return df.getSWRLClassAtom(classExpression(), iArgument());
+                case SWRL_DATA_RANGE_ATOM:
+                    return df.getSWRLDataRangeAtom(dataRange(), dArgument());
+                case SWRL_OBJECT_PROPERTY_ATOM:
+                    return df.getSWRLObjectPropertyAtom(objectProperty(),
+                            iArgument(), iArgument());
+                case SWRL_DATA_PROPERTY_ATOM:
+                    return df.getSWRLDataPropertyAtom(dataProperty(),
+                            iArgument(), dArgument());
+                case SWRL_BUILT_IN_ATOM:
+                    return df.getSWRLBuiltInAtom(readIRI(),
+                            readList(SWRLDArgument.class));
+                case SWRL_VARIABLE:
+                    return df.getSWRLVariable(readIRI());
+                case SWRL_INDIVIDUAL_ARGUMENT:
+                    return df.getSWRLIndividualArgument(individual());
+                case SWRL_LITERAL_ARGUMENT:
+                    return df.getSWRLLiteralArgument(literal());
+                case SWRL_SAME_INDIVIDUAL_ATOM:
+                    return df.getSWRLSameIndividualAtom(iArgument(),
+                            iArgument());
+                case SWRL_DIFFERENT_INDIVIDUALS_ATOM:
+                    return df.getSWRLDifferentIndividualsAtom(iArgument(),
+                            iArgument());
+                default:
+                    throw new OWLParserException("Unknown tag " + tag
+                            + " before " + pos);
+            }
+        }
+    }
+}
@@ -0,0 +1,1007 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.io;
+
+import static org.semanticweb.owlapi.io.BinaryOWLConstants.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnnotationPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAsymmetricObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLDataAllValuesFrom;
+import org.semanticweb.owlapi.model.OWLDataComplementOf;
+import org.semanticweb.owlapi.model.OWLDataExactCardinality;
+import org.semanticweb.owlapi.model.OWLDataHasValue;
+import org.semanticweb.owlapi.model.OWLDataIntersectionOf;
+import org.semanticweb.owlapi.model.OWLDataMaxCardinality;
+import org.semanticweb.owlapi.model.OWLDataMinCardinality;
+import org.semanticweb.owlapi.model.OWLDataOneOf;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDataPropertyAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLDataPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLDataPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLDataSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLDataUnionOf;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLDatatypeDefinitionAxiom;
+import org.semanticweb.owlapi.model.OWLDatatypeRestriction;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLDifferentIndividualsAxiom;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
+import org.semanticweb.owlapi.model.OWLDisjointDataPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLDisjointObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLDisjointUnionAxiom;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLEquivalentDataPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLEquivalentObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLFunctionalDataPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLFunctionalObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLHasKeyAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLInverseFunctionalObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLInverseObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLIrreflexiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLNegativeDataPropertyAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLNegativeObjectPropertyAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectAllValuesFrom;
+import org.semanticweb.owlapi.model.OWLObjectComplementOf;
+import org.semanticweb.owlapi.model.OWLObjectExactCardinality;
+import org.semanticweb.owlapi.model.OWLObjectHasSelf;
+import org.semanticweb.owlapi.model.OWLObjectHasValue;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectInverseOf;
+import org.semanticweb.owlapi.model.OWLObjectMaxCardinality;
+import org.semanticweb.owlapi.model.OWLObjectMinCardinality;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLObjectUnionOf;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLReflexiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.model.OWLSameIndividualAxiom;
+import org.semanticweb.owlapi.model.OWLSubAnnotationPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubDataPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.model.OWLSymmetricObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.SWRLBuiltInAtom;
+import org.semanticweb.owlapi.model.SWRLClassAtom;
+import org.semanticweb.owlapi.model.SWRLDataPropertyAtom;
+import org.semanticweb.owlapi.model.SWRLDataRangeAtom;
+import org.semanticweb.owlapi.model.SWRLDifferentIndividualsAtom;
+import org.semanticweb.owlapi.model.SWRLIndividualArgument;
+import org.semanticweb.owlapi.model.SWRLLiteralArgument;
+import org.semanticweb.owlapi.model.SWRLObjectPropertyAtom;
+import org.semanticweb.owlapi.model.SWRLRule;
+import org.semanticweb.owlapi.model.SWRLSameIndividualAtom;
+import org.semanticweb.owlapi.model.SWRLVariable;
+import org.semanticweb.owlapi.util.OWLObjectVisitorAdapter;
+
+/**
+ * Writes an ontology in a compact binary encoding that can be read back by
+ * {@link BinaryOWLDecoder} without parsing any text. The encoding is
+ * dictionary based: every IRI and every literal is stored once, in a table at
+ * the start of the document, and is referred to by its index everywhere else.
+ * The layout of a document is:
+ *
+ * <pre>
+ * magic "OWLB", version
+ * IRI table:      count, (length, UTF-8 bytes)*
+ * literal table:  count, (datatype IRI index, language, lexical form)*
+ * prefix table:   count, (prefix name, prefix)*
+ * header:         ontology IRI index + 1, version IRI index + 1 (0 if absent),
+ *                 imports, ontology annotations
+ * axioms:         count, (length, tag, annotations, operands)*
+ * </pre>
+ *
+ * All integers are unsigned varints and all strings are a length followed by
+ * UTF-8 bytes. Each axiom record starts with its length, so that a reader can
+ * skip axioms without decoding them. An encoder instance is not thread safe,
+ * but it can be reused for several ontologies.
+ */
+public class BinaryOWLEncoder {
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+    private final Map<IRI, Integer> iris = new LinkedHashMap<IRI, Integer>();
+    private final Map<OWLLiteral, Integer> literals = new LinkedHashMap<OWLLiteral, Integer>();
+    private final Writer writer = new Writer();
+    private ByteSink sink;
+    private boolean unresolved;
+
+    /**
+     * Writes the axioms, imports and annotations of an ontology.
+     *
+     * @param ontology
+     *        the ontology to write
+     * @param prefixes
+     *        prefix names and prefixes to store with the ontology, can be
+     *        empty
+     * @param out
+     *        the stream to write to; it is not closed
+     * @throws IOException
+     *         if the stream cannot be written
+     */
+    public void write(OWLOntology ontology, Map<String, String> prefixes,
+            OutputStream out) throws IOException {
+        iris.clear();
+        literals.clear();
+        try {
+            ByteSink header = new ByteSink();
+            sink = header;
+            OWLOntologyID id = ontology.getOntologyID();
+            writeOptionalIRI(id.getOntologyIRI());
+            writeOptionalIRI(id.getVersionIRI());
+            Set<OWLImportsDeclaration> imports = ontology
+                    .getImportsDeclarations();
+            header.writeVarint(imports.size());
+            for (OWLImportsDeclaration decl : imports) {
+                header.writeVarint(index(decl.getIRI()));
+            }
+            writeAll(ontology.getAnnotations());
+            final ByteSink axioms = new ByteSink();
+            final ByteSink record = new ByteSink();
+            final int[] count = new int[1];
+            OWLAxiomProcessor<OWLAxiom> processor = new OWLAxiomProcessor<OWLAxiom>() {
+
+                @Override
+                public boolean process(OWLAxiom axiom) {
+                    record.reset();
+                    sink = record;
+                    axiom.accept(writer);
+                    axioms.writeVarint(record.size());
+                    axioms.write(record);
+                    count[0]++;
+                    return true;
+                }
+            };
+            for (AxiomType<?> type : AxiomType.AXIOM_TYPES) {
+                ontology.processAxioms(type, processor);
+            }
+            // the literal table adds datatype IRIs to the IRI table, so it is
+            // built before the IRI table is written
+            ByteSink literalTable = new ByteSink();
+            literalTable.writeVarint(literals.size());
+            for (OWLLiteral literal : literals.keySet()) {
+                literalTable.writeVarint(index(literal.getDatatype().getIRI()));
+                literalTable.writeString(literal.getLang());
+                literalTable.writeString(literal.getLiteral());
+            }
+            ByteSink tables = new ByteSink();
+            tables.writeBytes(MAGIC, MAGIC.length);
+            tables.writeVarint(VERSION);
+            tables.writeVarint(iris.size());
+            for (IRI iri : iris.keySet()) {
+                tables.writeString(iri.toString());
+            }
+            tables.write(literalTable);
+            tables.writeVarint(prefixes.size());
+            for (Map.Entry<String, String> e : prefixes.entrySet()) {
+                tables.writeString(e.getKey());
+                tables.writeString(e.getValue());
+            }
+            tables.writeTo(out);
+            header.writeTo(out);
+            ByteSink axiomCount = new ByteSink();
+            axiomCount.writeVarint(count[0]);
+            axiomCount.writeTo(out);
+            axioms.writeTo(out);
+            out.flush();
+        } finally {
+            sink = null;
+            iris.clear();
+            literals.clear();
+        }
+    }
+
+    /**
+     * Encodes a single object, such as an axiom or an index key, against the
+     * IRI and literal tables of this encoder. The encoding of an axiom is the
+     * content of its record, without the length. This is meant for subclasses
+     * that override {@link #getIndex(IRI)}, {@link #getIndex(OWLLiteral)} and
+     * {@link #getNodeID(OWLAnonymousIndividual)} to resolve IRIs, literals and
+     * anonymous individuals against an existing document.
+     *
+     * @param object
+     *        the object to encode
+     * @return the encoding, or null if the object mentions an IRI, a literal
+     *         or an anonymous individual that cannot be resolved
+     */
+    public byte[] encode(OWLObject object) {
+        ByteSink s = new ByteSink();
+        sink = s;
+        unresolved = false;
+        try {
+            object.accept(writer);
+        } finally {
+            sink = null;
+        }
+        return unresolved ? null : s.toByteArray();
+    }
+
+    /**
+     * @param iri
+     *        the IRI to look up
+     * @return the index of the IRI in the IRI table; by default IRIs that are
+     *         not in the table yet are added to it. Subclasses can return -1
+     *         for IRIs that cannot be resolved.
+     */
+    protected int getIndex(IRI iri) {
+        Integer i = iris.get(iri);
+        if (i == null) {
+            i = Integer.valueOf(iris.size());
+            iris.put(iri, i);
+        }
+        return i.intValue();
+    }
+
+    /**
+     * @param literal
+     *        the literal to look up
+     * @return the index of the literal in the literal table; by default
+     *         literals that are not in the table yet are added to it.
+     *         Subclasses can return -1 for literals that cannot be resolved.
+     */
+    protected int getIndex(OWLLiteral literal) {
+        Integer i = literals.get(literal);
+        if (i == null) {
+            i = Integer.valueOf(literals.size());
+            literals.put(literal, i);
+        }
+        return i.intValue();
+    }
+
+    /**
+     * @param individual
+     *        the anonymous individual to write
+     * @return the node ID written for the individual; by default its own ID.
+     *         Subclasses can return null for individuals that cannot be
+     *         resolved.
+     */
+    protected String getNodeID(OWLAnonymousIndividual individual) {
+        return individual.getID().getID();
+    }
+
+    private int index(IRI iri) {
+        return resolved(getIndex(iri));
+    }
+
+    private int index(OWLLiteral literal) {
+        return resolved(getIndex(literal));
+    }
+
+    private int resolved(int index) {
+        if (index < 0) {
+            unresolved = true;
+            return 0;
+        }
+        return index;
+    }
+
+    private void writeOptionalIRI(IRI iri) {
+        sink.writeVarint(iri == null ? 0 : index(iri) + 1);
+    }
+
+    private void write(OWLObject object) {
+        object.accept(writer);
+    }
+
+    private void writeAll(Collection<? extends OWLObject> objects) {
+        sink.writeVarint(objects.size());
+        Collection<? extends OWLObject> ordered = objects;
+        // sets are written in sorted order, so that equal objects always
+        // have the same encoding; lists keep their order
+        if (objects.size() > 1 && objects instanceof Set
+                && !(objects instanceof SortedSet)) {
+            ordered = new TreeSet<OWLObject>(objects);
+        }
+        for (OWLObject o : ordered) {
+            o.accept(writer);
+        }
+    }
+
+    private void writeAxiomStart(int tag, OWLAxiom axiom) {
+        sink.writeVarint(tag);
+        writeAll(axiom.getAnnotations());
+    }
+
+    private void writeEntity(int tag, IRI iri) {
+        sink.writeVarint(tag);
+        sink.writeVarint(index(iri));
+    }
+
+    /** Writes the records of all the objects that can occur in axioms. */
+    private class Writer extends OWLObjectVisitorAdapter {
+
+        Writer() {}
+
+        @Override
+        protected void handleDefault(OWLObject owlObject) {
+            throw new OWLRuntimeException("Cannot encode " + owlObject);
+        }
+
+        // axioms
+        @Override
+        public void visit(OWLDeclarationAxiom axiom) {
+            writeAxiomStart(DECLARATION, axiom);
+            write(axiom.getEntity());
+        }
+
+        @Override
+        public void visit(OWLSubClassOfAxiom axiom) {
+            writeAxiomStart(SUBCLASS_OF, axiom);
+            write(axiom.getSubClass());
+            write(axiom.getSuperClass());
+        }
+
+        @Override
+        public void visit(OWLNegativeObjectPropertyAssertionAxiom axiom) {
+            writeAxiomStart(NEGATIVE_OBJECT_PROPERTY_ASSERTION, axiom);
+            write(axiom.getProperty());
+            write(axiom.getSubject());
+            write(axiom.getObject());
+        }
+
+        @Override
+        public void visit(OWLAsymmetricObjectPropertyAxiom axiom) {
+            writeAxiomStart(ASYMMETRIC_OBJECT_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLReflexiveObjectPropertyAxiom axiom) {
+            writeAxiomStart(REFLEXIVE_OBJECT_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLDisjointClassesAxiom axiom) {
+            writeAxiomStart(DISJOINT_CLASSES, axiom);
+            writeAll(axiom.getClassExpressions());
+        }
+
+        @Override
+        public void visit(OWLDataPropertyDomainAxiom axiom) {
+            writeAxiomStart(DATA_PROPERTY_DOMAIN, axiom);
+            write(axiom.getProperty());
+            write(axiom.getDomain());
+        }
+
+        @Override
+        public void visit(OWLObjectPropertyDomainAxiom axiom) {
+            writeAxiomStart(OBJECT_PROPERTY_DOMAIN, axiom);
+            write(axiom.getProperty());
+            write(axiom.getDomain());
+        }
+
+        @Override
+        public void visit(OWLEquivalentObjectPropertiesAxiom axiom) {
+            writeAxiomStart(EQUIVALENT_OBJECT_PROPERTIES, axiom);
+            writeAll(axiom.getProperties());
+        }
+
+        @Override
+        public void visit(OWLNegativeDataPropertyAssertionAxiom axiom) {
+            writeAxiomStart(NEGATIVE_DATA_PROPERTY_ASSERTION, axiom);
+            write(axiom.getProperty());
+            write(axiom.getSubject());
+            write(axiom.getObject());
+        }
+
+        @Override
+        public void visit(OWLDifferentIndividualsAxiom axiom) {
+            writeAxiomStart(DIFFERENT_INDIVIDUALS, axiom);
+            writeAll(axiom.getIndividuals());
+        }
+
+        @Override
+        public void visit(OWLDisjointDataPropertiesAxiom axiom) {
+            writeAxiomStart(DISJOINT_DATA_PROPERTIES, axiom);
+            writeAll(axiom.getProperties());
+        }
+
+        @Override
+        public void visit(OWLDisjointObjectPropertiesAxiom axiom) {
+            writeAxiomStart(DISJOINT_OBJECT_PROPERTIES, axiom);
+            writeAll(axiom.getProperties());
+        }
+
+        @Override
+        public void visit(OWLObjectPropertyRangeAxiom axiom) {
+            writeAxiomStart(OBJECT_PROPERTY_RANGE, axiom);
+            write(axiom.getProperty());
+            write(axiom.getRange());
+        }
+
+        @Override
+        public void visit(OWLObjectPropertyAssertionAxiom axiom) {
+            writeAxiomStart(OBJECT_PROPERTY_ASSERTION, axiom);
+            write(axiom.getProperty());
+            write(axiom.getSubject());
+            write(axiom.getObject());
+        }
+
+        @Override
+        public void visit(OWLFunctionalObjectPropertyAxiom axiom) {
+            writeAxiomStart(FUNCTIONAL_OBJECT_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLSubObjectPropertyOfAxiom axiom) {
+            writeAxiomStart(SUB_OBJECT_PROPERTY, axiom);
+            write(axiom.getSubProperty());
+            write(axiom.getSuperProperty());
+        }
+
+        @Override
+        public void visit(OWLDisjointUnionAxiom axiom) {
+            writeAxiomStart(DISJOINT_UNION, axiom);
+            write(axiom.getOWLClass());
+            writeAll(axiom.getClassExpressions());
+        }
+
+        @Override
+        public void visit(OWLSymmetricObjectPropertyAxiom axiom) {
+            writeAxiomStart(SYMMETRIC_OBJECT_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLDataPropertyRangeAxiom axiom) {
+            writeAxiomStart(DATA_PROPERTY_RANGE, axiom);
+            write(axiom.getProperty());
+            write(axiom.getRange());
+        }
+
+        @Override
+        public void visit(OWLFunctionalDataPropertyAxiom axiom) {
+            writeAxiomStart(FUNCTIONAL_DATA_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLEquivalentDataPropertiesAxiom axiom) {
+            writeAxiomStart(EQUIVALENT_DATA_PROPERTIES, axiom);
+            writeAll(axiom.getProperties());
+        }
+
+        @Override
+        public void visit(OWLClassAssertionAxiom axiom) {
+            writeAxiomStart(CLASS_ASSERTION, axiom);
+            write(axiom.getClassExpression());
+            write(axiom.getIndividual());
+        }
+
+        @Override
+        public void visit(OWLEquivalentClassesAxiom axiom) {
+            writeAxiomStart(EQUIVALENT_CLASSES, axiom);
+            writeAll(axiom.getClassExpressions());
+        }
+
+        @Override
+        public void visit(OWLDataPropertyAssertionAxiom axiom) {
+            writeAxiomStart(DATA_PROPERTY_ASSERTION, axiom);
+            write(axiom.getProperty());
+            write(axiom.getSubject());
+            write(axiom.getObject());
+        }
+
+        @Override
+        public void visit(OWLTransitiveObjectPropertyAxiom axiom) {
+            writeAxiomStart(TRANSITIVE_OBJECT_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLIrreflexiveObjectPropertyAxiom axiom) {
+            writeAxiomStart(IRREFLEXIVE_OBJECT_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLSubDataPropertyOfAxiom axiom) {
+            writeAxiomStart(SUB_DATA_PROPERTY, axiom);
+            write(axiom.getSubProperty());
+            write(axiom.getSuperProperty());
+        }
+
+        @Override
+        public void visit(OWLInverseFunctionalObjectPropertyAxiom axiom) {
+            writeAxiomStart(INVERSE_FUNCTIONAL_OBJECT_PROPERTY, axiom);
+            write(axiom.getProperty());
+        }
+
+        @Override
+        public void visit(OWLSameIndividualAxiom axiom) {
+            writeAxiomStart(SAME_INDIVIDUAL, axiom);
+            writeAll(axiom.getIndividuals());
+        }
+
+        @Override
+        public void visit(OWLSubPropertyChainOfAxiom axiom) {
+            writeAxiomStart(SUB_PROPERTY_CHAIN_OF, axiom);
+            writeAll(axiom.getPropertyChain());
+            write(axiom.getSuperProperty());
+        }
+
+        @Override
+        public void visit(OWLInverseObjectPropertiesAxiom axiom) {
+            writeAxiomStart(INVERSE_OBJECT_PROPERTIES, axiom);
+            write(axiom.getFirstProperty());
+            write(axiom.getSecondProperty());
+        }
+
+        @Override
+        public void visit(OWLHasKeyAxiom axiom) {
+            writeAxiomStart(HAS_KEY, axiom);
+            write(axiom.getClassExpression());
+            writeAll(axiom.getPropertyExpressions());
+        }
+
+        @Override
+        public void visit(OWLDatatypeDefinitionAxiom axiom) {
+            writeAxiomStart(DATATYPE_DEFINITION, axiom);
+            write(axiom.getDatatype());
+            write(axiom.getDataRange());
+        }
+
+        @Override
+        public void visit(SWRLRule rule) {
+            writeAxiomStart(SWRL_RULE, rule);
+            writeAll(rule.getBody());
+            writeAll(rule.getHead());
+        }
+
+        @Override
+        public void visit(OWLAnnotationAssertionAxiom axiom) {
+            writeAxiomStart(ANNOTATION_ASSERTION, axiom);
+            write(axiom.getProperty());
+            write(axiom.getSubject());
+            write(axiom.getValue());
+        }
+
+        @Override
+        public void visit(OWLSubAnnotationPropertyOfAxiom axiom) {
+            writeAxiomStart(SUB_ANNOTATION_PROPERTY_OF, axiom);
+            write(axiom.getSubProperty());
+            write(axiom.getSuperProperty());
+        }
+
+        @Override
+        public void visit(OWLAnnotationPropertyDomainAxiom axiom) {
+            writeAxiomStart(ANNOTATION_PROPERTY_DOMAIN, axiom);
+            write(axiom.getProperty());
+            sink.writeVarint(index(axiom.getDomain()));
+        }
+
+        @Override
+        public void visit(OWLAnnotationPropertyRangeAxiom axiom) {
+            writeAxiomStart(ANNOTATION_PROPERTY_RANGE, axiom);
+            write(axiom.getProperty());
+            sink.writeVarint(index(axiom.getRange()));
+        }
+
+        // entities and other leaves
+        @Override
+        public void visit(OWLClass desc) {
+            writeEntity(CLASS, desc.getIRI());
+        }
+
+        @Override
+        public void visit(OWLObjectProperty property) {
+            writeEntity(OBJECT_PROPERTY, property.getIRI());
+        }
+
+        @Override
+        public void visit(OWLDataProperty property) {
+            writeEntity(DATA_PROPERTY, property.getIRI());
+        }
+
+        @Override
+        public void visit(OWLNamedIndividual individual) {
+            writeEntity(NAMED_INDIVIDUAL, individual.getIRI());
+        }
+
+        @Override
+        public void visit(OWLDatatype node) {
+            writeEntity(DATATYPE, node.getIRI());
+        }
+
+        @Override
+        public void visit(OWLAnnotationProperty property) {
+            writeEntity(ANNOTATION_PROPERTY, property.getIRI());
+        }
+
+        @Override
+        public void visit(OWLAnonymousIndividual individual) {
+            sink.writeVarint(ANONYMOUS_INDIVIDUAL);
+            String nodeID = getNodeID(individual);
+            if (nodeID == null) {
+                unresolved = true;
+                nodeID = "";
+            }
+            sink.writeString(nodeID);
+        }
+
+        @Override
+        public void visit(OWLObjectInverseOf property) {
+            sink.writeVarint(OBJECT_INVERSE_OF);
+            write(property.getInverse());
+        }
+
+        @Override
+        public void visit(OWLLiteral node) {
+            sink.writeVarint(LITERAL);
+            sink.writeVarint(index(node));
+        }
+
+        @Override
+        public void visit(IRI iri) {
+            writeEntity(IRI_VALUE, iri);
+        }
+
+        @Override
+        public void visit(OWLFacetRestriction node) {
+            sink.writeVarint(FACET_RESTRICTION);
+            sink.writeVarint(index(node.getFacet().getIRI()));
+            write(node.getFacetValue());
+        }
+
+        @Override
+        public void visit(OWLAnnotation node) {
+            sink.writeVarint(ANNOTATION);
+            writeAll(node.getAnnotations());
+            write(node.getProperty());
+            write(node.getValue());
+        }
+
+        // class expressions
+        @Override
+        public void visit(OWLObjectIntersectionOf desc) {
+            sink.writeVarint(OBJECT_INTERSECTION_OF);
+            writeAll(desc.getOperands());
+        }
+
+        @Override
+        public void visit(OWLObjectUnionOf desc) {
+            sink.writeVarint(OBJECT_UNION_OF);
+            writeAll(desc.getOperands());
+        }
+
+        @Override
+        public void visit(OWLObjectComplementOf desc) {
+            sink.writeVarint(OBJECT_COMPLEMENT_OF);
+            write(desc.getOperand());
+        }
+
+        @Override
+        public void visit(OWLObjectSomeValuesFrom desc) {
+            sink.writeVarint(OBJECT_SOME_VALUES_FROM);
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLObjectAllValuesFrom desc) {
+            sink.writeVarint(OBJECT_ALL_VALUES_FROM);
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLObjectHasValue desc) {
+            sink.writeVarint(OBJECT_HAS_VALUE);
+            write(desc.getProperty());
+            write(desc.getValue());
+        }
+
+        @Override
+        public void visit(OWLObjectMinCardinality desc) {
+            sink.writeVarint(OBJECT_MIN_CARDINALITY);
+            sink.writeVarint(desc.getCardinality());
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLObjectExactCardinality desc) {
+            sink.writeVarint(OBJECT_EXACT_CARDINALITY);
+            sink.writeVarint(desc.getCardinality());
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLObjectMaxCardinality desc) {
+            sink.writeVarint(OBJECT_MAX_CARDINALITY);
+            sink.writeVarint(desc.getCardinality());
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLObjectHasSelf desc) {
+            sink.writeVarint(OBJECT_HAS_SELF);
+            write(desc.getProperty());
+        }
+
+        @Override
+        public void visit(OWLObjectOneOf desc) {
+            sink.writeVarint(OBJECT_ONE_OF);
+            writeAll(desc.getIndividuals());
+        }
+
+        @Override
+        public void visit(OWLDataSomeValuesFrom desc) {
+            sink.writeVarint(DATA_SOME_VALUES_FROM);
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLDataAllValuesFrom desc) {
+            sink.writeVarint(DATA_ALL_VALUES_FROM);
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLDataHasValue desc) {
+            sink.writeVarint(DATA_HAS_VALUE);
+            write(desc.getProperty());
+            write(desc.getValue());
+        }
+
+        @Override
+        public void visit(OWLDataMinCardinality desc) {
+            sink.writeVarint(DATA_MIN_CARDINALITY);
+            sink.writeVarint(desc.getCardinality());
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLDataExactCardinality desc) {
+            sink.writeVarint(DATA_EXACT_CARDINALITY);
+            sink.writeVarint(desc.getCardinality());
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        @Override
+        public void visit(OWLDataMaxCardinality desc) {
+            sink.writeVarint(DATA_MAX_CARDINALITY);
+            sink.writeVarint(desc.getCardinality());
+            write(desc.getProperty());
+            write(desc.getFiller());
+        }
+
+        // data ranges
+        @Override
+        public void visit(OWLDataOneOf node) {
+            sink.writeVarint(DATA_ONE_OF);
+            writeAll(node.getValues());
+        }
+
+        @Override
+        public void visit(OWLDataComplementOf node) {
+            sink.writeVarint(DATA_COMPLEMENT_OF);
+            write(node.getDataRange());
+        }
+
+        @Override
+        public void visit(OWLDataIntersectionOf node) {
+            sink.writeVarint(DATA_INTERSECTION_OF);
+            writeAll(node.getOperands());
+        }
+
+        @Override
+        public void visit(OWLDataUnionOf node) {
+            sink.writeVarint(DATA_UNION_OF);
+            writeAll(node.getOperands());
+        }
+
+        @Override
+        public void visit(OWLDatatypeRestriction node) {
+            sink.writeVarint(DATATYPE_RESTRICTION);
+            write(node.getDatatype());
+            writeAll(node.getFacetRestrictions());
+        }
+
+        // SWRL
+        @Override
+        public void visit(SWRLClassAtom node) {
+            sink.writeVarint(SWRL_CLASS_ATOM);
+            write(node.getPredicate());
+            write(node.getArgument());
+        }
+
+        @Override
+        public void visit(SWRLDataRangeAtom node) {
+            sink.writeVarint(SWRL_DATA_RANGE_ATOM);
+            write(node.getPredicate());
+            write(node.getArgument());
+        }
+
+        @Override
+        public void visit(SWRLObjectPropertyAtom node) {
+            sink.writeVarint(SWRL_OBJECT_PROPERTY_ATOM);
+            write(node.getPredicate());
+            write(node.getFirstArgument());
+            write(node.getSecondArgument());
+        }
+
+        @Override
+        public void visit(SWRLDataPropertyAtom node) {
+            sink.writeVarint(SWRL_DATA_PROPERTY_ATOM);
+            write(node.getPredicate());
+            write(node.getFirstArgument());
+            write(node.getSecondArgument());
+        }
+
+        @Override
+        public void visit(SWRLBuiltInAtom node) {
+            sink.writeVarint(SWRL_BUILT_IN_ATOM);
+            sink.writeVarint(index(node.getPredicate()));
+            writeAll(node.getArguments());
+        }
+
+        @Override
+        public void visit(SWRLVariable node) {
+            writeEntity(SWRL_VARIABLE, node.getIRI());
+        }
+
+        @Override
+        public void visit(SWRLIndividualArgument node) {
+            sink.writeVarint(SWRL_INDIVIDUAL_ARGUMENT);
+            write(node.getIndividual());
+        }
+
+        @Override
+        public void visit(SWRLLiteralArgument node) {
+            sink.writeVarint(SWRL_LITERAL_ARGUMENT);
+            write(node.getLiteral());
+        }
+
+        @Override
+        public void visit(SWRLSameIndividualAtom node) {
+            sink.writeVarint(SWRL_SAME_INDIVIDUAL_ATOM);
+            write(node.getFirstArgument());
+            write(node.getSecondArgument());
+        }
+
+        @Override
+        public void visit(SWRLDifferentIndividualsAtom node) {
+            sink.writeVarint(SWRL_DIFFERENT_INDIVIDUALS_ATOM);
+            write(node.getFirstArgument());
+            write(node.getSecondArgument());
+        }
+    }
+
+    /** A growable, unsynchronized byte buffer. */
+    private static class ByteSink {
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        ByteSink() {}
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                byte[] b = new byte[Math.max(bytes.length * 2, size + extra)];
+                System.arraycopy(bytes, 0, b, 0, size);
+                bytes = b;
+            }
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            int v = value;
+            while ((v & ~0x7F) != 0) {
+                bytes[size++] = (byte) (v & 0x7F | 0x80);
+                v >>>= 7;
+            }
+            bytes[size++] = (byte) v;
+        }
+
+        void writeBytes(byte[] b, int length) {
+            ensure(length);
+            System.arraycopy(b, 0, bytes, size, length);
+            size += length;
+        }
+
+        void writeString(String s) {
+            byte[] b = s.getBytes(UTF8);
+            writeVarint(b.length);
+            writeBytes(b, b.length);
+        }
+
+        void write(ByteSink other) {
+            writeBytes(other.bytes, other.size);
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+        }
+
+        byte[] toByteArray() {
+            byte[] b = new byte[size];
+            System.arraycopy(bytes, 0, b, 0, size);
+            return b;
+        }
+    }
+}
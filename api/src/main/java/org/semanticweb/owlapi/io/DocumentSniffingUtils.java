@@ -0,0 +1,161 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.io;
+
+/**
+ * Helpers for {@link OWLDocumentFormatSniffer} implementations, which look at
+ * the start of a document without parsing it.
+ */
+public final class DocumentSniffingUtils {
+
+    private DocumentSniffingUtils() {}
+
+    /**
+     * @param text
+     *        the start of a document
+     * @param lineComment
+     *        the string starting a line comment in the document format, or
+     *        {@code null} if the format has no line comments
+     * @return the text from the first character which is not whitespace, a
+     *         byte order mark or part of a comment; the empty string if there
+     *         is no such character
+     */
+    public static String skipWhitespaceAndComments(String text,
+            String lineComment) {
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == '\uFEFF') {
+                i++;
+            } else if (lineComment != null
+                    && text.startsWith(lineComment, i)) {
+                int end = text.indexOf('\n', i);
+                if (end < 0) {
+                    return "";
+                }
+                i = end + 1;
+            } else {
+                return text.substring(i);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * @param text
+     *        the start of a document
+     * @param keyword
+     *        the keyword to look for
+     * @param separator
+     *        the character expected after the keyword, possibly after some
+     *        whitespace
+     * @return true if {@code text} starts with {@code keyword} followed by
+     *         {@code separator}
+     */
+    public static boolean startsWithKeyword(String text, String keyword,
+            char separator) {
+        if (!text.startsWith(keyword)) {
+            return false;
+        }
+        for (int i = keyword.length(); i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == separator) {
+                return true;
+            }
+            if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param text
+     *        the start of an XML document
+     * @return the start tag of the root element, without the angle brackets,
+     *         e.g., {@code rdf:RDF xmlns:rdf="..."}; the tag may be truncated
+     *         if it does not end within {@code text}. {@code null} if
+     *         {@code text} does not look like XML or the root element does
+     *         not start within {@code text}.
+     */
+    public static String getXMLRootElement(String text) {
+        String rest = skipWhitespaceAndComments(text, null);
+        while (rest.startsWith("<")) {
+            String end;
+            if (rest.startsWith("<?")) {
+                end = "?>";
+            } else if (rest.startsWith("<!--")) {
+                end = "-->";
+            } else if (rest.startsWith("<!")) {
+                // document type declaration, possibly with an internal subset
+                int subset = rest.indexOf('[');
+                int close = rest.indexOf('>');
+                end = subset >= 0 && subset < close ? "]>" : ">";
+            } else {
+                int close = rest.indexOf('>');
+                return close < 0 ? rest.substring(1) : rest
+                        .substring(1, close);
+            }
+            int index = rest.indexOf(end);
+            if (index < 0) {
+                return null;
+            }
+            rest = skipWhitespaceAndComments(
+                    rest.substring(index + end.length()), null);
+        }
+        return null;
+    }
+
+    /**
+     * @param rootElement
+     *        a start tag, as returned by {@link #getXMLRootElement(String)}
+     * @return the local name of the element
+     */
+    public static String getLocalName(String rootElement) {
+        int end = 0;
+        while (end < rootElement.length()
+                && !Character.isWhitespace(rootElement.charAt(end))
+                && rootElement.charAt(end) != '/') {
+            end++;
+        }
+        String name = rootElement.substring(0, end);
+        return name.substring(name.indexOf(':') + 1);
+    }
+}
@@ -38,8 +38,28 @@
  */
 package org.semanticweb.owlapi.io;
 
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+
 /**
  * @author Matthew Horridge, The University of Manchester, Bio-Health Informatics
  *         Group, Date: 21/12/2010
  */
-public interface OWLOntologyLoaderMetaData {}
+public interface OWLOntologyLoaderMetaData {
+
+    /**
+     * @return the format that the document appeared to be in, judging from its
+     *         first few kilobytes, before any parser was tried; {@code null}
+     *         if the format was not recognized or the ontology was not loaded
+     *         through a parser
+     */
+    OWLOntologyFormat getDetectedFormat();
+
+    /**
+     * @return the parsers tried when loading the document, in order, with the
+     *         time spent by each; the last attempt is the successful one. Empty
+     *         if the ontology was not loaded through a parser.
+     */
+    List<OWLParserAttempt> getParserAttempts();
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.io;
+
+import java.io.Serializable;
+
+/**
+ * Records one attempt at parsing a document with a parser, as made by an
+ * ontology factory which tries several parsers in turn.
+ */
+public class OWLParserAttempt implements Serializable {
+
+    private static final long serialVersionUID = 30406L;
+    private final String parserName;
+    private final long time;
+    private final boolean successful;
+
+    /**
+     * @param parserName
+     *        the class name of the parser
+     * @param time
+     *        the time spent in the attempt, in nanoseconds
+     * @param successful
+     *        true if the parser parsed the document
+     */
+    public OWLParserAttempt(String parserName, long time, boolean successful) {
+        this.parserName = parserName;
+        this.time = time;
+        this.successful = successful;
+    }
+
+    /** @return the class name of the parser */
+    public String getParserName() {
+        return parserName;
+    }
+
+    /** @return the time spent in the attempt, in nanoseconds */
+    public long getTime() {
+        return time;
+    }
+
+    /** @return true if the parser parsed the document */
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    @Override
+    public String toString() {
+        return parserName
+                + (successful ? " parsed the document in " : " failed after ")
+                + time / 1000000 + " ms";
+    }
+}
@@ -38,7 +38,6 @@
  */
 package org.semanticweb.owlapi.io;
 
-import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -49,8 +48,7 @@ import org.semanticweb.owlapi.util.CollectionFactory;
  *         Group, Date: 21/12/2010
  * @since 3.2
  */
-public class RDFParserMetaData implements OWLOntologyLoaderMetaData,
-        Serializable {
+public class RDFParserMetaData extends AbstractOWLOntologyLoaderMetaData {
 
     private static final long serialVersionUID = 30406L;
     private final int tripleCount;
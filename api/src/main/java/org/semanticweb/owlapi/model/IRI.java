@@ -46,7 +46,7 @@ import java.util.Collections;
 import java.util.Set;
 
 import org.semanticweb.owlapi.io.XMLUtils;
-import org.semanticweb.owlapi.util.WeakCache;
+import org.semanticweb.owlapi.util.ConcurrentWeakCache;
 import org.semanticweb.owlapi.vocab.Namespaces;
 import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 
@@ -231,9 +231,10 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
         int index = XMLUtils.getNCNameSuffixIndex(str);
         if (index < 0) {
             // no ncname
-            return new IRI(str, null);
+            return intern(new IRI(str, null));
         }
-        return new IRI(str.substring(0, index), str.substring(index));
+        return intern(new IRI(str.substring(0, index), str
+                .substring(index)));
     }
 
     /**
@@ -264,7 +265,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
                 // the prefix does not contain an ncname character and there is
                 // no illegal character in the suffix
                 // the split is therefore correct
-                return new IRI(prefix, suffix);
+                return intern(new IRI(prefix, suffix));
             }
             // otherwise the split is wrong; we could obtain the right split by
             // using index and test, but it's just as easy to use the other
@@ -282,7 +283,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
         if (file == null) {
             throw new NullPointerException("file cannot be null");
         }
-        return new IRI(file.toURI());
+        return intern(new IRI(file.toURI()));
     }
 
     /**
@@ -294,7 +295,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
         if (uri == null) {
             throw new NullPointerException("uri cannot be null");
         }
-        return new IRI(uri);
+        return intern(new IRI(uri));
     }
 
     /**
@@ -308,7 +309,7 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
         if (url == null) {
             throw new NullPointerException("url cannot be null");
         }
-        return new IRI(url.toURI());
+        return intern(new IRI(url.toURI()));
     }
 
     /**
@@ -330,7 +331,16 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
     // ///////////////////////////////////////////////////////////////////////////////////////////////////////
     // ///////////////////////////////////////////////////////////////////////////////////////////////////////
     private static final long serialVersionUID = 30406L;
-    private static WeakCache<String> prefixCache = new WeakCache<String>();
+    private static final ConcurrentWeakCache<String> prefixCache = new ConcurrentWeakCache<String>();
+    /** system property that switches IRI pooling on at startup */
+    public static final String POOLING_PROPERTY_NAME = "owlapi.poolIRIs";
+    /**
+     * pool of the IRIs created through the factory methods; equal IRIs share
+     * one instance for as long as any of them is referenced
+     */
+    private static final ConcurrentWeakCache<IRI> pool = new ConcurrentWeakCache<IRI>();
+    private static volatile boolean pooling = Boolean
+            .getBoolean(POOLING_PROPERTY_NAME);
     private final String remainder;
     private final String prefix;
     private int hashCode = 0;
@@ -357,6 +367,47 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
         this(uri.toString());
     }
 
+    /**
+     * @param iri
+     *        a newly created IRI
+     * @return the pooled instance equal to iri, or iri itself if there is none
+     */
+    private static IRI intern(IRI iri) {
+        if (pooling) {
+            return pool.cache(iri);
+        }
+        return iri;
+    }
+
+    /**
+     * Pooling makes equal IRIs created by the factory methods share one
+     * instance, which saves memory and speeds up equality checks when the same
+     * IRIs are created many times, as when parsing large ontologies. It is off
+     * by default, since it slows down the creation of IRIs that are mostly
+     * distinct and short lived. The initial value is read from the
+     * {@value #POOLING_PROPERTY_NAME} system property.
+     * 
+     * @param b
+     *        true if IRIs created from now on should be pooled
+     */
+    public static void setPooling(boolean b) {
+        pooling = b;
+    }
+
+    /** @return true if IRIs created by the factory methods are pooled */
+    public static boolean isPooling() {
+        return pooling;
+    }
+
+    /**
+     * Deserialized IRIs are pooled as well, if pooling is on.
+     * 
+     * @return the pooled instance equal to this IRI, if any
+     */
+    protected Object readResolve() {
+        return intern(this);
+    }
+
     @Override
     public int length() {
         return prefix.length() + (remainder == null ? 0 : remainder.length());
@@ -458,9 +509,12 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
             return -1;
         }
         IRI other = (IRI) o;
-        int diff = prefix.compareTo(other.prefix);
-        if (diff != 0) {
-            return diff;
+        // prefixes are cached, so equal prefixes are usually the same string
+        if (prefix != other.prefix) {
+            int diff = prefix.compareTo(other.prefix);
+            if (diff != 0) {
+                return diff;
+            }
         }
         String otherRemainder = other.remainder;
         if (remainder == null) {
@@ -531,6 +585,11 @@ public class IRI implements OWLAnnotationSubject, OWLAnnotationValue,
             return false;
         }
         IRI other = (IRI) obj;
+        // pooled IRIs are caught by the identity check above; otherwise,
+        // cached hash codes are checked before comparing the strings
+        if (hashCode != 0 && other.hashCode != 0 && hashCode != other.hashCode) {
+            return false;
+        }
         String otherRemainder = other.remainder;
         if (remainder == null) {
             return otherRemainder == null && prefix.equals(other.prefix);
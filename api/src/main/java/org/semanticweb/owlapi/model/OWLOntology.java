@@ -1316,6 +1316,108 @@ public interface OWLOntology extends OWLObject, HasAxioms, HasLogicalAxioms,
     Set<OWLAnnotationAssertionAxiom> getAnnotationAssertionAxioms(
             OWLAnnotationSubject entity);
 
+    // ////////////////////////////////////////////////////////////////////////////////////////////
+    //
+    // Traversal without copies
+    //
+    // ////////////////////////////////////////////////////////////////////////////////////////////
+    /**
+     * Passes the axioms of the specified type to the processor, without
+     * copying them into a new set. The processor must not modify this
+     * ontology.
+     * 
+     * @param axiomType
+     *        The type of axioms to be traversed
+     * @param processor
+     *        The processor that receives the axioms
+     * @param <T>
+     *        axiom type
+     * @return true if all axioms were processed, false if the processor
+     *         stopped the traversal
+     */
+    <T extends OWLAxiom> boolean processAxioms(AxiomType<T> axiomType,
+            OWLAxiomProcessor<? super T> processor);
+
+    /**
+     * Passes the axioms that reference the specified entity to the processor,
+     * without copying them into a new set. The processor must not modify this
+     * ontology.
+     * 
+     * @param owlEntity
+     *        The entity that should be directly referred to by the axioms
+     * @param processor
+     *        The processor that receives the axioms
+     * @return true if all axioms were processed, false if the processor
+     *         stopped the traversal
+     * @see #getReferencingAxioms(OWLEntity)
+     */
+    boolean processReferencingAxioms(OWLEntity owlEntity,
+            OWLAxiomProcessor<? super OWLAxiom> processor);
+
+    /**
+     * Passes the axioms that define the specified class to the processor,
+     * without copying them into a new set. The processor must not modify this
+     * ontology.
+     * 
+     * @param cls
+     *        The class whose axioms are to be traversed
+     * @param processor
+     *        The processor that receives the axioms
+     * @return true if all axioms were processed, false if the processor
+     *         stopped the traversal
+     * @see #getAxioms(OWLClass)
+     */
+    boolean processAxioms(OWLClass cls,
+            OWLAxiomProcessor<? super OWLClassAxiom> processor);
+
+    /**
+     * Passes the subclass axioms whose subclass is the specified class to the
+     * processor, without copying them into a new set. The processor must not
+     * modify this ontology.
+     * 
+     * @param cls
+     *        The class that is equal to the left hand side of the axioms
+     * @param processor
+     *        The processor that receives the axioms
+     * @return true if all axioms were processed, false if the processor
+     *         stopped the traversal
+     * @see #getSubClassAxiomsForSubClass(OWLClass)
+     */
+    boolean processSubClassAxiomsForSubClass(OWLClass cls,
+            OWLAxiomProcessor<? super OWLSubClassOfAxiom> processor);
+
+    /**
+     * Passes the subclass axioms whose superclass is the specified class to
+     * the processor, without copying them into a new set. The processor must
+     * not modify this ontology.
+     * 
+     * @param cls
+     *        The class that is equal to the right hand side of the axioms
+     * @param processor
+     *        The processor that receives the axioms
+     * @return true if all axioms were processed, false if the processor
+     *         stopped the traversal
+     * @see #getSubClassAxiomsForSuperClass(OWLClass)
+     */
+    boolean processSubClassAxiomsForSuperClass(OWLClass cls,
+            OWLAxiomProcessor<? super OWLSubClassOfAxiom> processor);
+
+    /**
+     * Passes the equivalent classes axioms that contain the specified class as
+     * an operand to the processor, without copying them into a new set. The
+     * processor must not modify this ontology.
+     * 
+     * @param cls
+     *        The class that appears as an operand of the axioms
+     * @param processor
+     *        The processor that receives the axioms
+     * @return true if all axioms were processed, false if the processor
+     *         stopped the traversal
+     * @see #getEquivalentClassesAxioms(OWLClass)
+     */
+    boolean processEquivalentClassesAxioms(OWLClass cls,
+            OWLAxiomProcessor<? super OWLEquivalentClassesAxiom> processor);
+
     // ////////////////////////////////////////////////////////////////////////////////////////////
     //
     // Classes
@@ -42,6 +42,7 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.semanticweb.owlapi.io.AbstractOWLOntologyLoaderMetaData;
 import org.semanticweb.owlapi.io.OWLOntologyLoaderMetaData;
 import org.semanticweb.owlapi.vocab.PrefixOWLOntologyFormat;
 
@@ -163,8 +164,8 @@ public abstract class OWLOntologyFormat implements Serializable {
         return getClass().hashCode();
     }
 
-    private static class NullLoaderMetaData implements
-            OWLOntologyLoaderMetaData, Serializable {
+    private static class NullLoaderMetaData extends
+            AbstractOWLOntologyLoaderMetaData {
 
         private static final long serialVersionUID = 30406L;
 
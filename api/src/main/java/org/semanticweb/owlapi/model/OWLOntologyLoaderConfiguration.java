@@ -82,6 +82,10 @@ public final class OWLOntologyLoaderConfiguration {
     private boolean followRedirects = true;
     private MissingImportHandlingStrategy missingImportHandlingStrategy = MissingImportHandlingStrategy.THROW_EXCEPTION;
     private final Set<IRI> ignoredImports = new HashSet<IRI>();
+    private int indexBuildThreads = 0;
+    private boolean streamingTranslation = false;
+    private int parsingThreads = 0;
+    private int importLoadingThreads = 0;
 
     /** default constructor */
     public OWLOntologyLoaderConfiguration() {
@@ -372,6 +376,135 @@ public final class OWLOntologyLoaderConfiguration {
         return reportStackTraces;
     }
 
+    /**
+     * By default, the indexes of a loaded ontology are built lazily, the first
+     * time a query needs them; this makes the first queries after loading
+     * slower than the following ones. If the number of index build threads is
+     * positive, all indexes are built right after parsing, using the specified
+     * number of threads.
+     * 
+     * @param threads
+     *        number of threads used to build the indexes after parsing; 0 to
+     *        build indexes lazily
+     * @return An {@code OWLOntologyLoaderConfiguration} object with the option
+     *         set.
+     */
+    public OWLOntologyLoaderConfiguration setIndexBuildThreads(int threads) {
+        // do not make copies if setting the same value
+        if (indexBuildThreads == threads) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration copy = copyConfiguration();
+        copy.indexBuildThreads = threads;
+        return copy;
+    }
+
+    /**
+     * @return number of threads used to build the indexes after parsing; 0 if
+     *         indexes are built lazily
+     */
+    public int getIndexBuildThreads() {
+        return indexBuildThreads;
+    }
+
+    /**
+     * RDF parsers normally keep the triples they cannot translate right away
+     * until the whole document has been read, so that the types of all
+     * entities are known when the triples are translated. With streaming
+     * translation, triples between named nodes whose predicate is already
+     * known to be an object, data or annotation property are translated into
+     * axioms as soon as they are parsed, and only the rest is kept in memory.
+     * This reduces the memory needed to parse large documents, but the
+     * translation of such triples depends only on the declarations parsed
+     * before them; documents that declare properties after using them, or
+     * that pun property names, can therefore be translated differently.
+     * 
+     * @param value
+     *        true if triples should be translated while streaming
+     * @return An {@code OWLOntologyLoaderConfiguration} object with the option
+     *         set.
+     */
+    public OWLOntologyLoaderConfiguration setStreamingTranslation(boolean value) {
+        // do not make copies if setting the same value
+        if (streamingTranslation == value) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration copy = copyConfiguration();
+        copy.streamingTranslation = value;
+        return copy;
+    }
+
+    /**
+     * @return true if triples whose translation is known while parsing are
+     *         translated immediately rather than at the end of the document
+     */
+    public boolean isStreamingTranslation() {
+        return streamingTranslation;
+    }
+
+    /**
+     * Parsers that can split a document into independent parts, such as the
+     * functional syntax parser, can parse the parts on several threads. The
+     * axioms are still added to the ontology in document order.
+     * 
+     * @param threads
+     *        number of threads used to parse a document; 0 or 1 to parse on
+     *        the calling thread only
+     * @return An {@code OWLOntologyLoaderConfiguration} object with the option
+     *         set.
+     */
+    public OWLOntologyLoaderConfiguration setParsingThreads(int threads) {
+        // do not make copies if setting the same value
+        if (parsingThreads == threads) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration copy = copyConfiguration();
+        copy.parsingThreads = threads;
+        return copy;
+    }
+
+    /**
+     * @return number of threads used to parse a document; 0 or 1 if parsing
+     *         happens on the calling thread only
+     */
+    public int getParsingThreads() {
+        return parsingThreads;
+    }
+
+    /**
+     * Imports are loaded one at a time, when the parser of the importing
+     * document reaches the imports declaration. With this option, the manager
+     * looks for imports declarations at the start of each document as soon as
+     * the document is opened, and fetches the documents of the imports closure
+     * on a pool of threads, so that they are already in memory when their
+     * parsers need them. Documents are still parsed and added to the manager
+     * in the usual order, so missing imports are handled as usual.
+     * 
+     * @param threads
+     *        number of threads used to fetch imported documents; 0 to fetch
+     *        each document when it is loaded
+     * @return An {@code OWLOntologyLoaderConfiguration} object with the option
+     *         set.
+     */
+    public OWLOntologyLoaderConfiguration setImportLoadingThreads(int threads) {
+        // do not make copies if setting the same value
+        if (importLoadingThreads == threads) {
+            return this;
+        }
+        OWLOntologyLoaderConfiguration copy = copyConfiguration();
+        copy.importLoadingThreads = threads;
+        return copy;
+    }
+
+    /**
+     * @return number of threads used to fetch the documents of the imports
+     *         closure ahead of parsing; 0 if each document is fetched when it
+     *         is loaded
+     */
+    public int getImportLoadingThreads() {
+        return importLoadingThreads;
+    }
+
     /**
      * Internally copies this configuaration object.
      * 
@@ -387,6 +520,10 @@ public final class OWLOntologyLoaderConfiguration {
         copy.missingOntologyHeaderStrategy = missingOntologyHeaderStrategy;
         copy.followRedirects = followRedirects;
         copy.reportStackTraces = reportStackTraces;
+        copy.indexBuildThreads = indexBuildThreads;
+        copy.streamingTranslation = streamingTranslation;
+        copy.parsingThreads = parsingThreads;
+        copy.importLoadingThreads = importLoadingThreads;
         return copy;
     }
 }
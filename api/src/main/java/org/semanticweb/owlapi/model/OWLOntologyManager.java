@@ -288,6 +288,30 @@ public interface OWLOntologyManager extends OWLOntologySetProvider,
     List<OWLOntologyChange> addAxioms(OWLOntology ont,
             Set<? extends OWLAxiom> axioms);
 
+    /**
+     * Adds a large number of axioms to an ontology, such as all the axioms
+     * read by a parser. Unlike {@link #addAxioms(OWLOntology, Set)}, no change
+     * object is applied for each axiom: the axioms are added to the ontology
+     * in one batch, and the ontology change listeners receive a single
+     * notification with all the axioms that have been added. This
+     * notification is separate from those of any other changes, such as the
+     * imports, annotations and ID of the ontology set by a parser, which are
+     * notified in their own batches. Impending change
+     * listeners are not consulted, so the addition cannot be vetoed, and
+     * progress listeners are not notified. Axioms that are already in the
+     * ontology are skipped; annotation axioms are skipped if the manager does
+     * not load annotation axioms.
+     * 
+     * @param ont
+     *        The ontology to which the axioms should be added.
+     * @param axioms
+     *        The axioms to be added.
+     * @return the number of axioms actually added
+     * @throws OWLOntologyChangeException
+     *         if there was a problem adding the axioms
+     */
+    int addAxiomsInBulk(OWLOntology ont, Collection<? extends OWLAxiom> axioms);
+
     /**
      * A convenience method that adds a single axiom to an ontology. The
      * appropriate AddAxiom change object is automatically generated.
@@ -0,0 +1,344 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.profiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDatatypeDefinitionAxiom;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SetOntologyID;
+import org.semanticweb.owlapi.util.OWLObjectPropertyManager;
+
+/**
+ * Keeps the profile reports of an ontology and its imports closure up to date
+ * as the ontologies change. The checker listens to the changes of the manager
+ * of the ontology; the violations are kept axiom by axiom, and a change list
+ * only causes the axioms it adds to be checked, along with the axioms whose
+ * violations depend on global conditions the changes can affect:
+ * <ul>
+ * <li>the axioms referencing an entity whose declaration is added or removed;</li>
+ * <li>the axioms referencing an entity that shares its IRI with an entity in
+ * the signature of a changed axiom, for the checks on punning;</li>
+ * <li>the axioms referencing an object property whose simplicity changes, and
+ * the property chain axioms, when an axiom that can change the property
+ * hierarchy or the ranges of properties is added or removed; the simple
+ * properties are only computed again in this case;</li>
+ * <li>the datatype definitions and the axioms referencing a redefined
+ * datatype, when a datatype definition is added or removed.</li>
+ * </ul>
+ * Changes to the ontology annotations only cause the ontology headers to be
+ * checked again; changes to the imports or to the ontology IDs, which the
+ * violations refer to, cause the whole imports closure to be checked again.
+ * The reports are the same as those of an {@link OWLProfileChecker} for the
+ * same profiles; the profiles that are not built in are checked again
+ * whenever the reports are asked for. Call {@link #dispose()} to stop
+ * listening to the changes.
+ */
+public class IncrementalProfileChecker implements OWLOntologyChangeListener {
+
+    /**
+     * The axiom types that can change the property hierarchy, the simple
+     * properties or the ranges imposed on property chains.
+     */
+    private static final Set<AxiomType<?>> PROPERTY_TYPES = new HashSet<AxiomType<?>>(
+            Arrays.<AxiomType<?>> asList(AxiomType.SUB_OBJECT_PROPERTY,
+                    AxiomType.SUB_PROPERTY_CHAIN_OF,
+                    AxiomType.EQUIVALENT_OBJECT_PROPERTIES,
+                    AxiomType.INVERSE_OBJECT_PROPERTIES,
+                    AxiomType.TRANSITIVE_OBJECT_PROPERTY,
+                    AxiomType.SYMMETRIC_OBJECT_PROPERTY,
+                    AxiomType.OBJECT_PROPERTY_RANGE));
+    private final OWLOntology ontology;
+    private final OWLOntologyManager manager;
+    private final OWLProfileChecker checker;
+    /**
+     * For each ontology of the imports closure, the violations of each check
+     * by axiom; the violations of the ontology header are mapped to null. Only
+     * the axioms with violations are present. The ontologies are compared by
+     * identity, since their hash codes change with their IDs.
+     */
+    private final Map<OWLOntology, Map<OWLAxiom, List<Set<OWLProfileViolation>>>> violations = new IdentityHashMap<OWLOntology, Map<OWLAxiom, List<Set<OWLProfileViolation>>>>();
+    /**
+     * For each ontology of the imports closure, the non simple properties in
+     * its own imports closure.
+     */
+    private final Map<OWLOntology, Set<OWLObjectPropertyExpression>> nonSimpleProperties = new IdentityHashMap<OWLOntology, Set<OWLObjectPropertyExpression>>();
+
+    /**
+     * Checks the ontology and starts listening to its changes.
+     *
+     * @param ontology
+     *        the ontology to check
+     * @param profiles
+     *        the profiles to check
+     */
+    public IncrementalProfileChecker(OWLOntology ontology,
+            OWLProfile... profiles) {
+        this(ontology, Arrays.asList(profiles));
+    }
+
+    /**
+     * Checks the ontology and starts listening to its changes.
+     *
+     * @param ontology
+     *        the ontology to check
+     * @param profiles
+     *        the profiles to check
+     */
+    public IncrementalProfileChecker(OWLOntology ontology,
+            Collection<? extends OWLProfile> profiles) {
+        this.ontology = ontology;
+        manager = ontology.getOWLOntologyManager();
+        checker = new OWLProfileChecker(profiles);
+        checkAll();
+        manager.addOntologyChangeListener(this);
+    }
+
+    /** Stops listening to the changes of the ontologies. */
+    public void dispose() {
+        manager.removeOntologyChangeListener(this);
+    }
+
+    /** @return the ontology checked */
+    public OWLOntology getOntology() {
+        return ontology;
+    }
+
+    /**
+     * @return a report for each profile, in the order the profiles were given,
+     *         reflecting the current state of the ontologies
+     */
+    public Map<OWLProfile, OWLProfileReport> getReports() {
+        List<Set<OWLProfileViolation>> all = checker.newViolations();
+        for (Map<OWLAxiom, List<Set<OWLProfileViolation>>> byAxiom : violations
+                .values()) {
+            for (List<Set<OWLProfileViolation>> found : byAxiom.values()) {
+                for (int i = 0; i < found.size(); i++) {
+                    all.get(i).addAll(found.get(i));
+                }
+            }
+        }
+        return checker.getReports(ontology, all);
+    }
+
+    private void checkAll() {
+        violations.clear();
+        nonSimpleProperties.clear();
+        for (OWLOntology ont : ontology.getImportsClosure()) {
+            Map<OWLAxiom, List<Set<OWLProfileViolation>>> byAxiom = new HashMap<OWLAxiom, List<Set<OWLProfileViolation>>>();
+            violations.put(ont, byAxiom);
+            store(byAxiom, checker.walk(ont, true, ont.getAxioms(), manager));
+            nonSimpleProperties.put(ont, getNonSimpleProperties(ont));
+        }
+    }
+
+    private Set<OWLObjectPropertyExpression> getNonSimpleProperties(
+            OWLOntology ont) {
+        return new HashSet<OWLObjectPropertyExpression>(
+                new OWLObjectPropertyManager(manager, ont)
+                        .getNonSimpleProperties());
+    }
+
+    /** Files the violations found by each check under their axioms. */
+    private static void store(
+            Map<OWLAxiom, List<Set<OWLProfileViolation>>> byAxiom,
+            List<Set<OWLProfileViolation>> found) {
+        for (int i = 0; i < found.size(); i++) {
+            for (OWLProfileViolation v : found.get(i)) {
+                List<Set<OWLProfileViolation>> axiomViolations = byAxiom.get(v
+                        .getAxiom());
+                if (axiomViolations == null) {
+                    axiomViolations = new ArrayList<Set<OWLProfileViolation>>(
+                            found.size());
+                    for (int j = 0; j < found.size(); j++) {
+                        axiomViolations.add(new LinkedHashSet<OWLProfileViolation>(
+                                1));
+                    }
+                    byAxiom.put(v.getAxiom(), axiomViolations);
+                }
+                axiomViolations.get(i).add(v);
+            }
+        }
+    }
+
+    @Override
+    public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        Map<OWLOntology, Set<OWLAxiom>> toCheck = new IdentityHashMap<OWLOntology, Set<OWLAxiom>>();
+        Set<OWLOntology> headers = Collections
+                .newSetFromMap(new IdentityHashMap<OWLOntology, Boolean>());
+        Set<OWLEntity> declared = new HashSet<OWLEntity>();
+        Set<OWLEntity> referenced = new HashSet<OWLEntity>();
+        Set<OWLEntity> redefined = new HashSet<OWLEntity>();
+        boolean properties = false;
+        for (OWLOntologyChange change : changes) {
+            OWLOntology ont = change.getOntology();
+            if (!violations.containsKey(ont)) {
+                continue;
+            }
+            if (change.isImportChange() || change instanceof SetOntologyID) {
+                checkAll();
+                return;
+            }
+            if (!change.isAxiomChange()) {
+                headers.add(ont);
+                continue;
+            }
+            OWLAxiom axiom = change.getAxiom();
+            // the violations of added and removed axioms are all stale
+            violations.get(ont).remove(axiom);
+            getToCheck(toCheck, ont).add(axiom);
+            referenced.addAll(axiom.getSignature());
+            AxiomType<?> type = axiom.getAxiomType();
+            if (type == AxiomType.DECLARATION) {
+                declared.add(((OWLDeclarationAxiom) axiom).getEntity());
+            } else if (type == AxiomType.DATATYPE_DEFINITION) {
+                redefined.add(((OWLDatatypeDefinitionAxiom) axiom)
+                        .getDatatype());
+            } else if (PROPERTY_TYPES.contains(type)) {
+                properties = true;
+            }
+        }
+        Set<OWLOntology> closure = violations.keySet();
+        for (OWLEntity entity : referenced) {
+            for (OWLEntity pun : ontology.getEntitiesInSignature(
+                    entity.getIRI(), true)) {
+                if (!pun.equals(entity)) {
+                    declared.add(pun);
+                }
+            }
+        }
+        declared.addAll(redefined);
+        for (OWLOntology ont : closure) {
+            for (OWLEntity entity : declared) {
+                getToCheck(toCheck, ont).addAll(
+                        ont.getReferencingAxioms(entity));
+            }
+            if (!redefined.isEmpty()) {
+                getToCheck(toCheck, ont).addAll(
+                        ont.getAxioms(AxiomType.DATATYPE_DEFINITION));
+            }
+            if (properties) {
+                checkProperties(ont, getToCheck(toCheck, ont));
+            }
+        }
+        for (OWLOntology ont : closure) {
+            check(ont, headers.contains(ont), toCheck.get(ont));
+        }
+    }
+
+    private static Set<OWLAxiom> getToCheck(
+            Map<OWLOntology, Set<OWLAxiom>> toCheck, OWLOntology ont) {
+        Set<OWLAxiom> axioms = toCheck.get(ont);
+        if (axioms == null) {
+            axioms = new HashSet<OWLAxiom>();
+            toCheck.put(ont, axioms);
+        }
+        return axioms;
+    }
+
+    /**
+     * Computes the simple properties again, and adds the axioms affected by
+     * the changes of the property hierarchy to the axioms to check.
+     */
+    private void checkProperties(OWLOntology ont, Set<OWLAxiom> toCheck) {
+        Set<OWLObjectPropertyExpression> before = nonSimpleProperties.get(ont);
+        Set<OWLObjectPropertyExpression> after = getNonSimpleProperties(ont);
+        nonSimpleProperties.put(ont, after);
+        Set<OWLObjectPropertyExpression> changed = new HashSet<OWLObjectPropertyExpression>(
+                before);
+        changed.addAll(after);
+        if (changed.size() > Math.min(before.size(), after.size())) {
+            for (OWLObjectPropertyExpression p : changed) {
+                if (before.contains(p) != after.contains(p)) {
+                    toCheck.addAll(ont.getReferencingAxioms(p
+                            .getNamedProperty()));
+                }
+            }
+        }
+        // the checks on chains use the whole hierarchy and the ranges
+        toCheck.addAll(ont.getAxioms(AxiomType.SUB_PROPERTY_CHAIN_OF));
+    }
+
+    /**
+     * @param ont
+     *        the ontology
+     * @param header
+     *        true if the ontology header should be checked
+     * @param axioms
+     *        the axioms to check, which might not be in the ontology any
+     *        longer; can be null
+     */
+    private void check(OWLOntology ont, boolean header, Set<OWLAxiom> axioms) {
+        Map<OWLAxiom, List<Set<OWLProfileViolation>>> byAxiom = violations
+                .get(ont);
+        List<OWLAxiom> present = new ArrayList<OWLAxiom>();
+        if (axioms != null) {
+            for (OWLAxiom axiom : axioms) {
+                byAxiom.remove(axiom);
+                if (ont.containsAxiom(axiom)) {
+                    present.add(axiom);
+                }
+            }
+        }
+        if (header) {
+            byAxiom.remove(null);
+        }
+        if (header || !present.isEmpty()) {
+            store(byAxiom, checker.walk(ont, header, present, manager));
+        }
+    }
+}
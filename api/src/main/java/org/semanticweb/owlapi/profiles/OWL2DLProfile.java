@@ -107,24 +107,24 @@ public class OWL2DLProfile implements OWLProfile {
 
     @Override
     public OWLProfileReport checkOntology(OWLOntology ontology) {
-        OWL2Profile owl2Profile = new OWL2Profile();
-        OWLProfileReport report = owl2Profile.checkOntology(ontology);
-        Set<OWLProfileViolation> violations = new LinkedHashSet<OWLProfileViolation>();
-        if (!report.isInProfile()) {
-            // We won't be in the OWL 2 DL Profile then!
-            violations.addAll(report.getViolations());
-        }
-        OWLOntologyProfileWalker ontologyWalker = new OWLOntologyProfileWalker(
-                ontology.getImportsClosure());
-        OWL2DLProfileObjectVisitor visitor = new OWL2DLProfileObjectVisitor(
-                ontologyWalker, ontology.getOWLOntologyManager());
-        ontologyWalker.walkStructure(visitor);
-        violations.addAll(visitor.getProfileViolations());
-        return new OWLProfileReport(this, violations);
+        return OWLProfileChecker.checkOntology(this, OWL2DLProfile.class,
+                ontology);
+    }
+
+    /**
+     * @param walker
+     *        the walker the visitor is used with
+     * @param manager
+     *        the manager of the ontologies
+     * @return a visitor for the checks specific to this profile
+     */
+    ProfileVisitor createProfileVisitor(OWLOntologyWalker walker,
+            OWLOntologyManager manager) {
+        return new OWL2DLProfileObjectVisitor(walker, manager);
     }
 
     private static class OWL2DLProfileObjectVisitor extends
-            OWLOntologyWalkerVisitor<Object> {
+            OWLOntologyWalkerVisitor<Object> implements ProfileVisitor {
 
         private OWLObjectPropertyManager objectPropertyManager = null;
         private final OWLOntologyManager manager;
@@ -136,6 +136,7 @@ public class OWL2DLProfile implements OWLProfile {
             this.manager = manager;
         }
 
+        @Override
         public Set<OWLProfileViolation> getProfileViolations() {
             return new HashSet<OWLProfileViolation>(profileViolations);
         }
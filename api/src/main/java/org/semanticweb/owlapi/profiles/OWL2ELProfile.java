@@ -131,21 +131,24 @@ public class OWL2ELProfile implements OWLProfile {
 
     @Override
     public OWLProfileReport checkOntology(OWLOntology ontology) {
-        OWL2DLProfile profile = new OWL2DLProfile();
-        OWLProfileReport report = profile.checkOntology(ontology);
-        Set<OWLProfileViolation> violations = new HashSet<OWLProfileViolation>();
-        violations.addAll(report.getViolations());
-        OWLOntologyProfileWalker ontologyWalker = new OWLOntologyProfileWalker(
-                ontology.getImportsClosure());
-        OWL2ELProfileObjectVisitor visitor = new OWL2ELProfileObjectVisitor(
-                ontologyWalker, ontology.getOWLOntologyManager());
-        ontologyWalker.walkStructure(visitor);
-        violations.addAll(visitor.getProfileViolations());
-        return new OWLProfileReport(this, violations);
+        return OWLProfileChecker.checkOntology(this, OWL2ELProfile.class,
+                ontology);
+    }
+
+    /**
+     * @param walker
+     *        the walker the visitor is used with
+     * @param manager
+     *        the manager of the ontologies
+     * @return a visitor for the checks specific to this profile
+     */
+    ProfileVisitor createProfileVisitor(OWLOntologyWalker walker,
+            OWLOntologyManager manager) {
+        return new OWL2ELProfileObjectVisitor(walker, manager);
     }
 
     protected class OWL2ELProfileObjectVisitor extends
-            OWLOntologyWalkerVisitor<Object> {
+            OWLOntologyWalkerVisitor<Object> implements ProfileVisitor {
 
         private final OWLOntologyManager man;
         private OWLObjectPropertyManager propertyManager;
@@ -157,6 +160,7 @@ public class OWL2ELProfile implements OWLProfile {
             this.man = man;
         }
 
+        @Override
         public Set<OWLProfileViolation> getProfileViolations() {
             return new HashSet<OWLProfileViolation>(profileViolations);
         }
@@ -78,17 +78,24 @@ public class OWL2Profile implements OWLProfile {
 
     @Override
     public OWLProfileReport checkOntology(OWLOntology ontology) {
-        OWLOntologyProfileWalker walker = new OWLOntologyProfileWalker(
-                ontology.getImportsClosure());
-        OWL2ProfileObjectWalker visitor = new OWL2ProfileObjectWalker(walker,
-                ontology.getOWLOntologyManager());
-        walker.walkStructure(visitor);
-        Set<OWLProfileViolation> pv = visitor.getProfileViolations();
-        return new OWLProfileReport(this, pv);
+        return OWLProfileChecker.checkOntology(this, OWL2Profile.class,
+                ontology);
+    }
+
+    /**
+     * @param walker
+     *        the walker the visitor is used with
+     * @param manager
+     *        the manager of the ontologies
+     * @return a visitor for the checks specific to this profile
+     */
+    ProfileVisitor createProfileVisitor(OWLOntologyWalker walker,
+            OWLOntologyManager manager) {
+        return new OWL2ProfileObjectWalker(walker, manager);
     }
 
     private static class OWL2ProfileObjectWalker extends
-            OWLOntologyWalkerVisitor<Object> {
+            OWLOntologyWalkerVisitor<Object> implements ProfileVisitor {
 
         private final OWLOntologyManager man;
         private final Set<OWLProfileViolation> profileViolations = new HashSet<OWLProfileViolation>();
@@ -99,6 +106,7 @@ public class OWL2Profile implements OWLProfile {
             this.man = man;
         }
 
+        @Override
         public Set<OWLProfileViolation> getProfileViolations() {
             return new HashSet<OWLProfileViolation>(profileViolations);
         }
@@ -83,6 +83,7 @@ import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
 import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import org.semanticweb.owlapi.model.OWLObjectUnionOf;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLSameIndividualAxiom;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
@@ -136,19 +137,24 @@ public class OWL2QLProfile implements OWLProfile {
 
     @Override
     public OWLProfileReport checkOntology(OWLOntology ontology) {
-        OWL2DLProfile profile = new OWL2DLProfile();
-        OWLProfileReport report = profile.checkOntology(ontology);
-        Set<OWLProfileViolation> violations = new HashSet<OWLProfileViolation>();
-        violations.addAll(report.getViolations());
-        OWLOntologyProfileWalker walker = new OWLOntologyProfileWalker(
-                ontology.getImportsClosure());
-        OWL2QLObjectVisitor visitor = new OWL2QLObjectVisitor(walker);
-        walker.walkStructure(visitor);
-        violations.addAll(visitor.getProfileViolations());
-        return new OWLProfileReport(this, violations);
+        return OWLProfileChecker.checkOntology(this, OWL2QLProfile.class,
+                ontology);
     }
 
-    private class OWL2QLObjectVisitor extends OWLOntologyWalkerVisitor<Object> {
+    /**
+     * @param walker
+     *        the walker the visitor is used with
+     * @param manager
+     *        the manager of the ontologies
+     * @return a visitor for the checks specific to this profile
+     */
+    ProfileVisitor createProfileVisitor(OWLOntologyWalker walker,
+            OWLOntologyManager manager) {
+        return new OWL2QLObjectVisitor(walker);
+    }
+
+    private class OWL2QLObjectVisitor extends
+            OWLOntologyWalkerVisitor<Object> implements ProfileVisitor {
 
         private final Set<OWLProfileViolation> profileViolations = new HashSet<OWLProfileViolation>();
 
@@ -156,6 +162,7 @@ public class OWL2QLProfile implements OWLProfile {
             super(walker);
         }
 
+        @Override
         public Set<OWLProfileViolation> getProfileViolations() {
             return new HashSet<OWLProfileViolation>(profileViolations);
         }
@@ -80,6 +80,7 @@ import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
 import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import org.semanticweb.owlapi.model.OWLObjectUnionOf;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import org.semanticweb.owlapi.model.SWRLRule;
 import org.semanticweb.owlapi.util.OWLOntologyWalker;
@@ -141,19 +142,24 @@ public class OWL2RLProfile implements OWLProfile {
 
     @Override
     public OWLProfileReport checkOntology(OWLOntology ontology) {
-        OWL2DLProfile profile = new OWL2DLProfile();
-        OWLProfileReport report = profile.checkOntology(ontology);
-        Set<OWLProfileViolation> violations = new HashSet<OWLProfileViolation>();
-        violations.addAll(report.getViolations());
-        OWLOntologyProfileWalker walker = new OWLOntologyProfileWalker(
-                ontology.getImportsClosure());
-        OWL2RLObjectVisitor visitor = new OWL2RLObjectVisitor(walker);
-        walker.walkStructure(visitor);
-        violations.addAll(visitor.getProfileViolations());
-        return new OWLProfileReport(this, violations);
+        return OWLProfileChecker.checkOntology(this, OWL2RLProfile.class,
+                ontology);
     }
 
-    private class OWL2RLObjectVisitor extends OWLOntologyWalkerVisitor<Object> {
+    /**
+     * @param walker
+     *        the walker the visitor is used with
+     * @param manager
+     *        the manager of the ontologies
+     * @return a visitor for the checks specific to this profile
+     */
+    ProfileVisitor createProfileVisitor(OWLOntologyWalker walker,
+            OWLOntologyManager manager) {
+        return new OWL2RLObjectVisitor(walker);
+    }
+
+    private class OWL2RLObjectVisitor extends
+            OWLOntologyWalkerVisitor<Object> implements ProfileVisitor {
 
         private final Set<OWLProfileViolation> profileViolations = new HashSet<OWLProfileViolation>();
 
@@ -161,6 +167,7 @@ public class OWL2RLProfile implements OWLProfile {
             super(walker);
         }
 
+        @Override
         public Set<OWLProfileViolation> getProfileViolations() {
             return new HashSet<OWLProfileViolation>(profileViolations);
         }
@@ -323,7 +330,7 @@ public class OWL2RLProfile implements OWLProfile {
         @Override
         public Object visit(OWLDatatypeDefinitionAxiom axiom) {
             profileViolations.add(new UseOfIllegalAxiom(getCurrentOntology(),
-                    getCurrentAxiom()));
+                    axiom));
             return null;
         }
     }
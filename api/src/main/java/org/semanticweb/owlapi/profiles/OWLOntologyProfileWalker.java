@@ -38,12 +38,17 @@
  */
 package org.semanticweb.owlapi.profiles;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectVisitorEx;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.util.OWLOntologyWalker;
 import org.semanticweb.owlapi.util.StructureWalker;
@@ -56,43 +61,100 @@ import org.semanticweb.owlapi.util.StructureWalker;
  */
 public class OWLOntologyProfileWalker extends OWLOntologyWalker {
 
+    private final ProfileStructureWalker structureWalker = new ProfileStructureWalker(
+            this);
+
     /**
      * @param objects
      *        ontologies to walk
      */
     public OWLOntologyProfileWalker(Set<OWLOntology> objects) {
         super(objects);
-        setStructureWalker(new StructureWalker<OWLOntology>(this) {
+        setStructureWalker(structureWalker);
+    }
 
-            @Override
-            public void visit(OWLAnnotationAssertionAxiom axiom) {
-                process(axiom);
-                walkerCallback.setAxiom(axiom);
-                if (axiom.getSubject() instanceof IRI) {
-                    // do not visit anonymous nodes from annotations
-                    axiom.getSubject().accept(this);
+    /**
+     * Walks part of an ontology, dispatching every object to all the visitors.
+     * 
+     * @param ont
+     *        the ontology the axioms belong to
+     * @param header
+     *        true if the ontology itself and its annotations should be walked
+     * @param axioms
+     *        the axioms of the ontology to walk
+     * @param visitors
+     *        the visitors
+     */
+    void walkStructure(OWLOntology ont, boolean header,
+            Collection<OWLAxiom> axioms,
+            List<? extends OWLObjectVisitorEx<?>> visitors) {
+        structureWalker.visitors = visitors;
+        try {
+            ontology = ont;
+            ax = null;
+            if (header) {
+                structureWalker.process(ont);
+                for (OWLAnnotation anno : ont.getAnnotations()) {
+                    anno.accept(structureWalker);
                 }
-                axiom.getAnnotation().accept(this);
             }
+            for (OWLAxiom a : axioms) {
+                a.accept(structureWalker);
+            }
+        } finally {
+            structureWalker.visitors = null;
+        }
+    }
 
-            @Override
-            public void visit(OWLAnnotation node) {
-                process(node);
-                walkerCallback.setAnnotation(node);
-                node.getProperty().accept(this);
-                // only visit IRIs
-                if (node.getValue() instanceof IRI) {
-                    node.getValue().accept(this);
+    private static class ProfileStructureWalker extends
+            StructureWalker<OWLOntology> {
+
+        /** the visitors of a multiple dispatch walk, or null */
+        List<? extends OWLObjectVisitorEx<?>> visitors;
+
+        ProfileStructureWalker(OWLOntologyProfileWalker walker) {
+            super(walker);
+        }
+
+        @Override
+        protected void process(OWLObject object) {
+            if (visitors == null) {
+                super.process(object);
+            } else {
+                for (OWLObjectVisitorEx<?> v : visitors) {
+                    object.accept(v);
                 }
             }
+        }
 
-            @Override
-            public void visit(OWLDeclarationAxiom axiom) {
-                process(axiom);
-                walkerCallback.setAxiom(axiom);
-                // do not visit entities from declarations, only their IRIs
-                axiom.getEntity().getIRI().accept(this);
+        @Override
+        public void visit(OWLAnnotationAssertionAxiom axiom) {
+            process(axiom);
+            walkerCallback.setAxiom(axiom);
+            if (axiom.getSubject() instanceof IRI) {
+                // do not visit anonymous nodes from annotations
+                axiom.getSubject().accept(this);
             }
-        });
+            axiom.getAnnotation().accept(this);
+        }
+
+        @Override
+        public void visit(OWLAnnotation node) {
+            process(node);
+            walkerCallback.setAnnotation(node);
+            node.getProperty().accept(this);
+            // only visit IRIs
+            if (node.getValue() instanceof IRI) {
+                node.getValue().accept(this);
+            }
+        }
+
+        @Override
+        public void visit(OWLDeclarationAxiom axiom) {
+            process(axiom);
+            walkerCallback.setAxiom(axiom);
+            // do not visit entities from declarations, only their IRIs
+            axiom.getEntity().getIRI().accept(this);
+        }
     }
 }
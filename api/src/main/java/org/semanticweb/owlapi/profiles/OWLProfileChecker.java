@@ -0,0 +1,371 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.profiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+
+/**
+ * Checks an ontology and its imports closure against several profiles at
+ * once. The OWL 2 profiles build on each other: the OWL 2 DL checks include
+ * the OWL 2 checks, and the EL, QL and RL checks include the OWL 2 DL checks.
+ * Instead of running each profile on its own, which walks the imports closure
+ * once for every profile and again for every profile it builds on, the checker
+ * walks the imports closure once and dispatches every object to the visitors
+ * of all the checks needed, each check being made only once. With more than
+ * one thread, the axioms of large ontologies are split into chunks walked
+ * concurrently, each with its own visitors; the ontologies must then support
+ * concurrent queries, as the ontologies of a concurrent manager do.
+ * <p>
+ * The profiles {@link OWL2Profile}, {@link OWL2DLProfile},
+ * {@link OWL2ELProfile}, {@link OWL2QLProfile} and {@link OWL2RLProfile} are
+ * checked in the walk; any other profile, including subclasses of these, is
+ * checked separately with its own
+ * {@link OWLProfile#checkOntology(OWLOntology)}.
+ */
+public class OWLProfileChecker {
+
+    /** Number of axioms walked by one task. */
+    private static final int CHUNK_SIZE = 10000;
+    /** The built in profiles, checked in the walk. */
+    private static final List<Class<? extends OWLProfile>> BUILT_IN = Arrays
+            .<Class<? extends OWLProfile>> asList(OWL2ELProfile.class,
+                    OWL2QLProfile.class, OWL2RLProfile.class,
+                    OWL2DLProfile.class, OWL2Profile.class);
+    /** The profiles whose checks are made in the walk, one for each kind. */
+    private final List<OWLProfile> checks = new ArrayList<OWLProfile>();
+    private final List<Class<? extends OWLProfile>> checkKinds = new ArrayList<Class<? extends OWLProfile>>();
+    /**
+     * The profiles to report on, with the indexes of their checks, or null for
+     * the profiles checked separately.
+     */
+    private final Map<OWLProfile, int[]> profiles = new LinkedHashMap<OWLProfile, int[]>();
+    private int threads = 1;
+
+    /**
+     * @param profiles
+     *        the profiles to check
+     */
+    public OWLProfileChecker(OWLProfile... profiles) {
+        this(Arrays.asList(profiles));
+    }
+
+    /**
+     * @param profiles
+     *        the profiles to check
+     */
+    public OWLProfileChecker(Collection<? extends OWLProfile> profiles) {
+        for (OWLProfile profile : profiles) {
+            add(profile, getKind(profile));
+        }
+    }
+
+    private OWLProfileChecker(OWLProfile profile,
+            Class<? extends OWLProfile> kind) {
+        add(profile, kind);
+    }
+
+    /**
+     * Checks an ontology against a built in profile, or a subclass of one,
+     * with the checks of the built in class; the built in profiles implement
+     * {@link OWLProfile#checkOntology(OWLOntology)} with this.
+     *
+     * @param profile
+     *        the profile to report on
+     * @param kind
+     *        the built in class whose checks are made
+     * @param ontology
+     *        the ontology to check
+     * @return the report
+     */
+    static OWLProfileReport checkOntology(OWLProfile profile,
+            Class<? extends OWLProfile> kind, OWLOntology ontology) {
+        return new OWLProfileChecker(profile, kind).checkOntology(ontology)
+                .get(profile);
+    }
+
+    /**
+     * @param profile
+     *        the profile to check
+     * @param kind
+     *        the built in class whose checks are made, or null if the profile
+     *        is checked on its own
+     */
+    private void add(OWLProfile profile, Class<? extends OWLProfile> kind) {
+        if (kind == null) {
+            profiles.put(profile, null);
+        } else if (kind == OWL2Profile.class) {
+            profiles.put(profile,
+                    new int[] { getCheck(OWL2Profile.class, profile) });
+        } else if (kind == OWL2DLProfile.class) {
+            profiles.put(profile, new int[] {
+                    getCheck(OWL2Profile.class, null),
+                    getCheck(OWL2DLProfile.class, profile) });
+        } else {
+            profiles.put(profile, new int[] {
+                    getCheck(OWL2Profile.class, null),
+                    getCheck(OWL2DLProfile.class, null),
+                    getCheck(kind, profile) });
+        }
+    }
+
+    private static Class<? extends OWLProfile> getKind(OWLProfile profile) {
+        // subclasses may override checkOntology, so only the built in
+        // classes themselves are checked in the walk
+        if (BUILT_IN.contains(profile.getClass())) {
+            return profile.getClass();
+        }
+        return null;
+    }
+
+    /**
+     * @param kind
+     *        the kind of check
+     * @param profile
+     *        the profile to make the check with, or null for a new profile of
+     *        the kind
+     * @return the index of the check of the kind
+     */
+    private int getCheck(Class<? extends OWLProfile> kind, OWLProfile profile) {
+        int index = checkKinds.indexOf(kind);
+        if (index < 0) {
+            index = checks.size();
+            checkKinds.add(kind);
+            if (profile != null) {
+                checks.add(profile);
+            } else if (kind == OWL2Profile.class) {
+                checks.add(new OWL2Profile());
+            } else {
+                checks.add(new OWL2DLProfile());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Sets the number of threads walking the ontologies.
+     *
+     * @param threads
+     *        the number of threads; 1, the default, walks the ontologies on
+     *        the calling thread
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /** @return the number of threads walking the ontologies */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Checks an ontology and its imports closure against all the profiles.
+     *
+     * @param ontology
+     *        the ontology to check
+     * @return a report for each profile, in the order the profiles were given
+     */
+    public Map<OWLProfile, OWLProfileReport> checkOntology(OWLOntology ontology) {
+        List<Set<OWLProfileViolation>> violations = newViolations();
+        if (!checks.isEmpty()) {
+            walk(ontology, violations);
+        }
+        return getReports(ontology, violations);
+    }
+
+    /** @return an empty set of violations for each check */
+    List<Set<OWLProfileViolation>> newViolations() {
+        List<Set<OWLProfileViolation>> violations = new ArrayList<Set<OWLProfileViolation>>(
+                checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            violations.add(new LinkedHashSet<OWLProfileViolation>());
+        }
+        return violations;
+    }
+
+    /**
+     * @param ontology
+     *        the ontology checked
+     * @param violations
+     *        the violations found by each check
+     * @return a report for each profile; the profiles that are not built in
+     *         are checked now
+     */
+    Map<OWLProfile, OWLProfileReport> getReports(OWLOntology ontology,
+            List<Set<OWLProfileViolation>> violations) {
+        Map<OWLProfile, OWLProfileReport> reports = new LinkedHashMap<OWLProfile, OWLProfileReport>();
+        for (Map.Entry<OWLProfile, int[]> e : profiles.entrySet()) {
+            OWLProfile profile = e.getKey();
+            if (e.getValue() == null) {
+                reports.put(profile, profile.checkOntology(ontology));
+            } else {
+                Set<OWLProfileViolation> profileViolations = new LinkedHashSet<OWLProfileViolation>();
+                for (int check : e.getValue()) {
+                    profileViolations.addAll(violations.get(check));
+                }
+                reports.put(profile, new OWLProfileReport(profile,
+                        profileViolations));
+            }
+        }
+        return reports;
+    }
+
+    private void walk(OWLOntology ontology,
+            List<Set<OWLProfileViolation>> violations) {
+        final OWLOntologyManager manager = ontology.getOWLOntologyManager();
+        if (threads < 2) {
+            for (OWLOntology ont : ontology.getImportsClosure()) {
+                merge(violations, walk(ont, true, ont.getAxioms(), manager));
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Set<OWLProfileViolation>>>> results = new ArrayList<Future<List<Set<OWLProfileViolation>>>>();
+            for (final OWLOntology ont : ontology.getImportsClosure()) {
+                List<OWLAxiom> axioms = new ArrayList<OWLAxiom>(ont.getAxioms());
+                int start = 0;
+                do {
+                    final boolean header = start == 0;
+                    final List<OWLAxiom> chunk = axioms.subList(start,
+                            Math.min(start + CHUNK_SIZE, axioms.size()));
+                    results.add(executor
+                            .submit(new Callable<List<Set<OWLProfileViolation>>>() {
+
+                                @Override
+                                public List<Set<OWLProfileViolation>> call() {
+                                    return walk(ont, header, chunk, manager);
+                                }
+                            }));
+                    start += CHUNK_SIZE;
+                } while (start < axioms.size());
+            }
+            for (Future<List<Set<OWLProfileViolation>>> result : results) {
+                merge(violations, result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new OWLRuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void merge(List<Set<OWLProfileViolation>> violations,
+            List<Set<OWLProfileViolation>> found) {
+        for (int i = 0; i < found.size(); i++) {
+            violations.get(i).addAll(found.get(i));
+        }
+    }
+
+    /**
+     * Walks part of an ontology with new visitors for all the checks.
+     *
+     * @param ont
+     *        the ontology
+     * @param header
+     *        true if the ontology itself and its annotations should be walked
+     * @param axioms
+     *        the axioms to walk
+     * @param manager
+     *        the manager of the ontologies
+     * @return the violations found by each check
+     */
+    List<Set<OWLProfileViolation>> walk(OWLOntology ont, boolean header,
+            Collection<OWLAxiom> axioms, OWLOntologyManager manager) {
+        OWLOntologyProfileWalker walker = new OWLOntologyProfileWalker(
+                Collections.singleton(ont));
+        List<ProfileVisitor> visitors = new ArrayList<ProfileVisitor>(
+                checks.size());
+        for (OWLProfile check : checks) {
+            visitors.add(createProfileVisitor(check, walker, manager));
+        }
+        walker.walkStructure(ont, header, axioms, visitors);
+        List<Set<OWLProfileViolation>> found = new ArrayList<Set<OWLProfileViolation>>(
+                visitors.size());
+        for (ProfileVisitor visitor : visitors) {
+            found.add(visitor.getProfileViolations());
+        }
+        return found;
+    }
+
+    private static ProfileVisitor createProfileVisitor(OWLProfile check,
+            OWLOntologyProfileWalker walker, OWLOntologyManager manager) {
+        if (check instanceof OWL2ELProfile) {
+            return ((OWL2ELProfile) check).createProfileVisitor(walker,
+                    manager);
+        }
+        if (check instanceof OWL2QLProfile) {
+            return ((OWL2QLProfile) check).createProfileVisitor(walker,
+                    manager);
+        }
+        if (check instanceof OWL2RLProfile) {
+            return ((OWL2RLProfile) check).createProfileVisitor(walker,
+                    manager);
+        }
+        if (check instanceof OWL2DLProfile) {
+            return ((OWL2DLProfile) check).createProfileVisitor(walker,
+                    manager);
+        }
+        return ((OWL2Profile) check).createProfileVisitor(walker, manager);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A weakly linked cache - elements in the cache can be garbage collected - that
+ * can be used by many threads at once. This is the concurrent counterpart of
+ * {@link WeakCache}: elements are split among independently locked segments,
+ * and {@link #cache(Object)} is atomic, so equal elements cached by different
+ * threads at the same time are resolved to the same instance.
+ * 
+ * @param <K>
+ *        the cached type
+ */
+public class ConcurrentWeakCache<K> implements Serializable {
+
+    private static final long serialVersionUID = 30406L;
+    /** number of segments; must be a power of two */
+    private static final int SEGMENTS = 64;
+    private transient Segment<K>[] segments = createSegments();
+
+    /**
+     * Hash table entry; the entry is itself the weak reference to the cached
+     * element, so that each element costs a single reference object.
+     */
+    private static class Entry<K> extends WeakReference<K> {
+
+        final int hash;
+        Entry<K> next;
+
+        Entry(K k, int hash, Entry<K> next, ReferenceQueue<K> queue) {
+            super(k, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /** a chained hash table, guarded by its own monitor */
+    private static class Segment<K> {
+
+        @SuppressWarnings("unchecked")
+        Entry<K>[] table = new Entry[16];
+        int size;
+        final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+        /** removes the entries whose element has been collected */
+        void expunge() {
+            Reference<? extends K> ref;
+            while ((ref = queue.poll()) != null) {
+                Entry<?> e = (Entry<?>) ref;
+                int i = e.hash & table.length - 1;
+                Entry<K> previous = null;
+                for (Entry<K> p = table[i]; p != null; p = p.next) {
+                    if (p == e) {
+                        if (previous == null) {
+                            table[i] = p.next;
+                        } else {
+                            previous.next = p.next;
+                        }
+                        size--;
+                        break;
+                    }
+                    previous = p;
+                }
+            }
+        }
+
+        K get(Object k, int hash) {
+            for (Entry<K> e = table[hash & table.length - 1]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    K candidate = e.get();
+                    if (candidate != null && candidate.equals(k)) {
+                        return candidate;
+                    }
+                }
+            }
+            return null;
+        }
+
+        void add(K k, int hash) {
+            if (size >= table.length - (table.length >>> 2)) {
+                resize();
+            }
+            int i = hash & table.length - 1;
+            table[i] = new Entry<K>(k, hash, table[i], queue);
+            size++;
+        }
+
+        private void resize() {
+            @SuppressWarnings("unchecked")
+            Entry<K>[] newTable = new Entry[table.length * 2];
+            for (Entry<K> e : table) {
+                while (e != null) {
+                    Entry<K> next = e.next;
+                    int i = e.hash & newTable.length - 1;
+                    e.next = newTable[i];
+                    newTable[i] = e;
+                    e = next;
+                }
+            }
+            table = newTable;
+        }
+
+        @SuppressWarnings("unchecked")
+        void clear() {
+            table = new Entry[16];
+            size = 0;
+            while (queue.poll() != null) {
+                // discard: the entries are no longer in the table
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Segment<K>[] createSegments() {
+        Segment<K>[] toReturn = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            toReturn[i] = new Segment<K>();
+        }
+        return toReturn;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+        in.defaultReadObject();
+        segments = createSegments();
+    }
+
+    private static int hash(Object k) {
+        int h = k.hashCode();
+        // spread the bits, as in HashMap
+        h ^= h >>> 20 ^ h >>> 12;
+        return h ^ h >>> 7 ^ h >>> 4;
+    }
+
+    private Segment<K> segment(int hash) {
+        // the low bits select the bucket within the segment, so the segment
+        // is chosen by the top bits of a multiplicative hash
+        return segments[hash * 0x9E3779B9 >>> 26];
+    }
+
+    /**
+     * @param s
+     *        the value to cache
+     * @return the cached value
+     */
+    public K cache(K s) {
+        int hash = hash(s);
+        Segment<K> segment = segment(hash);
+        synchronized (segment) {
+            segment.expunge();
+            K toReturn = segment.get(s, hash);
+            if (toReturn != null) {
+                return toReturn;
+            }
+            segment.add(s, hash);
+            return s;
+        }
+    }
+
+    /**
+     * @param k
+     *        the key to check
+     * @return true if the cache contains k as a key; note that, due to the
+     *         nature of this cache, by the time the method returns the key may
+     *         no longer be in the map.
+     */
+    public boolean contains(K k) {
+        int hash = hash(k);
+        Segment<K> segment = segment(hash);
+        synchronized (segment) {
+            return segment.get(k, hash) != null;
+        }
+    }
+
+    /** empty the cache. */
+    public void clear() {
+        for (Segment<K> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A weakly linked cache - values in the cache can be garbage collected - that
+ * can be used by many threads at once. Unlike {@link WeakIndexCache}, the
+ * entries are split among independently locked segments, so threads caching
+ * different keys rarely wait for each other, and {@link #cache(Object, Object)}
+ * is atomic: when two threads cache different values for the same key, both
+ * receive the same instance. Keys are held strongly until their value is
+ * collected, so keys that are not referenced elsewhere, such as boxed numbers,
+ * do not cause values to be dropped from the cache while still in use.
+ * 
+ * @param <K>
+ *        key type
+ * @param <V>
+ *        value type
+ */
+public class ConcurrentWeakIndexCache<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 30406L;
+    /** number of segments; must be a power of two */
+    private static final int SEGMENTS = 64;
+    private transient Segment<K, V>[] segments = createSegments();
+
+    /** weak reference to a value, which remembers its key */
+    private static class ValueReference<K, V> extends WeakReference<V> {
+
+        final K key;
+
+        ValueReference(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    /** a lock protected map and the queue of its collected values */
+    private static class Segment<K, V> {
+
+        final Map<K, ValueReference<K, V>> map = new HashMap<K, ValueReference<K, V>>();
+        final ReferenceQueue<V> queue = new ReferenceQueue<V>();
+
+        /** removes the entries whose value has been collected */
+        @SuppressWarnings("unchecked")
+        void expunge() {
+            ValueReference<K, V> ref;
+            while ((ref = (ValueReference<K, V>) queue.poll()) != null) {
+                // the key might have been cached again in the meantime
+                if (map.get(ref.key) == ref) {
+                    map.remove(ref.key);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Segment<K, V>[] createSegments() {
+        Segment<K, V>[] toReturn = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            toReturn[i] = new Segment<K, V>();
+        }
+        return toReturn;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+        in.defaultReadObject();
+        segments = createSegments();
+    }
+
+    private Segment<K, V> segment(Object k) {
+        int h = k.hashCode();
+        // spread the bits, as in HashMap
+        h ^= h >>> 20 ^ h >>> 12;
+        h ^= h >>> 7 ^ h >>> 4;
+        // the low bits select the bucket within the segment's map, so the
+        // segment is chosen by the top bits of a multiplicative hash
+        return segments[h * 0x9E3779B9 >>> 26];
+    }
+
+    /**
+     * @param s
+     *        the cache key
+     * @param v
+     *        the cache value
+     * @return the value already cached for the key, if any; otherwise v, which
+     *         is cached for later calls
+     */
+    public V cache(K s, V v) {
+        Segment<K, V> segment = segment(s);
+        synchronized (segment) {
+            segment.expunge();
+            ValueReference<K, V> w = segment.map.get(s);
+            if (w != null) {
+                V toReturn = w.get();
+                if (toReturn != null) {
+                    return toReturn;
+                }
+            }
+            segment.map.put(s, new ValueReference<K, V>(s, v, segment.queue));
+            return v;
+        }
+    }
+
+    /**
+     * @param k
+     *        the key
+     * @return the value, or null if no value is cached for the key
+     */
+    public V get(K k) {
+        Segment<K, V> segment = segment(k);
+        ValueReference<K, V> w;
+        synchronized (segment) {
+            w = segment.map.get(k);
+        }
+        if (w != null) {
+            return w.get();
+        }
+        return null;
+    }
+
+    /**
+     * @param k
+     *        the key to check
+     * @return true if the cache contains k as a key; note that, due to the
+     *         nature of this cache, by the time the method returns the key may
+     *         no longer be in the map.
+     */
+    public boolean contains(K k) {
+        return get(k) != null;
+    }
+
+    /** empty the cache. */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.expunge();
+            }
+        }
+    }
+}
@@ -41,6 +41,7 @@ package org.semanticweb.owlapi.util;
 import static org.semanticweb.owlapi.util.DLExpressivityChecker.Construct.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -190,7 +191,40 @@ public class DLExpressivityChecker implements OWLObjectVisitor {
     }
 
     public String getDescriptionLogicName() {
-        List<Construct> orderedConstructs = getOrderedConstructs();
+        return getName(getOrderedConstructs());
+    }
+
+    /**
+     * Gets the name of the description logic using some constructs, such as
+     * the constructs used by the axioms of ontologies that are not known to
+     * this checker.
+     * 
+     * @param used
+     *        the constructs used
+     * @return the name of the description logic
+     */
+    public String getDescriptionLogicName(Collection<Construct> used) {
+        constructs.clear();
+        constructs.add(AL);
+        constructs.addAll(used);
+        return getName(pruneAndOrderConstructs());
+    }
+
+    /**
+     * Gets the constructs used by an axiom, before the constructs that can be
+     * represented with others are pruned.
+     * 
+     * @param axiom
+     *        the axiom
+     * @return the constructs used by the axiom
+     */
+    public Set<Construct> getConstructs(OWLAxiom axiom) {
+        constructs.clear();
+        axiom.accept(this);
+        return new HashSet<Construct>(constructs);
+    }
+
+    private static String getName(List<Construct> orderedConstructs) {
         StringBuilder s = new StringBuilder();
         for (Construct c : orderedConstructs) {
             s.append(c);
@@ -241,6 +275,10 @@ public class DLExpressivityChecker implements OWLObjectVisitor {
                 ax.accept(this);
             }
         }
+        return pruneAndOrderConstructs();
+    }
+
+    private List<Construct> pruneAndOrderConstructs() {
         pruneConstructs();
         List<Construct> cons = new ArrayList<Construct>(constructs);
         Collections.sort(cons, new ConstructComparator());
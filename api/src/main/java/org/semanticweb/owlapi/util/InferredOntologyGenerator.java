@@ -39,14 +39,26 @@
 package org.semanticweb.owlapi.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 
 /**
@@ -54,6 +66,25 @@ import org.semanticweb.owlapi.reasoner.OWLReasoner;
  * by a reasoner. The generator can be configured with
  * {@code InferredAxiomGenerator}s which generate specific kinds of axioms e.g.
  * subclass axioms.
+ * <p>
+ * By default, all the inferred axioms are collected and added to the ontology
+ * with a single call to the manager. With a batch size, the axioms are
+ * instead handed over in batches as they are generated, either to an ontology
+ * through {@link OWLOntologyManager#addAxioms(OWLOntology, Set)} or to an
+ * {@link InferredAxiomHandler}, and only the batches being generated are kept
+ * in memory. The generators extending
+ * {@link InferredEntityAxiomGenerator} are run over chunks of the signature,
+ * each chunk making one batch; with more than one thread, the chunks are
+ * generated concurrently, and the reasoner must then support concurrent
+ * queries. Other generators make one batch each.
+ * <p>
+ * An ontology in the imports closure of the root ontology of the reasoner is
+ * read by the reasoner while the axioms are generated, so it cannot be changed
+ * batch by batch: {@link #fillOntology(OWLOntologyManager, OWLOntology)}
+ * collects all the inferred axioms for such an ontology before adding them,
+ * whatever the batch size. Handlers passed to
+ * {@link #generateAxioms(OWLOntologyManager, InferredAxiomHandler)} must not
+ * change those ontologies either.
  * 
  * @author Matthew Horridge, The University Of Manchester, Bio-Health
  *         Informatics Group, Date: 27-Jul-2007
@@ -63,6 +94,8 @@ public class InferredOntologyGenerator {
     // The reasoner which is used to compute the inferred axioms
     private final OWLReasoner reasoner;
     private final List<InferredAxiomGenerator<? extends OWLAxiom>> axiomGenerators;
+    private int threads = 1;
+    private int batchSize = 0;
 
     /**
      * @param reasoner
@@ -131,7 +164,11 @@ public class InferredOntologyGenerator {
 
     /**
      * Adds 'inferred axioms' to an ontology using the generators that have been
-     * registered with this {@code InferredAxiomGenerator}.
+     * registered with this {@code InferredAxiomGenerator}. If the ontology is
+     * in the imports closure of the root ontology of the reasoner, the axioms
+     * are added only once they have all been generated, as the reasoner reads
+     * the ontology meanwhile; otherwise, with a batch size or more than one
+     * thread, they are added batch by batch.
      * 
      * @param manager
      *        The manager which can be used to obtain a data factory and apply
@@ -142,8 +179,32 @@ public class InferredOntologyGenerator {
      *         If there was a problem adding the inferred axioms to the
      *         specified ontology.
      */
-    public void fillOntology(OWLOntologyManager manager, OWLOntology ontology)
-            throws OWLOntologyChangeException {
+    public void fillOntology(final OWLOntologyManager manager,
+            final OWLOntology ontology) throws OWLOntologyChangeException {
+        if (threads > 1 || batchSize > 0) {
+            if (reasoner.getRootOntology().getImportsClosure()
+                    .contains(ontology)) {
+                final Set<OWLAxiom> inferred = new HashSet<OWLAxiom>();
+                generateAxioms(manager, new InferredAxiomHandler() {
+
+                    @Override
+                    public void handleAxioms(
+                            Collection<? extends OWLAxiom> axioms) {
+                        inferred.addAll(axioms);
+                    }
+                });
+                manager.addAxioms(ontology, inferred);
+                return;
+            }
+            generateAxioms(manager, new InferredAxiomHandler() {
+
+                @Override
+                public void handleAxioms(Collection<? extends OWLAxiom> axioms) {
+                    manager.addAxioms(ontology, new HashSet<OWLAxiom>(axioms));
+                }
+            });
+            return;
+        }
         List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>();
         for (InferredAxiomGenerator<? extends OWLAxiom> axiomGenerator : axiomGenerators) {
             for (OWLAxiom ax : axiomGenerator.createAxioms(manager, reasoner)) {
@@ -152,4 +213,151 @@ public class InferredOntologyGenerator {
         }
         manager.applyChanges(changes);
     }
+
+    /**
+     * Sets the number of threads generating the axioms of the entity axiom
+     * generators.
+     * 
+     * @param threads
+     *        the number of threads; 1, the default, generates the axioms on
+     *        the calling thread
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /** @return the number of threads generating the axioms */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of entities whose inferred axioms make one batch.
+     * 
+     * @param batchSize
+     *        the number of entities in a batch; 0, the default, collects all
+     *        the inferred axioms before adding them to an ontology
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 0) {
+            throw new IllegalArgumentException(
+                    "The batch size cannot be negative: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /** @return the number of entities whose inferred axioms make one batch */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Generates the inferred axioms with the registered generators and hands
+     * them over in batches as they are generated. The batches are handed over
+     * on the calling thread, in no particular order; an axiom inferred for
+     * several entities, such as an equivalent classes axiom, can be handed
+     * over in more than one batch. The handler must not change the ontologies
+     * in the imports closure of the root ontology of the reasoner, which the
+     * reasoner reads while the batches are generated.
+     * 
+     * @param manager
+     *        the manager whose data factory creates the axioms
+     * @param handler
+     *        the handler receiving the batches
+     */
+    public void generateAxioms(OWLOntologyManager manager,
+            InferredAxiomHandler handler) {
+        List<Callable<Set<? extends OWLAxiom>>> tasks = new ArrayList<Callable<Set<? extends OWLAxiom>>>();
+        int size = batchSize > 0 ? batchSize : Integer.MAX_VALUE;
+        for (InferredAxiomGenerator<? extends OWLAxiom> generator : axiomGenerators) {
+            if (generator instanceof InferredEntityAxiomGenerator) {
+                addTasks((InferredEntityAxiomGenerator<?, ?>) generator,
+                        manager.getOWLDataFactory(), size, tasks);
+            } else {
+                addTask(generator, manager, tasks);
+            }
+        }
+        if (threads < 2) {
+            for (Callable<Set<? extends OWLAxiom>> task : tasks) {
+                handler.handleAxioms(call(task));
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<Set<? extends OWLAxiom>> results = new ExecutorCompletionService<Set<? extends OWLAxiom>>(
+                    executor);
+            // a few batches ahead of the handler, not the whole output
+            int pending = 0;
+            for (Callable<Set<? extends OWLAxiom>> task : tasks) {
+                if (pending == 2 * threads) {
+                    handler.handleAxioms(results.take().get());
+                    pending--;
+                }
+                results.submit(task);
+                pending++;
+            }
+            for (; pending > 0; pending--) {
+                handler.handleAxioms(results.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new OWLRuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Set<? extends OWLAxiom> call(
+            Callable<Set<? extends OWLAxiom>> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new OWLRuntimeException(e);
+        }
+    }
+
+    private void addTask(final InferredAxiomGenerator<?> generator,
+            final OWLOntologyManager manager,
+            List<Callable<Set<? extends OWLAxiom>>> tasks) {
+        tasks.add(new Callable<Set<? extends OWLAxiom>>() {
+
+            @Override
+            public Set<? extends OWLAxiom> call() {
+                return generator.createAxioms(manager, reasoner);
+            }
+        });
+    }
+
+    /** Splits the entities of a generator into chunks, one task each. */
+    private <E extends OWLEntity, A extends OWLAxiom> void addTasks(
+            final InferredEntityAxiomGenerator<E, A> generator,
+            final OWLDataFactory dataFactory, int size,
+            List<Callable<Set<? extends OWLAxiom>>> tasks) {
+        List<E> entities = new ArrayList<E>(generator.getAllEntities(reasoner));
+        for (int start = 0; start < entities.size(); start += size) {
+            final List<E> chunk = entities.subList(start,
+                    (int) Math.min((long) start + size, entities.size()));
+            tasks.add(new Callable<Set<? extends OWLAxiom>>() {
+
+                @Override
+                public Set<? extends OWLAxiom> call() {
+                    Set<A> result = new HashSet<A>();
+                    for (E entity : chunk) {
+                        generator.addAxioms(entity, reasoner, dataFactory,
+                                result);
+                    }
+                    return result;
+                }
+            });
+        }
+    }
 }
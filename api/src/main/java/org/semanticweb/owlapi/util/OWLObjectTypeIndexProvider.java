@@ -530,7 +530,7 @@ public class OWLObjectTypeIndexProvider implements OWLObjectVisitor {
 
     @Override
     public void visit(OWLDataUnionOf node) {
-        type = AXIOM_TYPE_INDEX_BASE + 5;
+        type = DATA_TYPE_INDEX_BASE + 5;
     }
 
     @Override
@@ -38,6 +38,8 @@
  */
 package org.semanticweb.owlapi.apibinding;
 
+import org.coode.owlapi.binary.BinaryOWLOntologyStorer;
+import org.coode.owlapi.binary.BinaryOWLParserFactory;
 import org.coode.owlapi.functionalparser.OWLFunctionalSyntaxParserFactory;
 import org.coode.owlapi.functionalrenderer.OWLFunctionalSyntaxOntologyStorer;
 import org.coode.owlapi.latex.LatexOntologyStorer;
@@ -77,6 +79,7 @@ public class OWLManager implements OWLOntologyManagerFactory {
         // Register useful parsers
         OWLParserFactoryRegistry registry = OWLParserFactoryRegistry
                 .getInstance();
+        registry.registerParserFactory(new BinaryOWLParserFactory());
         registry.registerParserFactory(new OBOFormatParserFactory());
         registry.registerParserFactory(new ManchesterOWLSyntaxParserFactory());
         registry.registerParserFactory(new KRSS2OWLParserFactory());
@@ -121,6 +124,22 @@ public class OWLManager implements OWLOntologyManagerFactory {
      */
     public static OWLOntologyManager createOWLOntologyManager(
             OWLDataFactory dataFactory) {
+        return createOWLOntologyManager(dataFactory, false);
+    }
+
+    /**
+     * Creates an OWL ontology manager that is configured with standard parsers,
+     * storeres etc. Ontologies created or loaded by this manager can be queried
+     * by many threads while a single thread applies changes.
+     * 
+     * @return The new manager.
+     */
+    public static OWLOntologyManager createConcurrentOWLOntologyManager() {
+        return createOWLOntologyManager(getOWLDataFactory(), true);
+    }
+
+    private static OWLOntologyManager createOWLOntologyManager(
+            OWLDataFactory dataFactory, boolean concurrent) {
         // Create the ontology manager and add ontology factories, mappers and
         // storers
         OWLOntologyManager ontologyManager = new OWLOntologyManagerImpl(
@@ -135,9 +154,14 @@ public class OWLManager implements OWLOntologyManagerFactory {
         ontologyManager.addOntologyStorer(new TurtleOntologyStorer());
         ontologyManager.addOntologyStorer(new LatexOntologyStorer());
         ontologyManager.addOntologyStorer(new OBOFormatStorer());
+        ontologyManager.addOntologyStorer(new BinaryOWLOntologyStorer());
         ontologyManager.addIRIMapper(new NonMappingOntologyIRIMapper());
-        ontologyManager.addOntologyFactory(new EmptyInMemOWLOntologyFactory());
-        ontologyManager.addOntologyFactory(new ParsableOWLOntologyFactory());
+        EmptyInMemOWLOntologyFactory emptyFactory = new EmptyInMemOWLOntologyFactory();
+        emptyFactory.setConcurrentInternals(concurrent);
+        ontologyManager.addOntologyFactory(emptyFactory);
+        ParsableOWLOntologyFactory parsableFactory = new ParsableOWLOntologyFactory();
+        parsableFactory.setConcurrentInternals(concurrent);
+        ontologyManager.addOntologyFactory(parsableFactory);
         return ontologyManager;
     }
 
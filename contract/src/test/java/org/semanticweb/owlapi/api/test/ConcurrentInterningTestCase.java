@@ -0,0 +1,96 @@
+package org.semanticweb.owlapi.api.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.util.ConcurrentWeakIndexCache;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * Checks that a caching data factory returns a single instance for each
+ * entity and literal when many threads ask for the same objects at once.
+ */
+@SuppressWarnings("javadoc")
+public class ConcurrentInterningTestCase {
+
+    private static final int THREADS = 8;
+    private static final int OBJECTS = 2000;
+    private static final String NS = "urn:test:interning#";
+
+    private static OWLObject[][] createInParallel(final OWLDataFactory df)
+            throws InterruptedException {
+        final OWLObject[][] results = new OWLObject[THREADS][];
+        final CountDownLatch start = new CountDownLatch(1);
+        final OWLDatatype datatype = df.getOWLDatatype(IRI.create(NS
+                + "datatype"));
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            Thread worker = new Thread() {
+
+                @Override
+                public void run() {
+                    OWLObject[] objects = new OWLObject[OBJECTS * 4];
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < OBJECTS; i++) {
+                        // each thread builds its own IRI instances
+                        objects[i * 4] = df.getOWLClass(IRI.create(NS + "C"
+                                + i));
+                        objects[i * 4 + 1] = df.getOWLObjectProperty(IRI
+                                .create(NS + "p" + i));
+                        objects[i * 4 + 2] = df.getOWLLiteral(i);
+                        objects[i * 4 + 3] = df.getOWLLiteral("value" + i,
+                                datatype);
+                    }
+                    results[thread] = objects;
+                }
+            };
+            threads.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : threads) {
+            worker.join();
+        }
+        return results;
+    }
+
+    @Test
+    public void shouldReturnSingleInstancesAcrossThreads() throws Exception {
+        OWLObject[][] results = createInParallel(new OWLDataFactoryImpl(true,
+                false));
+        for (int t = 1; t < THREADS; t++) {
+            for (int i = 0; i < results[0].length; i++) {
+                assertSame(results[0][i], results[t][i]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldCacheFirstValue() {
+        ConcurrentWeakIndexCache<String, String> cache = new ConcurrentWeakIndexCache<String, String>();
+        String first = new String("value");
+        String second = new String("value");
+        assertNull(cache.get("key"));
+        assertSame(first, cache.cache("key", first));
+        assertSame(first, cache.cache("key", second));
+        assertSame(first, cache.get("key"));
+        assertTrue(cache.contains("key"));
+        cache.clear();
+        assertFalse(cache.contains("key"));
+        assertSame(second, cache.cache("key", second));
+    }
+}
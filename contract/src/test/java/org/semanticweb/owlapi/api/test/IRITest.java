@@ -37,6 +37,11 @@ package org.semanticweb.owlapi.api.test;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -186,4 +191,26 @@ public class IRITest {
         assertEquals(IRI.create(null, "http://purl.obolibrary.org/obo/TEST_a"),
                 IRI.create("http://purl.obolibrary.org/obo/TEST_a"));
     }
+
+    @Test
+    public void testEqualIRIsAreShared() throws Exception {
+        boolean pooling = IRI.isPooling();
+        IRI.setPooling(true);
+        try {
+            IRI iri = IRI.create("http://purl.obolibrary.org/obo/TEST_", "a");
+            assertSame(iri,
+                    IRI.create("http://purl.obolibrary.org/obo/TEST_a"));
+            assertSame(iri, IRI.create(new URI(
+                    "http://purl.obolibrary.org/obo/TEST_a")));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ObjectOutputStream stream = new ObjectOutputStream(out);
+            stream.writeObject(iri);
+            stream.flush();
+            Object copy = new ObjectInputStream(new ByteArrayInputStream(
+                    out.toByteArray())).readObject();
+            assertSame(iri, copy);
+        } finally {
+            IRI.setPooling(pooling);
+        }
+    }
 }
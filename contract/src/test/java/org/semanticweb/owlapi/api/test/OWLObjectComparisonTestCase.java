@@ -0,0 +1,147 @@
+package org.semanticweb.owlapi.api.test;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.util.OWLObjectTypeIndexProvider;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+
+import uk.ac.manchester.cs.owl.owlapi.OWL2DatatypeImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLDatatypeImpl;
+
+@SuppressWarnings("javadoc")
+public class OWLObjectComparisonTestCase {
+
+    private static final String NS = "urn:test:compare#";
+    /** The comparison as it was before type indexes were cached. */
+    private static final Comparator<OWLObject> TYPE_INDEX_COMPARATOR = new Comparator<OWLObject>() {
+
+        @Override
+        public int compare(OWLObject o1, OWLObject o2) {
+            OWLObjectTypeIndexProvider provider = new OWLObjectTypeIndexProvider();
+            int diff = provider.getTypeIndex(o1) - provider.getTypeIndex(o2);
+            if (diff != 0) {
+                return diff;
+            }
+            return o1.compareTo(o2);
+        }
+    };
+
+    private static List<OWLObject> objects() {
+        OWLClass a = Class(IRI(NS + "A"));
+        OWLClass b = Class(IRI(NS + "B"));
+        OWLClass c = Class(IRI(NS + "C"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        OWLNamedIndividual i = NamedIndividual(IRI(NS + "i"));
+        OWLNamedIndividual j = NamedIndividual(IRI(NS + "j"));
+        OWLDatatype builtIn = OWL2DatatypeImpl
+                .getDatatype(OWL2Datatype.XSD_STRING);
+        OWLDatatype sameIRI = new OWLDatatypeImpl(
+                OWL2Datatype.XSD_STRING.getIRI());
+        OWLDatatype integer = new OWLDatatypeImpl(
+                OWL2Datatype.XSD_INTEGER.getIRI());
+        OWLDatatype custom = new OWLDatatypeImpl(IRI(NS + "dt"));
+        List<OWLObject> objects = new ArrayList<OWLObject>();
+        Collections.addAll(objects, a, b, c, p, d, i, j, builtIn, sameIRI,
+                integer, custom, OWL2DatatypeImpl
+                        .getDatatype(OWL2Datatype.XSD_INTEGER), IRI(NS + "A"),
+                IRI(NS + "Z"), OWL2Datatype.XSD_STRING.getIRI(),
+                Literal("x"), Literal(1), ObjectIntersectionOf(a, b),
+                ObjectIntersectionOf(a, c), ObjectIntersectionOf(a, b, c),
+                ObjectUnionOf(a, b), ObjectOneOf(i), ObjectOneOf(i, j),
+                ObjectSomeValuesFrom(p, a), ObjectComplementOf(c),
+                DataUnionOf(builtIn, integer), DataUnionOf(sameIRI, custom),
+                DataIntersectionOf(builtIn, integer),
+                DataOneOf(Literal("x")), DataOneOf(Literal("x"), Literal(1)),
+                Declaration(a), Declaration(p), SubClassOf(a, b),
+                SubClassOf(a, ObjectIntersectionOf(b, c)),
+                EquivalentClasses(a, b), EquivalentClasses(a, b, c),
+                DisjointClasses(a, b), DisjointClasses(b, c),
+                DifferentIndividuals(i, j), HasKey(a), HasKey(a, p),
+                HasKey(a, p, d), DisjointUnion(a, b, c),
+                ClassAssertion(a, i), ObjectPropertyAssertion(p, i, j),
+                DataPropertyAssertion(d, i, Literal("x")),
+                DataPropertyRange(d, DataUnionOf(builtIn, custom)));
+        return objects;
+    }
+
+    private static int signum(int i) {
+        return i < 0 ? -1 : i > 0 ? 1 : 0;
+    }
+
+    @Test
+    public void shouldCompareAsTheTypeIndexComparison() {
+        List<OWLObject> objects = objects();
+        for (OWLObject o1 : objects) {
+            for (OWLObject o2 : objects) {
+                assertEquals(o1 + " " + o2,
+                        signum(TYPE_INDEX_COMPARATOR.compare(o1, o2)),
+                        signum(o1.compareTo(o2)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldSortAsTheTypeIndexComparison() {
+        List<OWLObject> expected = objects();
+        Collections.reverse(expected);
+        Collections.sort(expected, TYPE_INDEX_COMPARATOR);
+        // sort twice, so that cached type indexes are used as well
+        for (int k = 0; k < 2; k++) {
+            List<OWLObject> actual = objects();
+            Collections.shuffle(actual);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void shouldCompareSetsElementWiseThenBySize() {
+        OWLClass a = Class(IRI(NS + "A"));
+        OWLClass b = Class(IRI(NS + "B"));
+        OWLClass c = Class(IRI(NS + "C"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        // empty sets come first
+        assertTrue(HasKey(a).compareTo(HasKey(a, p)) < 0);
+        assertTrue(HasKey(a, p).compareTo(HasKey(a)) > 0);
+        assertEquals(0, HasKey(a).compareTo(HasKey(a)));
+        // a set sorts before the sets it is a prefix of
+        assertTrue(ObjectIntersectionOf(a, b).compareTo(
+                ObjectIntersectionOf(a, b, c)) < 0);
+        assertTrue(ObjectIntersectionOf(a, b, c).compareTo(
+                ObjectIntersectionOf(a, b)) > 0);
+        // the first differing element decides, whatever the sizes
+        assertTrue(ObjectIntersectionOf(a, c).compareTo(
+                ObjectIntersectionOf(a, b, c)) > 0);
+        assertTrue(ObjectIntersectionOf(b, c).compareTo(
+                ObjectIntersectionOf(a, b, c)) > 0);
+    }
+
+    @Test
+    public void shouldCompareBuiltInDatatypesByIRI() {
+        OWLDatatype builtIn = OWL2DatatypeImpl
+                .getDatatype(OWL2Datatype.XSD_STRING);
+        OWLDatatype other = new OWLDatatypeImpl(
+                OWL2Datatype.XSD_STRING.getIRI());
+        assertEquals(0, builtIn.compareTo(other));
+        assertEquals(0, other.compareTo(builtIn));
+        OWLDatatype custom = new OWLDatatypeImpl(IRI(NS + "dt"));
+        assertEquals(signum(builtIn.getIRI().compareTo(custom.getIRI())),
+                signum(builtIn.compareTo(custom)));
+        assertEquals(-signum(builtIn.compareTo(custom)),
+                signum(custom.compareTo(builtIn)));
+    }
+}
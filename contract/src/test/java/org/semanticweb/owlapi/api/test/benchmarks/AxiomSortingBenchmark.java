@@ -0,0 +1,104 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+/**
+ * Measures sorting the axioms of an ontology, as the renderers do for sorted
+ * output, both with {@link Collections#sort(List)} and by building a
+ * {@link TreeSet}. Run with {@code java AxiomSortingBenchmark [classes] [runs]}
+ * to sort a generated ontology, or with
+ * {@code java AxiomSortingBenchmark file [runs]} to sort the axioms of an
+ * ontology document.
+ */
+@SuppressWarnings("javadoc")
+public class AxiomSortingBenchmark {
+
+    private static final String NS = "urn:benchmark:sorting#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static List<OWLAxiom> generate(int classes) {
+        Random random = new Random(42);
+        OWLObjectProperty[] objectProperties = new OWLObjectProperty[10];
+        for (int i = 0; i < objectProperties.length; i++) {
+            objectProperties[i] = ObjectProperty(IRI(NS + "p" + i));
+        }
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        for (int i = 0; i < classes; i++) {
+            OWLObjectProperty p = objectProperties[random
+                    .nextInt(objectProperties.length)];
+            axioms.add(Declaration(cls(i)));
+            axioms.add(AnnotationAssertion(RDFSLabel(), cls(i).getIRI(),
+                    Literal("class " + i, "en")));
+            if (i > 0) {
+                axioms.add(SubClassOf(cls(i), cls(random.nextInt(i))));
+                axioms.add(SubClassOf(cls(i),
+                        ObjectSomeValuesFrom(p, cls(random.nextInt(i)))));
+            }
+            if (i % 10 == 9) {
+                axioms.add(EquivalentClasses(
+                        cls(i),
+                        ObjectIntersectionOf(cls(i - 1), cls(i - 2),
+                                ObjectAllValuesFrom(p, cls(i - 3)))));
+                axioms.add(DisjointClasses(cls(i - 4), cls(i - 5), cls(i - 6)));
+            }
+            if (i % 3 == 0) {
+                OWLNamedIndividual individual = NamedIndividual(IRI(NS + "i"
+                        + i));
+                axioms.add(ClassAssertion(cls(i), individual));
+                axioms.add(DataPropertyAssertion(d, individual, Literal(i)));
+                axioms.add(ObjectPropertyAssertion(p, individual,
+                        NamedIndividual(IRI(NS + "i" + random.nextInt(i + 1)))));
+            }
+        }
+        return axioms;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<OWLAxiom> axioms;
+        if (args.length > 0 && new File(args[0]).exists()) {
+            axioms = new ArrayList<OWLAxiom>(OWLManager
+                    .createOWLOntologyManager()
+                    .loadOntologyFromOntologyDocument(new File(args[0]))
+                    .getAxioms());
+        } else {
+            axioms = generate(args.length > 0 ? Integer.parseInt(args[0])
+                    : 100000);
+        }
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.println("axioms: " + axioms.size());
+        for (int run = 0; run < runs; run++) {
+            List<OWLAxiom> list = new ArrayList<OWLAxiom>(axioms);
+            Collections.shuffle(list, new Random(run));
+            long start = System.nanoTime();
+            Collections.sort(list);
+            long sort = (System.nanoTime() - start) / 1000000;
+            Collections.shuffle(list, new Random(run));
+            start = System.nanoTime();
+            TreeSet<OWLAxiom> set = new TreeSet<OWLAxiom>(list);
+            long tree = (System.nanoTime() - start) / 1000000;
+            if (set.size() > list.size()) {
+                throw new IllegalStateException("inconsistent ordering");
+            }
+            System.out.println("sort: " + sort + " ms\ttree set: " + tree
+                    + " ms");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.BinaryOWLOntologyFormat;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Compares loading a large ontology from RDF/XML with loading it from the
+ * binary format, with and without parallel decoding. Run with
+ * {@code java BinaryFormatBenchmark [classes] [runs] [threads]}.
+ */
+@SuppressWarnings("javadoc")
+public class BinaryFormatBenchmark {
+
+    private static final String NS = "urn:benchmark:binary#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static long load(File document, int threads) throws Exception {
+        long start = System.nanoTime();
+        OWLOntology o = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(
+                        new FileDocumentSource(document),
+                        new OWLOntologyLoaderConfiguration()
+                                .setParsingThreads(threads));
+        long time = (System.nanoTime() - start) / 1000000;
+        if (o.getAxiomCount() == 0) {
+            throw new IllegalStateException("empty ontology");
+        }
+        return time;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime
+                .getRuntime().availableProcessors();
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        for (int i = 0; i < classes; i++) {
+            axioms.add(Declaration(cls(i)));
+            axioms.add(AnnotationAssertion(RDFSLabel(), cls(i).getIRI(),
+                    Literal("class " + i, "en")));
+            if (i > 0) {
+                axioms.add(SubClassOf(cls(i), cls((i - 1) / 8)));
+                axioms.add(SubClassOf(cls(i),
+                        ObjectSomeValuesFrom(p, cls(i / 2))));
+            }
+        }
+        m.addAxiomsInBulk(o, axioms);
+        File rdf = File.createTempFile("binarybenchmark", ".owl");
+        rdf.deleteOnExit();
+        m.saveOntology(o, new RDFXMLOntologyFormat(), IRI.create(rdf));
+        File binary = File.createTempFile("binarybenchmark", ".owlb");
+        binary.deleteOnExit();
+        long start = System.nanoTime();
+        m.saveOntology(o, new BinaryOWLOntologyFormat(), IRI.create(binary));
+        long store = (System.nanoTime() - start) / 1000000;
+        System.out.println("classes: " + classes + "\taxioms: "
+                + o.getAxiomCount() + "\tRDF/XML: " + rdf.length() / 1024
+                + " KB\tbinary: " + binary.length() / 1024
+                + " KB\tbinary store: " + store + " ms");
+        for (int run = 0; run < runs; run++) {
+            long parse = load(rdf, 0);
+            long sequential = load(binary, 0);
+            long parallel = load(binary, threads);
+            System.out.println("RDF/XML: " + parse + " ms\tbinary: "
+                    + sequential + " ms\tbinary, " + threads + " threads: "
+                    + parallel + " ms");
+        }
+    }
+}
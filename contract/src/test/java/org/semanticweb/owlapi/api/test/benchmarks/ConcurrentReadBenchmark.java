@@ -0,0 +1,129 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Measures query throughput on an ontology read by an increasing number of
+ * threads while one thread keeps adding and removing axioms. Ontologies
+ * created by {@link OWLManager#createConcurrentOWLOntologyManager()} are
+ * compared with default ontologies guarded by a single global lock. Run with
+ * {@code java ConcurrentReadBenchmark [classes] [seconds per run]}.
+ */
+@SuppressWarnings("javadoc")
+public class ConcurrentReadBenchmark {
+
+    private static final String NS = "urn:benchmark:concurrent#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static OWLOntology build(OWLOntologyManager m, int classes)
+            throws OWLOntologyCreationException {
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        for (int i = 1; i < classes; i++) {
+            m.addAxiom(o, Declaration(cls(i)));
+            m.addAxiom(o, SubClassOf(cls(i), cls(i / 2)));
+            m.addAxiom(o, SubClassOf(cls(i), ObjectSomeValuesFrom(p, cls(i - 1))));
+        }
+        return o;
+    }
+
+    private static long run(final OWLOntology o, final int classes,
+            int readers, long millis, final Object globalLock)
+            throws InterruptedException {
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicLong operations = new AtomicLong();
+        final OWLOntologyManager m = o.getOWLOntologyManager();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < readers; t++) {
+            final int seed = t * 7919;
+            threads.add(new Thread() {
+
+                @Override
+                public void run() {
+                    long count = 0;
+                    int i = seed;
+                    while (!done.get()) {
+                        OWLClass c = cls(1 + i++ % (classes - 1));
+                        if (globalLock == null) {
+                            query(o, c);
+                        } else {
+                            synchronized (globalLock) {
+                                query(o, c);
+                            }
+                        }
+                        count++;
+                    }
+                    operations.addAndGet(count);
+                }
+            });
+        }
+        threads.add(new Thread() {
+
+            @Override
+            public void run() {
+                int i = 0;
+                while (!done.get()) {
+                    OWLClass c = cls(classes + i++ % 1000);
+                    if (globalLock == null) {
+                        m.addAxiom(o, SubClassOf(c, cls(1)));
+                        m.removeAxiom(o, SubClassOf(c, cls(1)));
+                    } else {
+                        synchronized (globalLock) {
+                            m.addAxiom(o, SubClassOf(c, cls(1)));
+                            m.removeAxiom(o, SubClassOf(c, cls(1)));
+                        }
+                    }
+                }
+            }
+        });
+        for (Thread t : threads) {
+            t.start();
+        }
+        Thread.sleep(millis);
+        done.set(true);
+        for (Thread t : threads) {
+            t.join();
+        }
+        return operations.get() * 1000 / millis;
+    }
+
+    protected static void query(OWLOntology o, OWLClass c) {
+        o.getSubClassAxiomsForSubClass(c);
+        o.getReferencingAxioms(c);
+        o.getAxiomCount();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long millis = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 5);
+        int cores = Runtime.getRuntime().availableProcessors();
+        OWLOntology concurrent = build(
+                OWLManager.createConcurrentOWLOntologyManager(), classes);
+        OWLOntology locked = build(OWLManager.createOWLOntologyManager(),
+                classes);
+        // warm up
+        run(concurrent, classes, cores, millis, null);
+        run(locked, classes, cores, millis, new Object());
+        System.out.println("readers\tconcurrent ops/s\tglobal lock ops/s");
+        for (int readers = 1; readers <= cores; readers *= 2) {
+            long c = run(concurrent, classes, readers, millis, null);
+            long l = run(locked, classes, readers, millis, new Object());
+            System.out.println(readers + "\t" + c + "\t" + l);
+        }
+    }
+}
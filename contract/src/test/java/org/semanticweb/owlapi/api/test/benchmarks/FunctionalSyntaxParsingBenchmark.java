@@ -0,0 +1,81 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Measures the time to load a functional syntax document with 1 to 32 parsing
+ * threads. Run with
+ * {@code java FunctionalSyntaxParsingBenchmark [classes] [repetitions]}.
+ */
+@SuppressWarnings("javadoc")
+public class FunctionalSyntaxParsingBenchmark {
+
+    private static final String NS = "urn:benchmark:parsing#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static String createDocument(int classes) throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        for (int i = 1; i < classes; i++) {
+            m.addAxiom(o, Declaration(cls(i)));
+            m.addAxiom(o, SubClassOf(cls(i), cls(i / 2)));
+            m.addAxiom(o, SubClassOf(cls(i),
+                    ObjectSomeValuesFrom(p, ObjectIntersectionOf(cls(i - 1),
+                            ObjectComplementOf(cls(i / 3))))));
+            m.addAxiom(o, AnnotationAssertion(RDFSLabel(), cls(i).getIRI(),
+                    Literal("class number " + i, "en")));
+        }
+        StringDocumentTarget target = new StringDocumentTarget();
+        m.saveOntology(o, new OWLFunctionalSyntaxOntologyFormat(), target);
+        return target.toString();
+    }
+
+    private static long load(String text, int threads) throws Exception {
+        long start = System.nanoTime();
+        OWLOntology o = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(
+                        new StringDocumentSource(text),
+                        new OWLOntologyLoaderConfiguration()
+                                .setParsingThreads(threads));
+        long elapsed = System.nanoTime() - start;
+        if (o.getAxiomCount() == 0) {
+            throw new IllegalStateException("nothing parsed");
+        }
+        return elapsed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        String text = createDocument(classes);
+        int axioms = 4 * (classes - 1);
+        System.out.println("available processors: "
+                + Runtime.getRuntime().availableProcessors());
+        // warm up
+        load(text, 0);
+        load(text, 2);
+        System.out.println("threads\tms\taxioms/s");
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < repetitions; i++) {
+                best = Math.min(best, load(text, threads));
+            }
+            System.out.println(threads + "\t" + best / 1000000 + "\t"
+                    + axioms * 1000000000L / best);
+        }
+    }
+}
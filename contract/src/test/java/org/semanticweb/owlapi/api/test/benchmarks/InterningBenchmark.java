@@ -0,0 +1,79 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * Measures the throughput of {@code getOWLClass} and {@code getOWLLiteral} on
+ * a caching data factory shared by 1 to 32 threads. Run with
+ * {@code java InterningBenchmark [distinct names] [seconds per run]}.
+ */
+@SuppressWarnings("javadoc")
+public class InterningBenchmark {
+
+    private static final String NS = "urn:benchmark:interning#";
+
+    private static long run(final OWLDataFactory df, final IRI[] iris,
+            int threads, long millis, final boolean literals)
+            throws InterruptedException {
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicLong operations = new AtomicLong();
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            final int seed = t * 7919;
+            workers.add(new Thread() {
+
+                @Override
+                public void run() {
+                    long count = 0;
+                    int i = seed;
+                    while (!done.get()) {
+                        int index = i++ % iris.length;
+                        if (literals) {
+                            df.getOWLLiteral(index);
+                        } else {
+                            df.getOWLClass(iris[index]);
+                        }
+                        count++;
+                    }
+                    operations.addAndGet(count);
+                }
+            });
+        }
+        for (Thread t : workers) {
+            t.start();
+        }
+        Thread.sleep(millis);
+        done.set(true);
+        for (Thread t : workers) {
+            t.join();
+        }
+        return operations.get() * 1000 / millis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int names = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        long millis = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 3);
+        IRI[] iris = new IRI[names];
+        for (int i = 0; i < names; i++) {
+            iris[i] = IRI.create(NS + "C" + i);
+        }
+        OWLDataFactory df = new OWLDataFactoryImpl(true, false);
+        // warm up
+        run(df, iris, 2, millis, false);
+        run(df, iris, 2, millis, true);
+        System.out.println("threads\tgetOWLClass ops/s\tgetOWLLiteral ops/s");
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            long classes = run(df, iris, threads, millis, false);
+            long literals = run(df, iris, threads, millis, true);
+            System.out.println(threads + "\t" + classes + "\t" + literals);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
+
+/**
+ * Measures the latency of single STAR module extractions and the throughput
+ * of batch extraction, sequential and parallel, on a generated terminology;
+ * the full fixpoint over the ontology, which the extractor used to compute, is
+ * timed for comparison. Run with
+ * {@code java ModuleExtractionBenchmark [classes] [modules] [threads]}.
+ */
+@SuppressWarnings("javadoc")
+public class ModuleExtractionBenchmark {
+
+    private static final String NS = "urn:benchmark:modules#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static OWLObjectProperty prop(int i) {
+        return ObjectProperty(IRI(NS + "p" + i));
+    }
+
+    private static OWLOntology generate(OWLOntologyManager m, int classes)
+            throws Exception {
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        Random r = new Random(42);
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        for (int i = 1; i < classes; i++) {
+            axioms.add(Declaration(cls(i)));
+            axioms.add(AnnotationAssertion(RDFSLabel(), cls(i).getIRI(),
+                    Literal("class " + i, "en")));
+            // a tree with a few cross links, like most terminologies
+            axioms.add(SubClassOf(cls(i), cls((i - 1) / 4)));
+            if (r.nextInt(4) == 0) {
+                OWLClassExpression filler = cls(r.nextInt(classes));
+                axioms.add(SubClassOf(cls(i),
+                        ObjectSomeValuesFrom(prop(r.nextInt(20)), filler)));
+            }
+            if (r.nextInt(50) == 0) {
+                axioms.add(DisjointClasses(cls(i), cls(i + 1)));
+            }
+        }
+        for (int i = 1; i < 20; i++) {
+            axioms.add(SubObjectPropertyOf(prop(i), prop(i / 2)));
+        }
+        m.addAxiomsInBulk(o, axioms);
+        return o;
+    }
+
+    private static Set<OWLAxiom> fixpoint(OWLAxiom[] axioms,
+            Set<OWLEntity> signature, LocalityClass localityClass) {
+        Set<OWLAxiom> module = new HashSet<OWLAxiom>();
+        boolean[] in = new boolean[axioms.length];
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                localityClass);
+        boolean change = true;
+        while (change) {
+            change = false;
+            for (int i = 0; i < axioms.length; i++) {
+                if (!in[i] && !sle.isLocal(axioms[i], signature)) {
+                    in[i] = true;
+                    module.add(axioms[i]);
+                    change |= signature.addAll(axioms[i].getSignature());
+                }
+            }
+        }
+        return module;
+    }
+
+    private static String percentiles(long[] nanos) {
+        Arrays.sort(nanos);
+        return String.format("median %.2f ms\tp95 %.2f ms\tmax %.2f ms",
+                nanos[nanos.length / 2] / 1e6,
+                nanos[nanos.length * 95 / 100] / 1e6,
+                nanos[nanos.length - 1] / 1e6);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int modules = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime
+                .getRuntime().availableProcessors();
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = generate(m, classes);
+        Random r = new Random(1);
+        List<Set<OWLEntity>> seeds = new ArrayList<Set<OWLEntity>>();
+        for (int i = 0; i < modules; i++) {
+            Set<OWLEntity> seed = new HashSet<OWLEntity>();
+            for (int j = 0; j < 3; j++) {
+                seed.add(cls(1 + r.nextInt(classes - 1)));
+            }
+            seeds.add(seed);
+        }
+        System.out.println("axioms: " + o.getAxiomCount() + "\tmodules: "
+                + modules + "\tthreads: " + threads);
+        long start = System.nanoTime();
+        SyntacticLocalityModuleExtractor extractor = new SyntacticLocalityModuleExtractor(
+                m, o, ModuleType.STAR);
+        System.out.println("extractor setup: "
+                + (System.nanoTime() - start) / 1000000 + " ms");
+        // the old extraction evaluated every axiom until the signature was
+        // stable; a bottom module is enough to show the difference
+        OWLAxiom[] all = o.getLogicalAxioms().toArray(new OWLAxiom[0]);
+        int baseline = Math.min(5, modules);
+        long[] fixpoint = new long[baseline];
+        for (int i = 0; i < baseline; i++) {
+            start = System.nanoTime();
+            fixpoint(all, new HashSet<OWLEntity>(seeds.get(i)),
+                    LocalityClass.BOTTOM_BOTTOM);
+            fixpoint[i] = System.nanoTime() - start;
+        }
+        System.out.println("full fixpoint, bottom module:\t"
+                + percentiles(fixpoint));
+        long[] single = new long[modules];
+        long size = 0;
+        for (int i = 0; i < modules; i++) {
+            start = System.nanoTime();
+            size += extractor.extract(seeds.get(i)).size();
+            single[i] = System.nanoTime() - start;
+        }
+        System.out.println("single extraction, star module:\t"
+                + percentiles(single) + "\taverage size "
+                + size / modules);
+        for (int t : new int[] { 1, threads }) {
+            SyntacticLocalityModuleExtractor batch = new SyntacticLocalityModuleExtractor(
+                    m, o, ModuleType.STAR);
+            batch.setThreads(t);
+            start = System.nanoTime();
+            Map<Set<OWLEntity>, Set<OWLAxiom>> result = batch
+                    .extractModules(seeds);
+            long time = System.nanoTime() - start;
+            System.out.println(String.format(
+                    "batch, %d threads:\t%d ms\t%.0f modules/s", t,
+                    time / 1000000, result.size() / (time / 1e9)));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.CachingOWLOntologyFactory;
+
+/**
+ * Compares parsing a large RDF/XML document with loading it from the on-disk
+ * ontology cache: the first load through the cache parses the document and
+ * writes the cache entry, the following ones read the entry. Run with
+ * {@code java OntologyCacheBenchmark [classes] [runs]}.
+ */
+@SuppressWarnings("javadoc")
+public class OntologyCacheBenchmark {
+
+    private static final String NS = "urn:benchmark:cache#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static long load(File document, File cacheDirectory)
+            throws Exception {
+        long start = System.nanoTime();
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        if (cacheDirectory != null) {
+            m.addOntologyFactory(new CachingOWLOntologyFactory(cacheDirectory));
+        }
+        OWLOntology o = m.loadOntologyFromOntologyDocument(document);
+        long time = (System.nanoTime() - start) / 1000000;
+        if (o.getAxiomCount() == 0) {
+            throw new IllegalStateException("empty ontology");
+        }
+        return time;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        for (int i = 0; i < classes; i++) {
+            axioms.add(Declaration(cls(i)));
+            axioms.add(AnnotationAssertion(RDFSLabel(), cls(i).getIRI(),
+                    Literal("class " + i, "en")));
+            if (i > 0) {
+                axioms.add(SubClassOf(cls(i), cls((i - 1) / 8)));
+                axioms.add(SubClassOf(cls(i),
+                        ObjectSomeValuesFrom(p, cls(i / 2))));
+            }
+        }
+        m.addAxiomsInBulk(o, axioms);
+        File document = File.createTempFile("cachebenchmark", ".owl");
+        document.deleteOnExit();
+        m.saveOntology(o, new RDFXMLOntologyFormat(), IRI.create(document));
+        File cacheDirectory = File.createTempFile("cachebenchmark", "");
+        cacheDirectory.delete();
+        System.out.println("classes: " + classes + "\taxioms: "
+                + o.getAxiomCount() + "\tdocument: " + document.length() / 1024
+                + " KB");
+        for (int run = 0; run < runs; run++) {
+            long parse = load(document, null);
+            for (File f : listFiles(cacheDirectory)) {
+                f.delete();
+            }
+            long miss = load(document, cacheDirectory);
+            long hit = load(document, cacheDirectory);
+            // a changed modification time forces the document to be hashed
+            document.setLastModified(document.lastModified() - 1000);
+            long digestHit = load(document, cacheDirectory);
+            long entry = 0;
+            for (File f : listFiles(cacheDirectory)) {
+                entry += f.length();
+            }
+            System.out.println("parse: " + parse + " ms\tparse and store: "
+                    + miss + " ms\tcache hit: " + hit
+                    + " ms\tcache hit after digest: " + digestHit
+                    + " ms\tentry: " + entry / 1024 + " KB");
+        }
+        for (File f : listFiles(cacheDirectory)) {
+            f.delete();
+        }
+        cacheDirectory.delete();
+    }
+
+    private static File[] listFiles(File directory) {
+        File[] files = directory.listFiles();
+        return files == null ? new File[0] : files;
+    }
+}
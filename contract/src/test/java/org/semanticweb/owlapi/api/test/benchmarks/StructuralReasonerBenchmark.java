@@ -0,0 +1,90 @@
+package org.semanticweb.owlapi.api.test.benchmarks;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasoner;
+
+/**
+ * Measures how long the structural reasoner takes to take a small edit into
+ * account on a large class hierarchy: each edit adds or removes a subclass
+ * axiom, flushes the reasoner and asks for the direct subclasses of the
+ * classes involved. Run with
+ * {@code java StructuralReasonerBenchmark [classes] [edits]}.
+ */
+@SuppressWarnings("javadoc")
+public class StructuralReasonerBenchmark {
+
+    private static final String NS = "urn:benchmark:structural#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 300000;
+        int edits = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        for (int i = 1; i < classes; i++) {
+            // a tree with branching factor 8, plus a few equivalences
+            axioms.add(SubClassOf(cls(i), cls((i - 1) / 8)));
+            if (i % 1000 == 0) {
+                axioms.add(EquivalentClasses(cls(i), cls(i - 1)));
+            }
+        }
+        m.addAxiomsInBulk(o, axioms);
+        long start = System.nanoTime();
+        StructuralReasoner reasoner = new StructuralReasoner(o,
+                new SimpleConfiguration(), BufferingMode.BUFFERING);
+        System.out.println("classes: " + classes + "\tinitial classification: "
+                + (System.nanoTime() - start) / 1000000 + " ms");
+        Random random = new Random(42);
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < edits; i++) {
+            OWLClass sub = cls(1 + random.nextInt(classes - 1));
+            OWLClass sup = cls(random.nextInt(classes));
+            OWLAxiom ax = SubClassOf(sub, sup);
+            boolean add = !o.containsAxiom(ax);
+            long t = System.nanoTime();
+            if (add) {
+                m.addAxiom(o, ax);
+            } else {
+                m.removeAxiom(o, ax);
+            }
+            reasoner.flush();
+            reasoner.getSubClasses(sup, true);
+            reasoner.getSuperClasses(sub, true);
+            t = System.nanoTime() - t;
+            total += t;
+            max = Math.max(max, t);
+            // undo the edit, so that the hierarchy stays the same size
+            t = System.nanoTime();
+            if (add) {
+                m.removeAxiom(o, ax);
+            } else {
+                m.addAxiom(o, ax);
+            }
+            reasoner.flush();
+            reasoner.getSubClasses(sup, true);
+            t = System.nanoTime() - t;
+            total += t;
+            max = Math.max(max, t);
+        }
+        System.out.println("edits: " + edits * 2 + "\taverage: " + total
+                / (edits * 2) / 1000 + " us\tmax: " + max / 1000 + " us");
+        reasoner.dispose();
+    }
+}
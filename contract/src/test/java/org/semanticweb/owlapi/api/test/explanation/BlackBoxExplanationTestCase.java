@@ -0,0 +1,181 @@
+package org.semanticweb.owlapi.api.test.explanation;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
+
+import com.clarkparsia.owlapi.explanation.BlackBoxExplanation;
+
+@SuppressWarnings("javadoc")
+public class BlackBoxExplanationTestCase {
+
+    private static final String NS = "urn:test:blackbox#";
+    private OWLOntologyManager m;
+    private OWLOntology o;
+    private Set<OWLAxiom> expected;
+
+    private static OWLClass cls(String name) {
+        return Class(IRI(NS + name));
+    }
+
+    /**
+     * A structural reasoner that also finds classes unsatisfiable when they
+     * have two told superclasses declared disjoint; classes that are told
+     * superclasses of owl:Thing are superclasses of every class.
+     */
+    private static class DisjointnessReasoner extends StructuralReasoner {
+
+        DisjointnessReasoner(OWLOntology ontology,
+                OWLReasonerConfiguration config, BufferingMode mode) {
+            super(ontology, config, mode);
+        }
+
+        @Override
+        public boolean isSatisfiable(OWLClassExpression ce) {
+            if (ce.isAnonymous()) {
+                return true;
+            }
+            Set<OWLClass> supers = new HashSet<OWLClass>(getSuperClasses(ce,
+                    false).getFlattened());
+            supers.add(ce.asOWLClass());
+            for (OWLSubClassOfAxiom ax : getRootOntology().getAxioms(
+                    AxiomType.SUBCLASS_OF)) {
+                if (ax.getSubClass().isOWLThing()) {
+                    supers.add(ax.getSuperClass().asOWLClass());
+                }
+            }
+            for (OWLDisjointClassesAxiom ax : getRootOntology().getAxioms(
+                    AxiomType.DISJOINT_CLASSES)) {
+                int count = 0;
+                for (OWLClassExpression disjoint : ax.getClassExpressions()) {
+                    if (supers.contains(disjoint)) {
+                        count++;
+                    }
+                }
+                if (count > 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class CountingFactory extends StructuralReasonerFactory {
+
+        int created;
+
+        @Override
+        public OWLReasoner createReasoner(OWLOntology ontology) {
+            created++;
+            return new DisjointnessReasoner(ontology,
+                    new SimpleConfiguration(), BufferingMode.BUFFERING);
+        }
+
+        @Override
+        public OWLReasoner createNonBufferingReasoner(OWLOntology ontology) {
+            created++;
+            return new DisjointnessReasoner(ontology,
+                    new SimpleConfiguration(), BufferingMode.NON_BUFFERING);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        m = OWLManager.createOWLOntologyManager();
+        o = m.createOntology(IRI(NS + "ontology"));
+        expected = new HashSet<OWLAxiom>(Arrays.<OWLAxiom> asList(
+                SubClassOf(cls("A"), cls("B")), SubClassOf(cls("B"), cls("C")),
+                SubClassOf(cls("C"), cls("D")), SubClassOf(cls("A"), cls("E")),
+                DisjointClasses(cls("D"), cls("E"))));
+        m.addAxioms(o, expected);
+        // axioms outside the module of A, and axioms in it that are not
+        // needed
+        for (int i = 0; i < 100; i++) {
+            m.addAxiom(o, SubClassOf(cls("F" + i), cls("G" + i)));
+            m.addAxiom(o, SubClassOf(cls("H" + i), cls("B")));
+        }
+        m.addAxiom(o, SubClassOf(cls("B"), cls("K")));
+        m.addAxiom(o, DisjointClasses(cls("K"), cls("G1")));
+    }
+
+    private Set<OWLAxiom> explain(boolean incremental, CountingFactory factory) {
+        BlackBoxExplanation explanation = new BlackBoxExplanation(o, factory,
+                factory.createNonBufferingReasoner(o));
+        explanation.setIncremental(incremental);
+        assertEquals(incremental, explanation.isIncremental());
+        Set<OWLAxiom> result = explanation.getExplanation(cls("A"));
+        // a second explanation reuses the debugging ontology
+        assertEquals(result, explanation.getExplanation(cls("A")));
+        explanation.dispose();
+        return result;
+    }
+
+    @Test
+    public void shouldFindSameExplanationIncrementally() {
+        int ontologies = m.getOntologies().size();
+        CountingFactory plain = new CountingFactory();
+        assertEquals(expected, explain(false, plain));
+        assertEquals(ontologies, m.getOntologies().size());
+        CountingFactory incremental = new CountingFactory();
+        assertEquals(expected, explain(true, incremental));
+        assertEquals(ontologies, m.getOntologies().size());
+        // the reasoner of the generator and one debugging reasoner
+        assertEquals(2, incremental.created);
+        assertTrue(plain.created > incremental.created);
+    }
+
+    @Test
+    public void shouldTakeEditsBetweenExplanationsIntoAccount() {
+        CountingFactory factory = new CountingFactory();
+        BlackBoxExplanation explanation = new BlackBoxExplanation(o, factory,
+                factory.createNonBufferingReasoner(o));
+        explanation.setIncremental(true);
+        assertEquals(expected, explanation.getExplanation(cls("A")));
+        // E now follows from a global axiom, which is in every module
+        m.removeAxiom(o, SubClassOf(cls("A"), cls("E")));
+        m.addAxiom(o, SubClassOf(OWLThing(), cls("E")));
+        expected.remove(SubClassOf(cls("A"), cls("E")));
+        expected.add(SubClassOf(OWLThing(), cls("E")));
+        assertEquals(expected, explanation.getExplanation(cls("A")));
+        // a global axiom that is removed leaves the module
+        m.removeAxiom(o, SubClassOf(OWLThing(), cls("E")));
+        m.addAxiom(o, SubClassOf(cls("H1"), cls("E")));
+        m.addAxiom(o, SubClassOf(cls("A"), cls("H1")));
+        expected.remove(SubClassOf(OWLThing(), cls("E")));
+        expected.add(SubClassOf(cls("H1"), cls("E")));
+        expected.add(SubClassOf(cls("A"), cls("H1")));
+        assertEquals(expected, explanation.getExplanation(cls("A")));
+        explanation.dispose();
+    }
+
+    @Test
+    public void shouldNotExplainSatisfiableClassIncrementally() {
+        CountingFactory factory = new CountingFactory();
+        BlackBoxExplanation explanation = new BlackBoxExplanation(o, factory,
+                factory.createNonBufferingReasoner(o));
+        explanation.setIncremental(true);
+        assertTrue(explanation.getExplanation(cls("C")).isEmpty());
+        explanation.dispose();
+    }
+}
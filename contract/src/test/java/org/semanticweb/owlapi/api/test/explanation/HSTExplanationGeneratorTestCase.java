@@ -0,0 +1,163 @@
+package org.semanticweb.owlapi.api.test.explanation;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerConfiguration;
+import org.semanticweb.owlapi.reasoner.SimpleConfiguration;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
+
+import com.clarkparsia.owlapi.explanation.BlackBoxExplanation;
+import com.clarkparsia.owlapi.explanation.HSTExplanationGenerator;
+
+@SuppressWarnings("javadoc")
+public class HSTExplanationGeneratorTestCase {
+
+    private static final String NS = "urn:test:hst#";
+    private OWLOntologyManager m;
+    private OWLOntology o;
+
+    private static OWLClass cls(String name) {
+        return Class(IRI(NS + name));
+    }
+
+    /**
+     * A structural reasoner that also finds classes unsatisfiable when they
+     * have two told superclasses declared disjoint.
+     */
+    private static class DisjointnessReasoner extends StructuralReasoner {
+
+        DisjointnessReasoner(OWLOntology ontology,
+                OWLReasonerConfiguration config, BufferingMode mode) {
+            super(ontology, config, mode);
+        }
+
+        @Override
+        public boolean isSatisfiable(OWLClassExpression ce) {
+            if (ce.isAnonymous()) {
+                return true;
+            }
+            Set<OWLClass> supers = new HashSet<OWLClass>(getSuperClasses(ce,
+                    false).getFlattened());
+            supers.add(ce.asOWLClass());
+            for (OWLDisjointClassesAxiom ax : getRootOntology().getAxioms(
+                    AxiomType.DISJOINT_CLASSES)) {
+                int count = 0;
+                for (OWLClassExpression disjoint : ax.getClassExpressions()) {
+                    if (supers.contains(disjoint)) {
+                        count++;
+                    }
+                }
+                if (count > 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class DisjointnessReasonerFactory extends
+            StructuralReasonerFactory {
+
+        @Override
+        public OWLReasoner createReasoner(OWLOntology ontology) {
+            return new DisjointnessReasoner(ontology,
+                    new SimpleConfiguration(), BufferingMode.BUFFERING);
+        }
+
+        @Override
+        public OWLReasoner createNonBufferingReasoner(OWLOntology ontology) {
+            return new DisjointnessReasoner(ontology,
+                    new SimpleConfiguration(), BufferingMode.NON_BUFFERING);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        m = OWLManager.createOWLOntologyManager();
+        o = m.createOntology(IRI(NS + "ontology"));
+        // three ways to D and four ways to E: twelve justifications
+        for (int i = 0; i < 3; i++) {
+            m.addAxiom(o, SubClassOf(cls("A"), cls("B" + i)));
+            m.addAxiom(o, SubClassOf(cls("B" + i), cls("D")));
+            m.addAxiom(o, SubClassOf(cls("A"), cls("C" + i)));
+            m.addAxiom(o, SubClassOf(cls("C" + i), cls("E")));
+        }
+        m.addAxiom(o, SubClassOf(cls("A"), cls("E")));
+        m.addAxiom(o, DisjointClasses(cls("D"), cls("E")));
+        for (int i = 0; i < 20; i++) {
+            m.addAxiom(o, SubClassOf(cls("F" + i), cls("D")));
+        }
+    }
+
+    private HSTExplanationGenerator generator() {
+        DisjointnessReasonerFactory factory = new DisjointnessReasonerFactory();
+        return new HSTExplanationGenerator(new BlackBoxExplanation(o,
+                factory, factory.createNonBufferingReasoner(o)));
+    }
+
+    @Test
+    public void shouldFindSameExplanationsInParallel() {
+        Set<OWLAxiom> axioms = o.getAxioms();
+        Set<Set<OWLAxiom>> sequential = generator().getExplanations(cls("A"));
+        assertEquals(12, sequential.size());
+        for (int threads = 2; threads <= 4; threads++) {
+            HSTExplanationGenerator parallel = generator();
+            parallel.setThreads(threads, new OWLManager());
+            assertEquals(threads, parallel.getThreads());
+            assertEquals(sequential, parallel.getExplanations(cls("A")));
+        }
+        // the axioms are removed from copies, not from the ontology
+        assertEquals(axioms, o.getAxioms());
+    }
+
+    @Test
+    public void shouldStopAtMaximumNumberOfExplanations() {
+        HSTExplanationGenerator parallel = generator();
+        parallel.setThreads(3, new OWLManager());
+        Set<Set<OWLAxiom>> all = generator().getExplanations(cls("A"));
+        Set<Set<OWLAxiom>> some = parallel.getExplanations(cls("A"), 5);
+        assertEquals(5, some.size());
+        assertTrue(all.containsAll(some));
+    }
+
+    @Test
+    public void shouldNotExplainSatisfiableClass() {
+        HSTExplanationGenerator parallel = generator();
+        parallel.setThreads(2, new OWLManager());
+        assertTrue(parallel.getExplanations(cls("B0")).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnFirstExplanationWhenOutOfTime() {
+        HSTExplanationGenerator parallel = generator();
+        parallel.setThreads(2, new OWLManager());
+        parallel.setTimeLimit(1);
+        assertEquals(1, parallel.getTimeLimit());
+        Set<Set<OWLAxiom>> all = generator().getExplanations(cls("A"));
+        Set<Set<OWLAxiom>> some = parallel.getExplanations(cls("A"));
+        assertFalse(some.isEmpty());
+        assertTrue(all.containsAll(some));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireManagerFactoryForThreads() {
+        generator().setThreads(2, null);
+    }
+}
@@ -0,0 +1,355 @@
+package org.semanticweb.owlapi.api.test.imports;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.coode.owlapi.manchesterowlsyntax.ManchesterOWLSyntaxOntologyFormat;
+import org.coode.owlapi.turtle.TurtleOntologyFormat;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.IRIDocumentSource;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
+import org.semanticweb.owlapi.io.OWLXMLOntologyFormat;
+import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.MissingImportEvent;
+import org.semanticweb.owlapi.model.MissingImportHandlingStrategy;
+import org.semanticweb.owlapi.model.MissingImportListener;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.UnloadableImportException;
+import org.semanticweb.owlapi.util.AutoIRIMapper;
+
+@SuppressWarnings("javadoc")
+public class ParallelImportsLoadingTestCase {
+
+    private static final IRI MISSING = IRI("http://localhost:1/missing.owl");
+    private IRI root;
+
+    private static IRI save(String name, OWLOntologyFormat format,
+            IRI... imports) throws Exception {
+        File file = File.createTempFile("parallelimports", name);
+        file.deleteOnExit();
+        IRI iri = IRI.create(file);
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(iri);
+        for (IRI i : imports) {
+            m.applyChange(new AddImport(o,
+                    ImportsDeclaration(i)));
+        }
+        m.addAxiom(o, SubClassOf(Class(IRI(iri + "#A")), Class(IRI(iri + "#B"))));
+        m.addAxiom(o, Declaration(Class(IRI(iri + "#A"))));
+        m.addAxiom(o, Declaration(Class(IRI(iri + "#B"))));
+        m.saveOntology(o, format, iri);
+        return iri;
+    }
+
+    @Before
+    public void setUpImportsClosure() throws Exception {
+        IRI d = save("d.omn", new ManchesterOWLSyntaxOntologyFormat());
+        IRI c = save("c.ttl", new TurtleOntologyFormat(), d);
+        IRI a = save("a.owl", new RDFXMLOntologyFormat(), c);
+        IRI b = save("b.owx", new OWLXMLOntologyFormat(), c, d, MISSING);
+        root = save("root.ofn", new OWLFunctionalSyntaxOntologyFormat(), a,
+                b);
+    }
+
+    private static Set<OWLOntologyID> ids(OWLOntologyManager m) {
+        Set<OWLOntologyID> ids = new HashSet<OWLOntologyID>();
+        for (OWLOntology o : m.getOntologies()) {
+            ids.add(o.getOntologyID());
+        }
+        return ids;
+    }
+
+    private static Set<OWLAxiom> closureAxioms(OWLOntology o) {
+        Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
+        for (OWLOntology imported : o.getImportsClosure()) {
+            axioms.addAll(imported.getAxioms());
+        }
+        return axioms;
+    }
+
+    private OWLOntology load(OWLOntologyManager m, int threads,
+            final List<IRI> missing) throws Exception {
+        m.addMissingImportListener(new MissingImportListener() {
+
+            @Override
+            public void importMissing(MissingImportEvent event) {
+                missing.add(event.getImportedOntologyURI());
+            }
+        });
+        return m.loadOntologyFromOntologyDocument(
+                new IRIDocumentSource(root),
+                new OWLOntologyLoaderConfiguration()
+                        .setImportLoadingThreads(threads)
+                        .setMissingImportHandlingStrategy(
+                                MissingImportHandlingStrategy.SILENT));
+    }
+
+    @Test
+    public void shouldLoadSameImportsClosureAsSequentialLoading()
+            throws Exception {
+        OWLOntologyManager sequential = OWLManager.createOWLOntologyManager();
+        List<IRI> sequentialMissing = new ArrayList<IRI>();
+        OWLOntology expected = load(sequential, 0, sequentialMissing);
+        OWLOntologyManager parallel = OWLManager.createOWLOntologyManager();
+        List<IRI> parallelMissing = new ArrayList<IRI>();
+        OWLOntology actual = load(parallel, 4, parallelMissing);
+        assertEquals(5, sequential.getOntologies().size());
+        assertEquals(ids(sequential), ids(parallel));
+        assertEquals(expected.getImportsClosure().size(), actual
+                .getImportsClosure().size());
+        assertEquals(closureAxioms(expected), closureAxioms(actual));
+        for (OWLOntology o : sequential.getOntologies()) {
+            assertEquals(sequential.getOntologyFormat(o).getClass(), parallel
+                    .getOntologyFormat(parallel.getOntology(o.getOntologyID()))
+                    .getClass());
+            assertEquals(sequential.getOntologyDocumentIRI(o), parallel
+                    .getOntologyDocumentIRI(parallel.getOntology(o
+                            .getOntologyID())));
+        }
+        // the missing import is reported once, as in sequential loading
+        assertEquals(1, sequentialMissing.size());
+        assertEquals(sequentialMissing, parallelMissing);
+    }
+
+    @Test
+    public void shouldLoadImportsAlreadyInManagerOnce() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = load(m, 4, new ArrayList<IRI>());
+        m.removeOntology(o);
+        OWLOntology reloaded = load(m, 4, new ArrayList<IRI>());
+        assertEquals(5, m.getOntologies().size());
+        assertEquals(5, reloaded.getImportsClosure().size());
+    }
+
+    @Test(expected = UnloadableImportException.class)
+    public void shouldThrowForMissingImportsByDefault() throws Exception {
+        OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(
+                new IRIDocumentSource(root),
+                new OWLOntologyLoaderConfiguration().setImportLoadingThreads(4));
+    }
+
+    @Test
+    public void shouldLoadRemoteImportsFromPrefetchedDocuments()
+            throws Exception {
+        DocumentServer server = new DocumentServer();
+        try {
+            IRI b = server.iri("b.ofn");
+            IRI a = server.iri("a.ofn");
+            server.put("b.ofn", document(b));
+            server.put("a.ofn", document(a, b));
+            root = save("remote.ofn",
+                    new OWLFunctionalSyntaxOntologyFormat(), a);
+            OWLOntologyManager parallel = OWLManager
+                    .createOWLOntologyManager();
+            OWLOntology actual = load(parallel, 4, new ArrayList<IRI>());
+            // each remote document is fetched once, ahead of the manager,
+            // which loads it from the bytes handed over by the prefetcher
+            assertEquals(1, server.getRequests("a.ofn"));
+            assertEquals(1, server.getRequests("b.ofn"));
+            assertEquals(3, actual.getImportsClosure().size());
+            assertEquals(b, parallel.getOntologyDocumentIRI(parallel
+                    .getOntology(b)));
+            assertEquals(OWLFunctionalSyntaxOntologyFormat.class, parallel
+                    .getOntologyFormat(parallel.getOntology(b)).getClass());
+            OWLOntology expected = load(
+                    OWLManager.createOWLOntologyManager(), 0,
+                    new ArrayList<IRI>());
+            assertEquals(closureAxioms(expected), closureAxioms(actual));
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void shouldLoadImportsMappedByAutoIRIMapper() throws Exception {
+        File directory = File.createTempFile("parallelimports", "auto");
+        directory.delete();
+        directory.mkdir();
+        directory.deleteOnExit();
+        int count = 8;
+        IRI[] iris = new IRI[count];
+        for (int i = 0; i < count; i++) {
+            iris[i] = IRI("http://www.example.com/auto/o" + i);
+        }
+        // o0 imports all the others, which import their successor; the
+        // ontology IRIs can only be resolved through the mapper
+        for (int i = 0; i < count; i++) {
+            OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+            OWLOntology o = m.createOntology(iris[i]);
+            for (int j = i + 1; j < count && (i == 0 || j == i + 1); j++) {
+                m.applyChange(new AddImport(o, ImportsDeclaration(iris[j])));
+            }
+            m.addAxiom(o, SubClassOf(Class(IRI(iris[i] + "#A")),
+                    Class(IRI(iris[i] + "#B"))));
+            File file = new File(directory, "o" + i + ".owl");
+            file.deleteOnExit();
+            m.saveOntology(o, new RDFXMLOntologyFormat(), IRI.create(file));
+        }
+        root = IRI.create(new File(directory, "o0.owl"));
+        OWLOntologyManager sequential = OWLManager.createOWLOntologyManager();
+        sequential.addIRIMapper(new AutoIRIMapper(directory, false));
+        OWLOntology expected = load(sequential, 0, new ArrayList<IRI>());
+        assertEquals(count, expected.getImportsClosure().size());
+        for (int run = 0; run < 5; run++) {
+            OWLOntologyManager parallel = OWLManager.createOWLOntologyManager();
+            CountingAutoIRIMapper mapper = new CountingAutoIRIMapper(directory);
+            parallel.addIRIMapper(mapper);
+            List<IRI> missing = new ArrayList<IRI>();
+            OWLOntology actual = load(parallel, 4, missing);
+            assertTrue(missing.isEmpty());
+            assertEquals(count, actual.getImportsClosure().size());
+            assertEquals(closureAxioms(expected), closureAxioms(actual));
+            for (int i = 1; i < count; i++) {
+                assertEquals(IRI.create(new File(directory, "o" + i + ".owl")),
+                        parallel.getOntologyDocumentIRI(parallel
+                                .getOntology(iris[i])));
+            }
+            // the mapper is never queried by two threads at once
+            assertEquals(1, mapper.maximumConcurrentCalls.get());
+        }
+    }
+
+    /** Records how many threads query the mapper at the same time. */
+    private static class CountingAutoIRIMapper extends AutoIRIMapper {
+
+        private static final long serialVersionUID = 30406L;
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        final AtomicInteger maximumConcurrentCalls = new AtomicInteger();
+
+        CountingAutoIRIMapper(File directory) {
+            super(directory, false);
+        }
+
+        @Override
+        public IRI getDocumentIRI(IRI ontologyIRI) {
+            int calls = concurrentCalls.incrementAndGet();
+            try {
+                int maximum;
+                do {
+                    maximum = maximumConcurrentCalls.get();
+                } while (calls > maximum
+                        && !maximumConcurrentCalls.compareAndSet(maximum,
+                                calls));
+                // widen the window in which another thread could enter
+                Thread.sleep(1);
+                return super.getDocumentIRI(ontologyIRI);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return super.getDocumentIRI(ontologyIRI);
+            } finally {
+                concurrentCalls.decrementAndGet();
+            }
+        }
+    }
+
+    private static String document(IRI iri, IRI... imports) throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(iri);
+        for (IRI i : imports) {
+            m.applyChange(new AddImport(o, ImportsDeclaration(i)));
+        }
+        m.addAxiom(o, SubClassOf(Class(IRI(iri + "#A")), Class(IRI(iri + "#B"))));
+        StringDocumentTarget target = new StringDocumentTarget();
+        m.saveOntology(o, new OWLFunctionalSyntaxOntologyFormat(), target);
+        return target.toString();
+    }
+
+    /** Serves documents over HTTP on the loopback interface. */
+    private static class DocumentServer implements Runnable {
+
+        private final ServerSocket socket;
+        private final Map<String, String> documents = new ConcurrentHashMap<String, String>();
+        private final ConcurrentMap<String, AtomicInteger> requests = new ConcurrentHashMap<String, AtomicInteger>();
+
+        DocumentServer() throws IOException {
+            socket = new ServerSocket(0, 50, InetAddress.getByName(null));
+            Thread thread = new Thread(this, "DocumentServer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        IRI iri(String name) {
+            return IRI.create("http://localhost:" + socket.getLocalPort()
+                    + "/" + name);
+        }
+
+        void put(String name, String document) {
+            documents.put(name, document);
+        }
+
+        int getRequests(String name) {
+            AtomicInteger count = requests.get(name);
+            return count == null ? 0 : count.get();
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+
+        @Override
+        public void run() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    try {
+                        serve(client);
+                    } finally {
+                        client.close();
+                    }
+                } catch (IOException e) {
+                    // closed, or a client went away
+                }
+            }
+        }
+
+        private void serve(Socket client) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                    client.getInputStream(), "UTF-8"));
+            String[] request = in.readLine().split(" ");
+            String line;
+            while ((line = in.readLine()) != null && line.length() > 0) {
+                // skip the headers
+            }
+            String name = request[1].substring(1);
+            requests.putIfAbsent(name, new AtomicInteger());
+            requests.get(name).incrementAndGet();
+            String document = documents.get(name);
+            byte[] body = (document == null ? "" : document).getBytes("UTF-8");
+            OutputStream out = client.getOutputStream();
+            out.write(((document == null ? "HTTP/1.0 404 Not Found"
+                    : "HTTP/1.0 200 OK")
+                    + "\r\nContent-Type: text/plain\r\nContent-Length: "
+                    + body.length + "\r\nConnection: close\r\n\r\n")
+                    .getBytes("UTF-8"));
+            out.write(body);
+            out.flush();
+        }
+    }
+}
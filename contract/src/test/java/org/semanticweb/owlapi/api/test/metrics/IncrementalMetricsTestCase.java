@@ -0,0 +1,162 @@
+package org.semanticweb.owlapi.api.test.metrics;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.Factory;
+import org.semanticweb.owlapi.metrics.AverageAssertedNamedSuperclassCount;
+import org.semanticweb.owlapi.metrics.AxiomCount;
+import org.semanticweb.owlapi.metrics.AxiomTypeMetric;
+import org.semanticweb.owlapi.metrics.DLExpressivity;
+import org.semanticweb.owlapi.metrics.GCICount;
+import org.semanticweb.owlapi.metrics.HiddenGCICount;
+import org.semanticweb.owlapi.metrics.ImportClosureSize;
+import org.semanticweb.owlapi.metrics.LogicalAxiomCount;
+import org.semanticweb.owlapi.metrics.MaximumNumberOfNamedSuperclasses;
+import org.semanticweb.owlapi.metrics.NumberOfClassesWithMultipleInheritance;
+import org.semanticweb.owlapi.metrics.OWLMetric;
+import org.semanticweb.owlapi.metrics.OWLMetricManager;
+import org.semanticweb.owlapi.metrics.ReferencedClassCount;
+import org.semanticweb.owlapi.metrics.ReferencedDataPropertyCount;
+import org.semanticweb.owlapi.metrics.ReferencedIndividualCount;
+import org.semanticweb.owlapi.metrics.ReferencedObjectPropertyCount;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+import org.semanticweb.owlapi.model.RemoveImport;
+
+@SuppressWarnings("javadoc")
+public class IncrementalMetricsTestCase {
+
+    private static final String NS = "urn:test:metrics#";
+    private OWLOntologyManager m;
+    private OWLOntology o;
+    private OWLOntology imported;
+    private final OWLClass a = Class(IRI(NS + "A"));
+    private final OWLClass b = Class(IRI(NS + "B"));
+    private final OWLClass c = Class(IRI(NS + "C"));
+    private final OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+
+    @Before
+    public void setUp() throws Exception {
+        m = Factory.getManager();
+        imported = m.createOntology(IRI(NS + "imported"));
+        o = m.createOntology(IRI(NS + "ontology"));
+        m.applyChange(new AddImport(o, ImportsDeclaration(IRI(NS
+                + "imported"))));
+        m.addAxiom(o, Declaration(a));
+        m.addAxiom(o, SubClassOf(a, b));
+        m.addAxiom(o, SubClassOf(a, c));
+        m.addAxiom(o, SubClassOf(b, ObjectSomeValuesFrom(p, c)));
+        m.addAxiom(o, EquivalentClasses(a, ObjectIntersectionOf(b, c)));
+        m.addAxiom(imported, SubClassOf(a, b));
+        m.addAxiom(imported, SubClassOf(c, a));
+        m.addAxiom(imported, TransitiveObjectProperty(p));
+        m.addAxiom(imported, ClassAssertion(c, NamedIndividual(IRI(NS + "i"))));
+    }
+
+    private List<OWLMetric<?>> metrics(boolean importsClosureUsed) {
+        List<OWLMetric<?>> metrics = new ArrayList<OWLMetric<?>>(
+                Arrays.<OWLMetric<?>> asList(new AxiomCount(m),
+                        new LogicalAxiomCount(m), new GCICount(m),
+                        new HiddenGCICount(m), new ReferencedClassCount(m),
+                        new ReferencedObjectPropertyCount(m),
+                        new ReferencedDataPropertyCount(m),
+                        new ReferencedIndividualCount(m),
+                        new DLExpressivity(m), new ImportClosureSize(m),
+                        new NumberOfClassesWithMultipleInheritance(m),
+                        new AverageAssertedNamedSuperclassCount(m),
+                        new MaximumNumberOfNamedSuperclasses(m)));
+        for (AxiomType<?> type : AxiomType.AXIOM_TYPES) {
+            metrics.add(new AxiomTypeMetric(m, type));
+        }
+        for (OWLMetric<?> metric : metrics) {
+            metric.setImportsClosureUsed(importsClosureUsed);
+        }
+        return metrics;
+    }
+
+    private static void assertSameValues(OWLMetricManager expected,
+            OWLMetricManager actual) {
+        List<OWLMetric<?>> expectedMetrics = expected.getMetrics();
+        List<OWLMetric<?>> actualMetrics = actual.getMetrics();
+        for (int i = 0; i < expectedMetrics.size(); i++) {
+            assertEquals(expectedMetrics.get(i).getName(), expectedMetrics
+                    .get(i).getValue(), actualMetrics.get(i).getValue());
+        }
+    }
+
+    private void checkChanges(boolean importsClosureUsed) {
+        OWLMetricManager expected = new OWLMetricManager(
+                metrics(importsClosureUsed));
+        OWLMetricManager actual = new OWLMetricManager(
+                metrics(importsClosureUsed), true);
+        expected.setOntology(o);
+        actual.setOntology(o);
+        assertSameValues(expected, actual);
+        OWLAxiom gci = SubClassOf(ObjectSomeValuesFrom(p, b), c);
+        m.addAxiom(o, gci);
+        m.addAxiom(o, DataPropertyAssertion(DataProperty(IRI(NS + "d")),
+                NamedIndividual(IRI(NS + "j")), Literal(1)));
+        assertSameValues(expected, actual);
+        // the same axiom in both ontologies, in one change list
+        OWLAxiom shared = DisjointClasses(b, ObjectComplementOf(c));
+        m.applyChanges(Arrays.<OWLOntologyChange> asList(
+                new AddAxiom(o, shared), new AddAxiom(imported, shared),
+                new RemoveAxiom(o, SubClassOf(a, b))));
+        assertSameValues(expected, actual);
+        m.applyChanges(Arrays.<OWLOntologyChange> asList(new RemoveAxiom(
+                imported, shared), new AddAxiom(o, SubClassOf(a, b)),
+                new RemoveAxiom(o, SubClassOf(a, b))));
+        assertSameValues(expected, actual);
+        m.removeAxiom(imported, TransitiveObjectProperty(p));
+        m.removeAxiom(o, gci);
+        m.removeAxiom(o, EquivalentClasses(a, ObjectIntersectionOf(b, c)));
+        assertSameValues(expected, actual);
+        m.applyChange(new RemoveImport(o, ImportsDeclaration(IRI(NS
+                + "imported"))));
+        assertSameValues(expected, actual);
+        m.applyChange(new AddImport(o, ImportsDeclaration(IRI(NS
+                + "imported"))));
+        assertSameValues(expected, actual);
+        actual.dispose();
+        m.addAxiom(o, SubClassOf(c, b));
+        assertSameValues(expected, actual);
+    }
+
+    @Test
+    public void shouldKeepMetricsOfOntologyUpToDate() {
+        checkChanges(false);
+    }
+
+    @Test
+    public void shouldKeepMetricsOfImportsClosureUpToDate() {
+        checkChanges(true);
+    }
+
+    @Test
+    public void shouldComputeAgainWhenImportsClosureUseChanges() {
+        OWLMetricManager manager = new OWLMetricManager(metrics(false), true);
+        manager.setOntology(o);
+        OWLMetric<?> axioms = manager.getMetrics().get(1);
+        assertEquals(4, axioms.getValue());
+        axioms.setImportsClosureUsed(true);
+        assertEquals(7, axioms.getValue());
+        m.addAxiom(imported, SubClassOf(b, c));
+        assertEquals(8, axioms.getValue());
+        manager.dispose();
+    }
+}
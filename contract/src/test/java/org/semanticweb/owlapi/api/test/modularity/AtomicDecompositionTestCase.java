@@ -0,0 +1,126 @@
+package org.semanticweb.owlapi.api.test.modularity;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.api.test.modularity.RandomOntologies.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owlapi.modularity.Atom;
+import uk.ac.manchester.cs.owlapi.modularity.AtomicDecomposition;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+@SuppressWarnings("javadoc")
+public class AtomicDecompositionTestCase {
+
+    private static final int CLASSES = 400;
+
+    private static OWLOntology random(OWLOntologyManager m) throws Exception {
+        OWLOntology o = RandomOntologies.create(m, 11, CLASSES);
+        m.addAxiom(o, SubClassOf(OWLThing(), ObjectAllValuesFrom(prop(2),
+                cls(3))));
+        m.addAxiom(o, SubClassOf(cls(5), OWLThing()));
+        return o;
+    }
+
+    private static Set<OWLAxiom> logical(Set<OWLAxiom> axioms) {
+        Set<OWLAxiom> toReturn = new HashSet<OWLAxiom>();
+        for (OWLAxiom ax : axioms) {
+            if (ax.isLogicalAxiom()) {
+                toReturn.add(ax);
+            }
+        }
+        return toReturn;
+    }
+
+    @Test
+    public void shouldDecomposeChain() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology();
+        OWLAxiom ab = SubClassOf(cls(1), cls(2));
+        OWLAxiom bc = SubClassOf(cls(2), cls(3));
+        OWLAxiom tautology = SubClassOf(cls(4), OWLThing());
+        m.addAxiom(o, ab);
+        m.addAxiom(o, bc);
+        m.addAxiom(o, tautology);
+        AtomicDecomposition ad = new AtomicDecomposition(o, ModuleType.BOT);
+        assertEquals(2, ad.getAtoms().size());
+        Atom top = ad.getAtom(ab);
+        Atom bottom = ad.getAtom(bc);
+        assertEquals(Collections.singleton(ab), top.getAxioms());
+        assertEquals(Collections.singleton(bottom),
+                top.getDependencies(true));
+        assertEquals(Collections.singleton(top),
+                bottom.getDependents(false));
+        assertEquals(Collections.singleton(top), ad.getTopAtoms());
+        assertEquals(Collections.singleton(bottom),
+                ad.getBottomAtoms());
+        assertNull(ad.getAtom(tautology));
+        assertEquals(Collections.singleton(tautology),
+                ad.getTautologies());
+        Set<OWLEntity> seed = new HashSet<OWLEntity>();
+        seed.add(cls(1));
+        assertEquals(new HashSet<OWLAxiom>(Arrays.asList(ab, bc)),
+                ad.getModule(seed));
+    }
+
+    @Test
+    public void shouldAnswerModulesLikeTheExtractor() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = random(m);
+        for (ModuleType type : new ModuleType[] { ModuleType.BOT,
+                ModuleType.TOP, ModuleType.STAR }) {
+            AtomicDecomposition ad = new AtomicDecomposition(o, type);
+            SyntacticLocalityModuleExtractor extractor = new SyntacticLocalityModuleExtractor(
+                    m, o, type);
+            // atoms partition the axioms that are in some module
+            Set<OWLAxiom> covered = new HashSet<OWLAxiom>();
+            for (Atom atom : ad.getAtoms()) {
+                for (OWLAxiom ax : atom.getAxioms()) {
+                    assertTrue(covered.add(ax));
+                    assertSame(atom, ad.getAtom(ax));
+                    assertEquals(atom.getModule(),
+                            logical(extractor.extract(ax.getSignature())));
+                }
+                Set<OWLAxiom> module = new HashSet<OWLAxiom>(
+                        atom.getAxioms());
+                for (Atom dependency : atom.getDependencies(false)) {
+                    module.addAll(dependency.getAxioms());
+                    assertTrue(dependency.getDependents(false).contains(atom));
+                }
+                assertEquals(atom.getModule(), module);
+            }
+            covered.addAll(ad.getTautologies());
+            assertEquals(o.getLogicalAxioms(), covered);
+            Random r = new Random(3);
+            for (int i = 0; i < 40; i++) {
+                Set<OWLEntity> seed = new HashSet<OWLEntity>();
+                seed.add(cls(r.nextInt(CLASSES)));
+                seed.add(cls(r.nextInt(CLASSES)));
+                if (i % 4 == 0) {
+                    seed.add(prop(r.nextInt(PROPERTIES)));
+                }
+                assertEquals(type + " " + seed,
+                        logical(extractor.extract(seed)), ad.getModule(seed));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings("deprecation")
+    public void shouldRejectUnsupportedModuleTypes() throws Exception {
+        new AtomicDecomposition(new HashSet<OWLAxiom>(), ModuleType.BOT_OF_TOP);
+    }
+}
@@ -0,0 +1,94 @@
+package org.semanticweb.owlapi.api.test.modularity;
+
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Generates the random class hierarchies the modularity tests extract modules
+ * from.
+ */
+final class RandomOntologies {
+
+    static final String NS = "urn:test:modules#";
+    /** number of object properties the generated axioms use */
+    static final int PROPERTIES = 10;
+
+    private RandomOntologies() {}
+
+    static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    static OWLObjectProperty prop(int i) {
+        return ObjectProperty(IRI(NS + "p" + i));
+    }
+
+    /**
+     * @param m
+     *        manager to create the ontology with
+     * @param seed
+     *        seed of the random generator
+     * @param size
+     *        number of classes
+     * @return an ontology with subclass, equivalent and disjoint classes axioms
+     *         over {@code size} classes, GCIs and a cycle of transitive
+     *         subproperties
+     * @throws OWLOntologyCreationException
+     *         if the ontology cannot be created
+     */
+    static OWLOntology create(OWLOntologyManager m, long seed, int size)
+            throws OWLOntologyCreationException {
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        Random r = new Random(seed);
+        Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
+        for (int i = 1; i < size; i++) {
+            axioms.add(Declaration(cls(i)));
+            OWLClassExpression sup = cls(r.nextInt(i));
+            switch (r.nextInt(5)) {
+                case 0:
+                    sup = ObjectSomeValuesFrom(prop(r.nextInt(PROPERTIES)),
+                            cls(r.nextInt(size)));
+                    break;
+                case 1:
+                    sup = ObjectAllValuesFrom(prop(r.nextInt(PROPERTIES)),
+                            cls(r.nextInt(size)));
+                    break;
+                case 2:
+                    sup = ObjectIntersectionOf(cls(r.nextInt(i)),
+                            cls(r.nextInt(size)));
+                    break;
+                default:
+                    break;
+            }
+            axioms.add(SubClassOf(cls(i), sup));
+            if (r.nextInt(10) == 0) {
+                axioms.add(EquivalentClasses(cls(i), cls(r.nextInt(size))));
+            }
+            if (r.nextInt(20) == 0) {
+                axioms.add(DisjointClasses(cls(i), cls(r.nextInt(size))));
+            }
+            if (r.nextInt(30) == 0) {
+                axioms.add(SubClassOf(
+                        ObjectSomeValuesFrom(prop(r.nextInt(PROPERTIES)),
+                                cls(i)), cls(r.nextInt(size))));
+            }
+        }
+        for (int i = 0; i < PROPERTIES; i++) {
+            axioms.add(SubObjectPropertyOf(prop(i), prop((i + 1) % PROPERTIES)));
+        }
+        axioms.add(TransitiveObjectProperty(prop(0)));
+        m.addAxioms(o, axioms);
+        return o;
+    }
+}
@@ -0,0 +1,166 @@
+package org.semanticweb.owlapi.api.test.modularity;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.api.test.modularity.RandomOntologies.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
+
+@SuppressWarnings("javadoc")
+public class SyntacticLocalityModuleExtractorTestCase {
+
+    private OWLOntologyManager m;
+    private OWLOntology o;
+
+    @Before
+    public void setUp() throws Exception {
+        m = OWLManager.createOWLOntologyManager();
+        o = RandomOntologies.create(m, 7, 1500);
+    }
+
+    /** The fixpoint computation the extractor used to run. */
+    private static Set<OWLAxiom> reference(Set<OWLAxiom> axioms,
+            Set<OWLEntity> signature, LocalityClass localityClass) {
+        Set<OWLAxiom> module = new HashSet<OWLAxiom>();
+        Set<OWLAxiom> rest = new HashSet<OWLAxiom>(axioms);
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                localityClass);
+        boolean change = true;
+        while (change) {
+            change = false;
+            Set<OWLAxiom> added = new HashSet<OWLAxiom>();
+            for (OWLAxiom ax : rest) {
+                if (!sle.isLocal(ax, signature)) {
+                    added.add(ax);
+                    module.add(ax);
+                    change |= signature.addAll(ax.getSignature());
+                }
+            }
+            rest.removeAll(added);
+        }
+        return module;
+    }
+
+    private Set<OWLAxiom> logicalAxioms(Set<OWLAxiom> axioms) {
+        Set<OWLAxiom> toReturn = new HashSet<OWLAxiom>();
+        for (OWLAxiom ax : axioms) {
+            if (ax.isLogicalAxiom()) {
+                toReturn.add(ax);
+            }
+        }
+        return toReturn;
+    }
+
+    private static Set<OWLEntity> seed(int... classes) {
+        Set<OWLEntity> seed = new HashSet<OWLEntity>();
+        for (int i : classes) {
+            seed.add(cls(i));
+        }
+        return seed;
+    }
+
+    @Test
+    public void shouldExtractSameModulesAsFixpoint() {
+        SyntacticLocalityModuleExtractor bot = new SyntacticLocalityModuleExtractor(
+                m, o, ModuleType.BOT);
+        SyntacticLocalityModuleExtractor top = new SyntacticLocalityModuleExtractor(
+                m, o, ModuleType.TOP);
+        for (int i = 1; i < 1500; i += 97) {
+            Set<OWLEntity> seed = seed(i, (i * 7) % 1500);
+            assertEquals(
+                    reference(o.getAxioms(), new HashSet<OWLEntity>(seed),
+                            LocalityClass.BOTTOM_BOTTOM),
+                    logicalAxioms(bot.extract(seed)));
+            assertEquals(
+                    reference(o.getAxioms(), new HashSet<OWLEntity>(seed),
+                            LocalityClass.TOP_TOP),
+                    logicalAxioms(top.extract(seed)));
+        }
+    }
+
+    @Test
+    public void shouldExtractSameModulesInParallel() {
+        for (ModuleType type : new ModuleType[] { ModuleType.BOT,
+                ModuleType.TOP, ModuleType.STAR }) {
+            SyntacticLocalityModuleExtractor sequential = new SyntacticLocalityModuleExtractor(
+                    m, o, type);
+            SyntacticLocalityModuleExtractor parallel = new SyntacticLocalityModuleExtractor(
+                    m, o, type);
+            parallel.setThreads(4);
+            assertEquals(4, parallel.getThreads());
+            for (int i = 1; i < 1500; i += 211) {
+                Set<OWLEntity> seed = seed(i, (i * 3) % 1500);
+                assertEquals(sequential.extract(seed), parallel.extract(seed));
+            }
+        }
+    }
+
+    @Test
+    public void shouldExtractModulesInBatch() {
+        List<Set<OWLEntity>> seeds = new ArrayList<Set<OWLEntity>>();
+        for (int i = 1; i < 1500; i += 53) {
+            seeds.add(seed(i, (i * 11) % 1500));
+        }
+        seeds.add(seed(1, 11));
+        for (ModuleType type : new ModuleType[] { ModuleType.BOT,
+                ModuleType.TOP, ModuleType.STAR }) {
+            SyntacticLocalityModuleExtractor single = new SyntacticLocalityModuleExtractor(
+                    m, o, type);
+            for (int threads : new int[] { 1, 4 }) {
+                SyntacticLocalityModuleExtractor batch = new SyntacticLocalityModuleExtractor(
+                        m, o, type);
+                batch.setThreads(threads);
+                Map<Set<OWLEntity>, Set<OWLAxiom>> modules = batch
+                        .extractModules(seeds);
+                assertEquals(seeds.size() - 1, modules.size());
+                assertEquals(new ArrayList<Set<OWLEntity>>(seeds.subList(0,
+                        seeds.size() - 1)), new ArrayList<Set<OWLEntity>>(
+                        modules.keySet()));
+                for (Set<OWLEntity> seed : seeds) {
+                    assertEquals(single.extract(seed), modules.get(seed));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldIncludeNonLocalAxiomsOutsideTheSignature() throws Exception {
+        OWLOntology ont = m.createOntology(IRI(NS + "global"));
+        OWLAxiom global = SubClassOf(OWLThing(),
+                ObjectSomeValuesFrom(prop(0), cls(1)));
+        OWLAxiom sub = SubClassOf(cls(1), cls(2));
+        OWLAxiom unrelated = SubClassOf(cls(3), cls(4));
+        m.addAxiom(ont, global);
+        m.addAxiom(ont, sub);
+        m.addAxiom(ont, unrelated);
+        Set<OWLAxiom> module = new SyntacticLocalityModuleExtractor(m, ont,
+                ModuleType.BOT).extract(seed(5));
+        assertTrue(module.contains(global));
+        assertTrue(module.contains(sub));
+        assertFalse(module.contains(unrelated));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNoThreads() {
+        new SyntacticLocalityModuleExtractor(m, o, ModuleType.STAR)
+                .setThreads(0);
+    }
+}
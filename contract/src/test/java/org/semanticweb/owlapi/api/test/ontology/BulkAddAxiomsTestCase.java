@@ -0,0 +1,229 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.coode.owlapi.manchesterowlsyntax.ManchesterOWLSyntaxEditorParser;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
+import org.semanticweb.owlapi.io.OWLXMLOntologyFormat;
+import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SetOntologyID;
+import org.semanticweb.owlapi.util.NonMappingOntologyIRIMapper;
+
+import uk.ac.manchester.cs.owl.owlapi.EmptyInMemOWLOntologyFactory;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLOntologyManagerImpl;
+
+@SuppressWarnings("javadoc")
+public class BulkAddAxiomsTestCase {
+
+    private static final String NS = "urn:test:bulk#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static List<OWLAxiom> axioms() {
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        for (int i = 1; i < 100; i++) {
+            OWLNamedIndividual ind = NamedIndividual(IRI(NS + "i" + i));
+            axioms.add(SubClassOf(cls(i), cls(i / 2)));
+            axioms.add(ClassAssertion(cls(i), ind));
+            axioms.add(ObjectPropertyAssertion(p, ind, ind));
+            axioms.add(Declaration(cls(i)));
+            if (i % 7 == 0) {
+                axioms.add(EquivalentClasses(cls(i), cls(i + 1)));
+                axioms.add(AnnotationAssertion(RDFSLabel(), IRI(NS + "C" + i),
+                        Literal("class " + i)));
+            }
+        }
+        axioms.add(ObjectPropertyDomain(p, cls(1)));
+        return axioms;
+    }
+
+    private static void assertSameAnswers(OWLOntology expected,
+            OWLOntology actual) {
+        assertEquals(expected.getAxioms(), actual.getAxioms());
+        assertEquals(expected.getSignature(), actual.getSignature());
+        for (OWLEntity e : expected.getSignature()) {
+            assertEquals(expected.getReferencingAxioms(e),
+                    actual.getReferencingAxioms(e));
+            assertEquals(expected.getDeclarationAxioms(e),
+                    actual.getDeclarationAxioms(e));
+        }
+        for (OWLClass c : expected.getClassesInSignature()) {
+            assertEquals(expected.getSubClassAxiomsForSubClass(c),
+                    actual.getSubClassAxiomsForSubClass(c));
+            assertEquals(expected.getSubClassAxiomsForSuperClass(c),
+                    actual.getSubClassAxiomsForSuperClass(c));
+            assertEquals(expected.getEquivalentClassesAxioms(c),
+                    actual.getEquivalentClassesAxioms(c));
+            assertEquals(expected.getClassAssertionAxioms(c),
+                    actual.getClassAssertionAxioms(c));
+        }
+    }
+
+    private static void shouldAddSameAxioms(OWLOntologyManager m)
+            throws Exception {
+        OWLOntologyManager expectedManager = OWLManager
+                .createOWLOntologyManager();
+        OWLOntology expected = expectedManager.createOntology(IRI(NS + "o"));
+        expectedManager.addAxioms(expected, new LinkedHashSet<OWLAxiom>(
+                axioms()));
+        OWLOntology actual = m.createOntology(IRI(NS + "o"));
+        // indexes built before the addition must be kept up to date
+        actual.getSubClassAxiomsForSubClass(cls(1));
+        List<OWLAxiom> axioms = axioms();
+        // index entries are merged with existing ones, and duplicates skipped
+        for (OWLAxiom ax : axioms.subList(0, 20)) {
+            m.addAxiom(actual, ax);
+        }
+        axioms.addAll(new ArrayList<OWLAxiom>(axioms.subList(40, 60)));
+        assertEquals(expected.getAxiomCount() - 20, m.addAxiomsInBulk(
+                actual, axioms));
+        assertSameAnswers(expected, actual);
+    }
+
+    @Test
+    public void shouldAddSameAxiomsAsAddAxioms() throws Exception {
+        shouldAddSameAxioms(OWLManager.createOWLOntologyManager());
+    }
+
+    @Test
+    public void shouldAddSameAxiomsToConcurrentOntologies() throws Exception {
+        shouldAddSameAxioms(OWLManager.createConcurrentOWLOntologyManager());
+    }
+
+    @Test
+    public void shouldAddSameAxiomsToCompactOntologies() throws Exception {
+        OWLOntologyManager m = new OWLOntologyManagerImpl(
+                new OWLDataFactoryImpl());
+        EmptyInMemOWLOntologyFactory factory = new EmptyInMemOWLOntologyFactory();
+        factory.setCompactInternals(true);
+        m.addOntologyFactory(factory);
+        m.addIRIMapper(new NonMappingOntologyIRIMapper());
+        shouldAddSameAxioms(m);
+    }
+
+    @Test
+    public void shouldNotifyListenersOnceWithAddedAxioms() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "o"));
+        OWLAxiom existing = SubClassOf(cls(1), cls(0));
+        m.addAxiom(o, existing);
+        final List<List<? extends OWLOntologyChange>> notifications = new ArrayList<List<? extends OWLOntologyChange>>();
+        m.addOntologyChangeListener(new OWLOntologyChangeListener() {
+
+            @Override
+            public void ontologiesChanged(
+                    List<? extends OWLOntologyChange> changes) {
+                notifications.add(changes);
+            }
+        });
+        List<OWLAxiom> axioms = axioms();
+        int added = m.addAxiomsInBulk(o, axioms);
+        assertEquals(axioms.size() - 1, added);
+        assertEquals(1, notifications.size());
+        assertEquals(added, notifications.get(0).size());
+        Set<OWLAxiom> notified = new HashSet<OWLAxiom>();
+        for (OWLOntologyChange change : notifications.get(0)) {
+            assertTrue(change.isAddAxiom());
+            assertSame(o, change.getOntology());
+            notified.add(change.getAxiom());
+        }
+        assertFalse(notified.contains(existing));
+        assertEquals(o.getAxiomCount(), notified.size() + 1);
+        // nothing new: no notification
+        assertEquals(0, m.addAxiomsInBulk(o, axioms));
+        assertEquals(1, notifications.size());
+    }
+
+    @Test
+    public void shouldSetOntologyIDBeforeAddingParsedAxioms() throws Exception {
+        final OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        m.createOntology(IRI(NS + "imported"));
+        final OWLOntology o = m.createOntology();
+        final OWLOntologyID id = new OWLOntologyID(IRI(NS + "parsed"));
+        final List<List<? extends OWLOntologyChange>> notifications = new ArrayList<List<? extends OWLOntologyChange>>();
+        m.addOntologyChangeListener(new OWLOntologyChangeListener() {
+
+            @Override
+            public void ontologiesChanged(
+                    List<? extends OWLOntologyChange> changes) {
+                for (OWLOntologyChange change : changes) {
+                    if (change.isAxiomChange()) {
+                        // axioms are only added under the final ID
+                        assertEquals(id, o.getOntologyID());
+                    }
+                }
+                notifications.add(changes);
+            }
+        });
+        String document = "Prefix: : <" + NS + ">\n" + "Ontology: <" + NS
+                + "parsed>\n" + "Import: <" + NS + "imported>\n"
+                + "Annotations: rdfs:comment \"parsed\"\n"
+                + "Class: C0\n" + "Class: C1 SubClassOf: C0\n"
+                + "Class: C2 SubClassOf: C1\n";
+        new ManchesterOWLSyntaxEditorParser(m.getOWLDataFactory(), document)
+                .parseOntology(o);
+        assertEquals(id, o.getOntologyID());
+        // the header in one batch, then the axioms in another
+        assertEquals(2, notifications.size());
+        List<? extends OWLOntologyChange> header = notifications.get(0);
+        assertEquals(3, header.size());
+        assertTrue(header.get(0).isImportChange());
+        assertTrue(header.get(1) instanceof AddOntologyAnnotation);
+        assertTrue(header.get(2) instanceof SetOntologyID);
+        for (OWLOntologyChange change : notifications.get(1)) {
+            assertTrue(change.isAddAxiom());
+        }
+        assertEquals(o.getAxiomCount(), notifications.get(1).size());
+    }
+
+    @Test
+    public void shouldSkipAnnotationAxiomsIfNotLoaded() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "o"));
+        m.addAxioms(o, new LinkedHashSet<OWLAxiom>(axioms()));
+        for (OWLOntologyFormat format : new OWLOntologyFormat[] {
+                new OWLFunctionalSyntaxOntologyFormat(),
+                new OWLXMLOntologyFormat(), new RDFXMLOntologyFormat() }) {
+            StringDocumentTarget target = new StringDocumentTarget();
+            m.saveOntology(o, format, target);
+            OWLOntology loaded = OWLManager.createOWLOntologyManager()
+                    .loadOntologyFromOntologyDocument(
+                            new StringDocumentSource(target.toString()),
+                            new OWLOntologyLoaderConfiguration()
+                                    .setLoadAnnotationAxioms(false));
+            assertEquals(format.toString(), o.getLogicalAxioms(),
+                    loaded.getLogicalAxioms());
+            for (OWLAxiom ax : loaded.getAxioms()) {
+                assertFalse(ax.toString(), ax.isAnnotationAxiom());
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.util.NonMappingOntologyIRIMapper;
+
+import uk.ac.manchester.cs.owl.owlapi.EmptyInMemOWLOntologyFactory;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLOntologyManagerImpl;
+
+@SuppressWarnings("javadoc")
+public class CompactInternalsTestCase {
+
+    private static final String NS = "urn:test:compact#";
+    private OWLOntology plain;
+    private OWLOntology compact;
+
+    private static OWLOntologyManager manager(boolean compactInternals) {
+        OWLOntologyManager m = new OWLOntologyManagerImpl(
+                new OWLDataFactoryImpl());
+        EmptyInMemOWLOntologyFactory factory = new EmptyInMemOWLOntologyFactory();
+        factory.setCompactInternals(compactInternals);
+        m.addOntologyFactory(factory);
+        m.addIRIMapper(new NonMappingOntologyIRIMapper());
+        return m;
+    }
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static List<OWLAxiom> axioms() {
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        for (int i = 0; i < 200; i++) {
+            OWLNamedIndividual ind = NamedIndividual(IRI(NS + "i" + i));
+            axioms.add(Declaration(cls(i)));
+            axioms.add(SubClassOf(cls(i), cls(i / 2)));
+            axioms.add(SubClassOf(cls(i), ObjectSomeValuesFrom(p, cls(i + 1))));
+            axioms.add(ClassAssertion(cls(i), ind));
+            axioms.add(ObjectPropertyAssertion(p, ind,
+                    NamedIndividual(IRI(NS + "i" + (i + 1)))));
+            if (i % 10 == 0) {
+                axioms.add(EquivalentClasses(cls(i), cls(i + 1), cls(i + 2)));
+                axioms.add(DisjointClasses(cls(i), cls(i + 3)));
+            }
+        }
+        axioms.add(TransitiveObjectProperty(p));
+        return axioms;
+    }
+
+    @Before
+    public void setUp() throws OWLOntologyCreationException {
+        IRI iri = IRI(NS + "ontology");
+        plain = manager(false).createOntology(iri);
+        compact = manager(true).createOntology(iri);
+        for (OWLAxiom ax : axioms()) {
+            plain.getOWLOntologyManager().addAxiom(plain, ax);
+            compact.getOWLOntologyManager().addAxiom(compact, ax);
+        }
+    }
+
+    private void assertSameContent() {
+        assertEquals(plain.getAxiomCount(), compact.getAxiomCount());
+        assertEquals(plain.getLogicalAxiomCount(),
+                compact.getLogicalAxiomCount());
+        assertEquals(plain.getAxioms(), compact.getAxioms());
+        assertEquals(plain.getSignature(), compact.getSignature());
+        for (AxiomType<?> type : AxiomType.AXIOM_TYPES) {
+            assertEquals(plain.getAxioms(type), compact.getAxioms(type));
+            assertEquals(plain.getAxiomCount(type), compact.getAxiomCount(type));
+        }
+        for (OWLEntity e : plain.getSignature()) {
+            assertEquals(plain.getReferencingAxioms(e),
+                    compact.getReferencingAxioms(e));
+            assertEquals(plain.getDeclarationAxioms(e),
+                    compact.getDeclarationAxioms(e));
+        }
+        for (OWLClass c : plain.getClassesInSignature()) {
+            assertEquals(plain.getSubClassAxiomsForSubClass(c),
+                    compact.getSubClassAxiomsForSubClass(c));
+            assertEquals(plain.getSubClassAxiomsForSuperClass(c),
+                    compact.getSubClassAxiomsForSuperClass(c));
+            assertEquals(plain.getEquivalentClassesAxioms(c),
+                    compact.getEquivalentClassesAxioms(c));
+            assertEquals(plain.getAxioms(c), compact.getAxioms(c));
+            assertEquals(plain.getClassAssertionAxioms(c),
+                    compact.getClassAssertionAxioms(c));
+        }
+        for (OWLNamedIndividual i : plain.getIndividualsInSignature()) {
+            assertEquals(plain.getAxioms(i), compact.getAxioms(i));
+        }
+    }
+
+    @Test
+    public void shouldAnswerQueriesLikeDefaultInternals() {
+        assertSameContent();
+    }
+
+    @Test
+    public void shouldRemoveAxiomsLikeDefaultInternals() {
+        List<OWLAxiom> axioms = axioms();
+        for (int i = 0; i < axioms.size(); i += 3) {
+            plain.getOWLOntologyManager().removeAxiom(plain, axioms.get(i));
+            compact.getOWLOntologyManager().removeAxiom(compact, axioms.get(i));
+        }
+        assertSameContent();
+        // ids released by the removals are reused
+        for (int i = 0; i < axioms.size(); i += 6) {
+            plain.getOWLOntologyManager().addAxiom(plain, axioms.get(i));
+            compact.getOWLOntologyManager().addAxiom(compact, axioms.get(i));
+        }
+        assertSameContent();
+    }
+
+    @Test
+    public void shouldBeEmptyAfterRemovingAllAxioms() {
+        for (OWLAxiom ax : axioms()) {
+            compact.getOWLOntologyManager().removeAxiom(compact, ax);
+        }
+        assertTrue(compact.isEmpty());
+        assertEquals(0, compact.getAxiomCount());
+        assertTrue(compact.getSignature().isEmpty());
+        assertFalse(compact.containsAxiom(SubClassOf(cls(1), cls(0))));
+    }
+}
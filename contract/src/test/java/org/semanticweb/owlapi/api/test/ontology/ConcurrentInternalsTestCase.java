@@ -0,0 +1,112 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+@SuppressWarnings("javadoc")
+public class ConcurrentInternalsTestCase {
+
+    private static final String NS = "urn:test:concurrent#";
+    private static final int CLASSES = 500;
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    @Test
+    public void shouldAllowReadsDuringWrites() throws Exception {
+        OWLOntologyManager m = OWLManager.createConcurrentOWLOntologyManager();
+        final OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final AtomicBoolean done = new AtomicBoolean(false);
+        List<Thread> readers = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread reader = new Thread() {
+
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        int i = offset;
+                        while (!done.get()) {
+                            OWLClass c = cls(i++ % CLASSES);
+                            for (OWLSubClassOfAxiom ax : o
+                                    .getSubClassAxiomsForSubClass(c)) {
+                                assertEquals(c, ax.getSubClass());
+                            }
+                            for (OWLAxiom ax : o.getReferencingAxioms(c)) {
+                                assertTrue(ax.getSignature().contains(c));
+                            }
+                            o.getAxioms(AxiomType.SUBCLASS_OF).size();
+                            o.getAxiomCount();
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+            readers.add(reader);
+            reader.start();
+        }
+        start.countDown();
+        for (int i = 1; i < CLASSES; i++) {
+            m.addAxiom(o, SubClassOf(cls(i), cls(i / 2)));
+            m.addAxiom(o, Declaration(cls(i)));
+            if (i % 3 == 0) {
+                m.removeAxiom(o, SubClassOf(cls(i - 1), cls((i - 1) / 2)));
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(CLASSES - 1 - (CLASSES - 1) / 3,
+                o.getAxiomCount(AxiomType.SUBCLASS_OF));
+        assertEquals(CLASSES - 1, o.getAxiomCount(AxiomType.DECLARATION));
+    }
+
+    @Test
+    public void shouldAnswerLikeDefaultInternals()
+            throws OWLOntologyCreationException {
+        OWLOntology plain = OWLManager.createOWLOntologyManager()
+                .createOntology(IRI(NS + "ontology"));
+        OWLOntology concurrent = OWLManager
+                .createConcurrentOWLOntologyManager().createOntology(
+                        IRI(NS + "ontology"));
+        for (int i = 1; i < 50; i++) {
+            OWLAxiom ax = EquivalentClasses(cls(i),
+                    ObjectIntersectionOf(cls(i / 2), cls(i + 1)));
+            plain.getOWLOntologyManager().addAxiom(plain, ax);
+            concurrent.getOWLOntologyManager().addAxiom(concurrent, ax);
+        }
+        assertEquals(plain.getAxioms(), concurrent.getAxioms());
+        for (OWLClass c : plain.getClassesInSignature()) {
+            assertEquals(plain.getEquivalentClassesAxioms(c),
+                    concurrent.getEquivalentClassesAxioms(c));
+            assertEquals(plain.getReferencingAxioms(c),
+                    concurrent.getReferencingAxioms(c));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLOntologyImpl;
+
+@SuppressWarnings("javadoc")
+public class InitIndexesTestCase {
+
+    private static final String NS = "urn:test:init#";
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static OWLOntology create(OWLOntologyManager m)
+            throws OWLOntologyCreationException {
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        for (int i = 1; i < 100; i++) {
+            OWLNamedIndividual ind = NamedIndividual(IRI(NS + "i" + i));
+            m.addAxiom(o, SubClassOf(cls(i), cls(i / 2)));
+            m.addAxiom(o, ClassAssertion(cls(i), ind));
+            m.addAxiom(o, ObjectPropertyAssertion(p, ind, ind));
+            if (i % 7 == 0) {
+                m.addAxiom(o, EquivalentClasses(cls(i), cls(i + 1)));
+                m.addAxiom(o, DisjointClasses(cls(i), cls(i + 2)));
+            }
+        }
+        m.addAxiom(o, ObjectPropertyDomain(p, cls(1)));
+        return o;
+    }
+
+    private static void assertSameAnswers(OWLOntology expected,
+            OWLOntology actual) {
+        assertEquals(expected.getAxioms(), actual.getAxioms());
+        for (OWLClass c : expected.getClassesInSignature()) {
+            assertEquals(expected.getSubClassAxiomsForSubClass(c),
+                    actual.getSubClassAxiomsForSubClass(c));
+            assertEquals(expected.getSubClassAxiomsForSuperClass(c),
+                    actual.getSubClassAxiomsForSuperClass(c));
+            assertEquals(expected.getEquivalentClassesAxioms(c),
+                    actual.getEquivalentClassesAxioms(c));
+            assertEquals(expected.getDisjointClassesAxioms(c),
+                    actual.getDisjointClassesAxioms(c));
+            assertEquals(expected.getAxioms(c), actual.getAxioms(c));
+            assertEquals(expected.getClassAssertionAxioms(c),
+                    actual.getClassAssertionAxioms(c));
+        }
+        for (OWLNamedIndividual i : expected.getIndividualsInSignature()) {
+            assertEquals(expected.getClassAssertionAxioms(i),
+                    actual.getClassAssertionAxioms(i));
+            assertEquals(expected.getObjectPropertyAssertionAxioms(i),
+                    actual.getObjectPropertyAssertionAxioms(i));
+        }
+        for (OWLObjectProperty p : expected.getObjectPropertiesInSignature()) {
+            assertEquals(expected.getObjectPropertyDomainAxioms(p),
+                    actual.getObjectPropertyDomainAxioms(p));
+        }
+    }
+
+    @Test
+    public void shouldBuildAllIndexesInParallel() throws Exception {
+        OWLOntology lazy = create(OWLManager.createOWLOntologyManager());
+        OWLOntology eager = create(OWLManager.createOWLOntologyManager());
+        ((OWLOntologyImpl) eager).initIndexes(4);
+        assertSameAnswers(lazy, eager);
+        // indexes built eagerly must be kept up to date
+        lazy.getOWLOntologyManager().addAxiom(lazy,
+                SubClassOf(cls(200), cls(1)));
+        eager.getOWLOntologyManager().addAxiom(eager,
+                SubClassOf(cls(200), cls(1)));
+        assertSameAnswers(lazy, eager);
+    }
+
+    @Test
+    public void shouldBuildSelectedIndexes() throws Exception {
+        OWLOntology lazy = create(OWLManager.createOWLOntologyManager());
+        OWLOntology eager = create(OWLManager.createOWLOntologyManager());
+        ((OWLOntologyImpl) eager).initIndexes(2, AxiomType.SUBCLASS_OF,
+                AxiomType.CLASS_ASSERTION);
+        assertSameAnswers(lazy, eager);
+    }
+
+    @Test
+    public void shouldBuildIndexesOfConcurrentOntologies() throws Exception {
+        OWLOntology lazy = create(OWLManager.createOWLOntologyManager());
+        OWLOntology eager = create(OWLManager
+                .createConcurrentOWLOntologyManager());
+        ((OWLOntologyImpl) eager).initIndexes(4);
+        assertSameAnswers(lazy, eager);
+    }
+
+    @Test
+    public void shouldBuildIndexesAfterLoading() throws Exception {
+        OWLOntology source = create(OWLManager.createOWLOntologyManager());
+        StringDocumentTarget target = new StringDocumentTarget();
+        source.getOWLOntologyManager().saveOntology(source,
+                new OWLFunctionalSyntaxOntologyFormat(), target);
+        OWLOntology loaded = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(
+                        new StringDocumentSource(target.toString()),
+                        new OWLOntologyLoaderConfiguration()
+                                .setIndexBuildThreads(4));
+        assertSameAnswers(source, loaded);
+    }
+}
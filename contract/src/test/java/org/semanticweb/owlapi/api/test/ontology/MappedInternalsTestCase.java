@@ -0,0 +1,276 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.model.SWRLAtom;
+import org.semanticweb.owlapi.model.SWRLVariable;
+
+import uk.ac.manchester.cs.owl.owlapi.MappedOWLOntologyFactory;
+import uk.ac.manchester.cs.owl.owlapi.MappedOntologySnapshot;
+
+@SuppressWarnings("javadoc")
+public class MappedInternalsTestCase {
+
+    private static final String NS = "urn:test:mapped#";
+    private File file;
+    private OWLOntology plain;
+    private OWLOntology mapped;
+
+    private static OWLClass cls(int i) {
+        return Class(IRI(NS + "C" + i));
+    }
+
+    private static OWLNamedIndividual ind(int i) {
+        return NamedIndividual(IRI(NS + "i" + i));
+    }
+
+    private static List<OWLAxiom> axioms(OWLDataFactory df,
+            OWLAnonymousIndividual anon) {
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        OWLObjectProperty q = ObjectProperty(IRI(NS + "q"));
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        for (int i = 0; i < 200; i++) {
+            axioms.add(Declaration(cls(i)));
+            axioms.add(SubClassOf(cls(i), cls(i / 2)));
+            axioms.add(SubClassOf(cls(i), ObjectSomeValuesFrom(p, cls(i + 1))));
+            axioms.add(ClassAssertion(cls(i), ind(i)));
+            axioms.add(ObjectPropertyAssertion(p, ind(i), ind(i + 1)));
+            axioms.add(DataPropertyAssertion(d, ind(i), Literal(i)));
+            axioms.add(df.getOWLAnnotationAssertionAxiom(RDFSLabel(), cls(i)
+                    .getIRI(), Literal("class " + i, "en"), Collections
+                    .singleton(df.getOWLAnnotation(RDFSComment(),
+                            Literal(i)))));
+            if (i % 10 == 0) {
+                axioms.add(EquivalentClasses(cls(i), cls(i + 1), cls(i + 2)));
+                axioms.add(DisjointClasses(cls(i), cls(i + 3)));
+                axioms.add(ClassAssertion(
+                        ObjectOneOf(ind(i), ind(i + 1), ind(i + 2)), ind(i)));
+            }
+        }
+        axioms.add(TransitiveObjectProperty(p));
+        axioms.add(SubObjectPropertyOf(ObjectInverseOf(q), p));
+        axioms.add(SubPropertyChainOf(Arrays.asList(p, q), p));
+        axioms.add(SubClassOf(ObjectIntersectionOf(cls(1), cls(2)), cls(3)));
+        axioms.add(ClassAssertion(cls(0), anon));
+        axioms.add(ObjectPropertyAssertion(p, anon, ind(0)));
+        axioms.add(df.getOWLAnnotationAssertionAxiom(RDFSLabel(), anon,
+                Literal("anonymous")));
+        SWRLVariable x = df.getSWRLVariable(IRI(NS + "x"));
+        SWRLVariable y = df.getSWRLVariable(IRI(NS + "y"));
+        axioms.add(df.getSWRLRule(
+                new HashSet<SWRLAtom>(Arrays.<SWRLAtom> asList(
+                        df.getSWRLClassAtom(cls(0), x),
+                        df.getSWRLClassAtom(cls(1), y),
+                        df.getSWRLObjectPropertyAtom(p, x, y))),
+                Collections.<SWRLAtom> singleton(df.getSWRLObjectPropertyAtom(
+                        q, y, x))));
+        return axioms;
+    }
+
+    private static OWLOntologyManager mappedManager() {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        m.addOntologyFactory(new MappedOWLOntologyFactory());
+        return m;
+    }
+
+    private static OWLOntology createOntology(OWLAnonymousIndividual anon)
+            throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        m.addAxioms(o, new HashSet<OWLAxiom>(axioms(m.getOWLDataFactory(),
+                anon)));
+        m.applyChange(new AddOntologyAnnotation(o, m.getOWLDataFactory()
+                .getOWLAnnotation(RDFSComment(), Literal("header"))));
+        return o;
+    }
+
+    /**
+     * @return an ontology on the heap with the content of the snapshot
+     *         ontology; anonymous individuals read from a snapshot are fresh,
+     *         so the expected axioms use the one read
+     */
+    private static OWLOntology expected(OWLOntology mapped) throws Exception {
+        Set<OWLAnonymousIndividual> anons = mapped
+                .getReferencedAnonymousIndividuals();
+        assertEquals(1, anons.size());
+        return createOntology(anons.iterator().next());
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        plain = createOntology(AnonymousIndividual());
+        file = File.createTempFile("mappedinternals", ".owlm");
+        MappedOntologySnapshot.write(plain, file);
+        mapped = mappedManager().loadOntologyFromOntologyDocument(file);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static void assertSameContent(OWLOntology plain,
+            OWLOntology mapped) {
+        assertEquals(plain.getOntologyID(), mapped.getOntologyID());
+        assertEquals(plain.getAnnotations(), mapped.getAnnotations());
+        assertEquals(plain.getAxiomCount(), mapped.getAxiomCount());
+        assertEquals(plain.getLogicalAxiomCount(),
+                mapped.getLogicalAxiomCount());
+        assertEquals(plain.getAxioms(), mapped.getAxioms());
+        assertEquals(plain.getSignature(), mapped.getSignature());
+        assertEquals(plain.getGeneralClassAxioms(),
+                mapped.getGeneralClassAxioms());
+        assertEquals(plain.getReferencedAnonymousIndividuals(),
+                mapped.getReferencedAnonymousIndividuals());
+        for (AxiomType<?> type : AxiomType.AXIOM_TYPES) {
+            assertEquals(plain.getAxioms(type), mapped.getAxioms(type));
+            assertEquals(plain.getAxiomCount(type), mapped.getAxiomCount(type));
+        }
+        for (OWLAxiom ax : plain.getAxioms()) {
+            assertTrue(ax.toString(), mapped.containsAxiom(ax));
+        }
+        for (OWLEntity e : plain.getSignature()) {
+            assertEquals(plain.getReferencingAxioms(e),
+                    mapped.getReferencingAxioms(e));
+            assertEquals(plain.getDeclarationAxioms(e),
+                    mapped.getDeclarationAxioms(e));
+            assertEquals(plain.getAnnotationAssertionAxioms(e.getIRI()),
+                    mapped.getAnnotationAssertionAxioms(e.getIRI()));
+        }
+        for (OWLAnonymousIndividual i : plain
+                .getReferencedAnonymousIndividuals()) {
+            assertEquals(plain.getReferencingAxioms(i),
+                    mapped.getReferencingAxioms(i));
+            assertEquals(plain.getAnnotationAssertionAxioms(i),
+                    mapped.getAnnotationAssertionAxioms(i));
+        }
+        for (OWLClass c : plain.getClassesInSignature()) {
+            assertEquals(plain.getSubClassAxiomsForSubClass(c),
+                    mapped.getSubClassAxiomsForSubClass(c));
+            assertEquals(plain.getSubClassAxiomsForSuperClass(c),
+                    mapped.getSubClassAxiomsForSuperClass(c));
+            assertEquals(plain.getEquivalentClassesAxioms(c),
+                    mapped.getEquivalentClassesAxioms(c));
+            assertEquals(plain.getDisjointClassesAxioms(c),
+                    mapped.getDisjointClassesAxioms(c));
+            assertEquals(plain.getAxioms(c), mapped.getAxioms(c));
+            assertEquals(plain.getClassAssertionAxioms(c),
+                    mapped.getClassAssertionAxioms(c));
+        }
+        for (OWLNamedIndividual i : plain.getIndividualsInSignature()) {
+            assertEquals(plain.getAxioms(i), mapped.getAxioms(i));
+            assertEquals(plain.getClassAssertionAxioms(i),
+                    mapped.getClassAssertionAxioms(i));
+            assertEquals(plain.getObjectPropertyAssertionAxioms(i),
+                    mapped.getObjectPropertyAssertionAxioms(i));
+            assertEquals(plain.getDataPropertyAssertionAxioms(i),
+                    mapped.getDataPropertyAssertionAxioms(i));
+        }
+        for (OWLObjectProperty p : plain.getObjectPropertiesInSignature()) {
+            assertEquals(plain.getAxioms(p), mapped.getAxioms(p));
+            assertEquals(plain.getObjectSubPropertyAxiomsForSuperProperty(p),
+                    mapped.getObjectSubPropertyAxiomsForSuperProperty(p));
+        }
+    }
+
+    @Test
+    public void shouldAnswerQueriesLikeDefaultInternals() throws Exception {
+        assertSameContent(expected(mapped), mapped);
+    }
+
+    @Test
+    public void shouldShareSnapshotBetweenManagers() throws Exception {
+        OWLOntology other = mappedManager()
+                .loadOntologyFromOntologyDocument(file);
+        assertSameContent(expected(other), other);
+        // each load reads its own anonymous individuals
+        assertFalse(mapped.getReferencedAnonymousIndividuals().equals(
+                other.getReferencedAnonymousIndividuals()));
+    }
+
+    @Test
+    public void shouldNotContainOtherAxioms() {
+        assertFalse(mapped.containsAxiom(SubClassOf(cls(0), cls(1))));
+        assertFalse(mapped.containsAxiom(SubClassOf(cls(1),
+                Class(IRI(NS + "unknown")))));
+        assertFalse(mapped.containsAxiom(DataPropertyAssertion(
+                DataProperty(IRI(NS + "d")), ind(0), Literal(-1))));
+        assertTrue(mapped.getReferencingAxioms(Class(IRI(NS + "unknown")))
+                .isEmpty());
+        assertFalse(mapped.containsClassInSignature(IRI(NS + "unknown")));
+        // the anonymous individual written is not the one read
+        for (OWLAxiom ax : plain.getReferencingAxioms(plain
+                .getReferencedAnonymousIndividuals().iterator().next())) {
+            assertFalse(ax.toString(), mapped.containsAxiom(ax));
+        }
+    }
+
+    @Test
+    public void shouldRejectChanges() throws Exception {
+        OWLOntologyManager m = mapped.getOWLOntologyManager();
+        try {
+            m.addAxiom(mapped, SubClassOf(cls(0), cls(1)));
+            fail("Expected the change to be rejected");
+        } catch (OWLRuntimeException e) {
+            // expected
+        }
+        try {
+            m.removeAxiom(mapped, SubClassOf(cls(1), cls(0)));
+            fail("Expected the change to be rejected");
+        } catch (OWLRuntimeException e) {
+            // expected
+        }
+        assertSameContent(expected(mapped), mapped);
+    }
+
+    @Test
+    public void shouldReplaceExistingSnapshot() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology small = m.createOntology(IRI(NS + "small"));
+        m.addAxiom(small, SubClassOf(cls(0), cls(1)));
+        MappedOntologySnapshot.write(small, file);
+        OWLOntology reloaded = mappedManager().loadOntologyFromOntologyDocument(
+                file);
+        assertEquals(small.getAxioms(), reloaded.getAxioms());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        assertFalse(new File(file.getPath() + ".old").exists());
+    }
+
+    @Test
+    public void shouldLeaveOtherDocumentsToOtherFactories() throws Exception {
+        OWLOntologyManager m = mappedManager();
+        OWLOntology created = m.createOntology(IRI(NS + "created"));
+        m.addAxiom(created, SubClassOf(cls(0), cls(1)));
+        assertTrue(created.containsAxiom(SubClassOf(cls(0), cls(1))));
+        assertFalse(MappedOntologySnapshot.isSnapshot(new File(file
+                .getParentFile(), "missing.owlm")));
+    }
+}
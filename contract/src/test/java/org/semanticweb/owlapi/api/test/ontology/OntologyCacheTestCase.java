@@ -0,0 +1,452 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.anonymous.AnonymousIndividualsNormaliser;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.BinaryOWLDecoder;
+import org.semanticweb.owlapi.io.BinaryOWLEncoder;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.MissingImportHandlingStrategy;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SWRLAtom;
+import org.semanticweb.owlapi.model.SWRLDArgument;
+import org.semanticweb.owlapi.model.SWRLVariable;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+import uk.ac.manchester.cs.owl.owlapi.CachingOWLOntologyFactory;
+
+@SuppressWarnings("javadoc")
+public class OntologyCacheTestCase {
+
+    private static final String NS = "http://www.example.org/cache#";
+    private File cacheDirectory;
+    private File document;
+
+    @Before
+    public void setUpCache() throws Exception {
+        cacheDirectory = File.createTempFile("ontologycache", "");
+        cacheDirectory.delete();
+        document = File.createTempFile("ontologycache", ".ofn");
+    }
+
+    @After
+    public void tearDownCache() {
+        File[] entries = cacheDirectory.listFiles();
+        if (entries != null) {
+            for (File f : entries) {
+                f.delete();
+            }
+        }
+        cacheDirectory.delete();
+        document.delete();
+    }
+
+    private static OWLOntology createOntology(OWLOntologyManager m)
+            throws Exception {
+        OWLDataFactory df = m.getOWLDataFactory();
+        OWLOntology o = m.createOntology(new OWLOntologyID(IRI(NS + "o"),
+                IRI(NS + "o/1.0")));
+        OWLClass a = Class(IRI(NS + "A"));
+        OWLClass b = Class(IRI(NS + "B"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        OWLObjectProperty q = ObjectProperty(IRI(NS + "q"));
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        OWLDataProperty e = DataProperty(IRI(NS + "e"));
+        OWLNamedIndividual i = NamedIndividual(IRI(NS + "i"));
+        OWLNamedIndividual j = NamedIndividual(IRI(NS + "j"));
+        OWLAnonymousIndividual anon = AnonymousIndividual("_:anon1");
+        OWLDatatype dt = Datatype(IRI(NS + "dt"));
+        SWRLVariable x = df.getSWRLVariable(IRI(NS + "x"));
+        SWRLVariable y = df.getSWRLVariable(IRI(NS + "y"));
+        Set<SWRLAtom> body = new HashSet<SWRLAtom>();
+        body.add(df.getSWRLClassAtom(a, x));
+        body.add(df.getSWRLObjectPropertyAtom(p, x, y));
+        body.add(df.getSWRLDataPropertyAtom(d, x,
+                df.getSWRLLiteralArgument(Literal(3))));
+        body.add(df.getSWRLDataRangeAtom(Integer(), df.getSWRLVariable(IRI(NS
+                + "z"))));
+        body.add(df.getSWRLBuiltInAtom(IRI("http://www.w3.org/2003/11/swrlb#add"),
+                Arrays.<SWRLDArgument> asList(df.getSWRLVariable(IRI(NS + "z")),
+                        df.getSWRLLiteralArgument(Literal(1.5D)))));
+        body.add(df.getSWRLDifferentIndividualsAtom(x,
+                df.getSWRLIndividualArgument(i)));
+        Set<SWRLAtom> head = Collections.<SWRLAtom> singleton(df
+                .getSWRLSameIndividualAtom(x, y));
+        OWLAxiom[] axioms = {
+                Declaration(a),
+                Declaration(p),
+                Declaration(RDFSLabel()),
+                SubClassOf(a, ObjectIntersectionOf(b,
+                        ObjectSomeValuesFrom(ObjectInverseOf(p), b))),
+                SubClassOf(a, ObjectUnionOf(b,
+                        ObjectComplementOf(ObjectAllValuesFrom(p, a)))),
+                SubClassOf(a, ObjectHasValue(p, anon)),
+                SubClassOf(a, ObjectMinCardinality(0, p, b)),
+                SubClassOf(a, ObjectExactCardinality(2, q, OWLThing())),
+                SubClassOf(a, ObjectMaxCardinality(300, p, b)),
+                SubClassOf(a, df.getOWLObjectHasSelf(p)),
+                SubClassOf(a, ObjectOneOf(i, j)),
+                SubClassOf(a, DataSomeValuesFrom(d, DataOneOf(Literal("x",
+                        "en"), Literal("y"), Literal(true), Literal(2.5F)))),
+                SubClassOf(a, DataAllValuesFrom(d, DataComplementOf(Integer()))),
+                SubClassOf(a, DataHasValue(d, Literal("è中", dt))),
+                SubClassOf(a, DataMinCardinality(1, d, DataIntersectionOf(
+                        Integer(), DataUnionOf(Integer(), Double())))),
+                SubClassOf(a, DataExactCardinality(1, d, Integer())),
+                SubClassOf(a, DataMaxCardinality(1, d, Integer())),
+                DatatypeDefinition(dt, DatatypeRestriction(Integer(),
+                        FacetRestriction(OWLFacet.MIN_INCLUSIVE, Literal(1)),
+                        FacetRestriction(OWLFacet.MAX_EXCLUSIVE, Literal(10)))),
+                EquivalentClasses(a, b, OWLNothing()),
+                DisjointClasses(a, b),
+                DisjointUnion(a, b, OWLNothing()),
+                SubObjectPropertyOf(p, q),
+                SubPropertyChainOf(Arrays.asList(p, q, p), q),
+                EquivalentObjectProperties(p, q),
+                DisjointObjectProperties(p, q),
+                InverseObjectProperties(p, q),
+                ObjectPropertyDomain(p, a),
+                ObjectPropertyRange(p, b),
+                FunctionalObjectProperty(p),
+                df.getOWLInverseFunctionalObjectPropertyAxiom(p),
+                ReflexiveObjectProperty(p),
+                IrreflexiveObjectProperty(q),
+                SymmetricObjectProperty(p),
+                AsymmetricObjectProperty(q),
+                TransitiveObjectProperty(p),
+                SubDataPropertyOf(d, e),
+                EquivalentDataProperties(d, e),
+                DisjointDataProperties(d, e),
+                DataPropertyDomain(d, a),
+                DataPropertyRange(d, Integer()),
+                FunctionalDataProperty(d),
+                HasKey(a, p, d),
+                ClassAssertion(a, i),
+                ClassAssertion(b, anon),
+                ObjectPropertyAssertion(p, i, anon),
+                df.getOWLNegativeObjectPropertyAssertionAxiom(p, i, j),
+                DataPropertyAssertion(d, i, Literal(42)),
+                df.getOWLNegativeDataPropertyAssertionAxiom(d, i, Literal(43)),
+                SameIndividual(i, j),
+                DifferentIndividuals(i, j, anon),
+                AnnotationAssertion(RDFSLabel(), a.getIRI(),
+                        Literal("label", "en")),
+                AnnotationAssertion(RDFSComment(), anon, IRI(NS + "value")),
+                df.getOWLAnnotationAssertionAxiom(RDFSComment(), a.getIRI(),
+                        j.getIRI(), Collections.singleton(Annotation(
+                                RDFSLabel(), Literal("annotated")))),
+                SubAnnotationPropertyOf(RDFSComment(), RDFSLabel()),
+                AnnotationPropertyDomain(RDFSLabel(), a.getIRI()),
+                AnnotationPropertyRange(RDFSLabel(), b.getIRI()),
+                df.getSWRLRule(body, head),
+                SubClassOf(a, b, Collections.singleton(df.getOWLAnnotation(
+                        RDFSComment(), Literal("nested"), Collections
+                                .singleton(Annotation(RDFSLabel(), anon)))))};
+        m.addAxioms(o, new HashSet<OWLAxiom>(Arrays.asList(axioms)));
+        m.applyChange(new AddImport(o, ImportsDeclaration(IRI(NS + "imported"))));
+        m.applyChange(new AddOntologyAnnotation(o, Annotation(RDFSComment(),
+                Literal("ontology annotation"))));
+        return o;
+    }
+
+    /**
+     * Anonymous individuals are read as fresh individuals, so axioms are
+     * compared with their anonymous individuals renamed.
+     */
+    private static void assertSameAxioms(Set<OWLAxiom> expected,
+            Set<OWLAxiom> actual) {
+        OWLDataFactory df = OWLManager.getOWLDataFactory();
+        assertEquals(
+                new AnonymousIndividualsNormaliser(df)
+                        .getNormalisedAxioms(expected),
+                new AnonymousIndividualsNormaliser(df)
+                        .getNormalisedAxioms(actual));
+    }
+
+    @Test
+    public void shouldRoundTripAllAxiomTypesThroughBinaryEncoding()
+            throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = createOntology(m);
+        Map<String, String> prefixes = new LinkedHashMap<String, String>();
+        prefixes.put("ex:", NS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryOWLEncoder().write(o, prefixes, out);
+        byte[] bytes = out.toByteArray();
+        // the document does not have to start at the beginning of the buffer
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+        buffer.position(3);
+        BinaryOWLDecoder decoder = new BinaryOWLDecoder(buffer,
+                m.getOWLDataFactory());
+        assertEquals(o.getOntologyID(), decoder.getOntologyID());
+        assertEquals(o.getImportsDeclarations(),
+                decoder.getImportsDeclarations());
+        assertEquals(o.getAnnotations(), decoder.getOntologyAnnotations());
+        assertEquals(prefixes, decoder.getPrefixes());
+        assertEquals(o.getAxiomCount(), decoder.getAxiomCount());
+        assertSameAxioms(o.getAxioms(),
+                new HashSet<OWLAxiom>(decoder.readAxioms()));
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    public void shouldReadAxiomsByOffset() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = createOntology(m);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryOWLEncoder().write(o, Collections.<String, String> emptyMap(),
+                out);
+        BinaryOWLDecoder decoder = new BinaryOWLDecoder(ByteBuffer.wrap(out
+                .toByteArray()), m.getOWLDataFactory());
+        int offset = decoder.getFirstAxiomOffset();
+        int[] offsets = new int[decoder.getAxiomCount()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = offset;
+            offset = decoder.nextAxiomOffset(offset);
+        }
+        assertEquals(out.size(), offset);
+        Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
+        for (int i = offsets.length - 1; i >= 0; i--) {
+            axioms.add(decoder.readAxiom(offsets[i]));
+        }
+        assertSameAxioms(o.getAxioms(), axioms);
+    }
+
+    @Test(expected = OWLParserException.class)
+    public void shouldRejectOtherDocuments() {
+        new BinaryOWLDecoder(ByteBuffer.wrap("Ontology()".getBytes()),
+                OWLManager.getOWLDataFactory());
+    }
+
+    private void saveDocument(OWLOntology o) throws Exception {
+        OutputStream out = new FileOutputStream(document);
+        try {
+            o.getOWLOntologyManager().saveOntology(o,
+                    new OWLFunctionalSyntaxOntologyFormat(), out);
+        } finally {
+            out.close();
+        }
+    }
+
+    private OWLOntology loadWithCache(OWLOntologyManager m) throws Exception {
+        m.addOntologyFactory(new CachingOWLOntologyFactory(cacheDirectory));
+        return m.loadOntologyFromOntologyDocument(new FileDocumentSource(
+                document), new OWLOntologyLoaderConfiguration()
+                .setMissingImportHandlingStrategy(MissingImportHandlingStrategy.SILENT));
+    }
+
+    private static boolean isParsed(OWLOntology o) {
+        return !o.getOWLOntologyManager().getOntologyFormat(o)
+                .getOntologyLoaderMetaData().getParserAttempts().isEmpty();
+    }
+
+    private void overwriteDocument(String text) throws Exception {
+        OutputStream out = new FileOutputStream(document);
+        try {
+            out.write(text.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    @Test
+    public void shouldLoadFromCacheWithoutParsing() throws Exception {
+        OWLOntology expected = createOntology(OWLManager
+                .createOWLOntologyManager());
+        saveDocument(expected);
+        OWLOntologyManager first = OWLManager.createOWLOntologyManager();
+        OWLOntology parsed = loadWithCache(first);
+        assertFalse(first.getOntologyFormat(parsed).getOntologyLoaderMetaData()
+                .getParserAttempts().isEmpty());
+        assertEquals(1, cacheDirectory.listFiles().length);
+        OWLOntologyManager second = OWLManager.createOWLOntologyManager();
+        OWLOntology cached = loadWithCache(second);
+        OWLOntologyFormat format = second.getOntologyFormat(cached);
+        assertTrue(format.getOntologyLoaderMetaData().getParserAttempts()
+                .isEmpty());
+        assertEquals(first.getOntologyFormat(parsed).getClass(),
+                format.getClass());
+        assertEquals(
+                ((OWLFunctionalSyntaxOntologyFormat) first
+                        .getOntologyFormat(parsed)).getPrefixName2PrefixMap(),
+                ((OWLFunctionalSyntaxOntologyFormat) format)
+                        .getPrefixName2PrefixMap());
+        assertEquals(parsed.getOntologyID(), cached.getOntologyID());
+        assertEquals(IRI.create(document),
+                second.getOntologyDocumentIRI(cached));
+        assertEquals(parsed.getImportsDeclarations(),
+                cached.getImportsDeclarations());
+        assertEquals(parsed.getAnnotations(), cached.getAnnotations());
+        assertSameAxioms(parsed.getAxioms(), cached.getAxioms());
+        assertSameAxioms(expected.getAxioms(), cached.getAxioms());
+    }
+
+    @Test
+    public void shouldNotShareAnonymousIndividualsWithParsedDocuments()
+            throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "o"));
+        OWLAnonymousIndividual anon = AnonymousIndividual();
+        m.addAxiom(o, ClassAssertion(Class(IRI(NS + "A")), anon));
+        saveDocument(o);
+        loadWithCache(OWLManager.createOWLOntologyManager());
+        // a document with the node ID stored in the cache entry, as a parser
+        // in another process can produce
+        OWLOntologyManager m2 = OWLManager.createOWLOntologyManager();
+        OWLOntology parsed = m2
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(
+                        "Ontology(<" + NS + "parsed> ClassAssertion(<" + NS
+                                + "B> " + anon.getID() + "))"));
+        assertEquals(Collections.singleton(anon),
+                parsed.getReferencedAnonymousIndividuals());
+        OWLOntology cached = loadWithCache(m2);
+        assertTrue(m2.getOntologyFormat(cached).getOntologyLoaderMetaData()
+                .getParserAttempts().isEmpty());
+        Set<OWLAnonymousIndividual> read = cached
+                .getReferencedAnonymousIndividuals();
+        assertEquals(1, read.size());
+        assertFalse(read.contains(anon));
+    }
+
+    @Test
+    public void shouldParseChangedDocumentAgain() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "o"));
+        m.addAxiom(o, Declaration(Class(IRI(NS + "A"))));
+        saveDocument(o);
+        loadWithCache(OWLManager.createOWLOntologyManager());
+        m.addAxiom(o, Declaration(Class(IRI(NS + "B"))));
+        saveDocument(o);
+        // make sure the file does not look unchanged
+        document.setLastModified(document.lastModified() - 10000);
+        OWLOntology reloaded = loadWithCache(OWLManager
+                .createOWLOntologyManager());
+        assertEquals(o.getAxioms(), reloaded.getAxioms());
+        // the entry has been replaced
+        OWLOntology cached = loadWithCache(OWLManager
+                .createOWLOntologyManager());
+        assertEquals(o.getAxioms(), cached.getAxioms());
+    }
+
+    @Test
+    public void shouldNotReadUnchangedFiles() throws Exception {
+        String text = "Ontology(<" + NS + "o> Declaration(Class(<" + NS
+                + "A>)))";
+        overwriteDocument(text);
+        long lastModified = document.lastModified();
+        assertTrue(isParsed(loadWithCache(OWLManager
+                .createOWLOntologyManager())));
+        // same length and modification time: the cache entry is used without
+        // opening the file, which no parser could read any longer
+        overwriteDocument(text.replaceAll(".", "?"));
+        document.setLastModified(lastModified);
+        OWLOntology cached = loadWithCache(OWLManager
+                .createOWLOntologyManager());
+        assertFalse(isParsed(cached));
+        assertEquals(Collections.singleton(Declaration(Class(IRI(NS + "A")))),
+                cached.getAxioms());
+    }
+
+    @Test
+    public void shouldParseFileWithSameLengthAndNewModificationTime()
+            throws Exception {
+        overwriteDocument("Ontology(<" + NS + "o> Declaration(Class(<" + NS
+                + "A>)))");
+        long lastModified = document.lastModified();
+        loadWithCache(OWLManager.createOWLOntologyManager());
+        overwriteDocument("Ontology(<" + NS + "o> Declaration(Class(<" + NS
+                + "B>)))");
+        document.setLastModified(lastModified - 10000);
+        OWLOntology reloaded = loadWithCache(OWLManager
+                .createOWLOntologyManager());
+        assertTrue(isParsed(reloaded));
+        assertEquals(Collections.singleton(Declaration(Class(IRI(NS + "B")))),
+                reloaded.getAxioms());
+        // touching the file without changing it only costs the digest
+        document.setLastModified(lastModified - 20000);
+        OWLOntology cached = loadWithCache(OWLManager
+                .createOWLOntologyManager());
+        assertFalse(isParsed(cached));
+        assertEquals(reloaded.getAxioms(), cached.getAxioms());
+    }
+
+    @Test
+    public void shouldUseDigestForStreams() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "o"));
+        m.addAxiom(o, Declaration(Class(IRI(NS + "A"))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.saveOntology(o, new OWLFunctionalSyntaxOntologyFormat(), out);
+        IRI documentIRI = IRI(NS + "stream");
+        for (int i = 0; i < 2; i++) {
+            OWLOntologyManager m2 = OWLManager.createOWLOntologyManager();
+            m2.addOntologyFactory(new CachingOWLOntologyFactory(
+                    cacheDirectory));
+            OWLOntology loaded = m2
+                    .loadOntologyFromOntologyDocument(new StreamDocumentSource(
+                            new java.io.ByteArrayInputStream(out.toByteArray()),
+                            documentIRI));
+            assertEquals(o.getAxioms(), loaded.getAxioms());
+            assertEquals(i == 0, !m2.getOntologyFormat(loaded)
+                    .getOntologyLoaderMetaData().getParserAttempts().isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldIgnoreCorruptEntries() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = createOntology(m);
+        saveDocument(o);
+        loadWithCache(OWLManager.createOWLOntologyManager());
+        File entry = cacheDirectory.listFiles()[0];
+        RandomAccessFile raf = new RandomAccessFile(entry, "rw");
+        try {
+            raf.setLength(raf.length() - 20);
+        } finally {
+            raf.close();
+        }
+        OWLOntologyManager m2 = OWLManager.createOWLOntologyManager();
+        OWLOntology reloaded = loadWithCache(m2);
+        assertEquals(o.getAxioms(), reloaded.getAxioms());
+        assertEquals(1, m2.getOntologies().size());
+    }
+}
@@ -0,0 +1,107 @@
+package org.semanticweb.owlapi.api.test.ontology;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.baseclasses.AbstractOWLAPITestCase;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+@SuppressWarnings("javadoc")
+public class ProcessAxiomsTestCase extends AbstractOWLAPITestCase {
+
+    private OWLOntology o;
+    private OWLClass a;
+    private OWLClass b;
+    private OWLObjectProperty p;
+
+    /** collects all the axioms it receives */
+    private static class Collector<T extends OWLAxiom> implements
+            OWLAxiomProcessor<T> {
+
+        final Set<T> axioms = new HashSet<T>();
+
+        @Override
+        public boolean process(T axiom) {
+            axioms.add(axiom);
+            return true;
+        }
+    }
+
+    @Before
+    public void setUpOntology() throws Exception {
+        o = getOWLOntology("ont");
+        a = Class(getIRI("A"));
+        b = Class(getIRI("B"));
+        OWLClass c = Class(getIRI("C"));
+        p = ObjectProperty(getIRI("p"));
+        addAxiom(o, SubClassOf(a, b));
+        addAxiom(o, SubClassOf(a, ObjectSomeValuesFrom(p, c)));
+        addAxiom(o, SubClassOf(c, b));
+        addAxiom(o, EquivalentClasses(a, ObjectIntersectionOf(b, c)));
+        addAxiom(o, Declaration(a));
+        addAxiom(o, ObjectPropertyDomain(p, b));
+    }
+
+    @Test
+    public void shouldProcessSameAxiomsAsGetters() {
+        Collector<OWLAxiom> byType = new Collector<OWLAxiom>();
+        assertTrue(o.processAxioms(AxiomType.SUBCLASS_OF, byType));
+        assertEquals(o.getAxioms(AxiomType.SUBCLASS_OF), byType.axioms);
+        for (OWLClass cls : o.getClassesInSignature()) {
+            Collector<OWLAxiom> references = new Collector<OWLAxiom>();
+            o.processReferencingAxioms(cls, references);
+            assertEquals(o.getReferencingAxioms(cls), references.axioms);
+            Collector<OWLAxiom> classAxioms = new Collector<OWLAxiom>();
+            o.processAxioms(cls, classAxioms);
+            assertEquals(o.getAxioms(cls), classAxioms.axioms);
+            Collector<OWLAxiom> sub = new Collector<OWLAxiom>();
+            o.processSubClassAxiomsForSubClass(cls, sub);
+            assertEquals(o.getSubClassAxiomsForSubClass(cls), sub.axioms);
+            Collector<OWLAxiom> sup = new Collector<OWLAxiom>();
+            o.processSubClassAxiomsForSuperClass(cls, sup);
+            assertEquals(o.getSubClassAxiomsForSuperClass(cls), sup.axioms);
+            Collector<OWLAxiom> equivalent = new Collector<OWLAxiom>();
+            o.processEquivalentClassesAxioms(cls, equivalent);
+            assertEquals(o.getEquivalentClassesAxioms(cls),
+                    equivalent.axioms);
+        }
+        Collector<OWLAxiom> propertyReferences = new Collector<OWLAxiom>();
+        o.processReferencingAxioms(p, propertyReferences);
+        assertEquals(o.getReferencingAxioms(p), propertyReferences.axioms);
+    }
+
+    @Test
+    public void shouldStopWhenProcessorReturnsFalse() {
+        final int[] count = new int[1];
+        boolean completed = o.processReferencingAxioms(a,
+                new OWLAxiomProcessor<OWLAxiom>() {
+
+                    @Override
+                    public boolean process(OWLAxiom axiom) {
+                        count[0]++;
+                        return false;
+                    }
+                });
+        assertFalse(completed);
+        assertEquals(1, count[0]);
+    }
+
+    @Test
+    public void shouldCompleteOnMissingKeys() {
+        Collector<OWLAxiom> collector = new Collector<OWLAxiom>();
+        assertTrue(o.processSubClassAxiomsForSubClass(Class(getIRI("D")),
+                collector));
+        assertTrue(o.processAxioms(AxiomType.HAS_KEY, collector));
+        assertTrue(collector.axioms.isEmpty());
+    }
+}
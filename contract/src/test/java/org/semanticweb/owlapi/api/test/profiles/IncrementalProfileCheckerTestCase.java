@@ -0,0 +1,195 @@
+package org.semanticweb.owlapi.api.test.profiles;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.Factory;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.RemoveImport;
+import org.semanticweb.owlapi.model.SetOntologyID;
+import org.semanticweb.owlapi.profiles.IncrementalProfileChecker;
+import org.semanticweb.owlapi.profiles.OWL2DLProfile;
+import org.semanticweb.owlapi.profiles.OWL2ELProfile;
+import org.semanticweb.owlapi.profiles.OWL2Profile;
+import org.semanticweb.owlapi.profiles.OWL2QLProfile;
+import org.semanticweb.owlapi.profiles.OWL2RLProfile;
+import org.semanticweb.owlapi.profiles.OWLProfile;
+import org.semanticweb.owlapi.profiles.OWLProfileChecker;
+import org.semanticweb.owlapi.profiles.OWLProfileReport;
+import org.semanticweb.owlapi.profiles.OWLProfileViolation;
+
+@SuppressWarnings("javadoc")
+public class IncrementalProfileCheckerTestCase {
+
+    private static final String NS = "urn:test:incrementalprofile#";
+    private final List<OWLProfile> profiles = Arrays.<OWLProfile> asList(
+            new OWL2Profile(), new OWL2DLProfile(), new OWL2ELProfile(),
+            new OWL2QLProfile(), new OWL2RLProfile());
+    private OWLOntologyManager m;
+    private OWLOntology o;
+    private OWLOntology imported;
+    private IncrementalProfileChecker checker;
+    private final OWLClass a = Class(IRI(NS + "A"));
+    private final OWLClass b = Class(IRI(NS + "B"));
+    private final OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+    private final OWLObjectProperty q = ObjectProperty(IRI(NS + "q"));
+
+    @Before
+    public void setUp() throws Exception {
+        m = Factory.getManager();
+        imported = m.createOntology(IRI(NS + "imported"));
+        o = m.createOntology(IRI(NS + "ontology"));
+        m.addAxiom(o, Declaration(a));
+        m.addAxiom(o, Declaration(p));
+        m.addAxiom(o, SubClassOf(a, ObjectSomeValuesFrom(p, b)));
+        m.addAxiom(o, SubClassOf(a, ObjectMaxCardinality(1, p, b)));
+        m.addAxiom(o, SubClassOf(a, ObjectUnionOf(b, ObjectComplementOf(a))));
+        m.addAxiom(imported, Declaration(q));
+        m.addAxiom(imported, SubObjectPropertyOf(q, p));
+        checker = new IncrementalProfileChecker(o, profiles);
+    }
+
+    private void assertUpToDate() {
+        Map<OWLProfile, OWLProfileReport> expected = new OWLProfileChecker(
+                profiles).checkOntology(o);
+        Map<OWLProfile, OWLProfileReport> actual = checker.getReports();
+        assertEquals(profiles, new ArrayList<OWLProfile>(actual.keySet()));
+        for (OWLProfile profile : profiles) {
+            assertEquals(profile.getName(), describe(expected.get(profile)),
+                    describe(actual.get(profile)));
+        }
+    }
+
+    /** Violations do not implement equals; compare what they report. */
+    private static List<String> describe(OWLProfileReport report) {
+        List<String> descriptions = new ArrayList<String>();
+        for (OWLProfileViolation v : report.getViolations()) {
+            descriptions.add(v.getClass().getSimpleName() + " "
+                    + v.getOntologyID() + " " + v.getAxiom() + " " + v);
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
+    @Test
+    public void shouldFollowAxiomChanges() {
+        assertUpToDate();
+        m.addAxiom(o, Declaration(b));
+        assertUpToDate();
+        OWLAxiom union = SubClassOf(a, ObjectUnionOf(b, ObjectComplementOf(a)));
+        m.removeAxiom(o, union);
+        assertUpToDate();
+        m.addAxiom(o, union);
+        m.removeAxiom(o, Declaration(a));
+        assertUpToDate();
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        m.addAxiom(o, DataPropertyRange(d, Integer()));
+        assertUpToDate();
+        checker.dispose();
+    }
+
+    @Test
+    public void shouldFollowChangesOfSimpleProperties() {
+        assertUpToDate();
+        // q becomes non simple, and so does p through the imported hierarchy
+        m.addAxiom(imported, TransitiveObjectProperty(q));
+        assertUpToDate();
+        m.applyChange(new AddImport(o, ImportsDeclaration(IRI(NS
+                + "imported"))));
+        assertUpToDate();
+        m.addAxiom(o, SubPropertyChainOf(
+                Arrays.<OWLObjectPropertyExpression> asList(p, p), q));
+        assertUpToDate();
+        m.removeAxiom(imported, TransitiveObjectProperty(q));
+        assertUpToDate();
+        m.applyChange(new RemoveImport(o, ImportsDeclaration(IRI(NS
+                + "imported"))));
+        assertUpToDate();
+        checker.dispose();
+    }
+
+    @Test
+    public void shouldFollowPunningAndDatatypeDefinitions() {
+        OWLDataProperty punned = DataProperty(IRI(NS + "p"));
+        m.addAxiom(o, DataPropertyAssertion(punned,
+                NamedIndividual(IRI(NS + "i")), Literal(1)));
+        assertUpToDate();
+        m.addAxiom(o, Declaration(punned));
+        assertUpToDate();
+        OWLDatatype dt = Datatype(IRI(NS + "dt"));
+        OWLNamedIndividual i = NamedIndividual(IRI(NS + "i"));
+        m.addAxiom(o, DataPropertyAssertion(DataProperty(IRI(NS + "e")), i,
+                Literal("x")));
+        m.addAxiom(o, DataPropertyRange(DataProperty(IRI(NS + "e")), dt));
+        assertUpToDate();
+        m.addAxiom(o, DatatypeDefinition(dt, Integer()));
+        assertUpToDate();
+        m.addAxiom(o, DatatypeDefinition(Datatype(IRI(NS + "dt2")), dt));
+        m.addAxiom(o, DatatypeDefinition(dt, Datatype(IRI(NS + "dt2"))));
+        assertUpToDate();
+        m.removeAxiom(o, DatatypeDefinition(dt, Datatype(IRI(NS + "dt2"))));
+        assertUpToDate();
+        checker.dispose();
+    }
+
+    @Test
+    public void shouldFollowHeaderChanges() {
+        m.applyChange(new SetOntologyID(o, new OWLOntologyID(IRI(NS
+                + "ontology"), IRI("urn:test:relative"))));
+        assertUpToDate();
+        // undeclared classes, checked against the ontology with its new ID
+        m.addAxiom(o, SubClassOf(Class(IRI(NS + "C")), Class(IRI(NS + "D"))));
+        assertUpToDate();
+        m.applyChange(new SetOntologyID(o, new OWLOntologyID(IRI(NS
+                + "renamed"))));
+        m.removeAxiom(o, Declaration(a));
+        assertUpToDate();
+        m.applyChange(new AddOntologyAnnotation(o, Annotation(
+                RDFSComment(), Literal("comment"))));
+        assertUpToDate();
+        checker.dispose();
+    }
+
+    @Test
+    public void shouldKeepViolationsOfUnrelatedAxioms() {
+        OWLProfile dl = profiles.get(1);
+        List<OWLProfileViolation> before = new ArrayList<OWLProfileViolation>(
+                checker.getReports().get(dl).getViolations());
+        assertFalse(before.isEmpty());
+        m.addAxiom(o, SubClassOf(Class(IRI(NS + "C")), a));
+        List<OWLProfileViolation> after = new ArrayList<OWLProfileViolation>(
+                checker.getReports().get(dl).getViolations());
+        for (OWLProfileViolation v : before) {
+            boolean found = false;
+            for (OWLProfileViolation w : after) {
+                found |= v == w;
+            }
+            assertTrue(v.toString(), found);
+        }
+        assertUpToDate();
+        checker.dispose();
+        m.removeAxiom(o, SubClassOf(a, ObjectSomeValuesFrom(p, b)));
+        // no longer listening
+        assertEquals(after.size(), checker.getReports().get(dl)
+                .getViolations().size());
+    }
+}
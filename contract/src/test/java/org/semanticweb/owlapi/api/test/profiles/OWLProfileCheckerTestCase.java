@@ -0,0 +1,229 @@
+package org.semanticweb.owlapi.api.test.profiles;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.Factory;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.MissingImportHandlingStrategy;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.profiles.OWL2DLProfile;
+import org.semanticweb.owlapi.profiles.OWL2ELProfile;
+import org.semanticweb.owlapi.profiles.OWL2Profile;
+import org.semanticweb.owlapi.profiles.OWL2QLProfile;
+import org.semanticweb.owlapi.profiles.OWL2RLProfile;
+import org.semanticweb.owlapi.profiles.OWLProfile;
+import org.semanticweb.owlapi.profiles.OWLProfileChecker;
+import org.semanticweb.owlapi.profiles.OWLProfileReport;
+import org.semanticweb.owlapi.profiles.OWLProfileViolation;
+import org.semanticweb.owlapi.profiles.UseOfIllegalAxiom;
+
+@SuppressWarnings("javadoc")
+public class OWLProfileCheckerTestCase {
+
+    private static final String NS = "urn:test:profilechecker#";
+
+    /** A profile that is not one of the built in profiles. */
+    private static class NoDisjointnessProfile implements OWLProfile {
+
+        @Override
+        public String getName() {
+            return "No disjointness";
+        }
+
+        @Override
+        public IRI getIRI() {
+            return IRI(NS + "NoDisjointness");
+        }
+
+        @Override
+        public OWLProfileReport checkOntology(OWLOntology ontology) {
+            Set<OWLProfileViolation> violations = new HashSet<OWLProfileViolation>();
+            for (OWLOntology ont : ontology.getImportsClosure()) {
+                for (OWLClass c : ont.getClassesInSignature()) {
+                    if (!ont.getDisjointClassesAxioms(c).isEmpty()) {
+                        violations.add(new UseOfIllegalAxiom(ont, ont
+                                .getDisjointClassesAxioms(c).iterator()
+                                .next()));
+                    }
+                }
+            }
+            return new OWLProfileReport(this, violations);
+        }
+    }
+
+    /** A built in profile whose check is overridden. */
+    private static class StrictELProfile extends OWL2ELProfile {
+
+        @Override
+        public OWLProfileReport checkOntology(OWLOntology ontology) {
+            Set<OWLProfileViolation> violations = new HashSet<OWLProfileViolation>(
+                    super.checkOntology(ontology).getViolations());
+            for (OWLOntology ont : ontology.getImportsClosure()) {
+                for (OWLClassAssertionAxiom ax : ont
+                        .getAxioms(AxiomType.CLASS_ASSERTION)) {
+                    violations.add(new UseOfIllegalAxiom(ont, ax));
+                }
+            }
+            return new OWLProfileReport(this, violations);
+        }
+    }
+
+    private static List<OWLProfile> profiles() {
+        return Arrays.<OWLProfile> asList(new OWL2Profile(),
+                new OWL2DLProfile(), new OWL2ELProfile(), new OWL2QLProfile(),
+                new OWL2RLProfile(), new NoDisjointnessProfile());
+    }
+
+    private static void assertSameReports(OWLOntology ontology, int threads) {
+        List<OWLProfile> profiles = profiles();
+        OWLProfileChecker checker = new OWLProfileChecker(profiles);
+        checker.setThreads(threads);
+        Map<OWLProfile, OWLProfileReport> reports = checker
+                .checkOntology(ontology);
+        assertEquals(profiles, Arrays.asList(reports.keySet().toArray()));
+        for (OWLProfile profile : profiles) {
+            OWLProfileReport expected = profile.checkOntology(ontology);
+            OWLProfileReport actual = reports.get(profile);
+            assertSame(profile, actual.getProfile());
+            assertEquals(profile.getName() + " " + ontology.getOntologyID(),
+                    expected.getViolations().size(), actual.getViolations()
+                            .size());
+        }
+    }
+
+    @Test
+    public void shouldCheckConformanceOntologiesInOnePass() throws Exception {
+        OWLOntologyManager man = Factory.getManager();
+        URL resourceURL = OWLProfileCheckerTestCase.class
+                .getResource("/all.rdf");
+        OWLOntology testCases = man.loadOntologyFromOntologyDocument(IRI
+                .create(resourceURL));
+        String testNS = "http://www.w3.org/2007/OWL/testOntology#";
+        OWLClass profileTest = Class(IRI(testNS + "ProfileIdentificationTest"));
+        // the premises are parsed as annotations
+        OWLAnnotationProperty premise = AnnotationProperty(IRI(testNS
+                + "rdfXmlPremiseOntology"));
+        // the test ontologies cannot load remote imports
+        OWLOntologyLoaderConfiguration config = new OWLOntologyLoaderConfiguration()
+                .setMissingImportHandlingStrategy(MissingImportHandlingStrategy.SILENT);
+        int checked = 0;
+        for (OWLClassAssertionAxiom ax : testCases
+                .getClassAssertionAxioms(profileTest)) {
+            String serialisation = null;
+            for (OWLAnnotationAssertionAxiom a : testCases
+                    .getAnnotationAssertionAxioms(ax.getIndividual()
+                            .asOWLNamedIndividual().getIRI())) {
+                if (a.getProperty().equals(premise)) {
+                    serialisation = ((OWLLiteral) a.getValue()).getLiteral();
+                }
+            }
+            if (serialisation == null) {
+                continue;
+            }
+            OWLOntology ontology = man
+                    .loadOntologyFromOntologyDocument(new StringDocumentSource(
+                            serialisation), config);
+            assertSameReports(ontology, 1);
+            assertSameReports(ontology, 2);
+            man.removeOntology(ontology);
+            checked++;
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    public void shouldCheckChunksInParallel() throws Exception {
+        OWLOntologyManager man = OWLManager
+                .createConcurrentOWLOntologyManager();
+        OWLOntology imported = man.createOntology(IRI(NS + "imported"));
+        OWLOntology ontology = man.createOntology(IRI(NS + "ontology"));
+        man.applyChange(new AddImport(ontology,
+                ImportsDeclaration(IRI(NS + "imported"))));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        man.addAxiom(imported, Declaration(p));
+        man.addAxiom(imported, TransitiveObjectProperty(p));
+        for (int i = 0; i < 25000; i++) {
+            OWLClass c = Class(IRI(NS + "C" + i));
+            OWLClass d = Class(IRI(NS + "C" + (i + 1)));
+            if (i % 2 == 0) {
+                // only every other class is declared
+                man.addAxiom(ontology, Declaration(c));
+            }
+            if (i % 100 == 0) {
+                // not OWL 2 DL: p is not simple
+                man.addAxiom(ontology, SubClassOf(c,
+                        ObjectMinCardinality(2, p, d)));
+            } else if (i % 10 == 0) {
+                // not EL, QL or RL
+                man.addAxiom(ontology,
+                        SubClassOf(c, ObjectUnionOf(d, ObjectComplementOf(c))));
+            } else {
+                man.addAxiom(ontology, SubClassOf(c,
+                        ObjectSomeValuesFrom(p, d)));
+            }
+            if (i % 1000 == 0) {
+                man.addAxiom(ontology, DisjointClasses(c, d));
+            }
+        }
+        assertSameReports(ontology, 1);
+        assertSameReports(ontology, 3);
+        OWLProfileChecker checker = new OWLProfileChecker(new OWL2DLProfile());
+        checker.setThreads(3);
+        assertEquals(3, checker.getThreads());
+        OWLProfileReport report = checker.checkOntology(ontology).values()
+                .iterator().next();
+        assertFalse(report.isInProfile());
+        assertTrue(new OWLProfileChecker(new OWL2Profile())
+                .checkOntology(ontology).values().iterator().next()
+                .isInProfile());
+    }
+
+    @Test
+    public void shouldReportNothingWithoutProfiles() throws Exception {
+        OWLOntology ontology = Factory.getManager().createOntology();
+        assertTrue(new OWLProfileChecker(Collections.<OWLProfile> emptyList())
+                .checkOntology(ontology).isEmpty());
+    }
+
+    @Test
+    public void shouldUseOverriddenChecksOfBuiltInSubclasses()
+            throws Exception {
+        OWLOntologyManager m = Factory.getManager();
+        OWLOntology ontology = m.createOntology(IRI(NS + "strict"));
+        m.addAxiom(ontology, Declaration(Class(IRI(NS + "A"))));
+        m.addAxiom(ontology, Declaration(NamedIndividual(IRI(NS + "i"))));
+        m.addAxiom(ontology, ClassAssertion(Class(IRI(NS + "A")),
+                NamedIndividual(IRI(NS + "i"))));
+        OWLProfile strict = new StrictELProfile();
+        OWLProfile el = new OWL2ELProfile();
+        Map<OWLProfile, OWLProfileReport> reports = new OWLProfileChecker(
+                strict, el).checkOntology(ontology);
+        assertTrue(reports.get(el).isInProfile());
+        assertFalse(reports.get(strict).isInProfile());
+        // the violations come from the overriding check
+        assertEquals(strict.checkOntology(ontology).getViolations().size(),
+                reports.get(strict).getViolations().size());
+    }
+}
@@ -0,0 +1,132 @@
+package org.semanticweb.owlapi.api.test.reasoners;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.api.test.Factory;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
+import org.semanticweb.owlapi.util.InferredAxiomHandler;
+import org.semanticweb.owlapi.util.InferredOntologyGenerator;
+
+@SuppressWarnings("javadoc")
+public class InferredOntologyGeneratorTestCase {
+
+    private static final String NS = "urn:test:inferred#";
+    private OWLOntologyManager m;
+    private OWLReasoner reasoner;
+
+    @Before
+    public void setUp() throws Exception {
+        m = Factory.getManager();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        for (int i = 0; i < 500; i++) {
+            OWLClass c = Class(IRI(NS + "C" + i));
+            m.addAxiom(o, Declaration(c));
+            m.addAxiom(o, SubClassOf(c, Class(IRI(NS + "C" + i / 2))));
+            if (i % 7 == 0) {
+                m.addAxiom(o, EquivalentClasses(c, Class(IRI(NS + "E" + i))));
+            }
+            m.addAxiom(o, ClassAssertion(c, NamedIndividual(IRI(NS + "i" + i))));
+            m.addAxiom(o, ObjectPropertyAssertion(
+                    ObjectProperty(IRI(NS + "p")),
+                    NamedIndividual(IRI(NS + "i" + i)),
+                    NamedIndividual(IRI(NS + "i" + (i + 1)))));
+        }
+        m.addAxiom(o, SubObjectPropertyOf(ObjectProperty(IRI(NS + "p")),
+                ObjectProperty(IRI(NS + "q"))));
+        reasoner = new StructuralReasonerFactory().createReasoner(o);
+        reasoner.precomputeInferences();
+    }
+
+    private Set<OWLAxiom> fill(int threads, int batchSize) throws Exception {
+        InferredOntologyGenerator generator = new InferredOntologyGenerator(
+                reasoner);
+        generator.setThreads(threads);
+        generator.setBatchSize(batchSize);
+        assertEquals(threads, generator.getThreads());
+        assertEquals(batchSize, generator.getBatchSize());
+        OWLOntology inferred = m.createOntology();
+        generator.fillOntology(m, inferred);
+        return inferred.getAxioms();
+    }
+
+    @Test
+    public void shouldFillOntologyInBatches() throws Exception {
+        Set<OWLAxiom> expected = fill(1, 0);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, fill(1, 10));
+        assertEquals(expected, fill(3, 0));
+        assertEquals(expected, fill(3, 7));
+    }
+
+    @Test
+    public void shouldStreamBatchesToHandler() throws Exception {
+        Set<OWLAxiom> expected = fill(1, 0);
+        InferredOntologyGenerator generator = new InferredOntologyGenerator(
+                reasoner);
+        generator.setThreads(2);
+        generator.setBatchSize(50);
+        final List<Integer> sizes = new ArrayList<Integer>();
+        final Set<OWLAxiom> streamed = new HashSet<OWLAxiom>();
+        generator.generateAxioms(m, new InferredAxiomHandler() {
+
+            @Override
+            public void handleAxioms(Collection<? extends OWLAxiom> axioms) {
+                sizes.add(axioms.size());
+                streamed.addAll(axioms);
+            }
+        });
+        assertEquals(expected, streamed);
+        // the class and individual hierarchies come in several batches
+        assertTrue(sizes.toString(), sizes.size() > 20);
+    }
+
+    @Test
+    public void shouldFillReasonedOntologyOnlyOnceAllAxiomsAreGenerated()
+            throws Exception {
+        Set<OWLAxiom> expected = fill(1, 0);
+        OWLOntology root = reasoner.getRootOntology();
+        expected.addAll(root.getAxioms());
+        InferredOntologyGenerator generator = new InferredOntologyGenerator(
+                reasoner);
+        generator.setThreads(3);
+        generator.setBatchSize(7);
+        final List<Integer> changeLists = new ArrayList<Integer>();
+        OWLOntologyChangeListener listener = new OWLOntologyChangeListener() {
+
+            @Override
+            public void ontologiesChanged(
+                    List<? extends OWLOntologyChange> changes) {
+                changeLists.add(changes.size());
+            }
+        };
+        m.addOntologyChangeListener(listener);
+        try {
+            generator.fillOntology(m, root);
+        } finally {
+            m.removeOntologyChangeListener(listener);
+        }
+        assertEquals(expected, root.getAxioms());
+        assertEquals(changeLists.toString(), 1, changeLists.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeBatchSize() {
+        new InferredOntologyGenerator(reasoner).setBatchSize(-1);
+    }
+}
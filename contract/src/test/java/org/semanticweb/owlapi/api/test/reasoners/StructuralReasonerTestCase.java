@@ -38,11 +38,14 @@
  */
 package org.semanticweb.owlapi.api.test.reasoners;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
 
+import java.util.Random;
+
 import org.junit.Test;
 import org.semanticweb.owlapi.api.test.baseclasses.AbstractOWLAPITestCase;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -79,6 +82,47 @@ public class StructuralReasonerTestCase extends AbstractOWLAPITestCase {
         testClassHierarchy(reasoner);
     }
 
+    @SuppressWarnings("javadoc")
+    @Test
+    public void testIncrementalUpdatesMatchFullClassification() {
+        OWLOntology ont = getOWLOntology("incremental");
+        OWLOntologyManager man = ont.getOWLOntologyManager();
+        Random random = new Random(17);
+        int size = 60;
+        for (int i = 1; i < size; i++) {
+            man.addAxiom(ont, SubClassOf(Class(getIRI("C" + i)),
+                    Class(getIRI("C" + random.nextInt(i)))));
+        }
+        StructuralReasoner reasoner = new StructuralReasoner(ont,
+                new SimpleConfiguration(), BufferingMode.BUFFERING);
+        for (int edit = 0; edit < 200; edit++) {
+            OWLClass sub = Class(getIRI("C" + random.nextInt(size)));
+            OWLClass sup = edit % 10 == 0 ? OWLThing() : Class(getIRI("C"
+                    + random.nextInt(size)));
+            OWLAxiom ax = SubClassOf(sub, sup);
+            if (ont.containsAxiom(ax)) {
+                man.removeAxiom(ont, ax);
+            } else {
+                man.addAxiom(ont, ax);
+            }
+            reasoner.flush();
+            StructuralReasoner expected = new StructuralReasoner(ont,
+                    new SimpleConfiguration(), BufferingMode.BUFFERING);
+            for (OWLClass cls : ont.getClassesInSignature()) {
+                assertEquals(expected.getEquivalentClasses(cls),
+                        reasoner.getEquivalentClasses(cls));
+                assertEquals(expected.getSubClasses(cls, true),
+                        reasoner.getSubClasses(cls, true));
+                assertEquals(expected.getSuperClasses(cls, true),
+                        reasoner.getSuperClasses(cls, true));
+            }
+            assertEquals(expected.getTopClassNode(),
+                    reasoner.getTopClassNode());
+            expected.dispose();
+        }
+        reasoner.dispose();
+    }
+
     private void testClassHierarchy(StructuralReasoner reasoner) {
         OWLClass clsX = Class(getIRI("X"));
         OWLClass clsA = Class(getIRI("A"));
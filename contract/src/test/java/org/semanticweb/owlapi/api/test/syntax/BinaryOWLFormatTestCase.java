@@ -0,0 +1,174 @@
+package org.semanticweb.owlapi.api.test.syntax;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collections;
+
+import org.coode.owlapi.binary.BinaryOWLParser;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.BinaryOWLOntologyFormat;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.io.StreamDocumentTarget;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+
+@SuppressWarnings("javadoc")
+public class BinaryOWLFormatTestCase {
+
+    private static final String NS = "urn:test:binary#";
+
+    private static OWLOntology createOntology(int classes) throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLDataFactory df = m.getOWLDataFactory();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        OWLAnnotationProperty a = AnnotationProperty(IRI(NS + "a"));
+        m.applyChange(new AddOntologyAnnotation(o, Annotation(a,
+                Literal("ontology annotation"))));
+        for (int i = 0; i < classes; i++) {
+            OWLClass c = Class(IRI(NS + "C" + i));
+            m.addAxiom(o, Declaration(c));
+            m.addAxiom(o, SubClassOf(c, ObjectSomeValuesFrom(p,
+                    Class(IRI(NS + "C" + (i + 1))))));
+            m.addAxiom(o, df.getOWLAnnotationAssertionAxiom(a, c.getIRI(),
+                    Literal("label " + i, "en"),
+                    Collections.singleton(Annotation(a, Literal(i)))));
+            m.addAxiom(o, DataPropertyAssertion(d,
+                    NamedIndividual(IRI(NS + "i" + i)),
+                    Literal(Integer.toString(i), OWL2Datatype.XSD_INTEGER)));
+        }
+        return o;
+    }
+
+    private static byte[] save(OWLOntology o) throws Exception {
+        BinaryOWLOntologyFormat format = new BinaryOWLOntologyFormat();
+        format.setPrefix("b", NS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        o.getOWLOntologyManager().saveOntology(o, format,
+                new StreamDocumentTarget(out));
+        return out.toByteArray();
+    }
+
+    private static void assertSameOntology(OWLOntology expected,
+            OWLOntology actual) {
+        assertEquals(expected.getOntologyID(), actual.getOntologyID());
+        assertEquals(expected.getAnnotations(), actual.getAnnotations());
+        assertEquals(expected.getAxioms(), actual.getAxioms());
+    }
+
+    @Test
+    public void shouldRoundTripThroughStream() throws Exception {
+        OWLOntology o = createOntology(100);
+        byte[] data = save(o);
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology loaded = m
+                .loadOntologyFromOntologyDocument(new ByteArrayInputStream(
+                        data));
+        assertSameOntology(o, loaded);
+        BinaryOWLOntologyFormat format = (BinaryOWLOntologyFormat) m
+                .getOntologyFormat(loaded);
+        assertEquals(NS, format.getPrefix("b:"));
+    }
+
+    @Test
+    public void shouldRoundTripThroughMappedFile() throws Exception {
+        OWLOntology o = createOntology(100);
+        File file = File.createTempFile("binaryformat", ".owlb");
+        try {
+            o.getOWLOntologyManager().saveOntology(o,
+                    new BinaryOWLOntologyFormat(),
+                    IRI.create(file));
+            OWLOntology loaded = OWLManager.createOWLOntologyManager()
+                    .loadOntologyFromOntologyDocument(file);
+            assertSameOntology(o, loaded);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void shouldDecodeInParallel() throws Exception {
+        OWLOntology o = createOntology(5000);
+        OWLOntology loaded = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(
+                        new StreamDocumentSource(new ByteArrayInputStream(
+                                save(o))),
+                        new OWLOntologyLoaderConfiguration()
+                                .setParsingThreads(4));
+        assertSameOntology(o, loaded);
+    }
+
+    @Test
+    public void shouldSniffBinaryDocuments() {
+        BinaryOWLParser parser = new BinaryOWLParser();
+        assertEquals(new BinaryOWLOntologyFormat(),
+                parser.sniffFormat("OWLB\u0001"));
+        assertNull(parser.sniffFormat("<?xml version=\"1.0\"?>"));
+    }
+
+    @Test
+    public void shouldRejectTextualDocuments() throws Exception {
+        OWLOntology o = OWLManager.createOWLOntologyManager().createOntology();
+        try {
+            new BinaryOWLParser().parse(new StreamDocumentSource(
+                    new ByteArrayInputStream("Ontology()".getBytes("UTF-8"))),
+                    o);
+            fail("Expected the document to be rejected");
+        } catch (OWLParserException e) {
+            // expected
+        }
+        try {
+            new BinaryOWLParser().parse(
+                    new StringDocumentSource("Ontology()"), o);
+            fail("Expected a reader to be rejected");
+        } catch (OWLParserException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldStillParseTextualDocuments() throws Exception {
+        OWLOntology o = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(
+                        new StringDocumentSource("Ontology(<" + NS
+                                + "ontology>)"));
+        assertEquals(NS + "ontology", o.getOntologyID().getOntologyIRI()
+                .toString());
+    }
+
+    @Test(expected = OWLOntologyStorageException.class)
+    public void shouldNotStoreToWriter() throws Exception {
+        OWLOntology o = createOntology(1);
+        o.getOWLOntologyManager().saveOntology(o,
+                new BinaryOWLOntologyFormat(), new StringDocumentTarget());
+    }
+
+    @Test(expected = OWLParserException.class)
+    public void shouldFailOnTruncatedDocuments() throws Exception {
+        byte[] data = save(createOntology(10));
+        byte[] truncated = new byte[data.length - 10];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        new BinaryOWLParser().parse(new StreamDocumentSource(
+                new ByteArrayInputStream(truncated)), OWLManager
+                .createOWLOntologyManager().createOntology());
+    }
+}
@@ -0,0 +1,145 @@
+package org.semanticweb.owlapi.api.test.syntax;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.List;
+
+import org.coode.owlapi.manchesterowlsyntax.ManchesterOWLSyntaxOntologyFormat;
+import org.coode.owlapi.obo.parser.OBOOntologyFormat;
+import org.coode.owlapi.owlxmlparser.OWLXMLParser;
+import org.coode.owlapi.rdfxml.parser.RDFXMLParser;
+import org.coode.owlapi.turtle.TurtleOntologyFormat;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
+import org.semanticweb.owlapi.io.OWLOntologyLoaderMetaData;
+import org.semanticweb.owlapi.io.OWLParserAttempt;
+import org.semanticweb.owlapi.io.OWLXMLOntologyFormat;
+import org.semanticweb.owlapi.io.RDFOntologyFormat;
+import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+@SuppressWarnings("javadoc")
+public class FormatSniffingTestCase {
+
+    private static final String NS = "urn:test:sniffing#";
+
+    private static OWLOntology createOntology(OWLOntologyManager m)
+            throws Exception {
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLClass a = Class(IRI(NS + "A"));
+        OWLClass b = Class(IRI(NS + "B"));
+        m.addAxiom(o, Declaration(a));
+        m.addAxiom(o, Declaration(b));
+        m.addAxiom(o, SubClassOf(a, b));
+        return o;
+    }
+
+    private static OWLOntologyFormat load(String text) throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(
+                        text));
+        return m.getOntologyFormat(o);
+    }
+
+    private static void shouldDetectFormatAndParseAtFirstAttempt(
+            OWLOntologyFormat format) throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = createOntology(m);
+        StringDocumentTarget target = new StringDocumentTarget();
+        m.saveOntology(o, format, target);
+        OWLOntologyFormat loadedFormat = load(target.toString());
+        assertEquals(format.getClass(), loadedFormat.getClass());
+        OWLOntologyLoaderMetaData metaData = loadedFormat
+                .getOntologyLoaderMetaData();
+        assertNotNull(metaData.getDetectedFormat());
+        assertEquals(format.getClass(), metaData.getDetectedFormat()
+                .getClass());
+        List<OWLParserAttempt> attempts = metaData.getParserAttempts();
+        assertEquals(1, attempts.size());
+        assertTrue(attempts.get(0).isSuccessful());
+        assertTrue(attempts.get(0).getTime() > 0);
+    }
+
+    @Test
+    public void shouldDetectRDFXML() throws Exception {
+        shouldDetectFormatAndParseAtFirstAttempt(new RDFXMLOntologyFormat());
+    }
+
+    @Test
+    public void shouldDetectOWLXML() throws Exception {
+        shouldDetectFormatAndParseAtFirstAttempt(new OWLXMLOntologyFormat());
+    }
+
+    @Test
+    public void shouldDetectFunctionalSyntax() throws Exception {
+        shouldDetectFormatAndParseAtFirstAttempt(new OWLFunctionalSyntaxOntologyFormat());
+    }
+
+    @Test
+    public void shouldDetectTurtle() throws Exception {
+        shouldDetectFormatAndParseAtFirstAttempt(new TurtleOntologyFormat());
+    }
+
+    @Test
+    public void shouldDetectManchesterSyntax() throws Exception {
+        shouldDetectFormatAndParseAtFirstAttempt(new ManchesterOWLSyntaxOntologyFormat());
+    }
+
+    @Test
+    public void shouldDetectOBO() throws Exception {
+        String text = "! a comment\nformat-version: 1.2\nontology: test\n\n"
+                + "[Term]\nid: TEST:0000001\nname: a term\n";
+        OWLOntologyFormat format = load(text);
+        assertTrue(format instanceof OBOOntologyFormat);
+        assertTrue(format.getOntologyLoaderMetaData().getDetectedFormat() instanceof OBOOntologyFormat);
+        assertEquals(1, format.getOntologyLoaderMetaData()
+                .getParserAttempts().size());
+    }
+
+    @Test
+    public void shouldSkipXMLPrologWhenDetectingRDFXML() throws Exception {
+        String text = "<?xml version=\"1.0\"?>\n<!-- a comment -->\n"
+                + "<!DOCTYPE rdf:RDF [\n"
+                + "  <!ENTITY owl \"http://www.w3.org/2002/07/owl#\" >\n]>\n"
+                + "<rdf:RDF xmlns:owl=\"http://www.w3.org/2002/07/owl#\"\n"
+                + "  xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\">\n"
+                + "  <owl:Ontology rdf:about=\"" + NS + "ontology\"/>\n"
+                + "  <owl:Class rdf:about=\"" + NS + "A\"/>\n</rdf:RDF>";
+        assertTrue(new RDFXMLParser().sniffFormat(text) instanceof RDFXMLOntologyFormat);
+        assertNull(new OWLXMLParser().sniffFormat(text));
+        OWLOntologyFormat format = load(text);
+        assertTrue(format instanceof RDFXMLOntologyFormat);
+        // RDF specific meta data is kept
+        assertEquals(2, ((RDFOntologyFormat) format)
+                .getOntologyLoaderMetaData().getTripleCount());
+        assertEquals(RDFXMLParser.class.getName(), format
+                .getOntologyLoaderMetaData().getParserAttempts().get(0)
+                .getParserName());
+    }
+
+    @Test
+    public void shouldFallBackToAllParsersIfFormatIsNotRecognized()
+            throws Exception {
+        // Turtle without directives is not recognized
+        String text = "<" + NS + "A> a <http://www.w3.org/2002/07/owl#Class> .";
+        OWLOntologyFormat format = load(text);
+        assertTrue(format instanceof TurtleOntologyFormat);
+        OWLOntologyLoaderMetaData metaData = format
+                .getOntologyLoaderMetaData();
+        assertNull(metaData.getDetectedFormat());
+        List<OWLParserAttempt> attempts = metaData.getParserAttempts();
+        assertTrue(attempts.size() > 1);
+        for (int i = 0; i < attempts.size() - 1; i++) {
+            assertFalse(attempts.get(i).isSuccessful());
+        }
+        assertTrue(attempts.get(attempts.size() - 1).isSuccessful());
+    }
+}
@@ -0,0 +1,114 @@
+package org.semanticweb.owlapi.api.test.syntax;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.util.Collections;
+
+import org.coode.owlapi.functionalparser.OWLFunctionalSyntaxOWLParser;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
+import org.semanticweb.owlapi.io.OWLParser;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.io.UnparsableOntologyException;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+@SuppressWarnings("javadoc")
+public class ParallelFunctionalSyntaxParsingTestCase {
+
+    private static final String NS = "urn:test:parallel#";
+
+    private static OWLOntology load(String text, int threads)
+            throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(
+                        new StringDocumentSource(text),
+                        new OWLOntologyLoaderConfiguration()
+                                .setParsingThreads(threads));
+    }
+
+    private static String createDocument() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLDataFactory df = m.getOWLDataFactory();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        OWLAnnotationProperty a = AnnotationProperty(IRI(NS + "a"));
+        OWLAnonymousIndividual shared = AnonymousIndividual();
+        m.applyChange(new AddOntologyAnnotation(o, Annotation(a, Literal("ontology annotation"))));
+        for (int i = 0; i < 5000; i++) {
+            OWLClass c = Class(IRI(NS + "C" + i));
+            m.addAxiom(o, Declaration(c));
+            m.addAxiom(o, SubClassOf(c, ObjectSomeValuesFrom(p,
+                    Class(IRI(NS + "C" + (i + 1))))));
+            // literals with characters that matter to the splitter
+            m.addAxiom(o, df.getOWLAnnotationAssertionAxiom(a, c.getIRI(),
+                    Literal("label (" + i + ") \"quoted\" # // )", "en"),
+                    Collections.singleton(Annotation(a, Literal(i)))));
+            if (i % 100 == 0) {
+                m.addAxiom(o, ClassAssertion(c, shared));
+                m.addAxiom(o, DataPropertyAssertion(d, shared, Literal(i)));
+            }
+        }
+        m.addAxiom(o, Declaration(Class(IRI("urn:test:other(1)#C"))));
+        StringDocumentTarget target = new StringDocumentTarget();
+        m.saveOntology(o, new OWLFunctionalSyntaxOntologyFormat(), target);
+        return target.toString();
+    }
+
+    @Test
+    public void shouldParseSameOntologyInParallel() throws Exception {
+        String text = createDocument();
+        OWLOntology expected = load(text, 0);
+        OWLOntology actual = load(text, 4);
+        assertEquals(expected.getOntologyID(), actual.getOntologyID());
+        assertEquals(expected.getAnnotations(), actual.getAnnotations());
+        assertEquals(expected.getAxioms(), actual.getAxioms());
+    }
+
+    @Test
+    public void shouldParseDocumentsWithoutAxioms() throws Exception {
+        String text = "Prefix(:=<" + NS + ">)\n// comment\nOntology(:o "
+                + "Annotation(rdfs:comment \"an ) ontology\"))";
+        OWLOntology expected = load(text, 0);
+        OWLOntology actual = load(text, 2);
+        assertEquals(expected.getOntologyID(), actual.getOntologyID());
+        assertEquals(expected.getAnnotations(), actual.getAnnotations());
+        assertEquals(0, actual.getAxiomCount());
+    }
+
+    @Test
+    public void shouldReportErrorLineInDocument() throws Exception {
+        StringBuilder text = new StringBuilder("Prefix(:=<" + NS
+                + ">)\nOntology(:o\n");
+        for (int i = 0; i < 2099; i++) {
+            text.append("Declaration(Class(:C" + i + "))\n");
+        }
+        // line 2102, in the second chunk
+        text.append("SubClassOf(:A :B :C)\n)");
+        try {
+            load(text.toString(), 2);
+            fail("the document is not valid");
+        } catch (UnparsableOntologyException e) {
+            for (OWLParser parser : e.getExceptions().keySet()) {
+                if (parser instanceof OWLFunctionalSyntaxOWLParser) {
+                    assertEquals(2102, e.getExceptions().get(parser)
+                            .getLineNumber());
+                    return;
+                }
+            }
+            fail("no functional syntax parser error");
+        }
+    }
+}
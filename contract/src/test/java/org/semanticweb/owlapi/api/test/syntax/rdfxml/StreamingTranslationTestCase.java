@@ -0,0 +1,104 @@
+package org.semanticweb.owlapi.api.test.syntax.rdfxml;
+
+import static org.junit.Assert.*;
+import static org.semanticweb.owlapi.apibinding.OWLFunctionalSyntaxFactory.*;
+
+import java.io.InputStream;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentTarget;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+
+@SuppressWarnings("javadoc")
+public class StreamingTranslationTestCase {
+
+    private static final String NS = "urn:test:streaming#";
+
+    private static OWLOntology load(OWLOntologyDocumentSource source,
+            boolean streaming) throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(
+                        source,
+                        new OWLOntologyLoaderConfiguration()
+                                .setStreamingTranslation(streaming));
+    }
+
+    @Test
+    public void shouldTranslateAssertionsWhileStreaming() throws Exception {
+        OWLOntologyManager m = OWLManager.createOWLOntologyManager();
+        OWLOntology o = m.createOntology(IRI(NS + "ontology"));
+        OWLObjectProperty p = ObjectProperty(IRI(NS + "p"));
+        OWLDataProperty d = DataProperty(IRI(NS + "d"));
+        OWLAnnotationProperty a = AnnotationProperty(IRI(NS + "a"));
+        m.addAxiom(o, Declaration(p));
+        m.addAxiom(o, Declaration(d));
+        m.addAxiom(o, Declaration(a));
+        for (int i = 0; i < 20; i++) {
+            OWLNamedIndividual x = NamedIndividual(IRI(NS + "i" + i));
+            OWLNamedIndividual y = NamedIndividual(IRI(NS + "i" + (i + 1)));
+            m.addAxiom(o, Declaration(x));
+            m.addAxiom(o, ObjectPropertyAssertion(p, x, y));
+            m.addAxiom(o, DataPropertyAssertion(d, x, Literal(i)));
+            m.addAxiom(o, AnnotationAssertion(a, x.getIRI(),
+                    Literal("label " + i, OWL2Datatype.XSD_STRING)));
+        }
+        // annotated assertions are reified and must keep their annotations
+        m.addAxiom(o, ObjectPropertyAssertion(p, NamedIndividual(IRI(NS
+                + "i0")), NamedIndividual(IRI(NS + "i5")), Collections
+                .singleton(Annotation(a, Literal("annotation")))));
+        StringDocumentTarget target = new StringDocumentTarget();
+        m.saveOntology(o, new RDFXMLOntologyFormat(), target);
+        OWLOntology streamed = load(
+                new StringDocumentSource(target.toString()), true);
+        for (OWLAxiom ax : o.getAxioms()) {
+            assertTrue(ax.toString(), streamed.containsAxiom(ax));
+        }
+        assertEquals(
+                load(new StringDocumentSource(target.toString()), false)
+                        .getAxioms(), streamed.getAxioms());
+    }
+
+    private OWLOntology loadResource(String name, boolean streaming)
+            throws Exception {
+        InputStream in = getClass().getResourceAsStream("/" + name);
+        assertNotNull(name, in);
+        try {
+            return load(new StreamDocumentSource(in), streaming);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void shouldLoadTestFilesAsWithoutStreaming() throws Exception {
+        for (String name : new String[] { "AnnotatedPropertyAssertions.rdf",
+                "AnonymousInverses.rdf", "ComplexSubProperty.rdf",
+                "DataAllValuesFrom.rdf", "DatatypeRestriction.rdf",
+                "Deprecated.rdf", "HasKey.rdf", "ObjectHasValue.rdf",
+                "ObjectOneOf.rdf", "SubClassOfUntypedOWLClass.rdf",
+                "TestDeclarations.rdf", "TestParser06.rdf", "all.rdf",
+                "dublincore.rdf" }) {
+            OWLOntology expected = loadResource(name, false);
+            OWLOntology actual = loadResource(name, true);
+            for (OWLAxiom ax : expected.getAxioms()) {
+                assertTrue(name + " " + ax, actual.containsAxiom(ax));
+            }
+            assertEquals(name, expected.getAxiomCount(),
+                    actual.getAxiomCount());
+        }
+    }
+}
@@ -52,6 +52,7 @@ import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SetOntologyID;
 import org.semanticweb.owlapi.reasoner.BufferingMode;
 import org.semanticweb.owlapi.reasoner.FreshEntityPolicy;
 import org.semanticweb.owlapi.reasoner.IndividualNodeSetPolicy;
@@ -164,7 +165,9 @@ public abstract class OWLReasonerBase implements OWLReasoner {
         final Set<OWLAxiom> removed = new HashSet<OWLAxiom>();
         computeDiff(added, removed);
         reasonerAxioms.removeAll(removed);
-        reasonerAxioms.addAll(added);
+        for (OWLAxiom ax : added) {
+            reasonerAxioms.add(ax.getAxiomWithoutAnnotations());
+        }
         rawChanges.clear();
         if (!added.isEmpty() || !removed.isEmpty()) {
             handleChanges(added, removed);
@@ -188,6 +191,50 @@ public abstract class OWLReasonerBase implements OWLReasoner {
         if (rawChanges.isEmpty()) {
             return;
         }
+        Set<OWLOntology> importsClosure = rootOntology.getImportsClosure();
+        Set<OWLAxiom> changedAxioms = new HashSet<OWLAxiom>();
+        for (OWLOntologyChange change : rawChanges) {
+            if (change.isAxiomChange()) {
+                if (importsClosure.contains(change.getOntology())) {
+                    changedAxioms.add(change.getAxiom());
+                }
+            } else if (change.isImportChange()
+                    || change instanceof SetOntologyID) {
+                // the imports closure might have changed: compare everything
+                computeFullDiff(added, removed);
+                return;
+            }
+        }
+        // only the axioms mentioned in the changes need to be checked
+        for (OWLAxiom ax : changedAxioms) {
+            if (!ax.isLogicalAxiom()
+                    && !ax.getAxiomType().equals(AxiomType.DECLARATION)) {
+                continue;
+            }
+            OWLAxiom axiom = ax.getAxiomWithoutAnnotations();
+            if (rootOntology.containsAxiomIgnoreAnnotations(ax, true)) {
+                if (!reasonerAxioms.contains(axiom)) {
+                    added.add(rootOntology.containsAxiom(ax, true) ? ax
+                            : axiom);
+                }
+            } else if (reasonerAxioms.contains(axiom)) {
+                removed.add(axiom);
+            }
+        }
+    }
+
+    /**
+     * Computes the diff by comparing all the axioms in the imports closure
+     * with the axioms known to the reasoner.
+     * 
+     * @param added
+     *        The logical axioms that have been added to the imports closure of
+     *        the reasoner root ontology
+     * @param removed
+     *        The logical axioms that have been removed from the imports closure
+     *        of the reasoner root ontology
+     */
+    private void computeFullDiff(Set<OWLAxiom> added, Set<OWLAxiom> removed) {
         for (OWLOntology ont : rootOntology.getImportsClosure()) {
             for (OWLAxiom ax : ont.getLogicalAxioms()) {
                 if (!reasonerAxioms.contains(ax.getAxiomWithoutAnnotations())) {
@@ -50,6 +50,7 @@ import java.util.Stack;
 
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
@@ -908,20 +909,38 @@ public class StructuralReasoner extends OWLReasonerBase {
                 Map<T, Collection<T>> cache) {
             HashSet<Set<T>> cyclesResult = new HashSet<Set<T>>();
             Set<T> processed = new HashSet<T>();
-            nodeCache.clearTopNode();
-            nodeCache.clearBottomNode();
-            nodeCache.clearNodes(signature);
-            directChildrenOfTopNode.removeAll(signature);
+            // the nodes that can change are those containing an entity whose
+            // raw parents or children have changed; the other nodes are kept
+            Set<T> affected = new HashSet<T>(signature);
+            for (T entity : signature) {
+                affected.addAll(nodeCache.getNode(entity).getEntities());
+            }
+            boolean topAffected = affected.contains(topEntity);
+            boolean bottomAffected = affected.contains(bottomEntity);
+            nodeCache.clearNodes(affected);
+            if (topAffected) {
+                nodeCache.clearTopNode();
+            }
+            if (bottomAffected) {
+                nodeCache.clearBottomNode();
+            }
+            directChildrenOfTopNode.removeAll(affected);
+            directParentsOfBottomNode.removeAll(affected);
             Set<T> equivTopOrChildrenOfTop = new HashSet<T>();
             Set<T> equivBottomOrParentsOfBottom = new HashSet<T>();
-            for (T entity : signature) {
+            // the maps are shared by all the searches, so that each entity is
+            // visited once
+            Stack<T> stack = new Stack<T>();
+            Map<T, Integer> indexMap = new HashMap<T, Integer>();
+            Map<T, Integer> lowlinkMap = new HashMap<T, Integer>();
+            Set<T> stackEntities = new HashSet<T>();
+            for (T entity : affected) {
                 if (!processed.contains(entity)) {
                     pm.reasonerTaskProgressChanged(processed.size(),
-                            signature.size());
-                    tarjan(entity, 0, new Stack<T>(),
-                            new HashMap<T, Integer>(),
-                            new HashMap<T, Integer>(), cyclesResult, processed,
-                            new HashSet<T>(), cache, equivTopOrChildrenOfTop,
+                            affected.size());
+                    tarjan(entity, stack, indexMap, lowlinkMap, cyclesResult,
+                            processed, stackEntities, cache,
+                            equivTopOrChildrenOfTop,
                             equivBottomOrParentsOfBottom);
                     throwExceptionIfInterrupted();
                 }
@@ -997,8 +1016,6 @@ public class StructuralReasoner extends OWLReasonerBase {
          * 
          * @param entity
          *        The entity
-         * @param index
-         *        index
          * @param stack
          *        stack
          * @param indexMap
@@ -1021,7 +1038,7 @@ public class StructuralReasoner extends OWLReasonerBase {
          *        A set of entities that have a raw parent that is the bottom
          *        entity
          */
-        public void tarjan(T entity, int index, Stack<T> stack,
+        public void tarjan(T entity, Stack<T> stack,
                 Map<T, Integer> indexMap, Map<T, Integer> lowlinkMap,
                 Set<Set<T>> result, Set<T> processed, Set<T> stackEntities,
                 Map<T, Collection<T>> cache, Set<T> childrenOfTop,
@@ -1035,9 +1052,10 @@ public class StructuralReasoner extends OWLReasonerBase {
                 }
             }
             pm.reasonerTaskProgressChanged(processed.size(), classificationSize);
+            // indexes are never removed, so the size is a fresh index
+            int index = indexMap.size();
             indexMap.put(entity, index);
             lowlinkMap.put(entity, index);
-            index = index + 1;
             stack.push(entity);
             stackEntities.add(entity);
             // Get the raw parents - cache if necessary
@@ -1063,7 +1081,7 @@ public class StructuralReasoner extends OWLReasonerBase {
             }
             for (T superEntity : rawParents) {
                 if (!indexMap.containsKey(superEntity)) {
-                    tarjan(superEntity, index, stack, indexMap, lowlinkMap,
+                    tarjan(superEntity, stack, indexMap, lowlinkMap,
                             result, processed, stackEntities, cache,
                             childrenOfTop, parentsOfBottom);
                     lowlinkMap.put(
@@ -1458,10 +1476,13 @@ public class StructuralReasoner extends OWLReasonerBase {
         }
 
         @Override
-        public Collection<OWLClass> getChildren(OWLClass parent) {
-            Collection<OWLClass> result = new HashSet<OWLClass>();
-            for (OWLOntology ont : getRootOntology().getImportsClosure()) {
-                for (OWLAxiom ax : ont.getReferencingAxioms(parent)) {
+        public Collection<OWLClass> getChildren(final OWLClass parent) {
+            final Collection<OWLClass> result = new HashSet<OWLClass>();
+            // the referencing axioms are traversed in place, without copies
+            OWLAxiomProcessor<OWLAxiom> processor = new OWLAxiomProcessor<OWLAxiom>() {
+
+                @Override
+                public boolean process(OWLAxiom ax) {
                     if (ax instanceof OWLSubClassOfAxiom) {
                         OWLSubClassOfAxiom sca = (OWLSubClassOfAxiom) ax;
                         if (!sca.getSubClass().isAnonymous()) {
@@ -1484,7 +1505,11 @@ public class StructuralReasoner extends OWLReasonerBase {
                             }
                         }
                     }
+                    return true;
                 }
+            };
+            for (OWLOntology ont : getRootOntology().getImportsClosure()) {
+                ont.processReferencingAxioms(parent, processor);
             }
             return result;
         }
@@ -54,6 +54,57 @@ public abstract class AbstractInMemOWLOntologyFactory implements
 
     private static final long serialVersionUID = 30406L;
     private OWLOntologyManager ontologyManager;
+    private boolean compactInternals = false;
+    private boolean concurrentInternals = false;
+
+    /**
+     * @param compactInternals
+     *        true if ontologies created by this factory should store their
+     *        axioms and indexes in compact form (see
+     *        {@link CompactInternalsImpl}). Compact ontologies use a fraction of
+     *        the memory at the cost of somewhat slower updates.
+     */
+    public void setCompactInternals(boolean compactInternals) {
+        this.compactInternals = compactInternals;
+    }
+
+    /** @return true if created ontologies use compact internals */
+    public boolean isCompactInternals() {
+        return compactInternals;
+    }
+
+    /**
+     * @param concurrentInternals
+     *        true if ontologies created by this factory should allow many
+     *        threads to query them while a single thread applies changes (see
+     *        {@link ConcurrentInternalsImpl}). Concurrent internals use the
+     *        default index layout, so this setting takes precedence over
+     *        {@link #setCompactInternals(boolean)}.
+     */
+    public void setConcurrentInternals(boolean concurrentInternals) {
+        this.concurrentInternals = concurrentInternals;
+    }
+
+    /** @return true if created ontologies can be read concurrently */
+    public boolean isConcurrentInternals() {
+        return concurrentInternals;
+    }
+
+    /**
+     * Creates the internals for a new ontology. Subclasses can override this
+     * method to change the way ontologies store axioms and indexes.
+     * 
+     * @return new internals
+     */
+    protected Internals createInternals() {
+        if (concurrentInternals) {
+            return new ConcurrentInternalsImpl();
+        }
+        if (compactInternals) {
+            return new CompactInternalsImpl();
+        }
+        return new InternalsImpl();
+    }
 
     @Override
     public void setOWLOntologyManager(OWLOntologyManager owlOntologyManager) {
@@ -89,7 +140,8 @@ public abstract class AbstractInMemOWLOntologyFactory implements
     public OWLOntology createOWLOntology(OWLOntologyID ontologyID,
             IRI documentIRI, OWLOntologyCreationHandler handler)
             throws OWLOntologyCreationException {
-        OWLOntology ont = new OWLOntologyImpl(ontologyManager, ontologyID);
+        OWLOntology ont = new OWLOntologyImpl(ontologyManager, ontologyID,
+                createInternals());
         handler.ontologyCreated(ont);
         return ont;
     }
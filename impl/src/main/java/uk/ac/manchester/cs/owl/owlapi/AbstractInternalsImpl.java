@@ -42,13 +42,21 @@ import static org.semanticweb.owlapi.model.AxiomType.*;
 import static uk.ac.manchester.cs.owl.owlapi.InitVisitorFactory.*;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLAnnotationSubject;
 import org.semanticweb.owlapi.model.OWLAsymmetricObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
@@ -85,17 +93,36 @@ import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import org.semanticweb.owlapi.model.OWLSubDataPropertyOfAxiom;
 import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
 import org.semanticweb.owlapi.model.OWLSymmetricObjectPropertyAxiom;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
 import org.semanticweb.owlapi.util.CollectionFactory;
+import org.semanticweb.owlapi.util.MultiMap;
 
 /** this class encapsulates all lazily built indexes. */
 public abstract class AbstractInternalsImpl implements Internals, Serializable {
 
     private static final long serialVersionUID = 30406L;
+    /** all lazily built pointers; must be declared before the pointers */
+    private final List<MapPointer<?, ?>> lazyPointers = new ArrayList<MapPointer<?, ?>>();
+
+    /**
+     * Creates the multimap that stores the values of a pointer. Subclasses can
+     * override this method to change the way indexes are stored.
+     * 
+     * @param <K>
+     *        key type
+     * @param <V>
+     *        value type
+     * @return a new, empty multimap
+     */
+    protected <K, V extends OWLAxiom> MultiMap<K, V> createIndex() {
+        return new MultiMap<K, V>();
+    }
 
     protected <K, V extends OWLAxiom> MapPointer<K, V> build(AxiomType<?> t,
             OWLAxiomVisitorEx<?> v) {
-        return new MapPointer<K, V>(t, v, true, this);
+        return new MapPointer<K, V>(t, v, true, this,
+                this.<K, V> createIndex());
     }
 
     protected <K, V extends OWLAxiom> MapPointer<K, V> build() {
@@ -104,11 +131,108 @@ public abstract class AbstractInternalsImpl implements Internals, Serializable {
 
     protected <K, V extends OWLAxiom> MapPointer<K, V> buildLazy(
             AxiomType<?> t, OWLAxiomVisitorEx<?> v) {
-        return new MapPointer<K, V>(t, v, false, this);
+        MapPointer<K, V> pointer = new MapPointer<K, V>(t, v, false, this,
+                this.<K, V> createIndex());
+        lazyPointers.add(pointer);
+        return pointer;
     }
 
     protected ClassAxiomByClassPointer buildClassAxiomByClass() {
-        return new ClassAxiomByClassPointer(null, null, false, this);
+        ClassAxiomByClassPointer pointer = new ClassAxiomByClassPointer(null,
+                null, false, this, this.<OWLClass, OWLClassAxiom> createIndex());
+        lazyPointers.add(pointer);
+        return pointer;
+    }
+
+    /**
+     * Default implementation, based on {@link #getValues(Pointer, Object)};
+     * subclasses should override it to avoid copying the values.
+     */
+    @Override
+    public <K, V extends OWLAxiom> boolean process(Pointer<K, V> pointer,
+            K key, OWLAxiomProcessor<? super V> processor) {
+        for (V v : getValues(pointer, key)) {
+            if (!processor.process(v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Default implementation, based on {@link #addAxiom(OWLAxiom)}.
+     */
+    @Override
+    public Collection<OWLAxiom> addAxioms(Collection<? extends OWLAxiom> axioms) {
+        List<OWLAxiom> added = new ArrayList<OWLAxiom>(axioms.size());
+        for (OWLAxiom ax : axioms) {
+            if (addAxiom(ax)) {
+                added.add(ax);
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public void initIndexes(Collection<AxiomType<?>> types, int threads) {
+        List<MapPointer<?, ?>> independent = new ArrayList<MapPointer<?, ?>>();
+        List<MapPointer<?, ?>> dependent = new ArrayList<MapPointer<?, ?>>();
+        for (MapPointer<?, ?> p : lazyPointers) {
+            if (!p.isInitialized() && (types == null || p.isIndexFor(types))) {
+                // the class axiom index is built from other indexes, so it
+                // is built last, in the calling thread
+                if (p instanceof ClassAxiomByClassPointer) {
+                    dependent.add(p);
+                } else {
+                    independent.add(p);
+                }
+            }
+        }
+        init(independent, threads);
+        init(dependent, 1);
+    }
+
+    /**
+     * Initializes the pointers, one task per pointer. Each pointer only reads
+     * the axioms by type index and writes its own map, so the tasks do not
+     * interfere with each other.
+     * 
+     * @param pointers
+     *        pointers to initialize
+     * @param threads
+     *        number of threads to use
+     */
+    protected void init(List<MapPointer<?, ?>> pointers, int threads) {
+        if (threads < 2 || pointers.size() < 2) {
+            for (MapPointer<?, ?> p : pointers) {
+                p.init();
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+                threads, pointers.size()));
+        try {
+            List<Future<?>> results = new ArrayList<Future<?>>();
+            for (final MapPointer<?, ?> p : pointers) {
+                results.add(executor.submit(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        p.init();
+                    }
+                }));
+            }
+            for (Future<?> f : results) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new OWLRuntimeException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
     }
 
     protected final MapPointer<OWLClass, OWLClassAxiom> classAxiomsByClass = buildClassAxiomByClass();
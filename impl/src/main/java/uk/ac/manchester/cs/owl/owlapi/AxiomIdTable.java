@@ -0,0 +1,219 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+
+/**
+ * Assigns a dense int id to each axiom stored in a
+ * {@link CompactInternalsImpl}. Ids are reference counted: an id is assigned
+ * the first time an axiom is stored in any index and released (and later
+ * reused) when the axiom is removed from the last index referencing it. The
+ * id to axiom direction is a plain array; the axiom to id direction is an open
+ * addressing hash table of ints, so no boxed entries are allocated per axiom.
+ *
+ * @author ignazio
+ */
+public class AxiomIdTable implements Serializable {
+
+    private static final long serialVersionUID = 30406L;
+    private static final int EMPTY = -1;
+    private OWLAxiom[] axioms = new OWLAxiom[16];
+    private int[] references = new int[16];
+    /** hash slots; each slot contains an axiom id or EMPTY */
+    private int[] slots = newSlots(32);
+    private int[] freeIds = new int[8];
+    private int freeCount = 0;
+    private int nextId = 0;
+    private int size = 0;
+
+    private static int[] newSlots(int length) {
+        int[] toReturn = new int[length];
+        Arrays.fill(toReturn, EMPTY);
+        return toReturn;
+    }
+
+    private static int hash(Object o) {
+        int h = o.hashCode();
+        // spread the bits, as in HashMap
+        h ^= h >>> 20 ^ h >>> 12;
+        return h ^ h >>> 7 ^ h >>> 4;
+    }
+
+    /**
+     * @param axiom
+     *        axiom to look up
+     * @return the id of the axiom, or -1 if the axiom has no id
+     */
+    public int getId(Object axiom) {
+        if (axiom == null) {
+            return -1;
+        }
+        int mask = slots.length - 1;
+        int index = hash(axiom) & mask;
+        while (slots[index] != EMPTY) {
+            if (axioms[slots[index]].equals(axiom)) {
+                return slots[index];
+            }
+            index = index + 1 & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param id
+     *        id to resolve
+     * @return the axiom with the specified id
+     */
+    public OWLAxiom getAxiom(int id) {
+        return axioms[id];
+    }
+
+    /**
+     * @param axiom
+     *        axiom to register
+     * @return the id of the axiom; a new id is assigned if the axiom has none.
+     *         A new id has no references until {@link #retain(int)} is called.
+     */
+    public int getOrCreateId(OWLAxiom axiom) {
+        int id = getId(axiom);
+        if (id >= 0) {
+            return id;
+        }
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = nextId++;
+            if (id == axioms.length) {
+                axioms = Arrays.copyOf(axioms, id * 2);
+                references = Arrays.copyOf(references, id * 2);
+            }
+        }
+        axioms[id] = axiom;
+        references[id] = 0;
+        size++;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            insertSlot(id);
+        }
+        return id;
+    }
+
+    /**
+     * adds a reference to the id.
+     *
+     * @param id
+     *        id
+     */
+    public void retain(int id) {
+        references[id]++;
+    }
+
+    /**
+     * removes a reference to the id; the id is released when no references
+     * are left.
+     *
+     * @param id
+     *        id
+     */
+    public void release(int id) {
+        references[id]--;
+        if (references[id] <= 0) {
+            removeSlot(id);
+            axioms[id] = null;
+            size--;
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+            }
+            freeIds[freeCount++] = id;
+        }
+    }
+
+    /** @return number of axioms with an id */
+    public int size() {
+        return size;
+    }
+
+    /** @return upper bound (exclusive) of the ids assigned so far */
+    public int getIdBound() {
+        return nextId;
+    }
+
+    private void insertSlot(int id) {
+        int mask = slots.length - 1;
+        int index = hash(axioms[id]) & mask;
+        while (slots[index] != EMPTY) {
+            index = index + 1 & mask;
+        }
+        slots[index] = id;
+    }
+
+    private void removeSlot(int id) {
+        int mask = slots.length - 1;
+        int index = hash(axioms[id]) & mask;
+        while (slots[index] != id) {
+            index = index + 1 & mask;
+        }
+        // backward shift deletion, so that no tombstones are needed
+        int next = index + 1 & mask;
+        while (slots[next] != EMPTY) {
+            int home = hash(axioms[slots[next]]) & mask;
+            // move the entry back if its home slot is not in (index, next]
+            if ((next - home & mask) >= (next - index & mask)) {
+                slots[index] = slots[next];
+                index = next;
+            }
+            next = next + 1 & mask;
+        }
+        slots[index] = EMPTY;
+    }
+
+    private void rehash(int length) {
+        slots = newSlots(length);
+        for (int id = 0; id < nextId; id++) {
+            if (axioms[id] != null) {
+                insertSlot(id);
+            }
+        }
+    }
+}
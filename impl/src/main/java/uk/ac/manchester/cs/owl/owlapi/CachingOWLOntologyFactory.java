@@ -0,0 +1,483 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.semanticweb.owlapi.io.BinaryOWLDecoder;
+import org.semanticweb.owlapi.io.BinaryOWLEncoder;
+import org.semanticweb.owlapi.io.DocumentStreamUtils;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.vocab.PrefixOWLOntologyFormat;
+
+/**
+ * An ontology factory that keeps the ontologies it parses in a cache directory
+ * on the local disk, in the binary encoding of {@link BinaryOWLEncoder}. A
+ * cache entry is keyed by the document IRI and records a SHA-1 digest of the
+ * document; when the same document is loaded again, the ontology is read from
+ * the cache entry and the parsers are not run. Documents are read once to
+ * compute the digest and then handed to the parsers from memory; for local
+ * files, the length and modification time of the file are checked first, so a
+ * file that has not changed is not read at all.
+ * <p>
+ * Imports are loaded as usual, through the ontology manager, when an ontology
+ * is read from the cache. Note that the cached axioms are the ones produced by
+ * the parser when the entry was written: parsers that depend on the imports
+ * closure to interpret a document, as the RDF parsers do, are not run again if
+ * only the imported documents change. The cache is not used if annotation
+ * axioms are not loaded. To use this factory, add it to the ontology manager
+ * with {@link OWLOntologyManager#addOntologyFactory}, so that it is tried
+ * before the other factories.
+ */
+public class CachingOWLOntologyFactory extends ParsableOWLOntologyFactory {
+
+    private static final long serialVersionUID = 30406L;
+    private static final Logger logger = Logger
+            .getLogger(CachingOWLOntologyFactory.class.getName());
+    private static final int ENTRY_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".owlcache";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private final File cacheDirectory;
+
+    /**
+     * @param cacheDirectory
+     *        the directory for the cache entries; it is created if it does not
+     *        exist
+     */
+    public CachingOWLOntologyFactory(File cacheDirectory) {
+        if (cacheDirectory == null) {
+            throw new NullPointerException("cacheDirectory cannot be null");
+        }
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /** @return the cache directory */
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Removes the cache entry for a document, if there is one.
+     *
+     * @param documentIRI
+     *        the document IRI
+     * @return true if an entry was removed
+     */
+    public boolean invalidate(IRI documentIRI) {
+        return getEntryFile(documentIRI).delete();
+    }
+
+    @Override
+    public OWLOntology loadOWLOntology(
+            OWLOntologyDocumentSource documentSource,
+            OWLOntologyCreationHandler mediator,
+            OWLOntologyLoaderConfiguration configuration)
+            throws OWLOntologyCreationException {
+        IRI documentIRI = documentSource.getDocumentIRI();
+        if (!configuration.isLoadAnnotationAxioms()
+                || getOWLOntologyManager().contains(documentIRI)) {
+            return super.loadOWLOntology(documentSource, mediator,
+                    configuration);
+        }
+        File entryFile = getEntryFile(documentIRI);
+        EntryHeader header = readHeader(entryFile, documentIRI);
+        File file = getLocalFile(documentSource);
+        // taken before the file is read, so that a change while it is being
+        // parsed is noticed next time
+        long length = file == null ? -1 : file.length();
+        long lastModified = file == null ? -1 : file.lastModified();
+        if (header != null && file != null && header.documentLength == length
+                && header.lastModified == lastModified) {
+            OWLOntology ont = loadFromCache(entryFile, header, documentIRI,
+                    mediator, configuration);
+            if (ont != null) {
+                return ont;
+            }
+        }
+        Document document = readDocument(documentSource, configuration);
+        if (document == null) {
+            // let the parsers report the problem
+            return super.loadOWLOntology(documentSource, mediator,
+                    configuration);
+        }
+        if (header != null && header.digest.equals(document.digest)) {
+            OWLOntology ont = loadFromCache(entryFile, header, documentIRI,
+                    mediator, configuration);
+            if (ont != null) {
+                return ont;
+            }
+        }
+        OWLOntology ont = super.loadOWLOntology(document.source, mediator,
+                configuration);
+        writeEntry(entryFile, documentIRI, document.digest, length,
+                lastModified, ont);
+        return ont;
+    }
+
+    private File getEntryFile(IRI documentIRI) {
+        return new File(cacheDirectory, toHex(digest(documentIRI.toString()
+                .getBytes(UTF8))) + ENTRY_SUFFIX);
+    }
+
+    /** @return the local file of the source, or null if there is none */
+    private static File getLocalFile(OWLOntologyDocumentSource documentSource) {
+        IRI documentIRI = documentSource.getDocumentIRI();
+        if (!"file".equals(documentIRI.getScheme())) {
+            return null;
+        }
+        // other sources with a file IRI might not read that file
+        if (!(documentSource instanceof FileDocumentSource)
+                && (documentSource.isReaderAvailable() || documentSource
+                        .isInputStreamAvailable())) {
+            return null;
+        }
+        try {
+            File file = new File(documentIRI.toURI());
+            return file.isFile() ? file : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a document into memory and computes its digest.
+     *
+     * @return the document, or null if the document cannot be read
+     */
+    private static Document readDocument(
+            OWLOntologyDocumentSource documentSource,
+            OWLOntologyLoaderConfiguration configuration) {
+        IRI documentIRI = documentSource.getDocumentIRI();
+        try {
+            if (documentSource.isReaderAvailable()) {
+                Reader reader = documentSource.getReader();
+                StringBuilder text = new StringBuilder();
+                try {
+                    char[] buffer = new char[8192];
+                    int read;
+                    while ((read = reader.read(buffer)) > 0) {
+                        text.append(buffer, 0, read);
+                    }
+                } finally {
+                    reader.close();
+                }
+                String string = text.toString();
+                // the text is kept as characters, so that the parsers do not
+                // decode it again
+                return new Document(new StringDocumentSource(string,
+                        documentIRI), toHex(digest(string
+                        .getBytes(UTF8))));
+            }
+            InputStream in;
+            if (documentSource.isInputStreamAvailable()) {
+                in = documentSource.getInputStream();
+            } else {
+                in = DocumentStreamUtils.getInputStream(documentIRI,
+                        configuration);
+            }
+            byte[] bytes;
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+                bytes = out.toByteArray();
+            } finally {
+                in.close();
+            }
+            return new Document(new StreamDocumentSource(
+                    new ByteArrayInputStream(bytes), documentIRI),
+                    toHex(digest(bytes)));
+        } catch (IOException e) {
+            logger.fine("Cannot read " + documentIRI + ": " + e.getMessage());
+        } catch (OWLRuntimeException e) {
+            logger.fine("Cannot read " + documentIRI + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /** @return the header of the entry, or null if there is no valid entry */
+    private static EntryHeader readHeader(File entryFile, IRI documentIRI) {
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new FileInputStream(
+                    entryFile));
+            try {
+                int length = in.readInt();
+                if (in.readInt() != ENTRY_VERSION
+                        || !in.readUTF().equals(documentIRI.toString())) {
+                    return null;
+                }
+                EntryHeader header = new EntryHeader();
+                header.digest = in.readUTF();
+                header.documentLength = in.readLong();
+                header.lastModified = in.readLong();
+                header.formatClassName = in.readUTF();
+                header.dataOffset = 4 + length;
+                return header;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            logger.fine("Cannot read cache entry " + entryFile + ": "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates an ontology from a cache entry.
+     *
+     * @return the ontology, or null if the entry cannot be read
+     */
+    private OWLOntology loadFromCache(File entryFile, EntryHeader header,
+            IRI documentIRI, OWLOntologyCreationHandler mediator,
+            OWLOntologyLoaderConfiguration configuration)
+            throws OWLOntologyCreationException {
+        OWLOntologyManager manager = getOWLOntologyManager();
+        BinaryOWLDecoder decoder;
+        OWLOntologyFormat format;
+        try {
+            RandomAccessFile in = new RandomAccessFile(entryFile, "r");
+            byte[] data;
+            try {
+                in.seek(header.dataOffset);
+                data = new byte[(int) (in.length() - header.dataOffset)];
+                in.readFully(data);
+            } finally {
+                in.close();
+            }
+            decoder = new BinaryOWLDecoder(ByteBuffer.wrap(data),
+                    manager.getOWLDataFactory());
+            format = createFormat(header.formatClassName, decoder.getPrefixes());
+        } catch (IOException e) {
+            logger.fine("Cannot read cache entry " + entryFile + ": "
+                    + e.getMessage());
+            return null;
+        } catch (OWLParserException e) {
+            logger.log(Level.WARNING, "Discarding corrupt cache entry "
+                    + entryFile, e);
+            entryFile.delete();
+            return null;
+        }
+        OWLOntology ont = super.createOWLOntology(new OWLOntologyID(),
+                documentIRI, mediator);
+        try {
+            decoder.addTo(ont, configuration);
+        } catch (OWLParserException e) {
+            manager.removeOntology(ont);
+            logger.log(Level.WARNING, "Discarding corrupt cache entry "
+                    + entryFile, e);
+            entryFile.delete();
+            return null;
+        } catch (OWLOntologyCreationException e) {
+            manager.removeOntology(ont);
+            throw e;
+        } catch (RuntimeException e) {
+            manager.removeOntology(ont);
+            throw e;
+        }
+        mediator.setOntologyFormat(ont, format);
+        if (configuration.getIndexBuildThreads() > 0
+                && ont instanceof OWLOntologyImpl) {
+            ((OWLOntologyImpl) ont).initIndexes(configuration
+                    .getIndexBuildThreads());
+        }
+        return ont;
+    }
+
+    private static OWLOntologyFormat createFormat(String className,
+            Map<String, String> prefixes) {
+        try {
+            OWLOntologyFormat format = (OWLOntologyFormat) Class.forName(
+                    className, true,
+                    CachingOWLOntologyFactory.class.getClassLoader())
+                    .newInstance();
+            if (format instanceof PrefixOWLOntologyFormat) {
+                PrefixOWLOntologyFormat prefixFormat = (PrefixOWLOntologyFormat) format;
+                prefixFormat.clearPrefixes();
+                for (Map.Entry<String, String> e : prefixes.entrySet()) {
+                    prefixFormat.setPrefix(e.getKey(), e.getValue());
+                }
+            }
+            return format;
+        } catch (ClassNotFoundException e) {
+            throw new OWLParserException("Unknown format " + className, e);
+        } catch (InstantiationException e) {
+            throw new OWLParserException("Unknown format " + className, e);
+        } catch (IllegalAccessException e) {
+            throw new OWLParserException("Unknown format " + className, e);
+        } catch (ClassCastException e) {
+            throw new OWLParserException("Unknown format " + className, e);
+        }
+    }
+
+    /**
+     * Writes a cache entry to a temporary file and moves it in place, so that
+     * readers never see a partial entry. Failures are logged and otherwise
+     * ignored: the ontology has been loaded anyway.
+     */
+    private void writeEntry(File entryFile, IRI documentIRI, String digest,
+            long length, long lastModified, OWLOntology ont) {
+        File tmp = null;
+        try {
+            if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+                throw new IOException("Cannot create " + cacheDirectory);
+            }
+            OWLOntologyFormat format = getOWLOntologyManager()
+                    .getOntologyFormat(ont);
+            Map<String, String> prefixes = Collections.emptyMap();
+            if (format instanceof PrefixOWLOntologyFormat) {
+                prefixes = ((PrefixOWLOntologyFormat) format)
+                        .getPrefixName2PrefixMap();
+            }
+            ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(headerBytes);
+            header.writeInt(ENTRY_VERSION);
+            header.writeUTF(documentIRI.toString());
+            header.writeUTF(digest);
+            header.writeLong(length);
+            header.writeLong(lastModified);
+            header.writeUTF(format.getClass().getName());
+            header.flush();
+            tmp = File.createTempFile("entry", ".tmp", cacheDirectory);
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(
+                    tmp));
+            try {
+                DataOutputStream data = new DataOutputStream(out);
+                data.writeInt(headerBytes.size());
+                headerBytes.writeTo(data);
+                new BinaryOWLEncoder().write(ont, prefixes, data);
+            } finally {
+                out.close();
+            }
+            // the previous entry stays in place if the new one cannot be moved
+            ImplUtils.replaceFile(tmp, entryFile);
+            tmp = null;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Cannot write cache entry for "
+                    + documentIRI, e);
+        } catch (OWLRuntimeException e) {
+            logger.log(Level.WARNING, "Cannot write cache entry for "
+                    + documentIRI, e);
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-1
+            throw new OWLRuntimeException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder b = new StringBuilder(bytes.length * 2);
+        for (byte x : bytes) {
+            b.append(Character.forDigit(x >> 4 & 0xF, 16));
+            b.append(Character.forDigit(x & 0xF, 16));
+        }
+        return b.toString();
+    }
+
+    /** A document read into memory. */
+    private static class Document {
+
+        final OWLOntologyDocumentSource source;
+        final String digest;
+
+        Document(OWLOntologyDocumentSource source, String digest) {
+            this.source = source;
+            this.digest = digest;
+        }
+    }
+
+    /** The header of a cache entry. */
+    private static class EntryHeader {
+
+        EntryHeader() {}
+
+        String digest;
+        long documentLength;
+        long lastModified;
+        String formatClassName;
+        long dataOffset;
+    }
+}
@@ -38,10 +38,13 @@
  */
 package uk.ac.manchester.cs.owl.owlapi;
 
+import java.util.Collection;
+
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAxiom;
+import org.semanticweb.owlapi.util.MultiMap;
 
 /** @author ignazio */
 public class ClassAxiomByClassPointer extends
@@ -64,6 +67,32 @@ public class ClassAxiomByClassPointer extends
         super(t, v, initialized, i);
     }
 
+    /**
+     * @param t
+     *        axiom type
+     * @param v
+     *        visitor
+     * @param initialized
+     *        initialized
+     * @param i
+     *        internals
+     * @param map
+     *        the multimap used to store the index
+     */
+    public ClassAxiomByClassPointer(AxiomType<?> t, OWLAxiomVisitorEx<?> v,
+            boolean initialized, Internals i,
+            MultiMap<OWLClass, OWLClassAxiom> map) {
+        super(t, v, initialized, i, map);
+    }
+
+    @Override
+    public boolean isIndexFor(Collection<AxiomType<?>> types) {
+        return types.contains(AxiomType.SUBCLASS_OF)
+                || types.contains(AxiomType.EQUIVALENT_CLASSES)
+                || types.contains(AxiomType.DISJOINT_CLASSES)
+                || types.contains(AxiomType.DISJOINT_UNION);
+    }
+
     @Override
     public void init() {
         if (isInitialized()) {
@@ -0,0 +1,83 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.List;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.util.MultiMap;
+
+/**
+ * An {@link Internals} implementation with the same behaviour as
+ * {@link InternalsImpl} that trades some speed for a much smaller memory
+ * footprint: each axiom receives an int id and every index stores sorted
+ * arrays of ids instead of sets of axioms. Suitable for very large ontologies.
+ *
+ * @author ignazio
+ * @see CompactMultiMap
+ */
+public class CompactInternalsImpl extends InternalsImpl {
+
+    private static final long serialVersionUID = 30406L;
+    /*
+     * not initialized in the declaration: the pointers in the superclasses are
+     * built before the fields of this class are initialized, so the table is
+     * created on first use.
+     */
+    private AxiomIdTable axiomIds;
+
+    /** @return the id table shared by all indexes */
+    protected AxiomIdTable getAxiomIds() {
+        if (axiomIds == null) {
+            axiomIds = new AxiomIdTable();
+        }
+        return axiomIds;
+    }
+
+    @Override
+    protected <K, V extends OWLAxiom> MultiMap<K, V> createIndex() {
+        return new CompactMultiMap<K, V>(getAxiomIds());
+    }
+
+    @Override
+    protected void init(List<MapPointer<?, ?>> pointers, int threads) {
+        // all indexes share the id table, which is not thread safe
+        super.init(pointers, 1);
+    }
+}
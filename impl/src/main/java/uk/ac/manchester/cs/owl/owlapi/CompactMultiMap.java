@@ -0,0 +1,383 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.util.CollectionFactory;
+import org.semanticweb.owlapi.util.MultiMap;
+
+/**
+ * A multimap from keys to axioms that stores, for each key, a sorted array of
+ * axiom ids (a posting list) instead of a set of axioms. Axiom ids are shared
+ * among all the indexes of an ontology through an {@link AxiomIdTable}. The
+ * first element of each posting array is the number of ids it contains; ids
+ * follow in increasing order, so membership tests are binary searches and no
+ * per value objects are allocated.
+ *
+ * @author ignazio
+ * @param <K>
+ *        key type
+ * @param <V>
+ *        value type
+ */
+public class CompactMultiMap<K, V extends OWLAxiom> extends MultiMap<K, V> {
+
+    private static final long serialVersionUID = 30406L;
+    private final AxiomIdTable ids;
+    private final Map<K, int[]> postings = CollectionFactory.createMap();
+    private int size = 0;
+
+    /**
+     * @param ids
+     *        the id table shared by all indexes of the same ontology
+     */
+    public CompactMultiMap(AxiomIdTable ids) {
+        this.ids = ids;
+    }
+
+    private static int indexOf(int[] posting, int id) {
+        return Arrays.binarySearch(posting, 1, posting[0] + 1, id);
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        int id = ids.getOrCreateId(value);
+        int[] posting = postings.get(key);
+        if (posting == null) {
+            posting = new int[] { 1, id };
+            postings.put(key, posting);
+        } else {
+            int index = indexOf(posting, id);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            int count = posting[0];
+            if (count + 1 == posting.length) {
+                int[] grown = new int[posting.length + (posting.length >> 1)
+                        + 1];
+                System.arraycopy(posting, 0, grown, 0, index);
+                System.arraycopy(posting, index, grown, index + 1, count + 1
+                        - index);
+                posting = grown;
+                postings.put(key, posting);
+            } else {
+                System.arraycopy(posting, index, posting, index + 1, count + 1
+                        - index);
+            }
+            posting[index] = id;
+            posting[0] = count + 1;
+        }
+        ids.retain(id);
+        size = -1;
+        return true;
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        int[] posting = postings.get(key);
+        if (posting == null) {
+            return false;
+        }
+        int id = ids.getId(value);
+        if (id < 0) {
+            return false;
+        }
+        int index = indexOf(posting, id);
+        if (index < 0) {
+            return false;
+        }
+        int count = posting[0];
+        if (count == 1) {
+            postings.remove(key);
+        } else {
+            System.arraycopy(posting, index + 1, posting, index, count - index);
+            posting[0] = count - 1;
+            if (posting.length > 8 && count * 4 < posting.length) {
+                // shrink posting lists that lost most of their entries
+                postings.put(key, Arrays.copyOf(posting, count * 2));
+            }
+        }
+        ids.release(id);
+        size = -1;
+        return true;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        int[] posting = postings.remove(key);
+        if (posting == null) {
+            return false;
+        }
+        for (int i = 1; i <= posting[0]; i++) {
+            ids.release(posting[i]);
+        }
+        size = -1;
+        return true;
+    }
+
+    @Override
+    public void setEntry(K key, Collection<V> values) {
+        remove(key);
+        putAll(key, values);
+    }
+
+    @Override
+    public Collection<V> get(K key) {
+        final int[] posting = postings.get(key);
+        if (posting == null) {
+            return Collections.emptyList();
+        }
+        return new PostingCollection(posting);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return postings.keySet();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<V> getAllValues() {
+        Set<V> toReturn = CollectionFactory.createSet();
+        for (int id : distinctIds()) {
+            toReturn.add((V) ids.getAxiom(id));
+        }
+        return toReturn;
+    }
+
+    private int[] distinctIds() {
+        BitSet seen = new BitSet(ids.getIdBound());
+        for (int[] posting : postings.values()) {
+            for (int i = 1; i <= posting[0]; i++) {
+                seen.set(posting[i]);
+            }
+        }
+        int[] toReturn = new int[seen.cardinality()];
+        int index = 0;
+        for (int id = seen.nextSetBit(0); id >= 0; id = seen.nextSetBit(id + 1)) {
+            toReturn[index++] = id;
+        }
+        return toReturn;
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            size = distinctIds().length;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean contains(K k, V v) {
+        int[] posting = postings.get(k);
+        if (posting == null) {
+            return false;
+        }
+        int id = ids.getId(v);
+        return id >= 0 && indexOf(posting, id) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(K k) {
+        return postings.containsKey(k);
+    }
+
+    @Override
+    public boolean containsValue(V v) {
+        int id = ids.getId(v);
+        if (id < 0) {
+            return false;
+        }
+        for (int[] posting : postings.values()) {
+            if (indexOf(posting, id) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        for (K k : new ArrayList<K>(postings.keySet())) {
+            remove(k);
+        }
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder("CompactMultiMap ");
+        b.append(size()).append("\n{");
+        for (Map.Entry<K, int[]> e : postings.entrySet()) {
+            b.append(e.getKey()).append('=')
+                    .append(new PostingCollection(e.getValue())).append(' ');
+        }
+        return b.append('}').toString();
+    }
+
+    @Override
+    public void putAll(MultiMap<K, V> otherMap) {
+        for (K k : otherMap.keySet()) {
+            putAll(k, otherMap.get(k));
+        }
+    }
+
+    /**
+     * Sorts the ids of the values and merges them with the posting list of the
+     * key in one pass, instead of inserting them one at a time.
+     */
+    @Override
+    public void putAll(K k, Collection<V> v) {
+        if (v.size() < 2) {
+            for (V value : v) {
+                put(k, value);
+            }
+            return;
+        }
+        int[] added = new int[v.size()];
+        int n = 0;
+        for (V value : v) {
+            added[n++] = ids.getOrCreateId(value);
+        }
+        Arrays.sort(added);
+        int[] posting = postings.get(k);
+        int count = posting == null ? 0 : posting[0];
+        int[] merged = new int[count + n + 1];
+        int i = 1;
+        int j = 0;
+        int m = 1;
+        while (i <= count || j < n) {
+            if (j == n || i <= count && posting[i] < added[j]) {
+                merged[m++] = posting[i++];
+                continue;
+            }
+            int id = added[j++];
+            // already in the posting list, or repeated among the values
+            if (i <= count && posting[i] == id || m > 1 && merged[m - 1] == id) {
+                continue;
+            }
+            merged[m++] = id;
+            ids.retain(id);
+        }
+        if (m - 1 > count) {
+            merged[0] = m - 1;
+            postings.put(k, merged);
+            size = -1;
+        }
+    }
+
+    @Override
+    public boolean isValueSetsEqual() {
+        int[] first = null;
+        for (int[] posting : postings.values()) {
+            if (first == null) {
+                first = posting;
+            } else if (!Arrays.equals(Arrays.copyOf(first, first[0] + 1),
+                    Arrays.copyOf(posting, posting[0] + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * read only view of a posting list; axioms are resolved through the id
+     * table while iterating.
+     */
+    private class PostingCollection extends AbstractCollection<V> {
+
+        private final int[] posting;
+
+        PostingCollection(int[] posting) {
+            this.posting = posting;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+
+                private int index = 1;
+
+                @Override
+                public boolean hasNext() {
+                    return index <= posting[0];
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return (V) ids.getAxiom(posting[index++]);
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException(
+                            "posting lists are read only");
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return posting[0];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int id = ids.getId(o);
+            return id >= 0 && indexOf(posting, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
+import org.semanticweb.owlapi.model.OWLClassAxiom;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLLogicalAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.util.OWLAxiomSearchFilter;
+
+/**
+ * An {@link Internals} implementation that can be read by many threads while
+ * a single thread applies changes. All indexes are guarded by a read-write
+ * lock: queries take the read lock, changes take the write lock. Lazy indexes
+ * are built under the write lock the first time they are needed, so readers
+ * never observe a partially built index. All values returned are copies, and
+ * can be used after the lock has been released.
+ *
+ * @author ignazio
+ */
+public class ConcurrentInternalsImpl extends InternalsImpl {
+
+    private static final long serialVersionUID = 30406L;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    /** @return the lock guarding these internals */
+    public ReadWriteLock getLock() {
+        return lock;
+    }
+
+    private void ensureInitialized(Pointer<?, ?> pointer) {
+        MapPointer<?, ?> mapPointer = (MapPointer<?, ?>) pointer;
+        if (!mapPointer.isInitialized()) {
+            writeLock.lock();
+            try {
+                mapPointer.init();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public <K, V extends OWLAxiom> Set<K> getKeyset(Pointer<K, V> pointer) {
+        ensureInitialized(pointer);
+        readLock.lock();
+        try {
+            return super.getKeyset(pointer);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <K, V extends OWLAxiom> Set<V>
+            getValues(Pointer<K, V> pointer, K key) {
+        ensureInitialized(pointer);
+        readLock.lock();
+        try {
+            return super.getValues(pointer, key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * The read lock is held while the processor runs; the processor must not
+     * apply changes to the ontology.
+     */
+    @Override
+    public <K, V extends OWLAxiom> boolean process(Pointer<K, V> pointer,
+            K key, OWLAxiomProcessor<? super V> processor) {
+        ensureInitialized(pointer);
+        readLock.lock();
+        try {
+            return super.process(pointer, key, processor);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <K, V extends OWLAxiom> boolean hasValues(Pointer<K, V> pointer,
+            K key) {
+        ensureInitialized(pointer);
+        readLock.lock();
+        try {
+            return super.hasValues(pointer, key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <K, V extends OWLAxiom> boolean contains(Pointer<K, V> p, K k) {
+        readLock.lock();
+        try {
+            return super.contains(p, k);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <K, V extends OWLAxiom> boolean contains(Pointer<K, V> p, K k, V v) {
+        readLock.lock();
+        try {
+            return super.contains(p, k, v);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <K, V extends OWLAxiom> boolean add(Pointer<K, V> p, K k, V v) {
+        writeLock.lock();
+        try {
+            return super.add(p, k, v);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public <K, V extends OWLAxiom> boolean remove(Pointer<K, V> pointer, K k,
+            V v) {
+        writeLock.lock();
+        try {
+            return super.remove(pointer, k, v);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addAxiom(OWLAxiom axiom) {
+        writeLock.lock();
+        try {
+            return super.addAxiom(axiom);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<OWLAxiom> addAxioms(Collection<? extends OWLAxiom> axioms) {
+        writeLock.lock();
+        try {
+            return super.addAxioms(axioms);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeAxiom(OWLAxiom axiom) {
+        writeLock.lock();
+        try {
+            return super.removeAxiom(axiom);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void initIndexes(Collection<AxiomType<?>> types, int threads) {
+        writeLock.lock();
+        try {
+            super.initIndexes(types, threads);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isDeclared(OWLDeclarationAxiom ax) {
+        readLock.lock();
+        try {
+            return super.isDeclared(ax);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        readLock.lock();
+        try {
+            return super.isEmpty();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <T extends OWLAxiom, K> Set<T> filterAxioms(
+            OWLAxiomSearchFilter<T, K> filter, K key) {
+        readLock.lock();
+        try {
+            return super.filterAxioms(filter, key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<OWLImportsDeclaration> getImportsDeclarations() {
+        readLock.lock();
+        try {
+            return super.getImportsDeclarations();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean
+            addImportsDeclaration(OWLImportsDeclaration importDeclaration) {
+        writeLock.lock();
+        try {
+            return super.addImportsDeclaration(importDeclaration);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeImportsDeclaration(
+            OWLImportsDeclaration importDeclaration) {
+        writeLock.lock();
+        try {
+            return super.removeImportsDeclaration(importDeclaration);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<OWLAnnotation> getOntologyAnnotations() {
+        readLock.lock();
+        try {
+            return super.getOntologyAnnotations();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addOntologyAnnotation(OWLAnnotation ann) {
+        writeLock.lock();
+        try {
+            return super.addOntologyAnnotation(ann);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeOntologyAnnotation(OWLAnnotation ann) {
+        writeLock.lock();
+        try {
+            return super.removeOntologyAnnotation(ann);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int getAxiomCount() {
+        readLock.lock();
+        try {
+            return super.getAxiomCount();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<OWLAxiom> getAxioms() {
+        readLock.lock();
+        try {
+            return super.getAxioms();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <T extends OWLAxiom> int getAxiomCount(AxiomType<T> axiomType) {
+        readLock.lock();
+        try {
+            return super.getAxiomCount(axiomType);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<OWLLogicalAxiom> getLogicalAxioms() {
+        readLock.lock();
+        try {
+            return super.getLogicalAxioms();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int getLogicalAxiomCount() {
+        readLock.lock();
+        try {
+            return super.getLogicalAxiomCount();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<OWLClassAxiom> getGeneralClassAxioms() {
+        readLock.lock();
+        try {
+            return super.getGeneralClassAxioms();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void addGeneralClassAxioms(OWLClassAxiom ax) {
+        writeLock.lock();
+        try {
+            super.addGeneralClassAxioms(ax);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeGeneralClassAxioms(OWLClassAxiom ax) {
+        writeLock.lock();
+        try {
+            super.removeGeneralClassAxioms(ax);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void
+            addPropertyChainSubPropertyAxioms(OWLSubPropertyChainOfAxiom ax) {
+        writeLock.lock();
+        try {
+            super.addPropertyChainSubPropertyAxioms(ax);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removePropertyChainSubPropertyAxioms(
+            OWLSubPropertyChainOfAxiom ax) {
+        writeLock.lock();
+        try {
+            super.removePropertyChainSubPropertyAxioms(ax);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -38,6 +38,8 @@
  */
 package uk.ac.manchester.cs.owl.owlapi;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -108,4 +110,38 @@ public class ImplUtils {
         }
         return result;
     }
+
+    /**
+     * Moves a file over another one, keeping the old file until the new one is
+     * in place. If the new file cannot be moved, it is deleted and the old file
+     * is left as it was.
+     *
+     * @param temp
+     *        the new file
+     * @param file
+     *        the file to replace
+     * @throws IOException
+     *         if the new file cannot be moved
+     */
+    static void replaceFile(File temp, File file) throws IOException {
+        if (temp.renameTo(file)) {
+            return;
+        }
+        // some platforms do not rename over an existing file: move the old
+        // file aside first, and put it back if the new one cannot be moved
+        File old = new File(file.getPath() + ".old");
+        old.delete();
+        boolean moved = file.exists() && file.renameTo(old);
+        if (temp.renameTo(file)) {
+            if (moved) {
+                old.delete();
+            }
+            return;
+        }
+        if (moved) {
+            old.renameTo(file);
+        }
+        temp.delete();
+        throw new IOException("Cannot move " + temp + " to " + file);
+    }
 }
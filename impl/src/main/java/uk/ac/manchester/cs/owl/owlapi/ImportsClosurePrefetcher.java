@@ -0,0 +1,302 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.semanticweb.owlapi.io.DocumentStreamUtils;
+import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+
+/**
+ * Fetches the documents of an imports closure ahead of the ontology manager,
+ * which loads imports one at a time, when the parser of the importing document
+ * asks for them. The start of each document is scanned for imports
+ * declarations, and the imported documents are fetched on a pool of threads;
+ * their own imports are discovered in turn. Remote documents are kept in
+ * memory until the manager loads them; local files are only scanned. The
+ * scan is a hint: imports it misses are fetched when the manager loads them,
+ * and documents that cannot be fetched are left to the usual loading path,
+ * which reports the problem.
+ */
+class ImportsClosurePrefetcher {
+
+    private static final Logger logger = Logger
+            .getLogger(ImportsClosurePrefetcher.class.getName());
+    /** how much of a document is scanned for imports declarations */
+    private static final int SCAN_LENGTH = 64 * 1024;
+    private static final Pattern IMPORTS = Pattern.compile(
+            // RDF/XML
+            "imports[^>]*?resource\\s*=\\s*[\"']([^\"'&]+)[\"']"
+            // OWL/XML
+            + "|Import>\\s*([^<\\s]+)\\s*</"
+            // functional syntax
+            + "|Import\\(\\s*<([^>]+)>"
+            // Turtle, possibly with a list of objects
+            + "|owl:imports\\s+(<[^>]+>(?:\\s*,\\s*<[^>]+>)*)"
+            // Manchester syntax
+            + "|Import:\\s*<([^>]+)>"
+            // OBO
+            + "|(?m:^import:\\s*(\\S+))");
+    private static final Pattern IRI_REFERENCE = Pattern.compile("<([^>]+)>");
+    /** marks the documents handed over to the manager */
+    private static final Future<byte[]> USED = completedFuture();
+    private final OWLOntologyManagerImpl manager;
+    private final OWLOntologyLoaderConfiguration configuration;
+    private final Set<IRI> loadedIRIs;
+    private final ExecutorService executor;
+    private final ConcurrentMap<IRI, Future<byte[]>> documents = new ConcurrentHashMap<IRI, Future<byte[]>>();
+
+    /**
+     * @param manager
+     *        the manager loading the ontologies
+     * @param configuration
+     *        the load configuration
+     * @param loadedIRIs
+     *        ontology and document IRIs of the ontologies already loaded; they
+     *        are not fetched again
+     */
+    ImportsClosurePrefetcher(OWLOntologyManagerImpl manager,
+            OWLOntologyLoaderConfiguration configuration, Set<IRI> loadedIRIs) {
+        this.manager = manager;
+        this.configuration = configuration;
+        this.loadedIRIs = loadedIRIs;
+        executor = Executors.newFixedThreadPool(configuration
+                .getImportLoadingThreads());
+    }
+
+    /**
+     * Scans the start of a document that is about to be loaded, and returns a
+     * source to load it from.
+     *
+     * @param documentSource
+     *        the document source
+     * @return a source holding the fetched document if the document was
+     *         fetched, {@code documentSource} otherwise
+     */
+    OWLOntologyDocumentSource prepare(OWLOntologyDocumentSource documentSource) {
+        try {
+            if (documentSource.isReaderAvailable()) {
+                Reader reader = documentSource.getReader();
+                try {
+                    char[] buffer = new char[SCAN_LENGTH];
+                    int length = 0;
+                    int read;
+                    while (length < SCAN_LENGTH
+                            && (read = reader.read(buffer, length,
+                                    SCAN_LENGTH - length)) > 0) {
+                        length += read;
+                    }
+                    discover(new String(buffer, 0, length));
+                } finally {
+                    reader.close();
+                }
+                return documentSource;
+            }
+            if (documentSource.isInputStreamAvailable()) {
+                InputStream in = documentSource.getInputStream();
+                try {
+                    discover(readStart(in));
+                } finally {
+                    in.close();
+                }
+                return documentSource;
+            }
+        } catch (IOException e) {
+            logger.fine("Cannot scan " + documentSource.getDocumentIRI()
+                    + " for imports: " + e.getMessage());
+            return documentSource;
+        } catch (RuntimeException e) {
+            logger.fine("Cannot scan " + documentSource.getDocumentIRI()
+                    + " for imports: " + e.getMessage());
+            return documentSource;
+        }
+        IRI documentIRI = documentSource.getDocumentIRI();
+        byte[] document = null;
+        try {
+            document = fetch(documentIRI).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.fine("Cannot fetch " + documentIRI + ": "
+                    + e.getCause().getMessage());
+        }
+        // the manager does not load the same document twice
+        documents.put(documentIRI, USED);
+        if (document == null) {
+            return documentSource;
+        }
+        return new StreamDocumentSource(new ByteArrayInputStream(document),
+                documentIRI);
+    }
+
+    /** Stops fetching documents and releases the fetched ones. */
+    void dispose() {
+        executor.shutdownNow();
+        documents.clear();
+    }
+
+    private void discover(String text) {
+        Matcher matcher = IMPORTS.matcher(text);
+        while (matcher.find()) {
+            for (int i = 1; i <= matcher.groupCount(); i++) {
+                String iri = matcher.group(i);
+                if (iri != null && iri.startsWith("<")) {
+                    Matcher references = IRI_REFERENCE.matcher(iri);
+                    while (references.find()) {
+                        schedule(IRI.create(references.group(1)));
+                    }
+                    break;
+                }
+                if (iri != null) {
+                    schedule(IRI.create(iri.trim()));
+                    break;
+                }
+            }
+        }
+    }
+
+    private void schedule(IRI importIRI) {
+        if (!importIRI.isAbsolute() || loadedIRIs.contains(importIRI)
+                || configuration.isIgnoredImport(importIRI)) {
+            return;
+        }
+        IRI documentIRI = manager.getDocumentIRIForImport(importIRI);
+        if (documentIRI != null && !loadedIRIs.contains(documentIRI)) {
+            fetch(documentIRI);
+        }
+    }
+
+    private Future<byte[]> fetch(final IRI documentIRI) {
+        Future<byte[]> future = documents.get(documentIRI);
+        if (future != null) {
+            return future;
+        }
+        FutureTask<byte[]> task = new FutureTask<byte[]>(
+                new Callable<byte[]>() {
+
+                    @Override
+                    public byte[] call() throws IOException {
+                        return read(documentIRI);
+                    }
+                });
+        future = documents.putIfAbsent(documentIRI, task);
+        if (future != null) {
+            return future;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // disposed: loading is over
+            task.cancel(false);
+        }
+        return task;
+    }
+
+    /**
+     * @return the document, or {@code null} for local files, which are only
+     *         scanned
+     */
+    private byte[] read(IRI documentIRI) throws IOException {
+        boolean keep = !"file".equals(documentIRI.getScheme());
+        InputStream in = DocumentStreamUtils.getInputStream(documentIRI,
+                configuration);
+        try {
+            if (!keep) {
+                discover(readStart(in));
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            byte[] document = out.toByteArray();
+            discover(new String(document, 0, Math.min(document.length,
+                    SCAN_LENGTH), "UTF-8"));
+            return document;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static Future<byte[]> completedFuture() {
+        FutureTask<byte[]> future = new FutureTask<byte[]>(
+                new Callable<byte[]>() {
+
+                    @Override
+                    public byte[] call() {
+                        return null;
+                    }
+                });
+        future.run();
+        return future;
+    }
+
+    private static String readStart(InputStream in) throws IOException {
+        byte[] buffer = new byte[SCAN_LENGTH];
+        int length = 0;
+        int read;
+        while (length < SCAN_LENGTH
+                && (read = in.read(buffer, length, SCAN_LENGTH - length)) > 0) {
+            length += read;
+        }
+        return new String(buffer, 0, length, "UTF-8");
+    }
+}
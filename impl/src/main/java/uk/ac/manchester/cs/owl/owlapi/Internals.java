@@ -38,6 +38,7 @@
  */
 package uk.ac.manchester.cs.owl.owlapi;
 
+import java.util.Collection;
 import java.util.Set;
 
 import org.semanticweb.owlapi.model.AxiomType;
@@ -48,6 +49,7 @@ import org.semanticweb.owlapi.model.OWLAnnotationSubject;
 import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
 import org.semanticweb.owlapi.model.OWLAsymmetricObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLClassAxiom;
@@ -403,6 +405,25 @@ public interface Internals {
      */
     <K, V extends OWLAxiom> Set<V> getValues(Pointer<K, V> pointer, K key);
 
+    /**
+     * Passes the values for a key to a processor, without copying them.
+     * 
+     * @param pointer
+     *        pointer to work on
+     * @param key
+     *        key
+     * @param processor
+     *        processor for the values; must not modify these internals
+     * @param <K>
+     *        key type
+     * @param <V>
+     *        value type
+     * @return true if all values were processed, false if the processor
+     *         stopped the traversal
+     */
+    <K, V extends OWLAxiom> boolean process(Pointer<K, V> pointer, K key,
+            OWLAxiomProcessor<? super V> processor);
+
     /**
      * @param pointer
      *        pointer to work on
@@ -451,6 +472,19 @@ public interface Internals {
     /** @return true if empty */
     boolean isEmpty();
 
+    /**
+     * Builds the lazily initialized indexes for the specified axiom types, so
+     * that later queries do not pay for their construction.
+     * 
+     * @param types
+     *        axiom types whose indexes should be built; null to build all
+     *        indexes
+     * @param threads
+     *        number of threads to use; with less than two threads the indexes
+     *        are built in the calling thread
+     */
+    void initIndexes(Collection<AxiomType<?>> types, int threads);
+
     /**
      * @param axiom
      *        axiom to add
@@ -458,6 +492,17 @@ public interface Internals {
      */
     boolean addAxiom(OWLAxiom axiom);
 
+    /**
+     * Adds many axioms at once, for example all the axioms read by a parser.
+     * The result is the same as adding the axioms one by one, but
+     * implementations can fill the indexes more efficiently.
+     *
+     * @param axioms
+     *        axioms to add
+     * @return the axioms that were not already present and have been added
+     */
+    Collection<OWLAxiom> addAxioms(Collection<? extends OWLAxiom> axioms);
+
     /**
      * @param axiom
      *        axiom to remove
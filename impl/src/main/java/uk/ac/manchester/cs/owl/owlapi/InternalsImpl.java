@@ -42,8 +42,13 @@ import static org.semanticweb.owlapi.model.AxiomType.AXIOM_TYPES;
 import static org.semanticweb.owlapi.util.CollectionFactory.createSet;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.semanticweb.owlapi.model.AxiomType;
@@ -55,6 +60,7 @@ import org.semanticweb.owlapi.model.OWLAnnotationPropertyRangeAxiom;
 import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
 import org.semanticweb.owlapi.model.OWLAsymmetricObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLAxiomVisitor;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
@@ -177,6 +183,14 @@ public class InternalsImpl extends AbstractInternalsImpl {
         return mapPointer.getValues(key);
     }
 
+    @Override
+    public <K, V extends OWLAxiom> boolean process(Pointer<K, V> pointer,
+            K key, OWLAxiomProcessor<? super V> processor) {
+        final MapPointer<K, V> mapPointer = (MapPointer<K, V>) pointer;
+        mapPointer.init();
+        return mapPointer.process(key, processor);
+    }
+
     @Override
     public <K, V extends OWLAxiom> boolean hasValues(Pointer<K, V> pointer,
             K key) {
@@ -197,54 +211,124 @@ public class InternalsImpl extends AbstractInternalsImpl {
 
     private final AddAxiomVisitor addChangeVisitor = new AddAxiomVisitor();
     private final RemoveAxiomVisitor removeChangeVisitor = new RemoveAxiomVisitor();
+    /** how many axioms are added before the pending index entries are stored */
+    private static final int BATCH_SIZE = 100000;
+    /**
+     * While axioms are added in bulk, the entries for the indexes other than
+     * the axioms by type, grouped by index and by key; null otherwise.
+     */
+    private transient Map<MapPointer<?, ?>, Map<Object, List<OWLAxiom>>> pendingEntries;
 
-    @Override
-    public boolean addAxiom(final OWLAxiom axiom) {
-        if (add(getAxiomsByType(), axiom.getAxiomType(), axiom)) {
-            axiom.accept(addChangeVisitor);
-            axiom.accept(new AbstractEntityRegistrationManager() {
+    /** adds an axiom to the references of the entities it mentions */
+    private class ReferenceAdder extends AbstractEntityRegistrationManager {
 
-                @Override
-                public void visit(OWLClass owlClass) {
-                    add(getOwlClassReferences(), owlClass, axiom);
-                }
+        OWLAxiom axiom;
 
-                @Override
-                public void visit(OWLObjectProperty property) {
-                    add(getOwlObjectPropertyReferences(), property, axiom);
-                }
+        ReferenceAdder() {}
 
-                @Override
-                public void visit(OWLDataProperty property) {
-                    add(getOwlDataPropertyReferences(), property, axiom);
-                }
+        @Override
+        public void visit(OWLClass owlClass) {
+            add(getOwlClassReferences(), owlClass, axiom);
+        }
 
-                @Override
-                public void visit(OWLNamedIndividual owlIndividual) {
-                    add(getOwlIndividualReferences(), owlIndividual, axiom);
-                }
+        @Override
+        public void visit(OWLObjectProperty property) {
+            add(getOwlObjectPropertyReferences(), property, axiom);
+        }
 
-                @Override
-                public void visit(OWLAnnotationProperty property) {
-                    add(getOwlAnnotationPropertyReferences(), property, axiom);
-                }
+        @Override
+        public void visit(OWLDataProperty property) {
+            add(getOwlDataPropertyReferences(), property, axiom);
+        }
 
-                @Override
-                public void visit(OWLDatatype datatype) {
-                    add(getOwlDatatypeReferences(), datatype, axiom);
-                }
+        @Override
+        public void visit(OWLNamedIndividual owlIndividual) {
+            add(getOwlIndividualReferences(), owlIndividual, axiom);
+        }
 
-                @Override
-                public void visit(OWLAnonymousIndividual individual) {
-                    add(getOwlAnonymousIndividualReferences(), individual,
-                            axiom);
-                }
-            });
+        @Override
+        public void visit(OWLAnnotationProperty property) {
+            add(getOwlAnnotationPropertyReferences(), property, axiom);
+        }
+
+        @Override
+        public void visit(OWLDatatype datatype) {
+            add(getOwlDatatypeReferences(), datatype, axiom);
+        }
+
+        @Override
+        public void visit(OWLAnonymousIndividual individual) {
+            add(getOwlAnonymousIndividualReferences(), individual, axiom);
+        }
+    }
+
+    private boolean addAxiom(OWLAxiom axiom, ReferenceAdder referenceAdder) {
+        if (add(getAxiomsByType(), axiom.getAxiomType(), axiom)) {
+            axiom.accept(addChangeVisitor);
+            referenceAdder.axiom = axiom;
+            axiom.accept(referenceAdder);
             return true;
         }
         return false;
     }
 
+    @Override
+    public boolean addAxiom(OWLAxiom axiom) {
+        return addAxiom(axiom, new ReferenceAdder());
+    }
+
+    /**
+     * Groups the axioms by type before adding them, and reuses the visitors
+     * across axioms. The index entries are not stored as the axioms are
+     * visited: they are grouped by index and by key, and each key receives all
+     * its axioms at once, in batches of {@value #BATCH_SIZE} axioms.
+     */
+    @Override
+    public Collection<OWLAxiom> addAxioms(Collection<? extends OWLAxiom> axioms) {
+        Map<AxiomType<?>, List<OWLAxiom>> byType = new LinkedHashMap<AxiomType<?>, List<OWLAxiom>>();
+        for (OWLAxiom ax : axioms) {
+            List<OWLAxiom> list = byType.get(ax.getAxiomType());
+            if (list == null) {
+                list = new ArrayList<OWLAxiom>();
+                byType.put(ax.getAxiomType(), list);
+            }
+            list.add(ax);
+        }
+        List<OWLAxiom> added = new ArrayList<OWLAxiom>(axioms.size());
+        ReferenceAdder referenceAdder = new ReferenceAdder();
+        pendingEntries = new HashMap<MapPointer<?, ?>, Map<Object, List<OWLAxiom>>>();
+        try {
+            for (List<OWLAxiom> list : byType.values()) {
+                for (OWLAxiom ax : list) {
+                    if (addAxiom(ax, referenceAdder)) {
+                        added.add(ax);
+                        if (added.size() % BATCH_SIZE == 0) {
+                            addPendingEntries();
+                        }
+                    }
+                }
+            }
+        } finally {
+            // the axioms by type are already up to date
+            addPendingEntries();
+            pendingEntries = null;
+        }
+        return added;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void addPendingEntries() {
+        for (Map.Entry<MapPointer<?, ?>, Map<Object, List<OWLAxiom>>> e : pendingEntries
+                .entrySet()) {
+            MapPointer pointer = e.getKey();
+            for (Map.Entry<Object, List<OWLAxiom>> entry : e.getValue()
+                    .entrySet()) {
+                pointer.putAll(entry.getKey(), entry.getValue());
+            }
+        }
+        pendingEntries.clear();
+    }
+
     @Override
     public boolean removeAxiom(final OWLAxiom axiom) {
         if (remove(getAxiomsByType(), axiom.getAxiomType(), axiom)) {
@@ -418,6 +502,20 @@ public class InternalsImpl extends AbstractInternalsImpl {
         if (!map.isInitialized()) {
             return false;
         }
+        if (pendingEntries != null && map != getAxiomsByType()) {
+            // stored when the batch is complete
+            Map<Object, List<OWLAxiom>> byKey = pendingEntries.get(map);
+            if (byKey == null) {
+                byKey = new HashMap<Object, List<OWLAxiom>>();
+                pendingEntries.put(map, byKey);
+            }
+            List<OWLAxiom> values = byKey.get(k);
+            if (values == null) {
+                values = new ArrayList<OWLAxiom>(2);
+                byKey.put(k, values);
+            }
+            return values.add(v);
+        }
         return map.put(k, v);
     }
 
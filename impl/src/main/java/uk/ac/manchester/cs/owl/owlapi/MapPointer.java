@@ -6,6 +6,7 @@ import java.util.Set;
 
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
 import org.semanticweb.owlapi.util.CollectionFactory;
 import org.semanticweb.owlapi.util.MultiMap;
@@ -44,9 +45,26 @@ public class MapPointer<K, V extends OWLAxiom> implements
      */
     public MapPointer(AxiomType<?> t, OWLAxiomVisitorEx<?> v,
             boolean initialized, Internals i) {
+        this(t, v, initialized, i, new MultiMap<K, V>());
+    }
+
+    /**
+     * @param t
+     *        type of axioms contained
+     * @param v
+     *        visitor
+     * @param initialized
+     *        true if initialized
+     * @param i
+     *        internals containing this pointer
+     * @param map
+     *        the multimap used to store the index
+     */
+    public MapPointer(AxiomType<?> t, OWLAxiomVisitorEx<?> v,
+            boolean initialized, Internals i, MultiMap<K, V> map) {
         type = t;
         visitor = v;
-        map = new MultiMap<K, V>();
+        this.map = map;
         this.initialized = initialized;
         this.i = i;
     }
@@ -67,14 +85,14 @@ public class MapPointer<K, V extends OWLAxiom> implements
             return;
         }
         if (visitor instanceof InitVisitor) {
-            for (V ax : (Set<V>) i.getValues(i.getAxiomsByType(), type)) {
+            for (V ax : getAxiomsToIndex()) {
                 K key = ax.accept((InitVisitor<K>) visitor);
                 if (key != null) {
                     map.put(key, ax);
                 }
             }
         } else {
-            for (V ax : (Set<V>) i.getValues(i.getAxiomsByType(), type)) {
+            for (V ax : getAxiomsToIndex()) {
                 Collection<K> keys = ax
                         .accept((InitCollectionVisitor<K>) visitor);
                 for (K key : keys) {
@@ -84,6 +102,31 @@ public class MapPointer<K, V extends OWLAxiom> implements
         }
     }
 
+    /*
+     * reads the type index directly rather than through the internals when
+     * possible: indexes can be initialized by worker threads while the thread
+     * that started the build holds the internals locks.
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<V> getAxiomsToIndex() {
+        Internals.Pointer<AxiomType<?>, OWLAxiom> axiomsByType = i
+                .getAxiomsByType();
+        if (axiomsByType instanceof MapPointer) {
+            return (Collection<V>) ((MapPointer<AxiomType<?>, OWLAxiom>) axiomsByType)
+                    .getValues(type);
+        }
+        return (Collection<V>) i.getValues(axiomsByType, type);
+    }
+
+    /**
+     * @param types
+     *        axiom types
+     * @return true if this pointer indexes axioms of any of the specified types
+     */
+    public boolean isIndexFor(Collection<AxiomType<?>> types) {
+        return types.contains(type);
+    }
+
     @Override
     public String toString() {
         return initialized + map.toString();
@@ -105,6 +148,23 @@ public class MapPointer<K, V extends OWLAxiom> implements
                 .get(key));
     }
 
+    /**
+     * @param key
+     *        key to look up
+     * @param processor
+     *        processor for the values; must not modify this pointer
+     * @return true if all values were processed, false if the processor
+     *         stopped the traversal
+     */
+    public boolean process(K key, OWLAxiomProcessor<? super V> processor) {
+        for (V v : map.get(key)) {
+            if (!processor.process(v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * @param key
      *        key to look up
@@ -125,6 +185,16 @@ public class MapPointer<K, V extends OWLAxiom> implements
         return map.put(key, value);
     }
 
+    /**
+     * @param key
+     *        key to add
+     * @param values
+     *        values to add
+     */
+    public void putAll(K key, Collection<V> values) {
+        map.putAll(key, values);
+    }
+
     /**
      * @param key
      *        key to look up
@@ -0,0 +1,210 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.Collection;
+
+import org.semanticweb.owlapi.io.BinaryOWLDecoder;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomVisitorEx;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassAxiom;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.util.MultiMap;
+
+/**
+ * A read only {@link Internals} implementation whose axioms and indexes live in
+ * a memory mapped {@link MappedOntologySnapshot}. Every index is a
+ * {@link MappedMultiMap}; axioms are created through the data factory when
+ * they are asked for, and are not retained. Only the ontology header, the
+ * general class axioms and the property chain axioms are kept on the heap.
+ * All the changes that would modify the ontology fail with an
+ * {@link OWLRuntimeException}. The snapshot is never modified, so these
+ * internals can be read by many threads at once.
+ *
+ * @author ignazio
+ * @see MappedOWLOntologyFactory
+ */
+public class MappedInternalsImpl extends InternalsImpl {
+
+    private static final long serialVersionUID = 30406L;
+    /*
+     * neither field is initialized in the declaration: the indexes are created
+     * by the superclasses before the fields of this class are initialized.
+     */
+    private int indexCount;
+    private MappedOntologySnapshot snapshot;
+
+    /**
+     * @param snapshot
+     *        the snapshot holding the ontology
+     */
+    public MappedInternalsImpl(MappedOntologySnapshot snapshot) {
+        this.snapshot = snapshot;
+        if (indexCount != snapshot.getIndexCount()) {
+            throw new OWLRuntimeException("The snapshot " + snapshot.getFile()
+                    + " has " + snapshot.getIndexCount()
+                    + " indexes, but this version of the internals has "
+                    + indexCount);
+        }
+        BinaryOWLDecoder decoder = snapshot.getDecoder();
+        for (OWLImportsDeclaration decl : decoder.getImportsDeclarations()) {
+            importsDeclarations.add(decl);
+        }
+        for (OWLAnnotation annotation : decoder.getOntologyAnnotations()) {
+            ontologyAnnotations.add(annotation);
+        }
+        for (int offset : snapshot.getGeneralClassAxioms()) {
+            generalClassAxioms.add((OWLClassAxiom) snapshot.readAxiom(offset));
+        }
+        for (int offset : snapshot.getPropertyChainAxioms()) {
+            propertyChainSubPropertyAxioms
+                    .add((OWLSubPropertyChainOfAxiom) snapshot
+                            .readAxiom(offset));
+        }
+    }
+
+    /** @return the snapshot holding the ontology */
+    public MappedOntologySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    protected <K, V extends OWLAxiom> MultiMap<K, V> createIndex() {
+        return new MappedMultiMap<K, V>(this, indexCount++);
+    }
+
+    /** The indexes in the snapshot are complete, so nothing is lazy. */
+    @Override
+    protected <K, V extends OWLAxiom> MapPointer<K, V> buildLazy(
+            AxiomType<?> t, OWLAxiomVisitorEx<?> v) {
+        return build(t, v);
+    }
+
+    @Override
+    protected ClassAxiomByClassPointer buildClassAxiomByClass() {
+        return new ClassAxiomByClassPointer(null, null, true, this,
+                this.<OWLClass, OWLClassAxiom> createIndex());
+    }
+
+    @Override
+    public <T extends OWLAxiom> int getAxiomCount(AxiomType<T> axiomType) {
+        // counts the postings rather than decoding the axioms
+        return axiomsByType.getValues(axiomType).size();
+    }
+
+    @Override
+    public int getLogicalAxiomCount() {
+        int count = 0;
+        for (AxiomType<?> type : AxiomType.AXIOM_TYPES) {
+            if (type.isLogical()) {
+                count += getAxiomCount(type);
+            }
+        }
+        return count;
+    }
+
+    private static OWLRuntimeException readOnly() {
+        return new OWLRuntimeException(new UnsupportedOperationException(
+                "Memory mapped ontologies are read only"));
+    }
+
+    @Override
+    public boolean addAxiom(OWLAxiom axiom) {
+        throw readOnly();
+    }
+
+    @Override
+    public Collection<OWLAxiom> addAxioms(Collection<? extends OWLAxiom> axioms) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeAxiom(OWLAxiom axiom) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean
+            addImportsDeclaration(OWLImportsDeclaration importDeclaration) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeImportsDeclaration(
+            OWLImportsDeclaration importDeclaration) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean addOntologyAnnotation(OWLAnnotation ann) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean removeOntologyAnnotation(OWLAnnotation ann) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addGeneralClassAxioms(OWLClassAxiom ax) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeGeneralClassAxioms(OWLClassAxiom ax) {
+        throw readOnly();
+    }
+
+    @Override
+    public void
+            addPropertyChainSubPropertyAxioms(OWLSubPropertyChainOfAxiom ax) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removePropertyChainSubPropertyAxioms(
+            OWLSubPropertyChainOfAxiom ax) {
+        throw readOnly();
+    }
+}
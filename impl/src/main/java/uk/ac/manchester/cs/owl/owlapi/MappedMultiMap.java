@@ -0,0 +1,344 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.util.CollectionFactory;
+import org.semanticweb.owlapi.util.MultiMap;
+
+/**
+ * A read only multimap from keys to axioms stored in a
+ * {@link MappedOntologySnapshot}. Keys are looked up in the hash table of the
+ * index in the snapshot, and values are posting lists of axiom record
+ * offsets; axioms are decoded while the values are iterated, so nothing but
+ * the axioms actually requested is created on the heap.
+ *
+ * @author ignazio
+ * @param <K>
+ *        key type
+ * @param <V>
+ *        value type
+ */
+public class MappedMultiMap<K, V extends OWLAxiom> extends MultiMap<K, V> {
+
+    private static final long serialVersionUID = 30406L;
+    private final MappedInternalsImpl internals;
+    private final int index;
+
+    /**
+     * @param internals
+     *        the internals holding the snapshot
+     * @param index
+     *        the position of this index in the snapshot
+     */
+    public MappedMultiMap(MappedInternalsImpl internals, int index) {
+        this.internals = internals;
+        this.index = index;
+    }
+
+    /*
+     * the snapshot is resolved on use: the indexes are created before the
+     * internals have a snapshot
+     */
+    private MappedOntologySnapshot snapshot() {
+        return internals.getSnapshot();
+    }
+
+    private static OWLRuntimeException readOnly() {
+        return new OWLRuntimeException(new UnsupportedOperationException(
+                "Memory mapped ontologies are read only"));
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean remove(K key) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEntry(K key, Collection<V> values) {
+        throw readOnly();
+    }
+
+    @Override
+    public void clear() {
+        throw readOnly();
+    }
+
+    @Override
+    public void putAll(MultiMap<K, V> otherMap) {
+        throw readOnly();
+    }
+
+    @Override
+    public void putAll(K k, Collection<V> v) {
+        throw readOnly();
+    }
+
+    @Override
+    public Collection<V> get(K key) {
+        int entry = snapshot().findEntry(index, key);
+        if (entry < 0) {
+            return Collections.emptyList();
+        }
+        return new PostingCollection(snapshot().getPostings(entry));
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+
+            @Override
+            public Iterator<K> iterator() {
+                final MappedOntologySnapshot snapshot = snapshot();
+                return new Iterator<K>() {
+
+                    private int entry = snapshot.getFirstEntry(index);
+                    private int remaining = snapshot.getKeyCount(index);
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining > 0;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public K next() {
+                        if (remaining == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        K key = (K) snapshot.readKey(entry);
+                        entry = snapshot.getNextEntry(entry);
+                        remaining--;
+                        return key;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw readOnly();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return snapshot().getKeyCount(index);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return snapshot().findEntry(index, o) >= 0;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<V> getAllValues() {
+        MappedOntologySnapshot snapshot = snapshot();
+        int[] offsets = new int[16];
+        int count = 0;
+        int entry = snapshot.getFirstEntry(index);
+        for (int i = snapshot.getKeyCount(index); i > 0; i--) {
+            int postings = snapshot.getPostings(entry);
+            int size = snapshot.getPostingCount(postings);
+            if (count + size > offsets.length) {
+                offsets = Arrays.copyOf(offsets,
+                        Math.max(offsets.length * 2, count + size));
+            }
+            for (int j = 0; j < size; j++) {
+                offsets[count++] = snapshot.getPosting(postings, j);
+            }
+            entry = snapshot.getNextEntry(entry);
+        }
+        // each axiom is decoded once, even if it appears under many keys
+        Arrays.sort(offsets, 0, count);
+        Set<V> toReturn = CollectionFactory.createSet();
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || offsets[i] != offsets[i - 1]) {
+                toReturn.add((V) snapshot.readAxiom(offsets[i]));
+            }
+        }
+        return toReturn;
+    }
+
+    @Override
+    public int size() {
+        return snapshot().getValueCount(index);
+    }
+
+    @Override
+    public boolean contains(K k, V v) {
+        MappedOntologySnapshot snapshot = snapshot();
+        int entry = snapshot.findEntry(index, k);
+        if (entry < 0) {
+            return false;
+        }
+        int axiom = snapshot.findAxiom(v);
+        return axiom >= 0
+                && snapshot.containsPosting(snapshot.getPostings(entry), axiom);
+    }
+
+    @Override
+    public boolean containsKey(K k) {
+        return snapshot().findEntry(index, k) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V v) {
+        MappedOntologySnapshot snapshot = snapshot();
+        int axiom = snapshot.findAxiom(v);
+        if (axiom < 0) {
+            return false;
+        }
+        int entry = snapshot.getFirstEntry(index);
+        for (int i = snapshot.getKeyCount(index); i > 0; i--) {
+            if (snapshot.containsPosting(snapshot.getPostings(entry), axiom)) {
+                return true;
+            }
+            entry = snapshot.getNextEntry(entry);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedMultiMap " + index + " " + size();
+    }
+
+    @Override
+    public boolean isValueSetsEqual() {
+        MappedOntologySnapshot snapshot = snapshot();
+        int entry = snapshot.getFirstEntry(index);
+        int first = -1;
+        for (int i = snapshot.getKeyCount(index); i > 0; i--) {
+            int postings = snapshot.getPostings(entry);
+            if (first < 0) {
+                first = postings;
+            } else if (!samePostings(snapshot, first, postings)) {
+                return false;
+            }
+            entry = snapshot.getNextEntry(entry);
+        }
+        return true;
+    }
+
+    private static boolean samePostings(MappedOntologySnapshot snapshot,
+            int a, int b) {
+        int size = snapshot.getPostingCount(a);
+        if (size != snapshot.getPostingCount(b)) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (snapshot.getPosting(a, i) != snapshot.getPosting(b, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** read only view of a posting list, decoding axioms while iterating. */
+    private class PostingCollection extends AbstractCollection<V> {
+
+        private final int postings;
+
+        PostingCollection(int postings) {
+            this.postings = postings;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            final MappedOntologySnapshot snapshot = snapshot();
+            return new Iterator<V>() {
+
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < snapshot.getPostingCount(postings);
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return (V) snapshot.readAxiom(snapshot.getPosting(
+                            postings, i++));
+                }
+
+                @Override
+                public void remove() {
+                    throw readOnly();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return snapshot().getPostingCount(postings);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int axiom = snapshot().findAxiom(o);
+            return axiom >= 0 && snapshot().containsPosting(postings, axiom);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.semanticweb.owlapi.io.BinaryOWLDecoder;
+import org.semanticweb.owlapi.io.BinaryOWLOntologyFormat;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.OWLOntologyCreationIOException;
+import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLImportsDeclaration;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyFactory;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+
+/**
+ * An ontology factory that loads snapshots written by
+ * {@link MappedOntologySnapshot#write(OWLOntology, java.io.File)} as read only
+ * ontologies backed by {@link MappedInternalsImpl}. The snapshot file is
+ * memory mapped, so loading takes constant time and the axioms and indexes do
+ * not use heap space; processes on the same host that load the same snapshot
+ * share its pages. Add this factory to a manager with
+ * {@link OWLOntologyManager#addOntologyFactory(OWLOntologyFactory)}; it only
+ * loads local snapshot files, and leaves all other documents, and the
+ * creation of new ontologies, to the other factories. Since the snapshot
+ * cannot be changed, the configuration setting to skip annotation axioms is
+ * ignored. Snapshots are limited to 2GB; see {@link MappedOntologySnapshot}.
+ */
+public class MappedOWLOntologyFactory implements OWLOntologyFactory {
+
+    private static final long serialVersionUID = 30406L;
+    private OWLOntologyManager ontologyManager;
+
+    @Override
+    public void setOWLOntologyManager(OWLOntologyManager owlOntologyManager) {
+        if (owlOntologyManager == null) {
+            throw new NullPointerException("ontologyManager cannot be null");
+        }
+        ontologyManager = owlOntologyManager;
+    }
+
+    @Override
+    public OWLOntologyManager getOWLOntologyManager() {
+        return ontologyManager;
+    }
+
+    @Override
+    public boolean canCreateFromDocumentIRI(IRI documentIRI) {
+        return false;
+    }
+
+    @Override
+    public OWLOntology createOWLOntology(OWLOntologyID ontologyID,
+            IRI documentIRI, OWLOntologyCreationHandler handler)
+            throws OWLOntologyCreationException {
+        throw new OWLRuntimeException(new UnsupportedOperationException(
+                "Memory mapped ontologies can only be loaded from snapshots"));
+    }
+
+    @Override
+    public boolean canLoad(OWLOntologyDocumentSource documentSource) {
+        File file = getSnapshotFile(documentSource);
+        return file != null && MappedOntologySnapshot.isSnapshot(file);
+    }
+
+    /** @return the local file of the source, or null if there is none */
+    private static File getSnapshotFile(OWLOntologyDocumentSource documentSource) {
+        IRI documentIRI = documentSource.getDocumentIRI();
+        if (!"file".equals(documentIRI.getScheme())) {
+            return null;
+        }
+        // other sources with a file IRI might not read that file
+        if (!(documentSource instanceof FileDocumentSource)
+                && (documentSource.isReaderAvailable() || documentSource
+                        .isInputStreamAvailable())) {
+            return null;
+        }
+        try {
+            return new File(documentIRI.toURI());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public OWLOntology loadOWLOntology(
+            OWLOntologyDocumentSource documentSource,
+            OWLOntologyCreationHandler handler)
+            throws OWLOntologyCreationException {
+        return loadOWLOntology(documentSource, handler,
+                new OWLOntologyLoaderConfiguration());
+    }
+
+    @Override
+    public OWLOntology loadOWLOntology(
+            OWLOntologyDocumentSource documentSource,
+            OWLOntologyCreationHandler handler,
+            OWLOntologyLoaderConfiguration configuration)
+            throws OWLOntologyCreationException {
+        MappedOntologySnapshot snapshot;
+        try {
+            snapshot = new MappedOntologySnapshot(
+                    getSnapshotFile(documentSource),
+                    ontologyManager.getOWLDataFactory());
+        } catch (IOException e) {
+            throw new OWLOntologyCreationIOException(e);
+        }
+        BinaryOWLDecoder decoder = snapshot.getDecoder();
+        OWLOntology ont = new OWLOntologyImpl(ontologyManager,
+                decoder.getOntologyID(), new MappedInternalsImpl(snapshot));
+        handler.ontologyCreated(ont);
+        BinaryOWLOntologyFormat format = new BinaryOWLOntologyFormat();
+        format.clearPrefixes();
+        for (Map.Entry<String, String> e : decoder.getPrefixes().entrySet()) {
+            format.setPrefix(e.getKey(), e.getValue());
+        }
+        handler.setOntologyFormat(ont, format);
+        for (OWLImportsDeclaration decl : decoder.getImportsDeclarations()) {
+            ontologyManager.makeLoadImportRequest(decl, configuration);
+        }
+        return ont;
+    }
+}
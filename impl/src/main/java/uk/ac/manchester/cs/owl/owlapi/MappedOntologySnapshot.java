@@ -0,0 +1,746 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owl.owlapi;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.io.BinaryOWLDecoder;
+import org.semanticweb.owlapi.io.BinaryOWLEncoder;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.util.MultiMap;
+import org.semanticweb.owlapi.vocab.PrefixOWLOntologyFormat;
+
+/**
+ * A read only ontology stored in a file that is memory mapped rather than read.
+ * A snapshot is a binary ontology document (see {@link BinaryOWLEncoder})
+ * followed by all the indexes of an {@link InternalsImpl}, so that the
+ * ontology can be queried without building anything on the heap: index keys
+ * are looked up in hash tables stored in the file, and axioms are decoded from
+ * their records when they are asked for. Since the file is mapped read only,
+ * all the processes on a host that open the same snapshot share its pages
+ * through the operating system page cache.
+ * <p>
+ * The index section follows the document; all integers are four bytes and all
+ * offsets are absolute positions in the file:
+ *
+ * <pre>
+ * IRI table:       slot count, (IRI index + 1)*
+ * literal table:   slot count, (literal index + 1)*
+ * axiom table:     slot count, (axiom record offset)*
+ * general class axioms, property chain axioms: count, (axiom record offset)*
+ * indexes:         count, (key count, value count, slot count, entries length,
+ *                  (entry offset)*, (key length, key, value count,
+ *                  (axiom record offset)*)*)*
+ * trailer:         index section offset, version, magic "OWLM"
+ * </pre>
+ *
+ * Hash table slots are 0 when empty. The indexes are stored in the order in
+ * which {@link InternalsImpl} creates them, which is how
+ * {@link MappedInternalsImpl} finds them again. Snapshots are written with
+ * {@link #write(OWLOntology, File)}, and are thread safe once opened.
+ * <p>
+ * A snapshot is mapped as a single buffer and addressed with int offsets, as
+ * is the binary document it contains, so snapshots are limited to 2GB; the
+ * ontology is also encoded in memory when the snapshot is written. Writing or
+ * mapping a larger snapshot fails with an {@link IOException}.
+ *
+ * @see MappedOWLOntologyFactory
+ */
+public class MappedOntologySnapshot {
+
+    private static final byte[] MAGIC = { 'O', 'W', 'L', 'M' };
+    private static final int VERSION = 1;
+    private static final int TRAILER_LENGTH = 12;
+    private static final byte AXIOM_TYPE_KEY = 0;
+    private static final byte OBJECT_KEY = 1;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private final File file;
+    private final ByteBuffer buffer;
+    private final BinaryOWLDecoder decoder;
+    private final Tables tables;
+    private final int[] generalClassAxioms;
+    private final int[] propertyChainAxioms;
+    /** offsets of the headers of the indexes */
+    private final int[] indexes;
+    private final ThreadLocal<KeyEncoder> encoders = new ThreadLocal<KeyEncoder>() {
+
+        @Override
+        protected KeyEncoder initialValue() {
+            return new KeyEncoder(tables);
+        }
+    };
+
+    /**
+     * Maps a snapshot.
+     *
+     * @param file
+     *        the snapshot file
+     * @param df
+     *        the data factory used to create the objects read from the
+     *        snapshot
+     * @throws IOException
+     *         if the file cannot be mapped or is not a snapshot
+     */
+    public MappedOntologySnapshot(File file, OWLDataFactory df)
+            throws IOException {
+        this.file = file;
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            if (in.length() > Integer.MAX_VALUE) {
+                throw new IOException(
+                        "Snapshots larger than 2GB are not supported: " + file);
+            }
+            // the mapping stays valid after the file is closed
+            buffer = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+                    in.length());
+        } finally {
+            in.close();
+        }
+        int sectionOffset = readTrailer(buffer);
+        if (sectionOffset < 0) {
+            throw new IOException("Not an ontology snapshot: " + file);
+        }
+        try {
+            decoder = new BinaryOWLDecoder(buffer, df);
+            int pos = sectionOffset;
+            IntBuffer iris = ints(pos);
+            pos += 4 + iris.capacity() * 4;
+            IntBuffer literals = ints(pos);
+            pos += 4 + literals.capacity() * 4;
+            IntBuffer axioms = ints(pos);
+            pos += 4 + axioms.capacity() * 4;
+            tables = new Tables(decoder, buffer, iris, literals, axioms);
+            generalClassAxioms = readInts(pos);
+            pos += 4 + generalClassAxioms.length * 4;
+            propertyChainAxioms = readInts(pos);
+            pos += 4 + propertyChainAxioms.length * 4;
+            indexes = new int[buffer.getInt(pos)];
+            pos += 4;
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = pos;
+                pos += 16 + buffer.getInt(pos + 8) * 4
+                        + buffer.getInt(pos + 12);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed ontology snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * @param file
+     *        file to check
+     * @return true if the file looks like a snapshot; only the trailer is
+     *         checked
+     */
+    public static boolean isSnapshot(File file) {
+        if (!file.isFile() || file.length() < TRAILER_LENGTH) {
+            return false;
+        }
+        try {
+            RandomAccessFile in = new RandomAccessFile(file, "r");
+            try {
+                byte[] trailer = new byte[TRAILER_LENGTH];
+                in.seek(in.length() - TRAILER_LENGTH);
+                in.readFully(trailer);
+                return readTrailer(ByteBuffer.wrap(trailer)) >= 0;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** @return the index section offset, or -1 if the trailer is not valid */
+    private static int readTrailer(ByteBuffer b) {
+        int start = b.limit() - TRAILER_LENGTH;
+        if (start < 0) {
+            return -1;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (b.get(start + 8 + i) != MAGIC[i]) {
+                return -1;
+            }
+        }
+        if (b.getInt(start + 4) != VERSION) {
+            return -1;
+        }
+        return b.getInt(start);
+    }
+
+    /** @return a view of the ints of the table at the offset */
+    private IntBuffer ints(int offset) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.limit(offset + 4 + buffer.getInt(offset) * 4);
+        return view.slice().asIntBuffer();
+    }
+
+    private int[] readInts(int offset) {
+        int[] toReturn = new int[buffer.getInt(offset)];
+        for (int i = 0; i < toReturn.length; i++) {
+            toReturn[i] = buffer.getInt(offset + 4 + i * 4);
+        }
+        return toReturn;
+    }
+
+    /** @return the snapshot file */
+    public File getFile() {
+        return file;
+    }
+
+    /** @return the decoder for the document part of the snapshot */
+    public BinaryOWLDecoder getDecoder() {
+        return decoder;
+    }
+
+    int getIndexCount() {
+        return indexes.length;
+    }
+
+    int[] getGeneralClassAxioms() {
+        return generalClassAxioms;
+    }
+
+    int[] getPropertyChainAxioms() {
+        return propertyChainAxioms;
+    }
+
+    /**
+     * @param offset
+     *        the offset of an axiom record
+     * @return the axiom
+     */
+    OWLAxiom readAxiom(int offset) {
+        return decoder.readAxiom(offset);
+    }
+
+    /**
+     * @param axiom
+     *        axiom to look up
+     * @return the offset of the axiom record, or -1 if the snapshot does not
+     *         contain the axiom
+     */
+    int findAxiom(Object axiom) {
+        if (!(axiom instanceof OWLAxiom)) {
+            return -1;
+        }
+        byte[] encoding = encoders.get().encode((OWLAxiom) axiom);
+        if (encoding == null) {
+            return -1;
+        }
+        return tables.findAxiom(encoding);
+    }
+
+    /** @return the number of keys in the index */
+    int getKeyCount(int index) {
+        return buffer.getInt(indexes[index]);
+    }
+
+    /** @return the number of distinct values in the index */
+    int getValueCount(int index) {
+        return buffer.getInt(indexes[index] + 4);
+    }
+
+    /** @return the offset of the first entry of the index */
+    int getFirstEntry(int index) {
+        return indexes[index] + 16 + buffer.getInt(indexes[index] + 8) * 4;
+    }
+
+    /** @return the offset of the entry following the entry at the offset */
+    int getNextEntry(int entry) {
+        int keyLength = buffer.getInt(entry);
+        int postings = entry + 4 + keyLength;
+        return postings + 4 + buffer.getInt(postings) * 4;
+    }
+
+    /** @return the key of the entry at the offset */
+    Object readKey(int entry) {
+        int keyLength = buffer.getInt(entry);
+        if (buffer.get(entry + 4) == AXIOM_TYPE_KEY) {
+            byte[] name = new byte[keyLength - 1];
+            for (int i = 0; i < name.length; i++) {
+                name[i] = buffer.get(entry + 5 + i);
+            }
+            return AxiomType.getAxiomType(new String(name, UTF8));
+        }
+        return decoder.readObject(entry + 5);
+    }
+
+    /** @return the offset of the postings of the entry at the offset */
+    int getPostings(int entry) {
+        return entry + 4 + buffer.getInt(entry);
+    }
+
+    /** @return the number of values in the postings at the offset */
+    int getPostingCount(int postings) {
+        return buffer.getInt(postings);
+    }
+
+    /** @return the axiom offset at a position in the postings */
+    int getPosting(int postings, int i) {
+        return buffer.getInt(postings + 4 + i * 4);
+    }
+
+    /**
+     * @return true if the sorted postings at the offset contain the axiom
+     *         offset
+     */
+    boolean containsPosting(int postings, int axiom) {
+        int low = 0;
+        int high = getPostingCount(postings) - 1;
+        while (low <= high) {
+            int mid = low + high >>> 1;
+            int value = getPosting(postings, mid);
+            if (value < axiom) {
+                low = mid + 1;
+            } else if (value > axiom) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param index
+     *        the index to search
+     * @param key
+     *        the key to look up
+     * @return the offset of the entry for the key, or -1 if the index does not
+     *         contain the key
+     */
+    int findEntry(int index, Object key) {
+        byte[] encoding = encodeKey(encoders.get(), key);
+        if (encoding == null) {
+            return -1;
+        }
+        int header = indexes[index];
+        int slots = buffer.getInt(header + 8);
+        if (slots == 0) {
+            return -1;
+        }
+        int mask = slots - 1;
+        int slot = hash(encoding) & mask;
+        int entry;
+        while ((entry = buffer.getInt(header + 16 + slot * 4)) != 0) {
+            if (buffer.getInt(entry) == encoding.length
+                    && equals(buffer, entry + 4, encoding)) {
+                return entry;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private static byte[] encodeKey(BinaryOWLEncoder encoder, Object key) {
+        byte[] encoding;
+        byte kind;
+        if (key instanceof AxiomType) {
+            encoding = ((AxiomType<?>) key).getName().getBytes(UTF8);
+            kind = AXIOM_TYPE_KEY;
+        } else if (key instanceof OWLObject) {
+            encoding = encoder.encode((OWLObject) key);
+            kind = OBJECT_KEY;
+        } else {
+            return null;
+        }
+        if (encoding == null) {
+            return null;
+        }
+        byte[] toReturn = new byte[encoding.length + 1];
+        toReturn[0] = kind;
+        System.arraycopy(encoding, 0, toReturn, 1, encoding.length);
+        return toReturn;
+    }
+
+    /** FNV-1a; stable across processes, unlike most hashCode() methods */
+    static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h ^= b & 0xFF;
+            h *= 0x01000193;
+        }
+        return h ^ h >>> 16;
+    }
+
+    static int hash(String s) {
+        int h = s.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    static int hash(OWLLiteral literal) {
+        return hash(literal.getLiteral() + '\u0000' + literal.getLang()
+                + '\u0000' + literal.getDatatype().getIRI());
+    }
+
+    private static boolean equals(ByteBuffer b, int offset, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (b.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int tableSize(int count) {
+        int size = 2;
+        while (size < count * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Resolves IRIs, literals and axioms against the hash tables of a
+     * snapshot; used both to write and to read snapshots, so that keys are
+     * encoded in the same way.
+     */
+    private static class Tables {
+
+        final BinaryOWLDecoder decoder;
+        final ByteBuffer document;
+        final IntBuffer iris;
+        final IntBuffer literals;
+        final IntBuffer axioms;
+
+        Tables(BinaryOWLDecoder decoder, ByteBuffer document, IntBuffer iris,
+                IntBuffer literals, IntBuffer axioms) {
+            this.decoder = decoder;
+            this.document = document;
+            this.iris = iris;
+            this.literals = literals;
+            this.axioms = axioms;
+        }
+
+        int findIRI(IRI iri) {
+            int mask = iris.capacity() - 1;
+            int slot = hash(iri.toString()) & mask;
+            int value;
+            while ((value = iris.get(slot)) != 0) {
+                if (decoder.getIRI(value - 1).equals(iri)) {
+                    return value - 1;
+                }
+                slot = slot + 1 & mask;
+            }
+            return -1;
+        }
+
+        int findLiteral(OWLLiteral literal) {
+            int mask = literals.capacity() - 1;
+            int slot = hash(literal) & mask;
+            int value;
+            while ((value = literals.get(slot)) != 0) {
+                if (decoder.getLiteral(value - 1).equals(literal)) {
+                    return value - 1;
+                }
+                slot = slot + 1 & mask;
+            }
+            return -1;
+        }
+
+        int findAxiom(byte[] encoding) {
+            int mask = axioms.capacity() - 1;
+            int slot = hash(encoding) & mask;
+            int offset;
+            while ((offset = axioms.get(slot)) != 0) {
+                int start = getRecordContent(document, offset);
+                if (decoder.nextAxiomOffset(offset) - start == encoding.length
+                        && MappedOntologySnapshot.equals(document, start,
+                                encoding)) {
+                    return offset;
+                }
+                slot = slot + 1 & mask;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * @return the offset of the content of the axiom record at the offset,
+     *         after the varint holding the record length
+     */
+    static int getRecordContent(ByteBuffer document, int offset) {
+        int start = offset + 1;
+        while (document.get(start - 1) < 0) {
+            start++;
+        }
+        return start;
+    }
+
+    /** Encodes keys and axioms against the tables of a snapshot. */
+    private static class KeyEncoder extends BinaryOWLEncoder {
+
+        private final Tables tables;
+
+        KeyEncoder(Tables tables) {
+            this.tables = tables;
+        }
+
+        @Override
+        protected int getIndex(IRI iri) {
+            return tables.findIRI(iri);
+        }
+
+        @Override
+        protected int getIndex(OWLLiteral literal) {
+            return tables.findLiteral(literal);
+        }
+
+        @Override
+        protected String getNodeID(OWLAnonymousIndividual individual) {
+            return tables.decoder.getNodeID(individual);
+        }
+    }
+
+    /**
+     * Writes a snapshot of an ontology. The indexes are built in memory
+     * first, so this needs about as much memory as loading the ontology.
+     *
+     * @param ontology
+     *        the ontology to write
+     * @param file
+     *        the file to write; it is replaced only once the snapshot is
+     *        complete
+     * @throws IOException
+     *         if the file cannot be written
+     */
+    public static void write(OWLOntology ontology, File file)
+            throws IOException {
+        Map<String, String> prefixes = Collections.emptyMap();
+        OWLOntologyFormat format = ontology.getOWLOntologyManager()
+                .getOntologyFormat(ontology);
+        if (format instanceof PrefixOWLOntologyFormat) {
+            prefixes = ((PrefixOWLOntologyFormat) format)
+                    .getPrefixName2PrefixMap();
+        }
+        ByteArrayOutputStream documentBytes = new ByteArrayOutputStream();
+        new BinaryOWLEncoder().write(ontology, prefixes, documentBytes);
+        byte[] document = documentBytes.toByteArray();
+        ByteBuffer documentBuffer = ByteBuffer.wrap(document);
+        BinaryOWLDecoder decoder = new BinaryOWLDecoder(documentBuffer,
+                ontology.getOWLOntologyManager().getOWLDataFactory());
+        // lookup tables
+        int[] iris = new int[tableSize(decoder.getIRICount())];
+        for (int i = 0; i < decoder.getIRICount(); i++) {
+            insert(iris, hash(decoder.getIRI(i).toString()), i + 1);
+        }
+        int[] literals = new int[tableSize(decoder.getLiteralCount())];
+        for (int i = 0; i < decoder.getLiteralCount(); i++) {
+            insert(literals, hash(decoder.getLiteral(i)), i + 1);
+        }
+        int[] axioms = new int[tableSize(decoder.getAxiomCount())];
+        Map<OWLAxiom, Integer> axiomOffsets = new HashMap<OWLAxiom, Integer>();
+        int offset = decoder.getFirstAxiomOffset();
+        for (int i = 0; i < decoder.getAxiomCount(); i++) {
+            int next = decoder.nextAxiomOffset(offset);
+            int start = getRecordContent(documentBuffer, offset);
+            insert(axioms, hash(Arrays.copyOfRange(document, start, next)),
+                    offset);
+            axiomOffsets.put(decoder.readAxiom(offset),
+                    Integer.valueOf(offset));
+            offset = next;
+        }
+        Tables tables = new Tables(decoder, documentBuffer, IntBuffer.wrap(iris),
+                IntBuffer.wrap(literals), IntBuffer.wrap(axioms));
+        KeyEncoder encoder = new KeyEncoder(tables);
+        // the indexes, built by the same code that builds them on the heap
+        RecordingInternals internals = new RecordingInternals();
+        internals.addAxioms(axiomOffsets.keySet());
+        internals.initIndexes(null, 1);
+        File temp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(temp)));
+        boolean written = false;
+        try {
+            out.write(document);
+            int sectionOffset = out.size();
+            writeInts(out, iris);
+            writeInts(out, literals);
+            writeInts(out, axioms);
+            writeInts(out, offsets(internals.getGeneralClassAxioms(),
+                    axiomOffsets));
+            writeInts(out, offsets(internals.getPropertyChainAxioms(),
+                    axiomOffsets));
+            out.writeInt(internals.recorded.size());
+            for (MultiMap<Object, OWLAxiom> index : internals.recorded) {
+                writeIndex(out, index, encoder, axiomOffsets);
+            }
+            out.writeInt(sectionOffset);
+            out.writeInt(VERSION);
+            out.write(MAGIC);
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException(
+                        "Snapshots larger than 2GB are not supported");
+            }
+            out.close();
+            written = true;
+        } finally {
+            if (!written) {
+                out.close();
+                temp.delete();
+            }
+        }
+        ImplUtils.replaceFile(temp, file);
+    }
+
+    private static void insert(int[] table, int hash, int value) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = slot + 1 & mask;
+        }
+        table[slot] = value;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values)
+            throws IOException {
+        out.writeInt(values.length);
+        for (int v : values) {
+            out.writeInt(v);
+        }
+    }
+
+    private static int[] offsets(Collection<? extends OWLAxiom> axioms,
+            Map<OWLAxiom, Integer> axiomOffsets) {
+        int[] toReturn = new int[axioms.size()];
+        int i = 0;
+        for (OWLAxiom ax : axioms) {
+            toReturn[i++] = axiomOffsets.get(ax).intValue();
+        }
+        Arrays.sort(toReturn);
+        return toReturn;
+    }
+
+    private static void writeIndex(DataOutputStream out,
+            MultiMap<Object, OWLAxiom> index, KeyEncoder encoder,
+            Map<OWLAxiom, Integer> axiomOffsets) throws IOException {
+        List<byte[]> keys = new ArrayList<byte[]>();
+        List<int[]> postings = new ArrayList<int[]>();
+        int entriesLength = 0;
+        for (Object key : index.keySet()) {
+            byte[] encoding = encodeKey(encoder, key);
+            if (encoding == null) {
+                throw new OWLRuntimeException("Cannot encode index key " + key);
+            }
+            int[] values = offsets(index.get(key), axiomOffsets);
+            keys.add(encoding);
+            postings.add(values);
+            entriesLength += 8 + encoding.length + values.length * 4;
+        }
+        int[] slots = new int[keys.isEmpty() ? 0 : tableSize(keys.size())];
+        int entry = out.size() + 16 + slots.length * 4;
+        for (int i = 0; i < keys.size(); i++) {
+            insert(slots, hash(keys.get(i)), entry);
+            entry += 8 + keys.get(i).length + postings.get(i).length * 4;
+        }
+        out.writeInt(keys.size());
+        out.writeInt(index.size());
+        out.writeInt(slots.length);
+        out.writeInt(entriesLength);
+        for (int slot : slots) {
+            out.writeInt(slot);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            out.writeInt(keys.get(i).length);
+            out.write(keys.get(i));
+            writeInts(out, postings.get(i));
+        }
+    }
+
+    /**
+     * The heap based internals, recording the indexes in the order in which
+     * they are created.
+     */
+    private static class RecordingInternals extends InternalsImpl {
+
+        private static final long serialVersionUID = 30406L;
+        /*
+         * not initialized in the declaration: the indexes are created by the
+         * superclasses before the fields of this class are initialized.
+         */
+        List<MultiMap<Object, OWLAxiom>> recorded;
+
+        RecordingInternals() {}
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <K, V extends OWLAxiom> MultiMap<K, V> createIndex() {
+            if (recorded == null) {
+                recorded = new ArrayList<MultiMap<Object, OWLAxiom>>();
+            }
+            MultiMap<K, V> index = super.createIndex();
+            recorded.add((MultiMap<Object, OWLAxiom>) index);
+            return index;
+        }
+
+        Set<OWLSubPropertyChainOfAxiom> getPropertyChainAxioms() {
+            return propertyChainSubPropertyAxioms.copy();
+        }
+    }
+}
@@ -32,7 +32,6 @@ import org.semanticweb.owlapi.model.OWLObjectVisitorEx;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.util.CollectionFactory;
 import org.semanticweb.owlapi.util.HashCode;
-import org.semanticweb.owlapi.util.OWLObjectTypeIndexProvider;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
 
 /**
@@ -396,8 +395,8 @@ public class OWL2DatatypeImpl implements OWLDatatype {
     @Override
     public int compareTo(OWLObject o) {
         if (!(o instanceof OWLDatatype)) {
-            OWLObjectTypeIndexProvider provider = new OWLObjectTypeIndexProvider();
-            return provider.getTypeIndex(o);
+            return OWLObjectImpl.getTypeIndex(this)
+                    - OWLObjectImpl.getTypeIndex(o);
         }
         OWLDatatype other = (OWLDatatype) o;
         return getIRI().compareTo(other.getIRI());
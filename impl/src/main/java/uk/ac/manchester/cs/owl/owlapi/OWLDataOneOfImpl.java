@@ -142,6 +142,9 @@ public class OWLDataOneOfImpl extends OWLObjectImpl implements OWLDataOneOf {
 
     @Override
     protected int compareObjectOfSameType(OWLObject object) {
+        if (object instanceof OWLDataOneOfImpl) {
+            return compareSets(values, ((OWLDataOneOfImpl) object).values);
+        }
         return compareSets(values, ((OWLDataOneOf) object).getValues());
     }
 }
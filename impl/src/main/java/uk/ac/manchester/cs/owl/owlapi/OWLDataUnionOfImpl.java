@@ -47,7 +47,6 @@ import org.semanticweb.owlapi.model.OWLDataRangeVisitorEx;
 import org.semanticweb.owlapi.model.OWLDataUnionOf;
 import org.semanticweb.owlapi.model.OWLDataVisitor;
 import org.semanticweb.owlapi.model.OWLDataVisitorEx;
-import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectVisitor;
 import org.semanticweb.owlapi.model.OWLObjectVisitorEx;
 
@@ -73,12 +72,6 @@ public class OWLDataUnionOfImpl extends OWLNaryDataRangeImpl implements
         return DataRangeType.DATA_UNION_OF;
     }
 
-    @Override
-    protected int compareObjectOfSameType(OWLObject object) {
-        OWLDataUnionOf other = (OWLDataUnionOf) object;
-        return compareSets(getOperands(), other.getOperands());
-    }
-
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
@@ -171,6 +171,10 @@ public class OWLDisjointUnionAxiomImpl extends OWLClassAxiomImpl implements
         if (diff != 0) {
             return diff;
         }
+        if (other instanceof OWLDisjointUnionAxiomImpl) {
+            return compareSets(classExpressions,
+                    ((OWLDisjointUnionAxiomImpl) other).classExpressions);
+        }
         return compareSets(classExpressions, other.getClassExpressions());
     }
 }
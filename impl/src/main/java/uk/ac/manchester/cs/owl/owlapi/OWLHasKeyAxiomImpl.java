@@ -155,6 +155,10 @@ public class OWLHasKeyAxiomImpl extends OWLLogicalAxiomImpl implements
         if (diff != 0) {
             return diff;
         }
+        if (other instanceof OWLHasKeyAxiomImpl) {
+            return compareSets(propertyExpressions,
+                    ((OWLHasKeyAxiomImpl) other).propertyExpressions);
+        }
         return compareSets(propertyExpressions, other.getPropertyExpressions());
     }
 
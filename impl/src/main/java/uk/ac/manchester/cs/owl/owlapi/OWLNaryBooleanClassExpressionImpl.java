@@ -99,6 +99,10 @@ public abstract class OWLNaryBooleanClassExpressionImpl extends
 
     @Override
     protected int compareObjectOfSameType(OWLObject object) {
+        if (object instanceof OWLNaryBooleanClassExpressionImpl) {
+            return compareSets(operands,
+                    ((OWLNaryBooleanClassExpressionImpl) object).operands);
+        }
         return compareSets(operands,
                 ((OWLNaryBooleanClassExpression) object).getOperands());
     }
@@ -116,6 +116,10 @@ public abstract class OWLNaryClassAxiomImpl extends OWLClassAxiomImpl implements
 
     @Override
     protected int compareObjectOfSameType(OWLObject object) {
+        if (object instanceof OWLNaryClassAxiomImpl) {
+            return compareSets(classExpressions,
+                    ((OWLNaryClassAxiomImpl) object).classExpressions);
+        }
         return compareSets(classExpressions,
                 ((OWLNaryClassAxiom) object).getClassExpressions());
     }
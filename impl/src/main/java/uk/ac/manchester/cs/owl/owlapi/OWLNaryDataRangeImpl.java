@@ -44,6 +44,7 @@ import java.util.TreeSet;
 import org.semanticweb.owlapi.model.OWLDataRange;
 import org.semanticweb.owlapi.model.OWLDatatype;
 import org.semanticweb.owlapi.model.OWLNaryDataRange;
+import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.util.CollectionFactory;
 
@@ -68,6 +69,15 @@ public abstract class OWLNaryDataRangeImpl extends OWLObjectImpl implements
                 .getCopyOnRequestSetFromImmutableCollection(operands);
     }
 
+    @Override
+    protected int compareObjectOfSameType(OWLObject object) {
+        if (object instanceof OWLNaryDataRangeImpl) {
+            return compareSets(operands,
+                    ((OWLNaryDataRangeImpl) object).operands);
+        }
+        return compareSets(operands, ((OWLNaryDataRange) object).getOperands());
+    }
+
     @Override
     public boolean isTopDatatype() {
         return false;
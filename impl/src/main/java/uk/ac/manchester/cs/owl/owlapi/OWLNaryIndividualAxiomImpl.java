@@ -97,6 +97,10 @@ public abstract class OWLNaryIndividualAxiomImpl extends OWLIndividualAxiomImpl
 
     @Override
     protected int compareObjectOfSameType(OWLObject object) {
+        if (object instanceof OWLNaryIndividualAxiomImpl) {
+            return compareSets(individuals,
+                    ((OWLNaryIndividualAxiomImpl) object).individuals);
+        }
         return compareSets(individuals,
                 ((OWLNaryIndividualAxiom) object).getIndividuals());
     }
@@ -99,6 +99,10 @@ public abstract class OWLNaryPropertyAxiomImpl<P extends OWLPropertyExpression<?
 
     @Override
     protected int compareObjectOfSameType(OWLObject object) {
+        if (object instanceof OWLNaryPropertyAxiomImpl) {
+            return compareSets(properties,
+                    ((OWLNaryPropertyAxiomImpl<?>) object).properties);
+        }
         return compareSets(properties,
                 ((OWLNaryPropertyAxiom<?>) object).getProperties());
     }
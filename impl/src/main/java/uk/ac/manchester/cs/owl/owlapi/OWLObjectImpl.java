@@ -47,6 +47,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.semanticweb.owlapi.io.ToStringRenderer;
 import org.semanticweb.owlapi.model.EntityType;
@@ -74,6 +76,12 @@ import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 public abstract class OWLObjectImpl implements OWLObject, Serializable {
 
     private static final long serialVersionUID = 30406L;
+    /**
+     * the type index of each implementation class; the index only depends on
+     * the visit method an object is dispatched to, so it is computed once per
+     * class
+     */
+    private static final ConcurrentMap<Class<?>, Integer> TYPE_INDEXES = new ConcurrentHashMap<Class<?>, Integer>();
     /** a convenience reference for an empty annotation set, saves on typing. */
     protected static final Set<OWLAnnotation> NO_ANNOTATIONS = Collections
             .<OWLAnnotation> emptySet();
@@ -214,10 +222,14 @@ public abstract class OWLObjectImpl implements OWLObject, Serializable {
 
     @Override
     public int compareTo(OWLObject o) {
-        OWLObjectTypeIndexProvider typeIndexProvider = new OWLObjectTypeIndexProvider();
-        int thisTypeIndex = typeIndexProvider.getTypeIndex(this);
-        int otherTypeIndex = typeIndexProvider.getTypeIndex(o);
-        int diff = thisTypeIndex - otherTypeIndex;
+        if (o == this) {
+            return 0;
+        }
+        if (o.getClass() == getClass()) {
+            // Objects are the same type
+            return compareObjectOfSameType(o);
+        }
+        int diff = getTypeIndex(this) - getTypeIndex(o);
         if (diff == 0) {
             // Objects are the same type
             return compareObjectOfSameType(o);
@@ -226,6 +238,27 @@ public abstract class OWLObjectImpl implements OWLObject, Serializable {
         }
     }
 
+    /**
+     * @param object
+     *        the object to compute the type index of
+     * @return the type index of the object, as computed by
+     *         {@link OWLObjectTypeIndexProvider}; the index is cached for the
+     *         classes of this package and for IRIs
+     */
+    static int getTypeIndex(OWLObject object) {
+        Class<?> type = object.getClass();
+        Integer index = TYPE_INDEXES.get(type);
+        if (index == null) {
+            index = new OWLObjectTypeIndexProvider().getTypeIndex(object);
+            if (object instanceof OWLObjectImpl
+                    || object instanceof OWL2DatatypeImpl
+                    || type == IRI.class) {
+                TYPE_INDEXES.put(type, index);
+            }
+        }
+        return index;
+    }
+
     protected abstract int compareObjectOfSameType(OWLObject object);
 
     @Override
@@ -245,6 +278,11 @@ public abstract class OWLObjectImpl implements OWLObject, Serializable {
 
     protected static int compareSets(Set<? extends OWLObject> set1,
             Set<? extends OWLObject> set2) {
+        if (set1.isEmpty() || set2.isEmpty()) {
+            return set1.size() - set2.size();
+        }
+        // sets held by the implementations are sorted already; only other
+        // sets need sorting
         SortedSet<? extends OWLObject> ss1;
         if (set1 instanceof SortedSet) {
             ss1 = (SortedSet<? extends OWLObject>) set1;
@@ -257,17 +295,13 @@ public abstract class OWLObjectImpl implements OWLObject, Serializable {
         } else {
             ss2 = new TreeSet<OWLObject>(set2);
         }
-        int i = 0;
         Iterator<? extends OWLObject> thisIt = ss1.iterator();
         Iterator<? extends OWLObject> otherIt = ss2.iterator();
-        while (i < ss1.size() && i < ss2.size()) {
-            OWLObject o1 = thisIt.next();
-            OWLObject o2 = otherIt.next();
-            int diff = o1.compareTo(o2);
+        while (thisIt.hasNext() && otherIt.hasNext()) {
+            int diff = thisIt.next().compareTo(otherIt.next());
             if (diff != 0) {
                 return diff;
             }
-            i++;
         }
         return ss1.size() - ss2.size();
     }
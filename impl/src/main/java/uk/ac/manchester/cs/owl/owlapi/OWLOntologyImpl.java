@@ -42,6 +42,8 @@ import static org.semanticweb.owlapi.util.CollectionFactory.createSet;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -61,6 +63,7 @@ import org.semanticweb.owlapi.model.OWLAnnotationSubject;
 import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
 import org.semanticweb.owlapi.model.OWLAsymmetricObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLClassAxiom;
@@ -157,10 +160,23 @@ public class OWLOntologyImpl extends OWLObjectImpl implements
      *        ontology id
      */
     public OWLOntologyImpl(OWLOntologyManager manager, OWLOntologyID ontologyID) {
+        this(manager, ontologyID, new InternalsImpl());
+    }
+
+    /**
+     * @param manager
+     *        ontology manager
+     * @param ontologyID
+     *        ontology id
+     * @param internals
+     *        the internals used to store axioms and indexes
+     */
+    public OWLOntologyImpl(OWLOntologyManager manager,
+            OWLOntologyID ontologyID, Internals internals) {
         super();
         this.manager = manager;
         this.ontologyID = ontologyID;
-        internals = new InternalsImpl();
+        this.internals = internals;
     }
 
     @Override
@@ -206,6 +222,51 @@ public class OWLOntologyImpl extends OWLObjectImpl implements
         return internals.isEmpty();
     }
 
+    /**
+     * Builds all the indexes that are otherwise built lazily on first access,
+     * so that the latency of later queries is predictable.
+     * 
+     * @param threads
+     *        number of threads to use; with less than two threads the indexes
+     *        are built in the calling thread
+     */
+    public void initIndexes(int threads) {
+        internals.initIndexes(null, threads);
+    }
+
+    /**
+     * Builds the indexes for the specified axiom types, e.g., the indexes of
+     * subclass axioms by subclass and by superclass for
+     * {@code AxiomType.SUBCLASS_OF}.
+     * 
+     * @param threads
+     *        number of threads to use; with less than two threads the indexes
+     *        are built in the calling thread
+     * @param types
+     *        axiom types whose indexes should be built
+     */
+    public void initIndexes(int threads, AxiomType<?>... types) {
+        internals.initIndexes(Arrays.asList(types), threads);
+    }
+
+    /**
+     * Adds the axioms to this ontology in one batch, without creating and
+     * applying a change for each axiom. This method is meant to be called by
+     * the ontology manager, which takes care of notifying the change
+     * listeners; use
+     * {@link org.semanticweb.owlapi.model.OWLOntologyManager#addAxiomsInBulk(OWLOntology, Collection)}
+     * instead.
+     * 
+     * @param axioms
+     *        axioms to add
+     * @return the axioms that were not already in this ontology and have been
+     *         added
+     */
+    public Collection<OWLAxiom> addAxiomsInBulk(
+            Collection<? extends OWLAxiom> axioms) {
+        return internals.addAxioms(axioms);
+    }
+
     @Override
     public <T extends OWLAxiom> int getAxiomCount(AxiomType<T> axiomType,
             boolean includeImportsClosure) {
@@ -334,15 +395,26 @@ public class OWLOntologyImpl extends OWLObjectImpl implements
     }
 
     @Override
-    public boolean containsAxiomIgnoreAnnotations(OWLAxiom axiom) {
-        Set<OWLAxiom> set = internals.getValues(internals.getAxiomsByType(),
-                axiom.getAxiomType());
-        for (OWLAxiom ax : set) {
-            if (ax.equalsIgnoreAnnotations(axiom)) {
-                return true;
+    public boolean containsAxiomIgnoreAnnotations(final OWLAxiom axiom) {
+        if (containsAxiom(axiom)) {
+            return true;
+        }
+        OWLAxiomProcessor<OWLAxiom> matcher = new OWLAxiomProcessor<OWLAxiom>() {
+
+            @Override
+            public boolean process(OWLAxiom ax) {
+                return !ax.equalsIgnoreAnnotations(axiom);
+            }
+        };
+        // axioms that differ only in their annotations reference the same
+        // entities, so only the axioms referencing one of them need checking
+        for (OWLEntity e : axiom.getAxiomWithoutAnnotations().getSignature()) {
+            if (!e.isBuiltIn()) {
+                return !processReferencingAxioms(e, matcher);
             }
         }
-        return false;
+        return !internals.process(internals.getAxiomsByType(),
+                axiom.getAxiomType(), matcher);
     }
 
     @Override
@@ -1100,6 +1172,49 @@ public class OWLOntologyImpl extends OWLObjectImpl implements
                 internals.getEquivalentClassesAxiomsByClass(), cls);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends OWLAxiom> boolean processAxioms(AxiomType<T> axiomType,
+            OWLAxiomProcessor<? super T> processor) {
+        // all the axioms indexed by axiomType are instances of T
+        return internals.process(internals.getAxiomsByType(), axiomType,
+                (OWLAxiomProcessor<OWLAxiom>) (OWLAxiomProcessor<?>) processor);
+    }
+
+    @Override
+    public boolean processReferencingAxioms(OWLEntity owlEntity,
+            OWLAxiomProcessor<? super OWLAxiom> processor) {
+        return owlEntity.accept(new ReferencedAxiomsProcessor(processor));
+    }
+
+    @Override
+    public boolean processAxioms(OWLClass cls,
+            OWLAxiomProcessor<? super OWLClassAxiom> processor) {
+        return internals.process(internals.getClassAxiomsByClass(), cls,
+                processor);
+    }
+
+    @Override
+    public boolean processSubClassAxiomsForSubClass(OWLClass cls,
+            OWLAxiomProcessor<? super OWLSubClassOfAxiom> processor) {
+        return internals.process(internals.getSubClassAxiomsByLHS(), cls,
+                processor);
+    }
+
+    @Override
+    public boolean processSubClassAxiomsForSuperClass(OWLClass cls,
+            OWLAxiomProcessor<? super OWLSubClassOfAxiom> processor) {
+        return internals.process(internals.getSubClassAxiomsByRHS(), cls,
+                processor);
+    }
+
+    @Override
+    public boolean processEquivalentClassesAxioms(OWLClass cls,
+            OWLAxiomProcessor<? super OWLEquivalentClassesAxiom> processor) {
+        return internals.process(
+                internals.getEquivalentClassesAxiomsByClass(), cls, processor);
+    }
+
     @Override
     public Set<OWLDisjointClassesAxiom> getDisjointClassesAxioms(OWLClass cls) {
         return internals.getValues(internals.getDisjointClassesAxiomsByClass(),
@@ -1423,6 +1538,55 @@ public class OWLOntologyImpl extends OWLObjectImpl implements
         }
     }
 
+    private final class ReferencedAxiomsProcessor implements
+            OWLEntityVisitorEx<Boolean> {
+
+        private final OWLAxiomProcessor<? super OWLAxiom> processor;
+
+        public ReferencedAxiomsProcessor(
+                OWLAxiomProcessor<? super OWLAxiom> processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public Boolean visit(OWLClass cls) {
+            return internals.process(internals.getOwlClassReferences(), cls,
+                    processor);
+        }
+
+        @Override
+        public Boolean visit(OWLObjectProperty property) {
+            return internals.process(
+                    internals.getOwlObjectPropertyReferences(), property,
+                    processor);
+        }
+
+        @Override
+        public Boolean visit(OWLDataProperty property) {
+            return internals.process(internals.getOwlDataPropertyReferences(),
+                    property, processor);
+        }
+
+        @Override
+        public Boolean visit(OWLNamedIndividual individual) {
+            return internals.process(internals.getOwlIndividualReferences(),
+                    individual, processor);
+        }
+
+        @Override
+        public Boolean visit(OWLDatatype datatype) {
+            return internals.process(internals.getOwlDatatypeReferences(),
+                    datatype, processor);
+        }
+
+        @Override
+        public Boolean visit(OWLAnnotationProperty property) {
+            return internals.process(
+                    internals.getOwlAnnotationPropertyReferences(), property,
+                    processor);
+        }
+    }
+
     protected class OWLOntologyChangeFilter implements
             OWLOntologyChangeVisitor, Serializable {
 
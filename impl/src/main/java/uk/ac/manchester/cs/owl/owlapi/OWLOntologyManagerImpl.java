@@ -50,10 +50,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
@@ -145,6 +147,8 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
     protected final AtomicLong autoGeneratedURICounter = new AtomicLong();
     protected OWLOntologyChangeBroadcastStrategy defaultChangeBroadcastStrategy;
     protected final ImpendingOWLOntologyChangeBroadcastStrategy defaultImpendingChangeBroadcastStrategy;
+    /** fetches imported documents ahead of loading; only set while loading */
+    private transient ImportsClosurePrefetcher importsPrefetcher;
 
     /**
      * @param dataFactory
@@ -156,7 +160,9 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
         ontologiesByID = new HashMap<OWLOntologyID, OWLOntology>();
         documentIRIsByID = new HashMap<OWLOntologyID, IRI>();
         ontologyFormatsByOntology = new HashMap<OWLOntologyID, OWLOntologyFormat>();
-        documentMappers = new ArrayList<OWLOntologyIRIMapper>();
+        // mappers are also used by the threads fetching imports; the list can
+        // change while it is iterated, and lookups are serialized on it
+        documentMappers = new CopyOnWriteArrayList<OWLOntologyIRIMapper>();
         ontologyFactories = new ArrayList<OWLOntologyFactory>();
         ontologyIDsByImportsDeclaration = new HashMap<OWLImportsDeclaration, OWLOntologyID>();
         installDefaultURIMappers();
@@ -524,6 +530,36 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
         return applyChanges(changes);
     }
 
+    @Override
+    public int addAxiomsInBulk(OWLOntology ont,
+            Collection<? extends OWLAxiom> axioms) {
+        if (!(ont instanceof OWLOntologyImpl)) {
+            return addAxioms(ont, new LinkedHashSet<OWLAxiom>(axioms)).size();
+        }
+        Collection<? extends OWLAxiom> toAdd = axioms;
+        if (!properties.isLoadAnnotationAxioms()) {
+            List<OWLAxiom> filtered = new ArrayList<OWLAxiom>(axioms.size());
+            for (OWLAxiom ax : axioms) {
+                if (!(ax instanceof OWLAnnotationAxiom)) {
+                    filtered.add(ax);
+                }
+            }
+            toAdd = filtered;
+        }
+        Collection<OWLAxiom> added = ((OWLOntologyImpl) ont)
+                .addAxiomsInBulk(toAdd);
+        // change objects are only built if somebody is listening
+        if (broadcastChanges && !listenerMap.isEmpty() && !added.isEmpty()) {
+            List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>(
+                    added.size());
+            for (OWLAxiom ax : added) {
+                changes.add(new AddAxiom(ont, ax));
+            }
+            broadcastChanges(changes);
+        }
+        return added.size();
+    }
+
     @Override
     public List<OWLOntologyChange> removeAxiom(OWLOntology ont, OWLAxiom axiom) {
         return removeAxioms(ont, Collections.singleton(axiom));
@@ -852,6 +888,10 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
             System.err
                     .println("Runtime Warning: Parsers should load imported ontologies using the makeImportLoadRequest method.");
         }
+        if (loadCount == 0 && configuration.getImportLoadingThreads() > 0) {
+            importsPrefetcher = new ImportsClosurePrefetcher(this,
+                    configuration, getLoadedIRIs());
+        }
         fireStartedLoadingEvent(new OWLOntologyID(ontologyIRI),
                 documentSource.getDocumentIRI(), loadCount > 0);
         loadCount++;
@@ -859,6 +899,9 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
         OWLOntologyCreationException ex = null;
         OWLOntologyID idOfLoadedOntology = new OWLOntologyID();
         try {
+            if (importsPrefetcher != null) {
+                documentSource = importsPrefetcher.prepare(documentSource);
+            }
             for (OWLOntologyFactory factory : ontologyFactories) {
                 if (factory.canLoad(documentSource)) {
                     try {
@@ -889,6 +932,10 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
             if (loadCount == 0) {
                 broadcastChanges = true;
                 // Completed loading ontology and imports
+                if (importsPrefetcher != null) {
+                    importsPrefetcher.dispose();
+                    importsPrefetcher = null;
+                }
             }
             fireFinishedLoadingEvent(idOfLoadedOntology,
                     documentSource.getDocumentIRI(), loadCount > 0, ex);
@@ -1121,10 +1168,14 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
         if (defIRI == null) {
             return null;
         }
-        for (OWLOntologyIRIMapper mapper : documentMappers) {
-            IRI documentIRI = mapper.getDocumentIRI(defIRI);
-            if (documentIRI != null) {
-                return documentIRI;
+        // mappers are not thread safe, e.g., AutoIRIMapper maps its files on
+        // first use, and the threads fetching imports query them too
+        synchronized (documentMappers) {
+            for (OWLOntologyIRIMapper mapper : documentMappers) {
+                IRI documentIRI = mapper.getDocumentIRI(defIRI);
+                if (documentIRI != null) {
+                    return documentIRI;
+                }
             }
         }
         if (!quiet) {
@@ -1135,6 +1186,33 @@ public class OWLOntologyManagerImpl implements OWLOntologyManager,
         }
     }
 
+    /**
+     * Can be called from any thread; the mappers are queried under the same
+     * lock as by the loading thread.
+     * 
+     * @param importIRI
+     *        the IRI in an imports declaration
+     * @return the document IRI the import would be loaded from, or null if no
+     *         mapper maps it
+     */
+    IRI getDocumentIRIForImport(IRI importIRI) {
+        return getDocumentIRIFromMappers(new OWLOntologyID(importIRI), true);
+    }
+
+    /** @return the ontology, version and document IRIs of loaded ontologies */
+    private Set<IRI> getLoadedIRIs() {
+        Set<IRI> iris = new HashSet<IRI>(documentIRIsByID.values());
+        for (OWLOntologyID id : ontologiesByID.keySet()) {
+            if (!id.isAnonymous()) {
+                iris.add(id.getOntologyIRI());
+                if (id.getVersionIRI() != null) {
+                    iris.add(id.getVersionIRI());
+                }
+            }
+        }
+        return iris;
+    }
+
     protected void installDefaultURIMappers() {
         // By defaut install the default mapper that simply maps
         // ontology URIs to themselves.
@@ -41,6 +41,8 @@ package uk.ac.manchester.cs.owl.owlapi;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.UnknownHostException;
@@ -52,12 +54,17 @@ import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
+import org.semanticweb.owlapi.io.AbstractOWLOntologyLoaderMetaData;
+import org.semanticweb.owlapi.io.DocumentStreamUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
 import org.semanticweb.owlapi.io.OWLOntologyCreationIOException;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParser;
+import org.semanticweb.owlapi.io.OWLParserAttempt;
 import org.semanticweb.owlapi.io.OWLParserException;
 import org.semanticweb.owlapi.io.OWLParserFactory;
 import org.semanticweb.owlapi.io.OWLParserFactoryRegistry;
+import org.semanticweb.owlapi.io.StreamDocumentSource;
 import org.semanticweb.owlapi.io.UnparsableOntologyException;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -74,7 +81,10 @@ import org.semanticweb.owlapi.model.UnloadableImportException;
  * it is suitable for creating an ontology if the document IRI can be opened for
  * reading. This factory will not create empty ontologies. Parsers are
  * instantiated by using a list of {@code OWLParserFactory} objects that are
- * obtained from the {@code OWLParserFactoryRegistry}.
+ * obtained from the {@code OWLParserFactoryRegistry}. Parsers which recognize
+ * the start of the document, as {@link OWLDocumentFormatSniffer}s, are tried
+ * before the others; the format they detect and the time spent by each parser
+ * are recorded in the loader meta data of the format.
  * 
  * @author Matthew Horridge, The University Of Manchester, Bio-Health
  *         Informatics Group, Date: 14-Nov-2006
@@ -84,7 +94,10 @@ public class ParsableOWLOntologyFactory extends AbstractInMemOWLOntologyFactory
     private static final long serialVersionUID = 30406L;
     private static final Logger logger = Logger
             .getLogger(ParsableOWLOntologyFactory.class.getName());
+    /** number of characters looked at to detect the format of a document */
+    private static final int SNIFF_LENGTH = 4096;
     private final Set<String> parsableSchemes;
+    private final Set<String> remoteSchemes;
 
     /** Creates an ontology factory. */
     public ParsableOWLOntologyFactory() {
@@ -93,6 +106,8 @@ public class ParsableOWLOntologyFactory extends AbstractInMemOWLOntologyFactory
         parsableSchemes.add("https");
         parsableSchemes.add("file");
         parsableSchemes.add("ftp");
+        remoteSchemes = new HashSet<String>(parsableSchemes);
+        remoteSchemes.remove("file");
     }
 
     /**
@@ -186,12 +201,9 @@ public class ParsableOWLOntologyFactory extends AbstractInMemOWLOntologyFactory
             throws OWLOntologyCreationException {
         // Attempt to parse the ontology by looping through the parsers. If the
         // ontology is parsed successfully then we break out and return the
-        // ontology.
-        // I think that this is more reliable than selecting a parser based on a
-        // file extension
-        // for example (perhaps the parser list could be ordered based on most
-        // likely parser, which
-        // could be determined by file extension).
+        // ontology. The parsers that recognize the start of the document are
+        // tried first; the others are still tried if these fail, so an
+        // unrecognized or misrecognized document can still be parsed.
         Map<OWLParser, OWLParserException> exceptions = new LinkedHashMap<OWLParser, OWLParserException>();
         // Call the super method to create the ontology - this is needed,
         // because
@@ -201,11 +213,19 @@ public class ParsableOWLOntologyFactory extends AbstractInMemOWLOntologyFactory
         if (getOWLOntologyManager().contains(iri)) {
             existingOntology = getOWLOntologyManager().getOntology(iri);
         }
+        // remote documents are fetched only once, rather than once per parser
+        OWLOntologyDocumentSource source = fetchRemoteDocument(documentSource,
+                configuration);
+        List<OWLParser> parsers = getParsers();
+        OWLOntologyFormat detectedFormat = rankParsers(parsers,
+                readDocumentStart(source, configuration));
+        List<OWLParserAttempt> attempts = new ArrayList<OWLParserAttempt>();
         OWLOntologyID ontologyID = new OWLOntologyID();
         OWLOntology ont = super.createOWLOntology(ontologyID,
                 documentSource.getDocumentIRI(), mediator);
         // Now parse the input into the empty ontology that we created
-        for (final OWLParser parser : getParsers()) {
+        for (final OWLParser parser : parsers) {
+            long start = System.nanoTime();
             try {
                 if (existingOntology == null && !ont.isEmpty()) {
                     // Junk from a previous parse. We should clear the ont
@@ -213,9 +233,21 @@ public class ParsableOWLOntologyFactory extends AbstractInMemOWLOntologyFactory
                     ont = super.createOWLOntology(ontologyID,
                             documentSource.getDocumentIRI(), mediator);
                 }
-                OWLOntologyFormat format = parser.parse(documentSource, ont,
+                OWLOntologyFormat format = parser.parse(source, ont,
                         configuration);
+                attempts.add(new OWLParserAttempt(parser.getClass().getName(),
+                        System.nanoTime() - start, true));
+                if (format.getOntologyLoaderMetaData() instanceof AbstractOWLOntologyLoaderMetaData) {
+                    ((AbstractOWLOntologyLoaderMetaData) format
+                            .getOntologyLoaderMetaData()).setLoadingDetails(
+                            detectedFormat, attempts);
+                }
                 mediator.setOntologyFormat(ont, format);
+                if (configuration.getIndexBuildThreads() > 0
+                        && ont instanceof OWLOntologyImpl) {
+                    ((OWLOntologyImpl) ont).initIndexes(configuration
+                            .getIndexBuildThreads());
+                }
                 return ont;
             } catch (IOException e) {
                 // No hope of any parsers working?
@@ -229,6 +261,8 @@ public class ParsableOWLOntologyFactory extends AbstractInMemOWLOntologyFactory
             } catch (OWLParserException e) {
                 // Record this attempts and continue trying to parse.
                 exceptions.put(parser, e);
+                attempts.add(new OWLParserAttempt(parser.getClass().getName(),
+                        System.nanoTime() - start, false));
             } catch (RuntimeException e) {
                 // Clean up and rethrow
                 getOWLOntologyManager().removeOntology(ont);
@@ -247,6 +281,159 @@ public class ParsableOWLOntologyFactory extends AbstractInMemOWLOntologyFactory
                 exceptions, configuration);
     }
 
+    /**
+     * Orders the parsers so that the ones recognizing the document come first,
+     * followed by the ones that cannot tell, followed by the ones that do not
+     * recognize the document. The registry order is kept within each group.
+     * 
+     * @param parsers
+     *        the parsers to sort
+     * @param documentStart
+     *        the start of the document
+     * @return the format recognized by the first parser recognizing the
+     *         document, or null if no parser recognizes it
+     */
+    private static OWLOntologyFormat rankParsers(List<OWLParser> parsers,
+            String documentStart) {
+        if (documentStart.isEmpty()) {
+            return null;
+        }
+        OWLOntologyFormat detectedFormat = null;
+        List<OWLParser> likely = new ArrayList<OWLParser>();
+        List<OWLParser> unknown = new ArrayList<OWLParser>();
+        List<OWLParser> unlikely = new ArrayList<OWLParser>();
+        for (OWLParser parser : parsers) {
+            if (parser instanceof OWLDocumentFormatSniffer) {
+                OWLOntologyFormat format = ((OWLDocumentFormatSniffer) parser)
+                        .sniffFormat(documentStart);
+                if (format == null) {
+                    unlikely.add(parser);
+                } else {
+                    if (detectedFormat == null) {
+                        detectedFormat = format;
+                    }
+                    likely.add(parser);
+                }
+            } else {
+                unknown.add(parser);
+            }
+        }
+        parsers.clear();
+        parsers.addAll(likely);
+        parsers.addAll(unknown);
+        parsers.addAll(unlikely);
+        return detectedFormat;
+    }
+
+    /**
+     * @param source
+     *        the document source
+     * @param configuration
+     *        the load configuration
+     * @return the first few kilobytes of the document, or the empty string if
+     *         they cannot be read; parsing will then report the problem
+     */
+    private static String readDocumentStart(OWLOntologyDocumentSource source,
+            OWLOntologyLoaderConfiguration configuration) {
+        try {
+            if (source.isReaderAvailable()) {
+                Reader reader = source.getReader();
+                try {
+                    char[] buffer = new char[SNIFF_LENGTH];
+                    int length = 0;
+                    int read;
+                    while (length < SNIFF_LENGTH
+                            && (read = reader.read(buffer, length,
+                                    SNIFF_LENGTH - length)) > 0) {
+                        length += read;
+                    }
+                    return new String(buffer, 0, length);
+                } finally {
+                    reader.close();
+                }
+            }
+            InputStream in;
+            if (source.isInputStreamAvailable()) {
+                in = source.getInputStream();
+            } else {
+                in = DocumentStreamUtils.getInputStream(
+                        source.getDocumentIRI(), configuration);
+            }
+            try {
+                byte[] buffer = new byte[SNIFF_LENGTH];
+                int length = 0;
+                int read;
+                while (length < SNIFF_LENGTH
+                        && (read = in.read(buffer, length, SNIFF_LENGTH
+                                - length)) > 0) {
+                    length += read;
+                }
+                return decode(buffer, length);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            logger.fine("Cannot read the start of " + source.getDocumentIRI()
+                    + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            logger.fine("Cannot read the start of " + source.getDocumentIRI()
+                    + ": " + e.getMessage());
+        }
+        return "";
+    }
+
+    private static String decode(byte[] buffer, int length)
+            throws UnsupportedEncodingException {
+        // a byte order mark identifies UTF-16; XML and the text formats
+        // default to UTF-8 otherwise
+        boolean bigEndian = buffer[0] == (byte) 0xFE
+                && buffer[1] == (byte) 0xFF;
+        boolean littleEndian = buffer[0] == (byte) 0xFF
+                && buffer[1] == (byte) 0xFE;
+        if (length >= 2 && (bigEndian || littleEndian)) {
+            return new String(buffer, 0, length, "UTF-16");
+        }
+        return new String(buffer, 0, length, "UTF-8");
+    }
+
+    /**
+     * @param documentSource
+     *        the document source
+     * @param configuration
+     *        the load configuration
+     * @return a source holding the fetched document, if the document is only
+     *         available through a network connection; the document source
+     *         itself otherwise, or if the document cannot be fetched, in which
+     *         case the parsers will report the problem
+     */
+    private OWLOntologyDocumentSource fetchRemoteDocument(
+            OWLOntologyDocumentSource documentSource,
+            OWLOntologyLoaderConfiguration configuration) {
+        if (documentSource.isReaderAvailable()
+                || documentSource.isInputStreamAvailable()
+                || !remoteSchemes.contains(documentSource.getDocumentIRI()
+                        .getScheme())) {
+            return documentSource;
+        }
+        try {
+            InputStream in = DocumentStreamUtils.getInputStream(
+                    documentSource.getDocumentIRI(), configuration);
+            try {
+                return new StreamDocumentSource(in,
+                        documentSource.getDocumentIRI());
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            logger.fine("Cannot fetch " + documentSource.getDocumentIRI()
+                    + ": " + e.getMessage());
+        } catch (OWLRuntimeException e) {
+            logger.fine("Cannot fetch " + documentSource.getDocumentIRI()
+                    + ": " + e.getMessage());
+        }
+        return documentSource;
+    }
+
     @Override
     public OWLOntology loadOWLOntology(
             OWLOntologyDocumentSource documentSource,
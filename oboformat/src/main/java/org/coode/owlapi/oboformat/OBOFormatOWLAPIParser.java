@@ -10,6 +10,8 @@ import org.obolibrary.obo2owl.OWLAPIObo2Owl;
 import org.obolibrary.oboformat.model.OBODoc;
 import org.obolibrary.oboformat.parser.OBOFormatParser;
 import org.obolibrary.oboformat.parser.OBOFormatParserException;
+import org.semanticweb.owlapi.io.DocumentSniffingUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParser;
 import org.semanticweb.owlapi.io.OWLParserException;
@@ -23,8 +25,14 @@ import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.UnloadableImportException;
 
 /** oboformat parser */
-public class OBOFormatOWLAPIParser implements OWLParser {
+public class OBOFormatOWLAPIParser implements OWLParser,
+        OWLDocumentFormatSniffer {
 
+    /** tags which can start an OBO document */
+    private static final String[] HEADER_TAGS = { "format-version:",
+            "data-version:", "ontology:", "date:", "saved-by:",
+            "auto-generated-by:", "default-namespace:", "[Term]",
+            "[Typedef]", "[Instance]" };
     private OWLOntologyManager manager;
 
     /**
@@ -111,4 +119,16 @@ public class OBOFormatOWLAPIParser implements OWLParser {
         }
         return ontology;
     }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        String text = DocumentSniffingUtils.skipWhitespaceAndComments(
+                documentStart, "!");
+        for (String tag : HEADER_TAGS) {
+            if (text.startsWith(tag)) {
+                return new OBOOntologyFormat();
+            }
+        }
+        return null;
+    }
 }
@@ -33,7 +33,6 @@ import org.obolibrary.oboformat.parser.OBOFormatConstants.OboFormatTag;
 import org.obolibrary.oboformat.parser.OBOFormatParser;
 import org.obolibrary.oboformat.parser.OBOFormatParserException;
 import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
-import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddImport;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.AxiomType;
@@ -86,6 +85,8 @@ public class OWLAPIObo2Owl {
     protected final Set<OWLAnnotationProperty> apToDeclare;
     protected final Map<String, OWLClass> clsToDeclar;
     protected final Map<String, OWLAnnotationProperty> typedefToAnnotationProperty;
+    /** axioms translated by tr() and not yet added to the ontology */
+    private List<OWLAxiom> pendingAxioms;
 
     /**
      * @param manager
@@ -345,15 +346,21 @@ public class OWLAPIObo2Owl {
                             + defaultIDSpace))));
             // TODO - warn
         }
-        trHeaderFrame(hf);
-        for (Frame f : obodoc.getTypedefFrames()) {
-            trTypedefToAnnotationProperty(f);
-        }
-        for (Frame f : obodoc.getTypedefFrames()) {
-            trTypedefFrame(f);
-        }
-        for (Frame f : obodoc.getTermFrames()) {
-            trTermFrame(f);
+        pendingAxioms = new ArrayList<OWLAxiom>();
+        try {
+            trHeaderFrame(hf);
+            for (Frame f : obodoc.getTypedefFrames()) {
+                trTypedefToAnnotationProperty(f);
+            }
+            for (Frame f : obodoc.getTypedefFrames()) {
+                trTypedefFrame(f);
+            }
+            for (Frame f : obodoc.getTermFrames()) {
+                trTermFrame(f);
+            }
+            addInBulk(pendingAxioms);
+        } finally {
+            pendingAxioms = null;
         }
         // TODO - individuals
         for (Clause cl : hf.getClauses(OboFormatTag.TAG_IMPORT)) {
@@ -842,13 +849,20 @@ public class OWLAPIObo2Owl {
             LOG.log(Level.SEVERE, "no axiom");
             return;
         }
-        List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>(
-                axioms.size());
-        for (OWLAxiom axiom : axioms) {
-            AddAxiom addAx = new AddAxiom(owlOntology, axiom);
-            changes.add(addAx);
+        if (pendingAxioms != null) {
+            // a whole document is being translated: add all axioms at the end
+            pendingAxioms.addAll(axioms);
+        } else {
+            addInBulk(axioms);
+        }
+    }
+
+    private void addInBulk(Collection<OWLAxiom> axioms) {
+        try {
+            manager.addAxiomsInBulk(owlOntology, axioms);
+        } catch (Exception e) {
+            LOG.log(Level.SEVERE, "COULD NOT TRANSLATE AXIOM", e);
         }
-        apply(changes);
     }
 
     protected void apply(OWLOntologyChange change) {
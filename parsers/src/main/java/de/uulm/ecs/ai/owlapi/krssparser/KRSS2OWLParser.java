@@ -43,6 +43,8 @@ import java.io.InputStream;
 import java.io.Reader;
 
 import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.DocumentSniffingUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParserException;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -254,7 +256,8 @@ import org.semanticweb.owlapi.model.UnloadableImportException;
  * 
  * @author Olaf Noppens, Ulm University, Institute of Artificial Intelligence
  */
-public class KRSS2OWLParser extends AbstractOWLParser {
+public class KRSS2OWLParser extends AbstractOWLParser implements
+        OWLDocumentFormatSniffer {
 
     @Override
     public OWLOntologyFormat parse(OWLOntologyDocumentSource documentSource,
@@ -299,4 +302,17 @@ public class KRSS2OWLParser extends AbstractOWLParser {
             }
         }
     }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        // KRSS documents are sequences of parenthesized statements, such as
+        // (define-concept ...)
+        String text = DocumentSniffingUtils.skipWhitespaceAndComments(
+                documentStart, ";");
+        if (text.startsWith("(") && text.length() > 1
+                && Character.isLetter(text.charAt(1))) {
+            return new KRSS2OntologyFormat();
+        }
+        return null;
+    }
 }
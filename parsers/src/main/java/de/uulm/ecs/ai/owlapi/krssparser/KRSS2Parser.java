@@ -49,13 +49,11 @@ import java.util.Set;
 
 import org.coode.owl.krssparser.NameResolverStrategy;
 import org.semanticweb.owlapi.io.XMLUtils;
-import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLIndividual;
-import org.semanticweb.owlapi.model.OWLMutableOntology;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -74,6 +72,8 @@ public class KRSS2Parser implements KRSS2ParserConstants {
 
     /** The ontology. */
     private OWLOntology ontology;
+    /** The axioms parsed and not yet added to the ontology. */
+    private final List<OWLAxiom> pendingAxioms = new ArrayList<OWLAxiom>();
     /** The data factory. */
     private OWLDataFactory dataFactory;
     /** The string2 iri. */
@@ -123,9 +123,20 @@ public class KRSS2Parser implements KRSS2ParserConstants {
      *         the kRS s2 owl parser exception
      */
     protected void addAxiom(OWLAxiom ax) throws KRSS2OWLParserException {
+        pendingAxioms.add(ax);
+    }
+
+    /**
+     * Adds the parsed axioms to the ontology in one batch.
+     * 
+     * @throws KRSS2OWLParserException
+     *         the kRS s2 owl parser exception
+     */
+    protected void addPendingAxioms() throws KRSS2OWLParserException {
         try {
-            ((OWLMutableOntology) ontology).applyChange(new AddAxiom(ontology,
-                    ax));
+            ontology.getOWLOntologyManager().addAxiomsInBulk(ontology,
+                    pendingAxioms);
+            pendingAxioms.clear();
         } catch (OWLOntologyChangeException e) {
             throw new KRSS2OWLParserException(e);
         }
@@ -220,6 +231,7 @@ public class KRSS2Parser implements KRSS2ParserConstants {
             jj_consume_token(ENDABOX);
         } else {}
         jj_consume_token(0);
+        addPendingAxioms();
     }
 
     /**
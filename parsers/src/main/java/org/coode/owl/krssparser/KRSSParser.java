@@ -39,18 +39,18 @@
 /* Generated By:JavaCC: Do not edit this line. KRSSParser.java */
 package org.coode.owl.krssparser;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLIndividual;
-import org.semanticweb.owlapi.model.OWLMutableOntology;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
@@ -65,6 +65,8 @@ public class KRSSParser implements KRSSParserConstants {
 
     /** The ontology. */
     private OWLOntology ontology;
+    /** The axioms parsed and not yet added to the ontology. */
+    private final List<OWLAxiom> pendingAxioms = new ArrayList<OWLAxiom>();
     /** The data factory. */
     private OWLDataFactory dataFactory;
     /** The string2 iri. */
@@ -102,9 +104,20 @@ public class KRSSParser implements KRSSParserConstants {
      *         the kRSSOWL parser exception
      */
     protected void addAxiom(OWLAxiom ax) throws KRSSOWLParserException {
+        pendingAxioms.add(ax);
+    }
+
+    /**
+     * Adds the parsed axioms to the ontology in one batch.
+     * 
+     * @throws KRSSOWLParserException
+     *         the kRSSOWL parser exception
+     */
+    protected void addPendingAxioms() throws KRSSOWLParserException {
         try {
-            ((OWLMutableOntology) ontology).applyChange(new AddAxiom(ontology,
-                    ax));
+            ontology.getOWLOntologyManager().addAxiomsInBulk(ontology,
+                    pendingAxioms);
+            pendingAxioms.clear();
         } catch (OWLOntologyChangeException e) {
             throw new KRSSOWLParserException(e);
         }
@@ -169,6 +182,7 @@ public class KRSSParser implements KRSSParserConstants {
             jj_consume_token(ENDABOX);
         } else {}
         jj_consume_token(0);
+        addPendingAxioms();
     }
 
     /**
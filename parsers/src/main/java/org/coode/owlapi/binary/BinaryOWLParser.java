@@ -0,0 +1,172 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.coode.owlapi.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+
+import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.BinaryOWLDecoder;
+import org.semanticweb.owlapi.io.BinaryOWLOntologyFormat;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
+import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
+import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChangeException;
+import org.semanticweb.owlapi.model.OWLOntologyFormat;
+import org.semanticweb.owlapi.model.OWLOntologyLoaderConfiguration;
+import org.semanticweb.owlapi.model.UnloadableImportException;
+
+/**
+ * Reads documents in the {@link BinaryOWLOntologyFormat}. Local files are
+ * memory mapped rather than read; other documents are read into memory. The
+ * magic number at the start of a document is checked before the rest of the
+ * document is read, so other documents are rejected quickly. Binary documents
+ * cannot be read from a {@code Reader}.
+ */
+public class BinaryOWLParser extends AbstractOWLParser implements
+        OWLDocumentFormatSniffer {
+
+    private static final String MAGIC = "OWLB";
+
+    @Override
+    public OWLOntologyFormat parse(OWLOntologyDocumentSource documentSource,
+            OWLOntology ontology) throws OWLParserException, IOException,
+            UnloadableImportException {
+        return parse(documentSource, ontology,
+                new OWLOntologyLoaderConfiguration());
+    }
+
+    @Override
+    public OWLOntologyFormat parse(OWLOntologyDocumentSource documentSource,
+            OWLOntology ontology, OWLOntologyLoaderConfiguration configuration)
+            throws OWLParserException, IOException, OWLOntologyChangeException,
+            UnloadableImportException {
+        ByteBuffer buffer;
+        IRI documentIRI = documentSource.getDocumentIRI();
+        boolean local = "file".equals(documentIRI.getScheme());
+        if (local && documentSource instanceof FileDocumentSource) {
+            buffer = map(new File(documentIRI.toURI()));
+        } else if (documentSource.isInputStreamAvailable()) {
+            buffer = read(documentSource.getInputStream());
+        } else if (documentSource.isReaderAvailable()) {
+            throw new OWLParserException(
+                    "Binary documents cannot be read from a Reader");
+        } else if (local) {
+            buffer = map(new File(documentIRI.toURI()));
+        } else {
+            buffer = read(getInputStream(documentIRI, configuration));
+        }
+        BinaryOWLDecoder decoder = new BinaryOWLDecoder(buffer, ontology
+                .getOWLOntologyManager().getOWLDataFactory());
+        decoder.addTo(ontology, configuration);
+        BinaryOWLOntologyFormat format = new BinaryOWLOntologyFormat();
+        format.clearPrefixes();
+        for (Map.Entry<String, String> e : decoder.getPrefixes().entrySet()) {
+            format.setPrefix(e.getKey(), e.getValue());
+        }
+        return format;
+    }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        if (documentStart.startsWith(MAGIC)) {
+            return new BinaryOWLOntologyFormat();
+        }
+        return null;
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            checkMagic(in.length() >= MAGIC.length() ? readMagic(in) : "");
+            if (in.length() > Integer.MAX_VALUE) {
+                throw new OWLParserException(
+                        "Binary documents larger than 2GB are not supported");
+            }
+            // the mapping stays valid after the file is closed
+            return in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+                    in.length());
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String readMagic(RandomAccessFile in) throws IOException {
+        byte[] magic = new byte[MAGIC.length()];
+        in.readFully(magic);
+        return new String(magic, "ISO-8859-1");
+    }
+
+    private static ByteBuffer read(InputStream in) throws IOException {
+        try {
+            byte[] magic = new byte[MAGIC.length()];
+            int length = 0;
+            int read;
+            while (length < magic.length
+                    && (read = in.read(magic, length, magic.length - length)) > 0) {
+                length += read;
+            }
+            checkMagic(new String(magic, 0, length, "ISO-8859-1"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(magic);
+            byte[] buffer = new byte[8192];
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void checkMagic(String magic) {
+        if (!MAGIC.equals(magic)) {
+            throw new OWLParserException("Not a binary ontology document");
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, The University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.coode.owlapi.functionalparser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.semanticweb.owlapi.io.OWLParserException;
+
+/**
+ * Splits a functional syntax document into its header - prefixes, ontology
+ * IRIs, imports and ontology annotations - and chunks of whole axioms, which
+ * can be parsed independently. The text is copied verbatim, so that line
+ * numbers within a chunk can be mapped back to the document. Only parentheses,
+ * string literals, full IRIs and comments are recognised; syntax errors are
+ * left to the parser.
+ * 
+ * @author ignazio
+ */
+class FunctionalSyntaxDocumentSplitter {
+
+    private final Reader reader;
+    private final StringBuilder text = new StringBuilder();
+    /** lookahead character; -2 if none has been read */
+    private int next = -2;
+    private int line = 1;
+    /** line at which the text in the buffer starts */
+    private int textLine = 1;
+    private int chunkLine = 1;
+    /** true if the keyword of the first axiom has already been read */
+    private boolean axiomStarted = false;
+    private boolean ended = false;
+
+    FunctionalSyntaxDocumentSplitter(Reader reader) {
+        this.reader = reader;
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        next = -2;
+        if (c != -1) {
+            text.append((char) c);
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    private OWLParserException error(String message) {
+        return new OWLParserException(message, line, 0);
+    }
+
+    private void copyComment() throws IOException {
+        int c = read();
+        while (c != -1 && c != '\n') {
+            c = read();
+        }
+    }
+
+    /** copies whitespace and comments */
+    private void copySpace() throws IOException {
+        while (true) {
+            int c = peek();
+            if (Character.isWhitespace(c)) {
+                read();
+            } else if (c == '#') {
+                copyComment();
+            } else if (c == '/') {
+                read();
+                if (peek() != '/') {
+                    // not a comment: leave it to the parser
+                    return;
+                }
+                copyComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private String copyWord() throws IOException {
+        int start = text.length();
+        int c = peek();
+        while (c != -1 && !Character.isWhitespace(c) && c != '(' && c != ')'
+                && c != '"' && c != '<' && c != '#') {
+            read();
+            c = peek();
+        }
+        return text.substring(start);
+    }
+
+    private void copyStringLiteral() throws IOException {
+        read();
+        int c = read();
+        while (c != '"') {
+            if (c == -1) {
+                throw error("Unterminated string literal");
+            }
+            if (c == '\\') {
+                read();
+            }
+            c = read();
+        }
+    }
+
+    private void copyFullIRI() throws IOException {
+        read();
+        int c = peek();
+        while (c != -1 && c != '>' && !Character.isWhitespace(c)) {
+            read();
+            c = peek();
+        }
+        if (c == '>') {
+            read();
+        }
+    }
+
+    /** copies a parenthesized element, starting at its open parenthesis */
+    private void copyElement() throws IOException {
+        copySpace();
+        if (peek() != '(') {
+            throw error("Expected (");
+        }
+        int depth = 0;
+        do {
+            int c = peek();
+            switch (c) {
+                case -1:
+                    throw error("Unexpected end of document");
+                case '(':
+                    read();
+                    depth++;
+                    break;
+                case ')':
+                    read();
+                    depth--;
+                    break;
+                case '"':
+                    copyStringLiteral();
+                    break;
+                case '<':
+                    copyFullIRI();
+                    break;
+                case '#':
+                    copyComment();
+                    break;
+                case '/':
+                    read();
+                    if (peek() == '/') {
+                        copyComment();
+                    }
+                    break;
+                default:
+                    read();
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Reads the document up to its first axiom.
+     * 
+     * @return the header of the document; if the document contains no axioms,
+     *         this is the whole document
+     * @throws IOException
+     *         if the document cannot be read
+     */
+    String readHeader() throws IOException {
+        while (true) {
+            copySpace();
+            String keyword = copyWord();
+            if (keyword.equals("Ontology")) {
+                copySpace();
+                if (read() != '(') {
+                    throw error("Expected (");
+                }
+                break;
+            } else if (keyword.equals("Prefix")) {
+                copyElement();
+            } else {
+                throw error("Expected Prefix or Ontology, found '" + keyword
+                        + "'");
+            }
+        }
+        while (true) {
+            copySpace();
+            int c = peek();
+            if (c == ')' || c == -1) {
+                // no axioms
+                ended = true;
+                while (read() != -1) {
+                    // copy the rest, for the parser to check
+                }
+                return takeText(text.length());
+            }
+            if (c == '<') {
+                copyFullIRI();
+                continue;
+            }
+            int start = text.length();
+            int startLine = line;
+            String word = copyWord();
+            if (word.length() == 0) {
+                // let the parser report the unexpected character
+                read();
+                continue;
+            }
+            copySpace();
+            if (peek() == '(') {
+                if (word.equals("Import") || word.equals("Annotation")) {
+                    copyElement();
+                } else {
+                    axiomStarted = true;
+                    String header = takeText(start);
+                    textLine = startLine;
+                    return header + ")";
+                }
+            }
+            // otherwise, the word is an abbreviated ontology or version IRI
+        }
+    }
+
+    /**
+     * @param end
+     *        end of the text to take
+     * @return the text up to end, which is removed from the buffer
+     */
+    private String takeText(int end) {
+        String toReturn = text.substring(0, end);
+        text.delete(0, end);
+        return toReturn;
+    }
+
+    /**
+     * @param size
+     *        maximum number of axioms in the chunk
+     * @return the text of the next axioms, or null if there are no more
+     *         axioms
+     * @throws IOException
+     *         if the document cannot be read
+     */
+    String nextChunk(int size) throws IOException {
+        if (ended) {
+            return null;
+        }
+        chunkLine = textLine;
+        int count = 0;
+        if (axiomStarted) {
+            axiomStarted = false;
+            copyElement();
+            count++;
+        }
+        while (count < size) {
+            copySpace();
+            int c = peek();
+            if (c == ')' || c == -1) {
+                // end of the ontology; what follows is not checked
+                ended = true;
+                break;
+            }
+            if (copyWord().length() == 0) {
+                throw error("Unexpected character '" + (char) c + "'");
+            }
+            copyElement();
+            count++;
+        }
+        if (count == 0) {
+            return null;
+        }
+        String chunk = takeText(text.length());
+        textLine = line;
+        return chunk;
+    }
+
+    /** @return the line of the document at which the last chunk starts */
+    int getChunkLine() {
+        return chunkLine;
+    }
+}
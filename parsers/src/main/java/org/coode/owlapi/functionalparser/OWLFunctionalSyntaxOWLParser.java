@@ -40,11 +40,24 @@ package org.coode.owlapi.functionalparser;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.DocumentSniffingUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
+import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChangeException;
 import org.semanticweb.owlapi.model.OWLOntologyFormat;
@@ -55,7 +68,11 @@ import org.semanticweb.owlapi.model.UnloadableImportException;
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics
  *         Group, Date: 14-Nov-2006
  */
-public class OWLFunctionalSyntaxOWLParser extends AbstractOWLParser {
+public class OWLFunctionalSyntaxOWLParser extends AbstractOWLParser implements
+        OWLDocumentFormatSniffer {
+
+    /** number of axioms parsed by each task when parsing in parallel */
+    private static final int CHUNK_SIZE = 2000;
 
     @Override
     public OWLOntologyFormat parse(OWLOntologyDocumentSource documentSource,
@@ -74,6 +91,21 @@ public class OWLFunctionalSyntaxOWLParser extends AbstractOWLParser {
         InputStream is = null;
         try {
             OWLFunctionalSyntaxParser parser;
+            if (configuration.getParsingThreads() > 1) {
+                if (documentSource.isReaderAvailable()) {
+                    reader = documentSource.getReader();
+                } else {
+                    if (documentSource.isInputStreamAvailable()) {
+                        is = documentSource.getInputStream();
+                    } else {
+                        is = getInputStream(documentSource.getDocumentIRI(),
+                                configuration);
+                    }
+                    // same decoding as the parser's own stream
+                    reader = new InputStreamReader(is);
+                }
+                return parseInParallel(reader, ontology, configuration);
+            }
             if (documentSource.isReaderAvailable()) {
                 reader = documentSource.getReader();
                 parser = new OWLFunctionalSyntaxParser(reader);
@@ -98,4 +130,97 @@ public class OWLFunctionalSyntaxOWLParser extends AbstractOWLParser {
             }
         }
     }
+
+    /**
+     * Parses the header of the document on the calling thread, and chunks of
+     * axioms on a pool of threads; the axioms of each chunk are added to the
+     * ontology, in document order, by the calling thread.
+     */
+    private static OWLFunctionalSyntaxOntologyFormat parseInParallel(
+            Reader reader, final OWLOntology ontology,
+            final OWLOntologyLoaderConfiguration configuration)
+            throws IOException, ParseException, UnloadableImportException {
+        FunctionalSyntaxDocumentSplitter splitter = new FunctionalSyntaxDocumentSplitter(
+                reader);
+        OWLFunctionalSyntaxParser headerParser = new OWLFunctionalSyntaxParser(
+                new StringReader(splitter.readHeader()));
+        headerParser.setUp(ontology, configuration);
+        final OWLFunctionalSyntaxOntologyFormat format = headerParser.parse();
+        int threads = configuration.getParsingThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // chunks being parsed, and the document lines they start at
+        LinkedList<Future<List<OWLAxiom>>> results = new LinkedList<Future<List<OWLAxiom>>>();
+        LinkedList<Integer> lines = new LinkedList<Integer>();
+        try {
+            String chunk = splitter.nextChunk(CHUNK_SIZE);
+            while (chunk != null || !results.isEmpty()) {
+                if (chunk != null && results.size() < threads * 2) {
+                    final String text = chunk;
+                    results.add(executor
+                            .submit(new Callable<List<OWLAxiom>>() {
+
+                                @Override
+                                public List<OWLAxiom> call()
+                                        throws ParseException {
+                                    OWLFunctionalSyntaxParser parser = new OWLFunctionalSyntaxParser(
+                                            new StringReader(text));
+                                    parser.setUp(ontology, configuration);
+                                    parser.setPrefixes(format);
+                                    return parser.parseAxioms();
+                                }
+                            }));
+                    lines.add(splitter.getChunkLine());
+                    chunk = splitter.nextChunk(CHUNK_SIZE);
+                } else {
+                    // enough chunks in flight: add the oldest one
+                    int line = lines.removeFirst();
+                    List<OWLAxiom> axioms = getChunk(results.removeFirst(),
+                            line);
+                    ontology.getOWLOntologyManager().addAxiomsInBulk(
+                            ontology, axioms);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return format;
+    }
+
+    private static List<OWLAxiom> getChunk(Future<List<OWLAxiom>> result,
+            int line) throws ParseException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OWLParserException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ParseException) {
+                ParseException pe = (ParseException) cause;
+                if (pe.currentToken != null) {
+                    // report the position in the document, not in the chunk
+                    throw new OWLParserException(pe.getMessage(), pe, line
+                            + pe.currentToken.beginLine - 1,
+                            pe.currentToken.beginColumn);
+                }
+                throw pe;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new OWLParserException(cause);
+        }
+    }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        String text = DocumentSniffingUtils.skipWhitespaceAndComments(
+                documentStart, "#");
+        if (DocumentSniffingUtils.startsWithKeyword(text, "Prefix", '(')
+                || DocumentSniffingUtils.startsWithKeyword(text, "Ontology",
+                        '(')) {
+            return new OWLFunctionalSyntaxOntologyFormat();
+        }
+        return null;
+    }
 }
@@ -11,7 +11,6 @@ import java.util.Set;
 
 import org.semanticweb.owlapi.io.OWLFunctionalSyntaxOntologyFormat;
 import org.semanticweb.owlapi.io.OWLParserException;
-import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddImport;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.IRI;
@@ -93,6 +92,8 @@ public class OWLFunctionalSyntaxParser implements
     private boolean ignoreAnnotationsAndDeclarations = false;
     /** The current annotations. */
     private Set<OWLAnnotation> currentAnnotations;
+    /** The axioms parsed and not yet added to the ontology. */
+    private final List<OWLAxiom> pendingAxioms = new ArrayList<OWLAxiom>();
 
     /**
      * Sets the up.
@@ -186,7 +187,8 @@ public class OWLFunctionalSyntaxParser implements
     }
 
     /**
-     * Adds the axiom.
+     * Adds the axiom. The axiom is added to the ontology, together with all
+     * the other axioms of the document, when the ontology has been parsed.
      * 
      * @param ax
      *        the ax
@@ -194,11 +196,16 @@ public class OWLFunctionalSyntaxParser implements
     protected void addAxiom(OWLAxiom ax) {
         if (!(ax instanceof OWLAnnotationAxiom)
                 || configuration.isLoadAnnotationAxioms()) {
-            AddAxiom addAxiom = new AddAxiom(ontology, ax);
-            applyChange(addAxiom);
+            pendingAxioms.add(ax);
         }
     }
 
+    /** Adds the pending axioms to the ontology in one batch. */
+    protected void addPendingAxioms() {
+        man.addAxiomsInBulk(ontology, pendingAxioms);
+        pendingAxioms.clear();
+    }
+
     /**
      * Sets the prefixes.
      * 
@@ -241,6 +248,34 @@ public class OWLFunctionalSyntaxParser implements
         return format;
     }
 
+    /**
+     * Parses a sequence of axioms, such as a chunk of the axioms of an
+     * ontology document, without adding them to the ontology. The prefixes
+     * must have been set with {@link #setPrefixes(PrefixManager)}.
+     * 
+     * @return the axioms parsed, in document order; annotation axioms are
+     *         skipped if the configuration does not load them
+     * @throws ParseException
+     *         the parse exception
+     */
+    final public List<OWLAxiom> parseAxioms() throws ParseException {
+        List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+        OWLAxiom ax;
+        label_3: while (true) {
+            if (jj_2_7(2)) {} else {
+                break label_3;
+            }
+            ax = Axiom();
+            if (!(ax instanceof OWLAnnotationAxiom)
+                    || configuration.isLoadAnnotationAxioms()) {
+                axioms.add(ax);
+            }
+            currentAnnotations.clear();
+        }
+        jj_consume_token(0);
+        return axioms;
+    }
+
     /**
      * Ontology.
      * 
@@ -293,6 +328,7 @@ public class OWLFunctionalSyntaxParser implements
             currentAnnotations.clear();
         }
         jj_consume_token(CLOSEPAR);
+        addPendingAxioms();
     }
 
     /**
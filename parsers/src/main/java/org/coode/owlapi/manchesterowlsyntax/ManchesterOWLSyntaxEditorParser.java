@@ -57,7 +57,6 @@ import org.semanticweb.owlapi.expression.OWLEntityChecker;
 import org.semanticweb.owlapi.expression.OWLOntologyChecker;
 import org.semanticweb.owlapi.expression.ParserException;
 import org.semanticweb.owlapi.io.XMLUtils;
-import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddImport;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.AxiomType;
@@ -2278,15 +2277,18 @@ public class ManchesterOWLSyntaxEditorParser implements
                         SAME_INDIVIDUAL, RULE).build();
             }
         }
-        List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>(
-                axioms.size());
+        // the header goes first, so that the axioms are added to the
+        // ontology under its final ID
+        List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>();
         changes.addAll(imports);
         changes.addAll(ontologyAnnotations);
-        for (OntologyAxiomPair pair : axioms) {
-            changes.add(new AddAxiom(ont, pair.getAxiom()));
-        }
         changes.add(new SetOntologyID(ont, ontologyID));
         ont.getOWLOntologyManager().applyChanges(changes);
+        List<OWLAxiom> toAdd = new ArrayList<OWLAxiom>(axioms.size());
+        for (OntologyAxiomPair pair : axioms) {
+            toAdd.add(pair.getAxiom());
+        }
+        ont.getOWLOntologyManager().addAxiomsInBulk(ont, toAdd);
         ManchesterOWLSyntaxOntologyFormat format = new ManchesterOWLSyntaxOntologyFormat();
         format.copyPrefixesFrom(pm);
         return format;
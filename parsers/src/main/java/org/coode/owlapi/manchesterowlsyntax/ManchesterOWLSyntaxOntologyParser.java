@@ -44,6 +44,8 @@ import java.io.InputStreamReader;
 
 import org.semanticweb.owlapi.expression.ParserException;
 import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.DocumentSniffingUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParserException;
 import org.semanticweb.owlapi.model.OWLDataFactory;
@@ -57,7 +59,8 @@ import org.semanticweb.owlapi.model.UnloadableImportException;
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics
  *         Group, Date: 13-Aug-2007
  */
-public class ManchesterOWLSyntaxOntologyParser extends AbstractOWLParser {
+public class ManchesterOWLSyntaxOntologyParser extends AbstractOWLParser implements
+        OWLDocumentFormatSniffer {
 
     private static final String COMMENT_START_CHAR = "#";
     private static final String DEFAULT_FILE_ENCODING = "UTF-8";
@@ -152,4 +155,16 @@ public class ManchesterOWLSyntaxOntologyParser extends AbstractOWLParser {
         return line.indexOf(ManchesterOWLSyntax.PREFIX.toString()) != -1
                 || line.indexOf(ManchesterOWLSyntax.ONTOLOGY.toString()) != -1;
     }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        String text = DocumentSniffingUtils.skipWhitespaceAndComments(
+                documentStart, "#");
+        if (DocumentSniffingUtils.startsWithKeyword(text, "Prefix", ':')
+                || DocumentSniffingUtils.startsWithKeyword(text, "Ontology",
+                        ':')) {
+            return new ManchesterOWLSyntaxOntologyFormat();
+        }
+        return null;
+    }
 }
@@ -38,8 +38,10 @@
  */
 package org.coode.owlapi.owlxmlparser;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.semanticweb.owlapi.io.OWLParserException;
-import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
@@ -54,6 +56,9 @@ import org.semanticweb.owlapi.model.UnloadableImportException;
  */
 public class OWLOntologyHandler extends AbstractOWLElementHandler<OWLOntology> {
 
+    /** axioms parsed so far, added to the ontology at the end of the element */
+    private final List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+
     /**
      * @param handler
      *        owlxml handler
@@ -87,8 +92,7 @@ public class OWLOntologyHandler extends AbstractOWLElementHandler<OWLOntology> {
         OWLAxiom axiom = handler.getOWLObject();
         if (!axiom.isAnnotationAxiom()
                 || getConfiguration().isLoadAnnotationAxioms()) {
-            getOWLOntologyManager().applyChange(
-                    new AddAxiom(getOntology(), axiom));
+            axioms.add(axiom);
         }
     }
 
@@ -111,7 +115,10 @@ public class OWLOntologyHandler extends AbstractOWLElementHandler<OWLOntology> {
 
     @Override
     public void endElement() throws OWLParserException,
-            UnloadableImportException {}
+            UnloadableImportException {
+        getOWLOntologyManager().addAxiomsInBulk(getOntology(), axioms);
+        axioms.clear();
+    }
 
     @Override
     public OWLOntology getOWLObject() {
@@ -46,6 +46,8 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.DocumentSniffingUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParserException;
 import org.semanticweb.owlapi.io.OWLParserSAXException;
@@ -63,7 +65,8 @@ import org.xml.sax.SAXException;
  * @author Matthew Horridge, The University Of Manchester, Bio-Health
  *         Informatics Group, Date: 13-Dec-2006
  */
-public class OWLXMLParser extends AbstractOWLParser {
+public class OWLXMLParser extends AbstractOWLParser implements
+        OWLDocumentFormatSniffer {
 
     @Override
     public OWLOntologyFormat parse(OWLOntologyDocumentSource documentSource,
@@ -119,4 +122,15 @@ public class OWLXMLParser extends AbstractOWLParser {
             }
         }
     }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        String root = DocumentSniffingUtils.getXMLRootElement(documentStart);
+        if (root != null
+                && "Ontology".equals(DocumentSniffingUtils.getLocalName(root))
+                && !root.contains("about=")) {
+            return new OWLXMLOntologyFormat();
+        }
+        return null;
+    }
 }
@@ -285,6 +285,10 @@ public class OWLRDFConsumer implements RDFConsumer {
      * memory doing this.
      */
     private Collection<OWLAnnotationAxiom> parsedAnnotationAxioms = new ArrayList<OWLAnnotationAxiom>();
+    /**
+     * The axioms parsed so far, added to the ontology in one batch at the end.
+     */
+    private List<OWLAxiom> axiomsToBeAdded = new ArrayList<OWLAxiom>();
     /** The axioms to be removed. */
     private Collection<OWLAxiom> axiomsToBeRemoved = new ArrayList<OWLAxiom>();
     // //////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -902,6 +906,9 @@ public class OWLRDFConsumer implements RDFConsumer {
         // We cache IRIs of various entities here.
         // We also mop up any triples that weren't parsed and consumed in the
         // imports closure.
+        // Axioms copied from an imported graph must be in the ontology
+        // before its signature is read.
+        addParsedAxioms();
         for (OWLOntology ont : owlOntologyManager.getImportsClosure(ontology)) {
             for (OWLAnnotationProperty prop : ont
                     .getAnnotationPropertiesInSignature()) {
@@ -1075,7 +1082,7 @@ public class OWLRDFConsumer implements RDFConsumer {
                 parsedAnnotationAxioms.add((OWLAnnotationAxiom) axiom);
             }
         } else {
-            owlOntologyManager.addAxiom(ontology, axiom);
+            axiomsToBeAdded.add(axiom);
         }
         lastAddedAxiom = axiom;
     }
@@ -2066,6 +2073,7 @@ public class OWLRDFConsumer implements RDFConsumer {
                         remainingTriples);
                 format.setOntologyLoaderMetaData(metaData);
             }
+            addParsedAxioms();
             // Do we need to change the ontology IRI?
             IRI ontologyIRIToSet = chooseOntologyIRI();
             if (ontologyIRIToSet != null) {
@@ -2085,11 +2093,15 @@ public class OWLRDFConsumer implements RDFConsumer {
         }
     }
 
+    /** Adds the parsed axioms, except the annotation axioms. */
+    private void addParsedAxioms() {
+        owlOntologyManager.addAxiomsInBulk(ontology, axiomsToBeAdded);
+        axiomsToBeAdded.clear();
+    }
+
     /** Adds the annotation axioms. */
     private void addAnnotationAxioms() {
-        for (OWLAxiom axiom : parsedAnnotationAxioms) {
-            owlOntologyManager.addAxiom(ontology, axiom);
-        }
+        owlOntologyManager.addAxiomsInBulk(ontology, parsedAnnotationAxioms);
     }
 
     /** Removes the axioms scheduled for removal. */
@@ -2370,12 +2382,82 @@ public class OWLRDFConsumer implements RDFConsumer {
                 }
             }
         }
+        if (!consumed && configuration.isStreamingTranslation()) {
+            consumed = translateEagerly(subject, predicate, object);
+        }
         if (!consumed) {
             // Not consumed, so add the triple
             addTriple(subject, predicate, object);
         }
     }
 
+    /**
+     * Translates a triple between named nodes whose predicate is known to be
+     * of exactly one property type, without waiting for the end of the
+     * document. Used only for streaming translation.
+     * 
+     * @param subject
+     *        the subject
+     * @param predicate
+     *        the predicate
+     * @param object
+     *        the object
+     * @return true if the triple has been translated
+     * @throws UnloadableImportException
+     *         the unloadable import exception
+     */
+    private boolean translateEagerly(IRI subject, IRI predicate, IRI object)
+            throws UnloadableImportException {
+        if (isAnonymousNode(subject) || isAnonymousNode(object)
+                || !isPropertyTypeKnown(predicate)) {
+            return false;
+        }
+        for (AbstractResourceTripleHandler resTripHandler : resourceTripleHandlers) {
+            if (resTripHandler.canHandle(subject, predicate, object)) {
+                resTripHandler.handleTriple(subject, predicate, object);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Literal version of
+     * {@link #translateEagerly(IRI, IRI, IRI)}.
+     * 
+     * @param subject
+     *        the subject
+     * @param predicate
+     *        the predicate
+     * @param con
+     *        the literal
+     * @return true if the triple has been translated
+     */
+    private boolean translateEagerly(IRI subject, IRI predicate, OWLLiteral con) {
+        if (isAnonymousNode(subject) || !isPropertyTypeKnown(predicate)) {
+            return false;
+        }
+        for (AbstractLiteralTripleHandler handler : literalTripleHandlers) {
+            if (handler.canHandle(subject, predicate, con)) {
+                handler.handleTriple(subject, predicate, con);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param predicate
+     *        the predicate
+     * @return true if the predicate is not reserved vocabulary and it has
+     *         been declared as exactly one type of property so far
+     */
+    private boolean isPropertyTypeKnown(IRI predicate) {
+        return isGeneralPredicate(predicate)
+                && (isObjectPropertyOnly(predicate)
+                        || isDataPropertyOnly(predicate) || isAnnotationPropertyOnly(predicate));
+    }
+
     /**
      * Handle streaming.
      * 
@@ -2414,6 +2496,10 @@ public class OWLRDFConsumer implements RDFConsumer {
                 return;
             }
         }
+        if (configuration.isStreamingTranslation()
+                && translateEagerly(subject, predicate, con)) {
+            return;
+        }
         addTriple(subject, predicate, con);
     }
 
@@ -41,6 +41,8 @@ package org.coode.owlapi.rdfxml.parser;
 import java.io.IOException;
 
 import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.DocumentSniffingUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParserException;
 import org.semanticweb.owlapi.io.RDFXMLOntologyFormat;
@@ -60,7 +62,8 @@ import org.xml.sax.SAXException;
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics
  *         Group, Date: 08-Dec-2006
  */
-public class RDFXMLParser extends AbstractOWLParser {
+public class RDFXMLParser extends AbstractOWLParser implements
+        OWLDocumentFormatSniffer {
 
     @Override
     public OWLOntologyFormat parse(OWLOntologyDocumentSource documentSource,
@@ -137,4 +140,19 @@ public class RDFXMLParser extends AbstractOWLParser {
             }
         }
     }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        String root = DocumentSniffingUtils.getXMLRootElement(documentStart);
+        if (root == null) {
+            return null;
+        }
+        // the root is usually rdf:RDF, but can also be a single node element
+        // such as owl:Ontology rdf:about="..."
+        if ("RDF".equals(DocumentSniffingUtils.getLocalName(root))
+                || root.contains("about=")) {
+            return new RDFXMLOntologyFormat();
+        }
+        return null;
+    }
 }
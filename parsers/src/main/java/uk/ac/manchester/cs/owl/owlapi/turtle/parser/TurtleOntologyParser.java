@@ -46,6 +46,8 @@ import java.io.Reader;
 import org.coode.owlapi.rdfxml.parser.AnonymousNodeChecker;
 import org.coode.owlapi.turtle.TurtleOntologyFormat;
 import org.semanticweb.owlapi.io.AbstractOWLParser;
+import org.semanticweb.owlapi.io.DocumentSniffingUtils;
+import org.semanticweb.owlapi.io.OWLDocumentFormatSniffer;
 import org.semanticweb.owlapi.io.OWLOntologyDocumentSource;
 import org.semanticweb.owlapi.io.OWLParserException;
 import org.semanticweb.owlapi.io.OWLParserIOException;
@@ -64,7 +66,8 @@ import org.semanticweb.owlapi.model.UnloadableImportException;
  * @author Matthew Horridge, The University Of Manchester, Bio-Health
  *         Informatics Group, Date: 23-Feb-2008
  */
-public class TurtleOntologyParser extends AbstractOWLParser {
+public class TurtleOntologyParser extends AbstractOWLParser implements
+        OWLDocumentFormatSniffer {
 
     @Override
     public OWLOntologyFormat parse(OWLOntologyDocumentSource documentSource,
@@ -137,4 +140,23 @@ public class TurtleOntologyParser extends AbstractOWLParser {
             }
         }
     }
+
+    @Override
+    public OWLOntologyFormat sniffFormat(String documentStart) {
+        String text = DocumentSniffingUtils.skipWhitespaceAndComments(
+                documentStart, "#");
+        // Turtle directives, or their SPARQL style equivalents
+        if (text.startsWith("@prefix") || text.startsWith("@base")
+                || isSparqlDirective(text, "PREFIX")
+                || isSparqlDirective(text, "BASE")) {
+            return new TurtleOntologyFormat();
+        }
+        return null;
+    }
+
+    private static boolean isSparqlDirective(String text, String directive) {
+        return text.regionMatches(true, 0, directive, 0, directive.length())
+                && text.length() > directive.length()
+                && Character.isWhitespace(text.charAt(directive.length()));
+    }
 }
@@ -38,13 +38,16 @@
  */
 package com.clarkparsia.owlapi.explanation;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -63,14 +66,18 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.RemoveAxiom;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.semanticweb.owlapi.util.OWLAxiomVisitorAdapter;
 
 import com.clarkparsia.owlapi.explanation.util.OntologyUtils;
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
 
 /** A black box explanation. */
 public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
@@ -109,6 +116,27 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
     private boolean performRepeatedFastPruning = false;
     /** The owl ontology manager. */
     private final OWLOntologyManager owlOntologyManager;
+    /** True if the debugging ontology and reasoner are kept between tests. */
+    private boolean incremental = false;
+    /** The axioms currently in the debugging ontology, in incremental mode. */
+    private final Set<OWLAxiom> debuggingOntologyAxioms = new HashSet<OWLAxiom>();
+    /** The buffering reasoner on the debugging ontology, in incremental mode. */
+    private OWLReasoner debuggingReasoner;
+    /** The module the search is restricted to, in incremental mode. */
+    private Set<OWLAxiom> module;
+    /**
+     * The axioms that are in every bottom module, found once and kept up to
+     * date by {@link #globalAxiomsUpdater}.
+     */
+    private Set<OWLAxiom> globalAxioms;
+    /** Keeps the global axioms in line with the imports closure. */
+    private final OWLOntologyChangeListener globalAxiomsUpdater = new OWLOntologyChangeListener() {
+
+        @Override
+        public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+            updateGlobalAxioms(changes);
+        }
+    };
 
     /**
      * Instantiates a new black box explanation.
@@ -137,15 +165,117 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
     /** dispose. */
     public void dispose() {
         reset();
+        disposeDebuggingOntology();
+        clearGlobalAxioms();
         getReasoner().dispose();
     }
 
-    /** Reset. */
-    private void reset() {
+    /**
+     * Sets the incremental mode. In incremental mode, one debugging ontology
+     * and one buffering reasoner are kept for all the satisfiability tests,
+     * and only the axioms added or removed since the previous test are
+     * applied to them, instead of recreating the ontology and the reasoner
+     * for every test. The search for an explanation is also restricted to
+     * the bottom module of the signature of the class, which contains all
+     * its explanations. The reasoner factory must create reasoners that
+     * support {@link OWLReasoner#flush()}. The default is {@code false}.
+     * 
+     * @param incremental
+     *        true if the incremental mode should be used
+     */
+    public void setIncremental(boolean incremental) {
+        if (this.incremental != incremental) {
+            disposeDebuggingOntology();
+            clearGlobalAxioms();
+            this.incremental = incremental;
+        }
+    }
+
+    /**
+     * Checks if is incremental.
+     * 
+     * @return true if the incremental mode is used
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /** Removes the debugging ontology and disposes of its reasoner. */
+    private void disposeDebuggingOntology() {
+        if (debuggingReasoner != null) {
+            debuggingReasoner.dispose();
+            debuggingReasoner = null;
+        }
         if (debuggingOntology != null) {
             owlOntologyManager.removeOntology(debuggingOntology);
             debuggingOntology = null;
         }
+        debuggingOntologyAxioms.clear();
+    }
+
+    /** Forgets the global axioms and stops tracking changes to them. */
+    private void clearGlobalAxioms() {
+        if (globalAxioms != null) {
+            owlOntologyManager.removeOntologyChangeListener(globalAxiomsUpdater);
+            globalAxioms = null;
+        }
+    }
+
+    /**
+     * Updates the global axioms after the imports closure of the ontology has
+     * changed, so that edits made between explanations are taken into account.
+     * 
+     * @param changes
+     *        the changes
+     */
+    private void updateGlobalAxioms(List<? extends OWLOntologyChange> changes) {
+        if (globalAxioms == null) {
+            return;
+        }
+        Set<OWLOntology> importsClosure = getOntology().getImportsClosure();
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                LocalityClass.BOTTOM_BOTTOM);
+        Set<OWLEntity> empty = Collections.emptySet();
+        for (OWLOntologyChange change : changes) {
+            if (!importsClosure.contains(change.getOntology())) {
+                continue;
+            }
+            if (change.isImportChange()) {
+                // the closure itself has changed: find them again when needed
+                clearGlobalAxioms();
+                return;
+            }
+            if (!change.isAxiomChange() || !change.getAxiom().isLogicalAxiom()) {
+                continue;
+            }
+            OWLAxiom ax = change.getAxiom();
+            if (change.isAddAxiom()) {
+                if (!sle.isLocal(ax, empty)) {
+                    globalAxioms.add(ax);
+                }
+            } else if (globalAxioms.contains(ax)
+                    && !containsAxiom(importsClosure, ax)) {
+                globalAxioms.remove(ax);
+            }
+        }
+    }
+
+    private static boolean containsAxiom(Set<OWLOntology> ontologies,
+            OWLAxiom ax) {
+        for (OWLOntology ont : ontologies) {
+            if (ont.containsAxiom(ax)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Reset. */
+    private void reset() {
+        if (!incremental) {
+            disposeDebuggingOntology();
+        }
+        module = null;
         debuggingAxioms.clear();
         objectsExpandedWithDefiningAxioms.clear();
         objectsExpandedWithReferencingAxioms.clear();
@@ -168,6 +298,9 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
                 }
             }
             reset();
+            if (incremental) {
+                module = extractModule(unsatClass.getSignature());
+            }
             expandUntilUnsatisfiable(unsatClass);
             pruneUntilMinimal(unsatClass);
             removeDeclarations();
@@ -282,6 +415,7 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
             }
         }
         expansionAxioms.removeAll(debuggingAxioms);
+        retainModuleAxioms(expansionAxioms);
         return addMax(expansionAxioms, debuggingAxioms, limit);
     }
 
@@ -303,9 +437,97 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
             expansionAxioms.addAll(ont.getReferencingAxioms(obj));
         }
         expansionAxioms.removeAll(debuggingAxioms);
+        retainModuleAxioms(expansionAxioms);
         return addMax(expansionAxioms, debuggingAxioms, limit);
     }
 
+    /**
+     * Removes the logical axioms outside the module, if there is one, from a
+     * set of expansion axioms.
+     * 
+     * @param expansionAxioms
+     *        the expansion axioms
+     */
+    private void retainModuleAxioms(Set<OWLAxiom> expansionAxioms) {
+        if (module == null) {
+            return;
+        }
+        for (Iterator<OWLAxiom> i = expansionAxioms.iterator(); i.hasNext();) {
+            OWLAxiom ax = i.next();
+            if (ax.isLogicalAxiom() && !module.contains(ax)) {
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * Extracts the logical axioms of the bottom module of a signature from the
+     * imports closure of the ontology. Bottom modules preserve all the
+     * explanations for the unsatisfiability of classes in their signature.
+     * 
+     * @param seed
+     *        the signature
+     * @return the logical axioms of the module
+     */
+    private Set<OWLAxiom> extractModule(Set<OWLEntity> seed) {
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                LocalityClass.BOTTOM_BOTTOM);
+        if (globalAxioms == null) {
+            Set<OWLEntity> empty = Collections.emptySet();
+            globalAxioms = new HashSet<OWLAxiom>();
+            for (OWLOntology ont : getOntology().getImportsClosure()) {
+                for (OWLAxiom ax : ont.getLogicalAxioms()) {
+                    if (!sle.isLocal(ax, empty)) {
+                        globalAxioms.add(ax);
+                    }
+                }
+            }
+            owlOntologyManager.addOntologyChangeListener(globalAxiomsUpdater);
+        }
+        Set<OWLEntity> signature = new HashSet<OWLEntity>();
+        Set<OWLAxiom> moduleAxioms = new HashSet<OWLAxiom>(globalAxioms);
+        Set<OWLAxiom> queued = new HashSet<OWLAxiom>();
+        Queue<OWLAxiom> queue = new ArrayDeque<OWLAxiom>();
+        // the global axioms are non-local for any signature
+        Set<OWLEntity> seedSignature = new HashSet<OWLEntity>(seed);
+        for (OWLAxiom ax : globalAxioms) {
+            seedSignature.addAll(ax.getSignature());
+        }
+        for (OWLEntity entity : seedSignature) {
+            addToModuleSignature(entity, signature, moduleAxioms, queued,
+                    queue);
+        }
+        while (!queue.isEmpty()) {
+            OWLAxiom ax = queue.poll();
+            queued.remove(ax);
+            if (!sle.isLocal(ax, signature)) {
+                moduleAxioms.add(ax);
+                for (OWLEntity entity : ax.getSignature()) {
+                    addToModuleSignature(entity, signature, moduleAxioms,
+                            queued, queue);
+                }
+            }
+        }
+        return moduleAxioms;
+    }
+
+    private void addToModuleSignature(OWLEntity entity,
+            Set<OWLEntity> signature, Set<OWLAxiom> moduleAxioms,
+            Set<OWLAxiom> queued, Queue<OWLAxiom> queue) {
+        if (!signature.add(entity)) {
+            return;
+        }
+        // only the axioms referencing a new entity can become non-local
+        for (OWLOntology ont : getOntology().getImportsClosure()) {
+            for (OWLAxiom ax : ont.getReferencingAxioms(entity)) {
+                if (ax.isLogicalAxiom() && !moduleAxioms.contains(ax)
+                        && queued.add(ax)) {
+                    queue.add(ax);
+                }
+            }
+        }
+    }
+
     /**
      * A utility method. Adds axioms from one set to another set upto a
      * specified limit. Annotation axioms are stripped out
@@ -439,6 +661,9 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
      */
     private boolean isSatisfiable(OWLClassExpression unsatClass)
             throws OWLException {
+        if (incremental) {
+            return isSatisfiableIncrementally(unsatClass);
+        }
         createDebuggingOntology();
         OWLReasoner reasoner = getReasonerFactory().createNonBufferingReasoner(
                 debuggingOntology);
@@ -453,6 +678,53 @@ public class BlackBoxExplanation extends SingleExplanationGeneratorImpl
         return sat;
     }
 
+    /**
+     * Tests the satisfiability of the test class in incremental mode: the
+     * debugging ontology is brought up to date with the debugging axioms, and
+     * the reasoner is flushed.
+     * 
+     * @param unsatClass
+     *        the unsat class
+     * @return true, if is satisfiable
+     * @throws OWLException
+     *         the oWL exception
+     */
+    private boolean isSatisfiableIncrementally(OWLClassExpression unsatClass)
+            throws OWLException {
+        if (debuggingOntology == null) {
+            debuggingOntology = owlOntologyManager.createOntology();
+        }
+        List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>();
+        for (Iterator<OWLAxiom> i = debuggingOntologyAxioms.iterator(); i
+                .hasNext();) {
+            OWLAxiom ax = i.next();
+            if (!debuggingAxioms.contains(ax)) {
+                changes.add(new RemoveAxiom(debuggingOntology, ax));
+                i.remove();
+            }
+        }
+        for (OWLAxiom ax : debuggingAxioms) {
+            if (debuggingOntologyAxioms.add(ax)) {
+                changes.add(new AddAxiom(debuggingOntology, ax));
+            }
+        }
+        if (!changes.isEmpty()) {
+            owlOntologyManager.applyChanges(changes);
+        }
+        if (OntologyUtils.containsUnreferencedEntity(debuggingOntology,
+                unsatClass)) {
+            return true;
+        }
+        if (debuggingReasoner == null) {
+            debuggingReasoner = getReasonerFactory().createReasoner(
+                    debuggingOntology);
+        } else {
+            debuggingReasoner.flush();
+        }
+        satTestCount++;
+        return debuggingReasoner.isSatisfiable(unsatClass);
+    }
+
     /**
      * Creates the debugging ontology.
      * 
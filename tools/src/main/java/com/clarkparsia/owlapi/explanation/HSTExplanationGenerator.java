@@ -46,16 +46,28 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLException;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLOntologyManagerFactory;
 import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
@@ -65,7 +77,14 @@ import com.clarkparsia.owlapi.explanation.util.ExplanationProgressMonitor;
 import com.clarkparsia.owlapi.explanation.util.OntologyUtils;
 import com.clarkparsia.owlapi.explanation.util.SilentExplanationProgressMonitor;
 
-/** HST explanation generator. */
+/**
+ * HST explanation generator. By default the hitting set tree is explored depth
+ * first on the calling thread, removing axioms from the ontology of the single
+ * explanation generator. With more than one thread (see
+ * {@link #setThreads(int, OWLOntologyManagerFactory)}) independent branches are
+ * explored concurrently. The search can be bounded by the number of
+ * explanations and by time (see {@link #setTimeLimit(long)}).
+ */
 public class HSTExplanationGenerator implements MultipleExplanationGenerator {
 
     /** The Constant log. */
@@ -75,6 +94,14 @@ public class HSTExplanationGenerator implements MultipleExplanationGenerator {
     private final TransactionAwareSingleExpGen singleExplanationGenerator;
     /** The progress monitor. */
     private ExplanationProgressMonitor progressMonitor = new SilentExplanationProgressMonitor();
+    /** The number of threads exploring the tree. */
+    private int threads = 1;
+    /** The factory for the managers of the worker ontologies. */
+    private OWLOntologyManagerFactory managerFactory;
+    /** The time limit in milliseconds, 0 if there is none. */
+    private long timeLimit = 0;
+    /** The time the current search must stop at, 0 if there is none. */
+    private long deadline;
 
     /**
      * Instantiates a new hST explanation generator.
@@ -92,6 +119,76 @@ public class HSTExplanationGenerator implements MultipleExplanationGenerator {
         this.progressMonitor = progressMonitor;
     }
 
+    /**
+     * Sets the number of threads exploring the hitting set tree. With more
+     * than one thread, each thread works on its own copy of the imports
+     * closure of the root ontology of the reasoner, held by a manager built
+     * with the given factory, with its own {@link BlackBoxExplanation} and its
+     * own reasoners created by {@link #getReasonerFactory()}; the reasoner
+     * factory must therefore support concurrent use. The justifications found
+     * and the paths closed are shared by all the threads; the ontology of the
+     * single explanation generator is not modified. The copies only live for
+     * the duration of a search, and all justifications are found whatever the
+     * number of threads, although in a different order.
+     * 
+     * @param threads
+     *        the number of threads; 1, the default, explores the tree on the
+     *        calling thread with the single explanation generator
+     * @param factory
+     *        the factory for the managers of the copies; can be null if only
+     *        one thread is used
+     */
+    public void setThreads(int threads, OWLOntologyManagerFactory factory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be positive: " + threads);
+        }
+        if (threads > 1 && factory == null) {
+            throw new IllegalArgumentException(
+                    "A manager factory is needed for more than one thread");
+        }
+        this.threads = threads;
+        managerFactory = factory;
+    }
+
+    /**
+     * Gets the number of threads.
+     * 
+     * @return the number of threads exploring the hitting set tree
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the time limit of a search. When the limit is reached, no new
+     * branch is explored and the justifications found so far are returned.
+     * 
+     * @param timeLimit
+     *        the limit in milliseconds; 0, the default, means no limit
+     */
+    public void setTimeLimit(long timeLimit) {
+        if (timeLimit < 0) {
+            throw new IllegalArgumentException("timeLimit cannot be negative");
+        }
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Gets the time limit.
+     * 
+     * @return the time limit of a search in milliseconds, 0 if there is none
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /** @return true if the search has been cancelled or is out of time */
+    private boolean isStopped() {
+        return progressMonitor.isCancelled() || deadline > 0
+                && System.currentTimeMillis() >= deadline;
+    }
+
     @Override
     public OWLOntologyManager getOntologyManager() {
         return singleExplanationGenerator.getOntologyManager();
@@ -148,6 +245,7 @@ public class HSTExplanationGenerator implements MultipleExplanationGenerator {
                     + (maxExplanations == 0 ? "all" : maxExplanations)
                     + " explanation(s) for: " + unsatClass);
         }
+        deadline = timeLimit == 0 ? 0 : System.currentTimeMillis() + timeLimit;
         try {
             Set<OWLAxiom> firstMups = getExplanation(unsatClass);
             if (firstMups.isEmpty()) {
@@ -156,6 +254,12 @@ public class HSTExplanationGenerator implements MultipleExplanationGenerator {
             Set<Set<OWLAxiom>> allMups = new LinkedHashSet<Set<OWLAxiom>>();
             progressMonitor.foundExplanation(firstMups);
             allMups.add(firstMups);
+            if (threads > 1) {
+                new ParallelSearch(unsatClass, allMups, maxExplanations)
+                        .run(firstMups);
+                progressMonitor.foundAllExplanations();
+                return allMups;
+            }
             Set<Set<OWLAxiom>> satPaths = new HashSet<Set<OWLAxiom>>();
             Set<OWLAxiom> currentPathContents = new HashSet<OWLAxiom>();
             singleExplanationGenerator.beginTransaction();
@@ -270,7 +374,7 @@ public class HSTExplanationGenerator implements MultipleExplanationGenerator {
         if (log.isLoggable(Level.FINE)) {
             log.fine("MUPS " + allMups.size() + ": " + mups);
         }
-        if (progressMonitor.isCancelled()) {
+        if (isStopped()) {
             return;
         }
         // We go through the current mups, axiom by axiom, and extend the tree
@@ -278,7 +382,7 @@ public class HSTExplanationGenerator implements MultipleExplanationGenerator {
         List<OWLAxiom> orderedMups = getOrderedMUPS(new ArrayList<OWLAxiom>(
                 mups), allMups);
         while (!orderedMups.isEmpty()) {
-            if (progressMonitor.isCancelled()) {
+            if (isStopped()) {
                 return;
             }
             OWLAxiom axiom = orderedMups.get(0);
@@ -393,4 +497,273 @@ public class HSTExplanationGenerator implements MultipleExplanationGenerator {
             OntologyUtils.addAxiom(axiom, ontologies, getOntologyManager());
         }
     }
+
+    /**
+     * A concurrent exploration of the hitting set tree. Every node is
+     * identified by its path, the set of axioms removed to reach it, and is
+     * expanded by a task on the executor; a task borrows one of the workers,
+     * brings the ontology copy of the worker to the path of the node, and
+     * returns the paths of the children. Nodes whose path has been reached
+     * before, or includes a path along which the class is satisfiable, are
+     * closed without any reasoning.
+     */
+    private class ParallelSearch {
+
+        private final OWLClassExpression unsatClass;
+        /** The justifications found, in the order they were found. */
+        private final Set<Set<OWLAxiom>> allMups;
+        private final int maxExplanations;
+        /** The paths along which the class is satisfiable. */
+        private final List<Set<OWLAxiom>> satPaths = new ArrayList<Set<OWLAxiom>>();
+        /** The paths of all the nodes reached so far. */
+        private final Set<Set<OWLAxiom>> closedPaths = Collections
+                .newSetFromMap(new ConcurrentHashMap<Set<OWLAxiom>, Boolean>());
+        private final BlockingQueue<Worker> workers = new LinkedBlockingQueue<Worker>();
+        /** True once the search should not explore any other node. */
+        private volatile boolean done = false;
+
+        ParallelSearch(OWLClassExpression unsatClass,
+                Set<Set<OWLAxiom>> allMups, int maxExplanations) {
+            this.unsatClass = unsatClass;
+            this.allMups = allMups;
+            this.maxExplanations = maxExplanations;
+        }
+
+        void run(Set<OWLAxiom> firstMups) {
+            if (allMups.size() == maxExplanations) {
+                return;
+            }
+            // the copies hold declarations for all the entities, so that
+            // removing axioms never makes the class undefined
+            OWLDataFactory df = getOntologyManager().getOWLDataFactory();
+            Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
+            for (OWLOntology ont : getReasoner().getRootOntology()
+                    .getImportsClosure()) {
+                axioms.addAll(ont.getAxioms());
+                for (OWLEntity e : ont.getSignature()) {
+                    if (!e.isBuiltIn()) {
+                        axioms.add(df.getOWLDeclarationAxiom(e));
+                    }
+                }
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                for (int i = 0; i < threads; i++) {
+                    workers.add(new Worker(axioms));
+                }
+                CompletionService<List<Set<OWLAxiom>>> completion = new ExecutorCompletionService<List<Set<OWLAxiom>>>(
+                        executor);
+                int pending = 0;
+                for (Set<OWLAxiom> child : getChildren(
+                        Collections.<OWLAxiom> emptySet(), firstMups)) {
+                    completion.submit(expansion(child));
+                    pending++;
+                }
+                while (pending > 0) {
+                    List<Set<OWLAxiom>> children = completion.take().get();
+                    pending--;
+                    if (!done) {
+                        for (Set<OWLAxiom> child : children) {
+                            completion.submit(expansion(child));
+                            pending++;
+                        }
+                    }
+                }
+            } catch (OWLException e) {
+                throw new OWLRuntimeException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OWLRuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new OWLRuntimeException(e.getCause());
+            } finally {
+                done = true;
+                executor.shutdownNow();
+                try {
+                    // the workers cannot be disposed while tasks use them
+                    executor.awaitTermination(Long.MAX_VALUE,
+                            TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (Worker worker : workers) {
+                    worker.dispose();
+                }
+            }
+        }
+
+        /**
+         * @param path
+         *        the path of a node
+         * @param mups
+         *        the justification of the node
+         * @return the paths of the children of the node, most promising first
+         */
+        private List<Set<OWLAxiom>> getChildren(Set<OWLAxiom> path,
+                Set<OWLAxiom> mups) {
+            List<OWLAxiom> orderedMups;
+            synchronized (allMups) {
+                orderedMups = getOrderedMUPS(new ArrayList<OWLAxiom>(mups),
+                        allMups);
+            }
+            List<Set<OWLAxiom>> children = new ArrayList<Set<OWLAxiom>>(
+                    orderedMups.size());
+            for (OWLAxiom axiom : orderedMups) {
+                Set<OWLAxiom> child = new HashSet<OWLAxiom>(path);
+                child.add(axiom);
+                children.add(child);
+            }
+            return children;
+        }
+
+        private Callable<List<Set<OWLAxiom>>> expansion(
+                final Set<OWLAxiom> path) {
+            return new Callable<List<Set<OWLAxiom>>>() {
+
+                @Override
+                public List<Set<OWLAxiom>> call() throws Exception {
+                    return expand(path);
+                }
+            };
+        }
+
+        /**
+         * Expands a node.
+         * 
+         * @param path
+         *        the path of the node
+         * @return the paths of the children of the node
+         * @throws InterruptedException
+         *         if interrupted while waiting for a worker
+         */
+        List<Set<OWLAxiom>> expand(Set<OWLAxiom> path)
+                throws InterruptedException {
+            List<Set<OWLAxiom>> none = Collections.emptyList();
+            if (done || isStopped()) {
+                done = true;
+                return none;
+            }
+            if (!closedPaths.add(path)) {
+                return none;
+            }
+            synchronized (satPaths) {
+                for (Set<OWLAxiom> satPath : satPaths) {
+                    if (path.containsAll(satPath)) {
+                        if (log.isLoggable(Level.FINE)) {
+                            log.fine("Stop - satisfiable (early termination)");
+                        }
+                        return none;
+                    }
+                }
+            }
+            Set<OWLAxiom> newMUPS = null;
+            synchronized (allMups) {
+                for (Set<OWLAxiom> foundMUPS : allMups) {
+                    if (Collections.disjoint(foundMUPS, path)) {
+                        newMUPS = foundMUPS;
+                        break;
+                    }
+                }
+            }
+            if (newMUPS == null) {
+                Worker worker = workers.take();
+                try {
+                    newMUPS = worker.getExplanation(unsatClass, path);
+                } finally {
+                    workers.add(worker);
+                }
+                if (newMUPS.isEmpty()) {
+                    if (log.isLoggable(Level.FINE)) {
+                        log.fine("Stop - satisfiable");
+                    }
+                    synchronized (satPaths) {
+                        satPaths.add(path);
+                    }
+                    return none;
+                }
+                if (!Collections.disjoint(newMUPS, path)) {
+                    throw new OWLRuntimeException(
+                            "Explanation contains removed axiom: " + path);
+                }
+                synchronized (allMups) {
+                    if (maxExplanations > 0
+                            && allMups.size() >= maxExplanations) {
+                        done = true;
+                        return none;
+                    }
+                    if (allMups.add(newMUPS)) {
+                        if (log.isLoggable(Level.FINE)) {
+                            log.fine("MUPS " + allMups.size() + ": "
+                                    + newMUPS);
+                        }
+                        progressMonitor.foundExplanation(newMUPS);
+                        if (allMups.size() == maxExplanations) {
+                            done = true;
+                        }
+                    }
+                }
+            }
+            return getChildren(path, newMUPS);
+        }
+    }
+
+    /**
+     * The state of one thread of a {@link ParallelSearch}: a copy of the
+     * ontology in a manager of its own, and a single explanation generator
+     * with its own reasoner on the copy.
+     */
+    private class Worker {
+
+        private final OWLOntologyManager manager;
+        private final OWLOntology ontology;
+        private final BlackBoxExplanation explanation;
+        /** The axioms currently removed from the copy. */
+        private final Set<OWLAxiom> removed = new HashSet<OWLAxiom>();
+
+        Worker(Set<OWLAxiom> axioms) throws OWLException {
+            manager = managerFactory.buildOWLOntologyManager(getOntologyManager()
+                    .getOWLDataFactory());
+            ontology = manager.createOntology(axioms);
+            explanation = new BlackBoxExplanation(ontology,
+                    getReasonerFactory(), getReasonerFactory()
+                            .createNonBufferingReasoner(ontology));
+            if (singleExplanationGenerator instanceof BlackBoxExplanation) {
+                explanation
+                        .setIncremental(((BlackBoxExplanation) singleExplanationGenerator)
+                                .isIncremental());
+            }
+            // the tree only asks for explanations of unsatisfiable classes
+            explanation.beginTransaction();
+        }
+
+        /**
+         * @param unsatClass
+         *        the class to explain
+         * @param path
+         *        the axioms to remove
+         * @return an explanation in the ontology without the axioms, or the
+         *         empty set if the class is satisfiable without them
+         */
+        Set<OWLAxiom> getExplanation(OWLClassExpression unsatClass,
+                Set<OWLAxiom> path) {
+            for (Iterator<OWLAxiom> i = removed.iterator(); i.hasNext();) {
+                OWLAxiom axiom = i.next();
+                if (!path.contains(axiom)) {
+                    manager.addAxiom(ontology, axiom);
+                    i.remove();
+                }
+            }
+            for (OWLAxiom axiom : path) {
+                if (removed.add(axiom)) {
+                    manager.removeAxiom(ontology, axiom);
+                }
+            }
+            return explanation.getExplanation(unsatClass);
+        }
+
+        void dispose() {
+            explanation.endTransaction();
+            explanation.dispose();
+        }
+    }
 }
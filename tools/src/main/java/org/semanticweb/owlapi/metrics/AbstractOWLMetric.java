@@ -62,6 +62,8 @@ public abstract class AbstractOWLMetric<M> implements OWLMetric<M>,
     private boolean dirty;
     private boolean importsClosureUsed;
     private M value;
+    /** the counter of the incremental metric manager measuring this metric */
+    MetricCounter<M> counter;
 
     /**
      * @param owlOntologyManager
@@ -82,12 +84,33 @@ public abstract class AbstractOWLMetric<M> implements OWLMetric<M>,
     public void setOntology(OWLOntology ontology) {
         this.ontology = ontology;
         setDirty(true);
+        if (counter != null) {
+            counter.stale = true;
+        }
     }
 
     protected abstract M recomputeMetric();
 
+    /**
+     * Creates a counter computing this metric in the traversal of an
+     * incremental {@link OWLMetricManager} and keeping it up to date from the
+     * axiom changes.
+     * 
+     * @return the counter, or null if this metric can only be computed with
+     *         {@link #recomputeMetric()}
+     */
+    MetricCounter<M> createCounter() {
+        return null;
+    }
+
     @Override
     public M getValue() {
+        if (counter != null) {
+            if (counter.stale) {
+                counter.recompute();
+            }
+            return counter.getValue();
+        }
         if (dirty) {
             value = recomputeMetric();
         }
@@ -134,7 +157,9 @@ public abstract class AbstractOWLMetric<M> implements OWLMetric<M>,
     @Override
     public void setImportsClosureUsed(boolean b) {
         importsClosureUsed = b;
-        if (ontology != null) {
+        if (counter != null) {
+            counter.stale = true;
+        } else if (ontology != null) {
             recomputeMetric();
         }
     }
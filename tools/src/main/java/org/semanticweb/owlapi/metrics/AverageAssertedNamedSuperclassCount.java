@@ -108,4 +108,31 @@ public class AverageAssertedNamedSuperclassCount extends DoubleValuedMetric {
 
     @Override
     protected void disposeMetric() {}
+
+    @Override
+    MetricCounter<Double> createCounter() {
+        return new ClassCounter<Double>(this) {
+
+            @Override
+            int getValue(OWLClass cls) {
+                OWLOntology ont = getFirstOntology(cls);
+                if (ont == null) {
+                    return 0;
+                }
+                int count = 0;
+                for (OWLClassExpression desc : cls.getSuperClasses(ont)) {
+                    if (!desc.isAnonymous()) {
+                        count++;
+                    }
+                }
+                // a class without named superclasses counts as one
+                return Math.max(count, 1);
+            }
+
+            @Override
+            Double getValue() {
+                return (double) getTotal() / getClassCount();
+            }
+        };
+    }
 }
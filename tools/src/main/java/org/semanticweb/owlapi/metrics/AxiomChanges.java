@@ -0,0 +1,153 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+
+/**
+ * The axiom changes of a change list, with the state of the ontologies before
+ * the changes. Only the changes actually applied are broadcast, so the first
+ * change of an axiom in an ontology tells whether the ontology contained the
+ * axiom before: a removal means it did, an addition that it did not.
+ */
+final class AxiomChanges {
+
+    /** for each changed axiom, whether each ontology changed contained it */
+    private final Map<OWLAxiom, Map<OWLOntology, Boolean>> containedBefore = new LinkedHashMap<OWLAxiom, Map<OWLOntology, Boolean>>();
+
+    /**
+     * @param changes
+     *        the changes
+     * @param ontologies
+     *        the ontologies whose changes are kept
+     */
+    AxiomChanges(List<? extends OWLOntologyChange> changes,
+            Set<OWLOntology> ontologies) {
+        for (OWLOntologyChange change : changes) {
+            if (change.isAxiomChange()
+                    && ontologies.contains(change.getOntology())) {
+                Map<OWLOntology, Boolean> states = containedBefore.get(change
+                        .getAxiom());
+                if (states == null) {
+                    states = new HashMap<OWLOntology, Boolean>(2);
+                    containedBefore.put(change.getAxiom(), states);
+                }
+                if (!states.containsKey(change.getOntology())) {
+                    states.put(change.getOntology(),
+                            change instanceof RemoveAxiom);
+                }
+            }
+        }
+    }
+
+    /** @return true if no axiom changed */
+    boolean isEmpty() {
+        return containedBefore.isEmpty();
+    }
+
+    /** @return the axioms added or removed */
+    Set<OWLAxiom> getAxioms() {
+        return containedBefore.keySet();
+    }
+
+    /**
+     * @param axiom
+     *        a changed axiom
+     * @return the ontologies the axiom was added to or removed from
+     */
+    Set<OWLOntology> getOntologies(OWLAxiom axiom) {
+        return containedBefore.get(axiom).keySet();
+    }
+
+    /**
+     * @param axiom
+     *        an axiom
+     * @param ont
+     *        an ontology
+     * @return true if the ontology contained the axiom before the changes
+     */
+    boolean wasContained(OWLAxiom axiom, OWLOntology ont) {
+        Map<OWLOntology, Boolean> states = containedBefore.get(axiom);
+        Boolean before = states == null ? null : states.get(ont);
+        return before == null ? ont.containsAxiom(axiom) : before
+                .booleanValue();
+    }
+
+    /**
+     * @param axiom
+     *        an axiom
+     * @param ontologies
+     *        some ontologies
+     * @return true if one of the ontologies contained the axiom before the
+     *         changes
+     */
+    boolean wasContained(OWLAxiom axiom, List<OWLOntology> ontologies) {
+        for (OWLOntology ont : ontologies) {
+            if (wasContained(axiom, ont)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param axiom
+     *        an axiom
+     * @param ontologies
+     *        some ontologies
+     * @return true if one of the ontologies contains the axiom
+     */
+    static boolean isContained(OWLAxiom axiom, List<OWLOntology> ontologies) {
+        for (OWLOntology ont : ontologies) {
+            if (ont.containsAxiom(axiom)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
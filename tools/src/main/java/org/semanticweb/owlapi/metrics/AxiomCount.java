@@ -60,6 +60,9 @@ public class AxiomCount extends IntegerValuedMetric {
 
     @Override
     protected Integer recomputeMetric() {
+        // no counter is needed: each ontology already keeps its axiom count,
+        // and an axiom is counted once for each ontology that contains it,
+        // whereas the counters count distinct axioms
         int count = 0;
         for (OWLOntology ontology : getOntologies()) {
             count += ontology.getAxiomCount();
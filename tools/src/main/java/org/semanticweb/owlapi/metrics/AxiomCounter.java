@@ -0,0 +1,109 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.metrics;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Counts the distinct axioms of some kind in the ontologies measured; an axiom
+ * in several ontologies is counted once.
+ */
+abstract class AxiomCounter extends MetricCounter<Integer> {
+
+    private int count;
+
+    AxiomCounter(AbstractOWLMetric<Integer> metric) {
+        super(metric);
+    }
+
+    /**
+     * @param axiom
+     *        an axiom
+     * @return true if the axiom is of the kind counted
+     */
+    abstract boolean isCounted(OWLAxiom axiom);
+
+    @Override
+    void clear() {
+        count = 0;
+    }
+
+    @Override
+    boolean countsAxioms() {
+        return true;
+    }
+
+    @Override
+    void countAxiom(OWLOntology ont, OWLAxiom axiom) {
+        if (isCounted(axiom) && isFirstOntology(ont, axiom)) {
+            count++;
+        }
+    }
+
+    /** @return true if no ontology before this one contains the axiom */
+    private boolean isFirstOntology(OWLOntology ont, OWLAxiom axiom) {
+        for (OWLOntology o : ontologies) {
+            if (o == ont) {
+                return true;
+            }
+            if (o.containsAxiom(axiom)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    void update(AxiomChanges changes) {
+        for (OWLAxiom axiom : changes.getAxioms()) {
+            if (isCounted(axiom)) {
+                boolean before = changes.wasContained(axiom, ontologies);
+                if (before != AxiomChanges.isContained(axiom, ontologies)) {
+                    count += before ? -1 : 1;
+                }
+            }
+        }
+    }
+
+    @Override
+    Integer getValue() {
+        return count;
+    }
+}
@@ -79,4 +79,15 @@ public class AxiomTypeMetric extends AxiomCountMetric {
     public AxiomType<?> getAxiomType() {
         return axiomType;
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new AxiomCounter(this) {
+
+            @Override
+            boolean isCounted(OWLAxiom axiom) {
+                return axiom.getAxiomType() == axiomType;
+            }
+        };
+    }
 }
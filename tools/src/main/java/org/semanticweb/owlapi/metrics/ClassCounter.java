@@ -0,0 +1,168 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.metrics;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Computes a metric from a value for each class referenced by the ontologies
+ * measured. Only the classes in the signature of the changed axioms get their
+ * values computed again.
+ *
+ * @param <M>
+ *        the metric type
+ */
+abstract class ClassCounter<M> extends MetricCounter<M> {
+
+    /** A processor that stops at the first axiom. */
+    static final OWLAxiomProcessor<OWLAxiom> STOP = new OWLAxiomProcessor<OWLAxiom>() {
+
+        @Override
+        public boolean process(OWLAxiom axiom) {
+            return false;
+        }
+    };
+    /** the values other than 0 */
+    private final Map<OWLClass, Integer> values = new HashMap<OWLClass, Integer>();
+    /** the number of classes with each value other than 0 */
+    private final TreeMap<Integer, Integer> valueCounts = new TreeMap<Integer, Integer>();
+    private long total;
+    /** the classes already counted in a traversal */
+    private Set<OWLClass> counted;
+
+    ClassCounter(AbstractOWLMetric<M> metric) {
+        super(metric);
+    }
+
+    /**
+     * @param cls
+     *        a class
+     * @return the value of the class in the current state of the ontologies
+     */
+    abstract int getValue(OWLClass cls);
+
+    @Override
+    void clear() {
+        values.clear();
+        valueCounts.clear();
+        total = 0;
+        counted = new HashSet<OWLClass>();
+    }
+
+    @Override
+    void countOntology(OWLOntology ont) {
+        for (OWLClass cls : ont.getClassesInSignature()) {
+            if (counted.add(cls)) {
+                setValue(cls, getValue(cls));
+            }
+        }
+    }
+
+    @Override
+    void finish() {
+        counted = null;
+    }
+
+    @Override
+    void update(AxiomChanges changes) {
+        Set<OWLClass> touched = new HashSet<OWLClass>();
+        for (OWLAxiom axiom : changes.getAxioms()) {
+            touched.addAll(axiom.getClassesInSignature());
+        }
+        for (OWLClass cls : touched) {
+            setValue(cls, getValue(cls));
+        }
+    }
+
+    private void setValue(OWLClass cls, int value) {
+        Integer old = value == 0 ? values.remove(cls) : values.put(cls, value);
+        if (old != null) {
+            total -= old;
+            int count = valueCounts.get(old);
+            if (count == 1) {
+                valueCounts.remove(old);
+            } else {
+                valueCounts.put(old, count - 1);
+            }
+        }
+        if (value != 0) {
+            total += value;
+            Integer count = valueCounts.get(value);
+            valueCounts.put(value, count == null ? 1 : count + 1);
+        }
+    }
+
+    /** @return the number of classes with a value other than 0 */
+    int getClassCount() {
+        return values.size();
+    }
+
+    /** @return the sum of the values */
+    long getTotal() {
+        return total;
+    }
+
+    /** @return the largest value, or 0 */
+    int getMaximum() {
+        return valueCounts.isEmpty() ? 0 : valueCounts.lastKey();
+    }
+
+    /**
+     * @param cls
+     *        a class
+     * @return the first ontology measured that references the class, or null
+     */
+    OWLOntology getFirstOntology(OWLClass cls) {
+        for (OWLOntology ont : ontologies) {
+            if (ont.containsClassInSignature(cls.getIRI())) {
+                return ont;
+            }
+        }
+        return null;
+    }
+}
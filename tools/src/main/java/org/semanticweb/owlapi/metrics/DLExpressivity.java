@@ -38,11 +38,17 @@
  */
 package org.semanticweb.owlapi.metrics;
 
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.util.DLExpressivityChecker;
+import org.semanticweb.owlapi.util.DLExpressivityChecker.Construct;
 
 /**
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics
@@ -83,4 +89,77 @@ public class DLExpressivity extends AbstractOWLMetric<String> {
         }
         return false;
     }
+
+    @Override
+    MetricCounter<String> createCounter() {
+        return new ConstructCounter(this);
+    }
+
+    /**
+     * Counts the uses of each construct by the logical axioms of the
+     * ontologies; the constructs used by an axiom do not depend on the other
+     * axioms.
+     */
+    private static class ConstructCounter extends MetricCounter<String> {
+
+        private final DLExpressivityChecker checker = new DLExpressivityChecker(
+                Collections.<OWLOntology> emptySet());
+        private final Map<Construct, Integer> counts = new EnumMap<Construct, Integer>(
+                Construct.class);
+
+        ConstructCounter(DLExpressivity metric) {
+            super(metric);
+        }
+
+        @Override
+        void clear() {
+            counts.clear();
+        }
+
+        @Override
+        boolean countsAxioms() {
+            return true;
+        }
+
+        @Override
+        void countAxiom(OWLOntology ont, OWLAxiom axiom) {
+            if (axiom.isLogicalAxiom()) {
+                count(axiom, 1);
+            }
+        }
+
+        @Override
+        void update(AxiomChanges changes) {
+            for (OWLAxiom axiom : changes.getAxioms()) {
+                if (!axiom.isLogicalAxiom()) {
+                    continue;
+                }
+                for (OWLOntology ont : changes.getOntologies(axiom)) {
+                    if (ontologies.contains(ont)) {
+                        boolean before = changes.wasContained(axiom, ont);
+                        if (before != ont.containsAxiom(axiom)) {
+                            count(axiom, before ? -1 : 1);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void count(OWLAxiom axiom, int delta) {
+            for (Construct construct : checker.getConstructs(axiom)) {
+                Integer count = counts.get(construct);
+                int newCount = (count == null ? 0 : count) + delta;
+                if (newCount == 0) {
+                    counts.remove(construct);
+                } else {
+                    counts.put(construct, newCount);
+                }
+            }
+        }
+
+        @Override
+        String getValue() {
+            return checker.getDescriptionLogicName(counts.keySet());
+        }
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.metrics;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Counts the entities of one type referenced by the ontologies measured. Only
+ * the entities in the signature of the changed axioms are checked again.
+ */
+final class EntityCounter extends MetricCounter<Integer> {
+
+    private final ObjectCountMetric<? extends OWLEntity> metric;
+    private final EntityType<?> type;
+    private final Set<OWLEntity> referenced = new HashSet<OWLEntity>();
+
+    /**
+     * @param metric
+     *        the metric, whose objects are the entities of the type in the
+     *        signature of an ontology
+     * @param type
+     *        the type of the entities
+     */
+    EntityCounter(ObjectCountMetric<? extends OWLEntity> metric,
+            EntityType<?> type) {
+        super(metric);
+        this.metric = metric;
+        this.type = type;
+    }
+
+    @Override
+    void clear() {
+        referenced.clear();
+    }
+
+    @Override
+    void countOntology(OWLOntology ont) {
+        referenced.addAll(metric.getObjects(ont));
+    }
+
+    @Override
+    void update(AxiomChanges changes) {
+        Set<OWLEntity> touched = new HashSet<OWLEntity>();
+        for (OWLAxiom axiom : changes.getAxioms()) {
+            for (OWLEntity entity : axiom.getSignature()) {
+                if (entity.getEntityType() == type) {
+                    touched.add(entity);
+                }
+            }
+        }
+        for (OWLEntity entity : touched) {
+            if (isReferenced(entity)) {
+                referenced.add(entity);
+            } else {
+                referenced.remove(entity);
+            }
+        }
+    }
+
+    private boolean isReferenced(OWLEntity entity) {
+        for (OWLOntology ont : ontologies) {
+            if (ont.containsEntityInSignature(entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    Integer getValue() {
+        return referenced.size();
+    }
+}
@@ -41,8 +41,11 @@ package org.semanticweb.owlapi.metrics;
 import java.util.Set;
 
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLNaryClassAxiom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
 /**
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics
@@ -67,4 +70,38 @@ public class GCICount extends AxiomCountMetric {
     protected Set<? extends OWLAxiom> getObjects(OWLOntology ont) {
         return ont.getGeneralClassAxioms();
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new AxiomCounter(this) {
+
+            @Override
+            boolean isCounted(OWLAxiom axiom) {
+                return isGeneralClassAxiom(axiom);
+            }
+        };
+    }
+
+    /**
+     * @param axiom
+     *        an axiom
+     * @return true for the subclass axioms with an anonymous subclass, and the
+     *         equivalent and disjoint classes axioms without named classes,
+     *         which are the general class axioms of an ontology
+     */
+    private static boolean isGeneralClassAxiom(OWLAxiom axiom) {
+        if (axiom instanceof OWLSubClassOfAxiom) {
+            return ((OWLSubClassOfAxiom) axiom).getSubClass().isAnonymous();
+        }
+        if (axiom instanceof OWLNaryClassAxiom) {
+            for (OWLClassExpression ce : ((OWLNaryClassAxiom) axiom)
+                    .getClassExpressions()) {
+                if (!ce.isAnonymous()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
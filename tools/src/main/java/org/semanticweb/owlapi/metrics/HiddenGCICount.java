@@ -122,4 +122,35 @@ public class HiddenGCICount extends IntegerValuedMetric {
     public String getName() {
         return "Hidden GCI Count";
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new ClassCounter<Integer>(this) {
+
+            @Override
+            int getValue(OWLClass cls) {
+                boolean foundEquivalentClassesAxiom = false;
+                boolean foundSubClassAxiom = false;
+                for (OWLOntology o : ontologies) {
+                    if (!foundEquivalentClassesAxiom) {
+                        foundEquivalentClassesAxiom = !o
+                                .processEquivalentClassesAxioms(cls, STOP);
+                    }
+                    if (!foundSubClassAxiom) {
+                        foundSubClassAxiom = !o
+                                .processSubClassAxiomsForSubClass(cls, STOP);
+                    }
+                    if (foundSubClassAxiom && foundEquivalentClassesAxiom) {
+                        return 1;
+                    }
+                }
+                return 0;
+            }
+
+            @Override
+            Integer getValue() {
+                return getClassCount();
+            }
+        };
+    }
 }
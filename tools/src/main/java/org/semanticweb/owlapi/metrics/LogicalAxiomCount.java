@@ -67,4 +67,15 @@ public class LogicalAxiomCount extends AxiomCountMetric {
     protected Set<? extends OWLAxiom> getObjects(OWLOntology ont) {
         return ont.getLogicalAxioms();
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new AxiomCounter(this) {
+
+            @Override
+            boolean isCounted(OWLAxiom axiom) {
+                return axiom.isLogicalAxiom();
+            }
+        };
+    }
 }
@@ -106,4 +106,30 @@ public class MaximumNumberOfNamedSuperclasses extends IntegerValuedMetric {
 
     @Override
     protected void disposeMetric() {}
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new ClassCounter<Integer>(this) {
+
+            @Override
+            int getValue(OWLClass cls) {
+                OWLOntology ont = getFirstOntology(cls);
+                if (ont == null) {
+                    return 0;
+                }
+                int count = 0;
+                for (OWLClassExpression desc : cls.getSuperClasses(ont)) {
+                    if (!desc.isAnonymous()) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            Integer getValue() {
+                return getMaximum();
+            }
+        };
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.semanticweb.owlapi.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Computes the value of a metric for an incremental {@link OWLMetricManager},
+ * which measures all its metrics in one traversal of the ontologies and then
+ * keeps them up to date from the axiom changes. The manager passes each
+ * ontology measured, and its axioms if the counter needs them, to the counters
+ * of all the metrics measuring it.
+ *
+ * @param <M>
+ *        the metric type
+ */
+abstract class MetricCounter<M> {
+
+    private final AbstractOWLMetric<M> metric;
+    /** the ontologies measured, in the order the metric walks them */
+    List<OWLOntology> ontologies = Collections.emptyList();
+    /** true if the value must be computed again from scratch */
+    boolean stale = true;
+
+    MetricCounter(AbstractOWLMetric<M> metric) {
+        this.metric = metric;
+    }
+
+    /** Starts a new computation over the current ontologies of the metric. */
+    void reset() {
+        ontologies = new ArrayList<OWLOntology>(metric.getOntologies());
+        stale = false;
+        clear();
+    }
+
+    /** Computes the value again with a traversal of its own. */
+    void recompute() {
+        reset();
+        for (final OWLOntology ont : ontologies) {
+            countOntology(ont);
+            if (countsAxioms()) {
+                processAxioms(ont, new OWLAxiomProcessor<OWLAxiom>() {
+
+                    @Override
+                    public boolean process(OWLAxiom axiom) {
+                        countAxiom(ont, axiom);
+                        return true;
+                    }
+                });
+            }
+        }
+        finish();
+    }
+
+    /**
+     * Passes all the axioms of an ontology to a processor, type by type.
+     *
+     * @param ont
+     *        the ontology
+     * @param processor
+     *        the processor
+     */
+    static void processAxioms(OWLOntology ont,
+            OWLAxiomProcessor<OWLAxiom> processor) {
+        for (AxiomType<?> type : AxiomType.AXIOM_TYPES) {
+            ont.processAxioms(type, processor);
+        }
+    }
+
+    /** Clears the state before a traversal. */
+    abstract void clear();
+
+    /** @return true if the axioms of the ontologies should be counted */
+    boolean countsAxioms() {
+        return false;
+    }
+
+    /**
+     * Counts an ontology in a traversal; called before its axioms are.
+     *
+     * @param ont
+     *        an ontology measured
+     */
+    void countOntology(OWLOntology ont) {}
+
+    /**
+     * Counts an axiom in a traversal.
+     *
+     * @param ont
+     *        the ontology
+     * @param axiom
+     *        an axiom of the ontology
+     */
+    void countAxiom(OWLOntology ont, OWLAxiom axiom) {}
+
+    /** Ends a traversal. */
+    void finish() {}
+
+    /**
+     * Updates the value after some axioms were added or removed.
+     *
+     * @param changes
+     *        the axiom changes of the ontologies measured
+     */
+    abstract void update(AxiomChanges changes);
+
+    /** @return the current value */
+    abstract M getValue();
+}
@@ -42,6 +42,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -112,4 +113,43 @@ public class NumberOfClassesWithMultipleInheritance extends IntegerValuedMetric
 
     @Override
     protected void disposeMetric() {}
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new ClassCounter<Integer>(this) {
+
+            private final NamedConjunctChecker checker = new NamedConjunctChecker();
+
+            @Override
+            int getValue(OWLClass cls) {
+                final Set<OWLClassExpression> subs = new HashSet<OWLClassExpression>();
+                for (OWLOntology o : ontologies) {
+                    o.processSubClassAxiomsForSuperClass(cls,
+                            new OWLAxiomProcessor<OWLSubClassOfAxiom>() {
+
+                                @Override
+                                public boolean process(OWLSubClassOfAxiom axiom) {
+                                    subs.add(axiom.getSubClass());
+                                    return true;
+                                }
+                            });
+                }
+                int count = 0;
+                for (OWLClassExpression sub : subs) {
+                    if (checker.hasNamedConjunct(sub)) {
+                        count++;
+                    }
+                    if (count > 1) {
+                        return 1;
+                    }
+                }
+                return 0;
+            }
+
+            @Override
+            Integer getValue() {
+                return getClassCount();
+            }
+        };
+    }
 }
@@ -39,24 +39,70 @@
 package org.semanticweb.owlapi.metrics;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLAxiomProcessor;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
 
 /**
+ * Manages a list of metrics. An incremental manager computes the metrics
+ * together in one traversal of the ontologies when the ontology is set, and
+ * then keeps their values up to date from the axiom changes, without scanning
+ * the ontologies again; import changes cause a new traversal. Metrics that do
+ * not support this are computed on their own, as with a manager that is not
+ * incremental. Call {@link #dispose()} to stop an incremental manager from
+ * listening to the changes.
+ * 
  * @author Matthew Horridge, The University Of Manchester, Bio-Health Informatics
  *         Group, Date: 27-Jul-2007
  */
-public class OWLMetricManager {
+public class OWLMetricManager implements OWLOntologyChangeListener {
 
     private final List<OWLMetric<?>> metrics;
+    private final boolean incremental;
+    /** the counters of the metrics computed incrementally */
+    private final List<MetricCounter<?>> counters = new ArrayList<MetricCounter<?>>();
+    private OWLOntology ontology;
 
     /**
      * @param metrics
      *        the metrics to use
      */
     public OWLMetricManager(List<OWLMetric<?>> metrics) {
+        this(metrics, false);
+    }
+
+    /**
+     * @param metrics
+     *        the metrics to use
+     * @param incremental
+     *        true if the metrics should be computed together and kept up to
+     *        date from the ontology changes
+     */
+    public OWLMetricManager(List<OWLMetric<?>> metrics, boolean incremental) {
         this.metrics = new ArrayList<OWLMetric<?>>(metrics);
+        this.incremental = incremental;
+        if (incremental) {
+            for (OWLMetric<?> metric : metrics) {
+                if (metric instanceof AbstractOWLMetric) {
+                    attach((AbstractOWLMetric<?>) metric);
+                }
+            }
+        }
+    }
+
+    private <M> void attach(AbstractOWLMetric<M> metric) {
+        MetricCounter<M> counter = metric.createCounter();
+        if (counter != null) {
+            metric.counter = counter;
+            counters.add(counter);
+        }
     }
 
     /**
@@ -67,6 +113,96 @@ public class OWLMetricManager {
         for (OWLMetric<?> metric : metrics) {
             metric.setOntology(ontology);
         }
+        if (incremental) {
+            if (this.ontology != null) {
+                this.ontology.getOWLOntologyManager()
+                        .removeOntologyChangeListener(this);
+            }
+            this.ontology = ontology;
+            ontology.getOWLOntologyManager().addOntologyChangeListener(this);
+            computeAll();
+        }
+    }
+
+    /** Computes all the incremental metrics in one traversal. */
+    private void computeAll() {
+        Map<OWLOntology, List<MetricCounter<?>>> byOntology = new LinkedHashMap<OWLOntology, List<MetricCounter<?>>>();
+        for (MetricCounter<?> counter : counters) {
+            counter.reset();
+            for (OWLOntology ont : counter.ontologies) {
+                List<MetricCounter<?>> list = byOntology.get(ont);
+                if (list == null) {
+                    list = new ArrayList<MetricCounter<?>>();
+                    byOntology.put(ont, list);
+                }
+                list.add(counter);
+            }
+        }
+        for (Map.Entry<OWLOntology, List<MetricCounter<?>>> e : byOntology
+                .entrySet()) {
+            final OWLOntology ont = e.getKey();
+            final List<MetricCounter<?>> axiomCounters = new ArrayList<MetricCounter<?>>();
+            for (MetricCounter<?> counter : e.getValue()) {
+                counter.countOntology(ont);
+                if (counter.countsAxioms()) {
+                    axiomCounters.add(counter);
+                }
+            }
+            if (!axiomCounters.isEmpty()) {
+                MetricCounter.processAxioms(ont,
+                        new OWLAxiomProcessor<OWLAxiom>() {
+
+                            @Override
+                            public boolean process(OWLAxiom axiom) {
+                                for (MetricCounter<?> counter : axiomCounters) {
+                                    counter.countAxiom(ont, axiom);
+                                }
+                                return true;
+                            }
+                        });
+            }
+        }
+        for (MetricCounter<?> counter : counters) {
+            counter.finish();
+        }
+    }
+
+    @Override
+    public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+        Set<OWLOntology> closure = ontology.getImportsClosure();
+        for (OWLOntologyChange change : changes) {
+            if (change.isImportChange()
+                    && closure.contains(change.getOntology())) {
+                computeAll();
+                return;
+            }
+        }
+        AxiomChanges axiomChanges = new AxiomChanges(changes, closure);
+        if (axiomChanges.isEmpty()) {
+            return;
+        }
+        for (MetricCounter<?> counter : counters) {
+            // stale counters compute their values again when asked
+            if (!counter.stale) {
+                counter.update(axiomChanges);
+            }
+        }
+    }
+
+    /**
+     * Stops keeping the metrics up to date; the metrics compute their values
+     * on their own again.
+     */
+    public void dispose() {
+        if (ontology != null) {
+            ontology.getOWLOntologyManager().removeOntologyChangeListener(this);
+        }
+        for (OWLMetric<?> metric : metrics) {
+            if (metric instanceof AbstractOWLMetric) {
+                ((AbstractOWLMetric<?>) metric).counter = null;
+            }
+        }
+        counters.clear();
     }
 
     /** @return the metrics */
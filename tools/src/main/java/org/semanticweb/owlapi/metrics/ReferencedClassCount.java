@@ -40,6 +40,7 @@ package org.semanticweb.owlapi.metrics;
 
 import java.util.Set;
 
+import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -67,4 +68,9 @@ public class ReferencedClassCount extends ObjectCountMetric<OWLClass> {
     protected Set<OWLClass> getObjects(OWLOntology ont) {
         return ont.getClassesInSignature();
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new EntityCounter(this, EntityType.CLASS);
+    }
 }
@@ -40,6 +40,7 @@ package org.semanticweb.owlapi.metrics;
 
 import java.util.Set;
 
+import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -68,4 +69,9 @@ public class ReferencedDataPropertyCount extends
     protected Set<OWLDataProperty> getObjects(OWLOntology ont) {
         return ont.getDataPropertiesInSignature();
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new EntityCounter(this, EntityType.DATA_PROPERTY);
+    }
 }
@@ -40,6 +40,7 @@ package org.semanticweb.owlapi.metrics;
 
 import java.util.Set;
 
+import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -68,4 +69,9 @@ public class ReferencedIndividualCount extends
     protected Set<OWLNamedIndividual> getObjects(OWLOntology ont) {
         return ont.getIndividualsInSignature();
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new EntityCounter(this, EntityType.NAMED_INDIVIDUAL);
+    }
 }
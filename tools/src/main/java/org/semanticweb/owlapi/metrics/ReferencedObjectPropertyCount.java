@@ -40,6 +40,7 @@ package org.semanticweb.owlapi.metrics;
 
 import java.util.Set;
 
+import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
@@ -68,4 +69,9 @@ public class ReferencedObjectPropertyCount extends
     protected Set<OWLObjectProperty> getObjects(OWLOntology ont) {
         return ont.getObjectPropertiesInSignature();
     }
+
+    @Override
+    MetricCounter<Integer> createCounter() {
+        return new EntityCounter(this, EntityType.OBJECT_PROPERTY);
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owlapi.modularity;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+/**
+ * An atom of an {@link AtomicDecomposition}: a maximal set of axioms that
+ * always appear together in modules. The axioms of an atom share their module,
+ * the module of the signature of any one of them; that module is the union of
+ * the atom and of all the atoms it depends on.
+ */
+public class Atom {
+
+    private final AtomicDecomposition decomposition;
+    private final int index;
+    /** axiom numbers of the module of this atom, sorted */
+    final int[] module;
+    /** axiom numbers of the axioms of this atom */
+    private int[] axioms = new int[1];
+    private int axiomCount;
+    /** all the atoms this atom depends on */
+    final Set<Atom> dependencies = new LinkedHashSet<Atom>();
+    /** all the atoms depending on this atom */
+    final Set<Atom> dependents = new LinkedHashSet<Atom>();
+
+    Atom(AtomicDecomposition decomposition, int index, int[] module) {
+        this.decomposition = decomposition;
+        this.index = index;
+        this.module = module;
+    }
+
+    void addAxiom(int axiom) {
+        if (axiomCount == axioms.length) {
+            int[] larger = new int[axioms.length * 2];
+            System.arraycopy(axioms, 0, larger, 0, axiomCount);
+            axioms = larger;
+        }
+        axioms[axiomCount++] = axiom;
+    }
+
+    /** @return the position of this atom in the decomposition */
+    public int getIndex() {
+        return index;
+    }
+
+    /** @return the axioms of this atom */
+    public Set<OWLAxiom> getAxioms() {
+        Set<OWLAxiom> toReturn = new HashSet<OWLAxiom>();
+        for (int i = 0; i < axiomCount; i++) {
+            toReturn.add(decomposition.getAxiom(axioms[i]));
+        }
+        return toReturn;
+    }
+
+    /** @return the entities referenced by the axioms of this atom */
+    public Set<OWLEntity> getSignature() {
+        Set<OWLEntity> toReturn = new HashSet<OWLEntity>();
+        for (int i = 0; i < axiomCount; i++) {
+            Collections.addAll(toReturn,
+                    decomposition.getSignature(axioms[i]));
+        }
+        return toReturn;
+    }
+
+    /**
+     * @return the module of this atom: its axioms and the axioms of all the
+     *         atoms it depends on
+     */
+    public Set<OWLAxiom> getModule() {
+        Set<OWLAxiom> toReturn = new HashSet<OWLAxiom>();
+        for (int i : module) {
+            toReturn.add(decomposition.getAxiom(i));
+        }
+        return toReturn;
+    }
+
+    /**
+     * @param direct
+     *        true if only the atoms this atom depends on directly should be
+     *        returned
+     * @return the atoms this atom depends on
+     */
+    public Set<Atom> getDependencies(boolean direct) {
+        Set<Atom> toReturn = new LinkedHashSet<Atom>(dependencies);
+        if (direct) {
+            for (Atom dependency : dependencies) {
+                toReturn.removeAll(dependency.dependencies);
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * @param direct
+     *        true if only the atoms depending directly on this atom should be
+     *        returned
+     * @return the atoms depending on this atom
+     */
+    public Set<Atom> getDependents(boolean direct) {
+        Set<Atom> toReturn = new LinkedHashSet<Atom>(dependents);
+        if (direct) {
+            for (Atom dependent : dependents) {
+                toReturn.removeAll(dependent.dependents);
+            }
+        }
+        return toReturn;
+    }
+
+    @Override
+    public String toString() {
+        return "Atom " + index + " " + getAxioms();
+    }
+}
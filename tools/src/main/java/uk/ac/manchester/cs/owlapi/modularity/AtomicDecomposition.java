@@ -0,0 +1,505 @@
+/*
+ * This file is part of the OWL API.
+ *
+ * The contents of this file are subject to the LGPL License, Version 3.0.
+ *
+ * Copyright (C) 2011, The University of Manchester
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ *
+ *
+ * Alternatively, the contents of this file may be used under the terms of the Apache License, Version 2.0
+ * in which case, the provisions of the Apache License Version 2.0 are applicable instead of those above.
+ *
+ * Copyright 2011, University of Manchester
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.manchester.cs.owlapi.modularity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor.OntologyAxiomSet;
+
+import com.clarkparsia.owlapi.modularity.locality.LocalityClass;
+import com.clarkparsia.owlapi.modularity.locality.SyntacticLocalityEvaluator;
+
+/**
+ * The atomic decomposition of the logical axioms of an ontology for a type of
+ * syntactic locality module. Axioms that are in exactly the same modules form
+ * an atom; the atoms, and the dependencies between them, are computed once,
+ * when the decomposition is created, and every module is a union of atoms
+ * closed under dependencies. Axioms that are local for their own signature are
+ * in no module, and belong to no atom.
+ * <p>
+ * For bottom and top modules, {@link #getModule(Set)} adds the whole module of
+ * an atom as soon as one of its axioms is found to be non-local, so only the
+ * axioms referencing the seed signature and the entities of the atoms reached
+ * are evaluated. For star modules, which alternate both kinds of locality,
+ * the atoms do not tell which axioms are non-local for a signature, and the
+ * modules are computed from the axiom index shared with the decomposition.
+ * <p>
+ * A decomposition is not changed after it is created, so modules can be
+ * requested by many threads at once.
+ */
+public class AtomicDecomposition {
+
+    private final ModuleType moduleType;
+    private final OntologyAxiomSet axioms;
+    /** for each axiom, its atom, or -1 if the axiom is in no module */
+    private final int[] atomOf;
+    private final List<Atom> atoms = new ArrayList<Atom>();
+    /** the axioms non-local for the empty signature, by locality class */
+    private final Map<LocalityClass, int[]> globalAxioms = new EnumMap<LocalityClass, int[]>(
+            LocalityClass.class);
+
+    /**
+     * Decomposes the logical axioms of an ontology and its imports closure.
+     *
+     * @param ontology
+     *        the ontology
+     * @param moduleType
+     *        the type of module; {@link ModuleType#TOP}, {@link ModuleType#BOT}
+     *        or {@link ModuleType#STAR}
+     */
+    public AtomicDecomposition(OWLOntology ontology, ModuleType moduleType) {
+        this(getLogicalAxioms(ontology), moduleType);
+    }
+
+    /**
+     * Decomposes a set of axioms; the axioms that are not logical are ignored.
+     *
+     * @param axioms
+     *        the axioms
+     * @param moduleType
+     *        the type of module; {@link ModuleType#TOP}, {@link ModuleType#BOT}
+     *        or {@link ModuleType#STAR}
+     */
+    public AtomicDecomposition(Set<OWLAxiom> axioms, ModuleType moduleType) {
+        if (moduleType != ModuleType.TOP && moduleType != ModuleType.BOT
+                && moduleType != ModuleType.STAR) {
+            throw new IllegalArgumentException("Unsupported module type: "
+                    + moduleType);
+        }
+        this.moduleType = moduleType;
+        Set<OWLAxiom> logicalAxioms = new HashSet<OWLAxiom>();
+        for (OWLAxiom ax : axioms) {
+            if (ax.isLogicalAxiom()) {
+                logicalAxioms.add(ax);
+            }
+        }
+        this.axioms = new OntologyAxiomSet(logicalAxioms);
+        for (LocalityClass localityClass : new LocalityClass[] {
+                LocalityClass.BOTTOM_BOTTOM, LocalityClass.TOP_TOP }) {
+            globalAxioms.put(localityClass, findGlobalAxioms(localityClass));
+        }
+        atomOf = new int[this.axioms.size()];
+        Arrays.fill(atomOf, -1);
+        decompose();
+    }
+
+    private static Set<OWLAxiom> getLogicalAxioms(OWLOntology ontology) {
+        Set<OWLAxiom> toReturn = new HashSet<OWLAxiom>();
+        for (OWLOntology o : ontology.getImportsClosure()) {
+            toReturn.addAll(o.getLogicalAxioms());
+        }
+        return toReturn;
+    }
+
+    private int[] findGlobalAxioms(LocalityClass localityClass) {
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                localityClass);
+        Set<OWLEntity> empty = Collections.emptySet();
+        IntList global = new IntList();
+        for (int i = 0; i < axioms.size(); i++) {
+            if (!sle.isLocal(axioms.getAxiom(i), empty)) {
+                global.add(i);
+            }
+        }
+        return global.toArray();
+    }
+
+    /**
+     * Builds the atoms top down: the module of an axiom is computed within the
+     * module of the atom that led to it, the axioms of that module whose own
+     * module is as large belong to the same atom, and the others lead to atoms
+     * this atom depends on. An explicit stack replaces the recursion, since
+     * dependency chains can be very long.
+     */
+    private void decompose() {
+        List<Atom> stack = new ArrayList<Atom>();
+        List<int[]> positions = new ArrayList<int[]>();
+        for (int i = 0; i < axioms.size(); i++) {
+            if (atomOf[i] != -1) {
+                continue;
+            }
+            Set<OWLEntity> signature = new HashSet<OWLEntity>();
+            Collections.addAll(signature, axioms.getSignature(i));
+            int[] module = extract(signature, null);
+            if (Arrays.binarySearch(module, i) < 0) {
+                // local for its own signature, hence for any signature
+                atomOf[i] = -2;
+                continue;
+            }
+            stack.add(newAtom(i, module));
+            positions.add(new int[1]);
+            while (!stack.isEmpty()) {
+                int top = stack.size() - 1;
+                Atom atom = stack.get(top);
+                int[] position = positions.get(top);
+                if (position[0] == atom.module.length) {
+                    stack.remove(top);
+                    positions.remove(top);
+                    continue;
+                }
+                int j = atom.module[position[0]++];
+                if (atomOf[j] >= 0) {
+                    Atom other = atoms.get(atomOf[j]);
+                    if (other != atom) {
+                        addDependency(atom, other);
+                    }
+                    continue;
+                }
+                signature = new HashSet<OWLEntity>();
+                Collections.addAll(signature, axioms.getSignature(j));
+                int[] inner = extract(signature, atom.module);
+                if (inner.length == atom.module.length) {
+                    atomOf[j] = atom.getIndex();
+                    atom.addAxiom(j);
+                } else {
+                    Atom dependency = newAtom(j, inner);
+                    addDependency(atom, dependency);
+                    stack.add(dependency);
+                    positions.add(new int[1]);
+                }
+            }
+        }
+        // tautologies were marked with -2 to skip them
+        for (int i = 0; i < atomOf.length; i++) {
+            if (atomOf[i] < 0) {
+                atomOf[i] = -1;
+            }
+        }
+    }
+
+    private Atom newAtom(int axiom, int[] module) {
+        Atom atom = new Atom(this, atoms.size(), module);
+        atoms.add(atom);
+        atomOf[axiom] = atom.getIndex();
+        atom.addAxiom(axiom);
+        return atom;
+    }
+
+    private static void addDependency(Atom atom, Atom dependency) {
+        if (atom.dependencies.add(dependency)) {
+            dependency.dependents.add(atom);
+        }
+    }
+
+    /**
+     * Computes a module of the current type within a sub-ontology.
+     *
+     * @param signature
+     *        the seed signature; on return, the signature of the module
+     * @param within
+     *        the sorted axiom numbers of the sub-ontology, or null for all the
+     *        axioms
+     * @return the sorted axiom numbers of the module
+     */
+    private int[] extract(Set<OWLEntity> signature, int[] within) {
+        if (moduleType == ModuleType.BOT) {
+            return extract(signature, within, LocalityClass.BOTTOM_BOTTOM);
+        }
+        if (moduleType == ModuleType.TOP) {
+            return extract(signature, within, LocalityClass.TOP_TOP);
+        }
+        // the same alternation as SyntacticLocalityModuleExtractor
+        Set<OWLEntity> seed = new HashSet<OWLEntity>(signature);
+        int[] current = within;
+        LocalityClass localityClass = LocalityClass.BOTTOM_BOTTOM;
+        boolean inFirstStep = true;
+        while (true) {
+            Set<OWLEntity> moduleSignature = new HashSet<OWLEntity>(seed);
+            int[] next = extract(moduleSignature, current, localityClass);
+            int previousSize = current == null ? axioms.size()
+                    : current.length;
+            if (!inFirstStep && next.length == previousSize) {
+                signature.addAll(moduleSignature);
+                return next;
+            }
+            inFirstStep = false;
+            current = next;
+            localityClass = localityClass == LocalityClass.BOTTOM_BOTTOM ? LocalityClass.TOP_TOP
+                    : LocalityClass.BOTTOM_BOTTOM;
+        }
+    }
+
+    private int[] extract(Set<OWLEntity> signature, int[] within,
+            LocalityClass localityClass) {
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                localityClass);
+        BitSet module = new BitSet();
+        BitSet queued = new BitSet();
+        IntList queue = new IntList();
+        for (int i : globalAxioms.get(localityClass)) {
+            if (contains(within, i)) {
+                queue.add(i);
+                queued.set(i);
+            }
+        }
+        for (OWLEntity entity : signature) {
+            schedule(entity, within, module, queued, queue);
+        }
+        while (!queue.isEmpty()) {
+            int i = queue.remove();
+            queued.clear(i);
+            if (!sle.isLocal(axioms.getAxiom(i), signature)) {
+                module.set(i);
+                for (OWLEntity entity : axioms.getSignature(i)) {
+                    if (signature.add(entity)) {
+                        schedule(entity, within, module, queued, queue);
+                    }
+                }
+            }
+        }
+        return toArray(module);
+    }
+
+    private void schedule(OWLEntity entity, int[] within, BitSet module,
+            BitSet queued, IntList queue) {
+        for (int j : axioms.getReferencingAxioms(entity)) {
+            if (!module.get(j) && !queued.get(j) && contains(within, j)) {
+                queue.add(j);
+                queued.set(j);
+            }
+        }
+    }
+
+    private static boolean contains(int[] within, int i) {
+        return within == null || Arrays.binarySearch(within, i) >= 0;
+    }
+
+    private static int[] toArray(BitSet set) {
+        int[] toReturn = new int[set.cardinality()];
+        int k = 0;
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            toReturn[k++] = i;
+        }
+        return toReturn;
+    }
+
+    OWLAxiom getAxiom(int i) {
+        return axioms.getAxiom(i);
+    }
+
+    OWLEntity[] getSignature(int i) {
+        return axioms.getSignature(i);
+    }
+
+    /** @return the type of the modules this decomposition is for */
+    public ModuleType getModuleType() {
+        return moduleType;
+    }
+
+    /** @return the atoms of this decomposition */
+    public List<Atom> getAtoms() {
+        return Collections.unmodifiableList(atoms);
+    }
+
+    /**
+     * @param axiom
+     *        a logical axiom
+     * @return the atom of the axiom, or null if the axiom is not decomposed
+     *         or is in no module
+     */
+    public Atom getAtom(OWLAxiom axiom) {
+        Set<OWLEntity> signature = axiom.getSignature();
+        if (signature.isEmpty()) {
+            for (int i = 0; i < axioms.size(); i++) {
+                if (axioms.getAxiom(i).equals(axiom)) {
+                    return getAtomOf(i);
+                }
+            }
+            return null;
+        }
+        // the axiom is among those referencing any of its entities
+        for (int i : axioms.getReferencingAxioms(signature.iterator().next())) {
+            if (axioms.getAxiom(i).equals(axiom)) {
+                return getAtomOf(i);
+            }
+        }
+        return null;
+    }
+
+    private Atom getAtomOf(int i) {
+        return atomOf[i] < 0 ? null : atoms.get(atomOf[i]);
+    }
+
+    /** @return the axioms that are local for their own signature */
+    public Set<OWLAxiom> getTautologies() {
+        Set<OWLAxiom> toReturn = new HashSet<OWLAxiom>();
+        for (int i = 0; i < atomOf.length; i++) {
+            if (atomOf[i] < 0) {
+                toReturn.add(axioms.getAxiom(i));
+            }
+        }
+        return toReturn;
+    }
+
+    /** @return the atoms no other atom depends on */
+    public Set<Atom> getTopAtoms() {
+        Set<Atom> toReturn = new LinkedHashSet<Atom>();
+        for (Atom atom : atoms) {
+            if (atom.dependents.isEmpty()) {
+                toReturn.add(atom);
+            }
+        }
+        return toReturn;
+    }
+
+    /** @return the atoms that depend on no other atom */
+    public Set<Atom> getBottomAtoms() {
+        Set<Atom> toReturn = new LinkedHashSet<Atom>();
+        for (Atom atom : atoms) {
+            if (atom.dependencies.isEmpty()) {
+                toReturn.add(atom);
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Returns the module of a signature. The module contains the same logical
+     * axioms as the module extracted by {@link SyntacticLocalityModuleExtractor}
+     * for the same signature and module type; declarations and annotations are
+     * not added.
+     *
+     * @param signature
+     *        the seed signature
+     * @return the logical axioms of the module
+     */
+    public Set<OWLAxiom> getModule(Set<OWLEntity> signature) {
+        Set<OWLEntity> moduleSignature = new HashSet<OWLEntity>(signature);
+        BitSet module;
+        if (moduleType == ModuleType.STAR) {
+            module = new BitSet();
+            for (int i : extract(moduleSignature, null)) {
+                module.set(i);
+            }
+        } else {
+            module = getModuleFromAtoms(
+                    moduleSignature,
+                    moduleType == ModuleType.BOT ? LocalityClass.BOTTOM_BOTTOM
+                            : LocalityClass.TOP_TOP);
+        }
+        Set<OWLAxiom> toReturn = new HashSet<OWLAxiom>();
+        for (int i = module.nextSetBit(0); i >= 0; i = module.nextSetBit(i + 1)) {
+            toReturn.add(axioms.getAxiom(i));
+        }
+        return toReturn;
+    }
+
+    private BitSet getModuleFromAtoms(Set<OWLEntity> signature,
+            LocalityClass localityClass) {
+        SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                localityClass);
+        BitSet module = new BitSet();
+        BitSet queued = new BitSet();
+        IntList queue = new IntList();
+        for (int i : globalAxioms.get(localityClass)) {
+            queue.add(i);
+            queued.set(i);
+        }
+        for (OWLEntity entity : signature) {
+            schedule(entity, null, module, queued, queue);
+        }
+        while (!queue.isEmpty()) {
+            int i = queue.remove();
+            queued.clear(i);
+            if (module.get(i) || atomOf[i] < 0) {
+                continue;
+            }
+            if (!sle.isLocal(axioms.getAxiom(i), signature)) {
+                // the module of the atom is part of the module
+                for (int j : atoms.get(atomOf[i]).module) {
+                    if (!module.get(j)) {
+                        module.set(j);
+                        for (OWLEntity entity : axioms.getSignature(j)) {
+                            if (signature.add(entity)) {
+                                schedule(entity, null, module, queued, queue);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return module;
+    }
+
+    /** A growable queue of ints. */
+    private static class IntList {
+
+        private int[] values = new int[16];
+        private int head;
+        private int tail;
+
+        void add(int i) {
+            if (tail == values.length) {
+                // reuse the space of the removed values if it is enough
+                int[] target = head > values.length / 2 ? values
+                        : new int[values.length * 2];
+                System.arraycopy(values, head, target, 0, tail - head);
+                values = target;
+                tail -= head;
+                head = 0;
+            }
+            values[tail++] = i;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        int remove() {
+            return values[head++];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOfRange(values, head, tail);
+        }
+    }
+}
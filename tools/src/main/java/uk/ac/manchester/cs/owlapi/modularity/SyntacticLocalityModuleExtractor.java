@@ -38,10 +38,23 @@
  */
 package uk.ac.manchester.cs.owlapi.modularity;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import org.semanticweb.owlapi.model.AddAxiom;
@@ -58,6 +71,7 @@ import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.OWLRuntimeException;
 import org.semanticweb.owlapi.model.OWLSameIndividualAxiom;
 import org.semanticweb.owlapi.modularity.OntologySegmenter;
 import org.semanticweb.owlapi.reasoner.NodeSet;
@@ -90,18 +104,76 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
      */
     static class OntologyAxiomSet {
 
+        private static final int[] NO_AXIOMS = new int[0];
         /** Array representing all axioms of the associated ontology. */
         final OWLAxiom[] ax;
+        /** The signature of each axiom, computed once. */
+        private final OWLEntity[][] signatures;
+        /** The numbers of the axioms referencing each entity. */
+        private final Map<OWLEntity, int[]> referencingAxioms;
 
         /**
-         * Creates a new OntologyAxiomSet from a given set of axioms without
-         * looking up the referenced entities.
+         * Creates a new OntologyAxiomSet from a given set of axioms, and
+         * indexes the axioms by the entities they reference.
          * 
          * @param axs
          *        the set of axioms representing the ontology
          */
         public OntologyAxiomSet(Set<OWLAxiom> axs) {
             ax = axs.toArray(new OWLAxiom[axs.size()]);
+            signatures = new OWLEntity[ax.length][];
+            Map<OWLEntity, int[]> counts = new HashMap<OWLEntity, int[]>();
+            for (int i = 0; i < ax.length; i++) {
+                Set<OWLEntity> sig = ax[i].getSignature();
+                signatures[i] = sig.toArray(new OWLEntity[sig.size()]);
+                for (OWLEntity e : signatures[i]) {
+                    int[] count = counts.get(e);
+                    if (count == null) {
+                        counts.put(e, new int[] { 1 });
+                    } else {
+                        count[0]++;
+                    }
+                }
+            }
+            referencingAxioms = new HashMap<OWLEntity, int[]>(counts.size());
+            for (Map.Entry<OWLEntity, int[]> e : counts.entrySet()) {
+                referencingAxioms.put(e.getKey(), new int[e.getValue()[0]]);
+                // reused as the fill position
+                e.getValue()[0] = 0;
+            }
+            for (int i = 0; i < ax.length; i++) {
+                for (OWLEntity e : signatures[i]) {
+                    referencingAxioms.get(e)[counts.get(e)[0]++] = i;
+                }
+            }
+        }
+
+        /**
+         * Returns the signature of some axiom from this set.
+         * 
+         * @param i
+         *        a number for an axiom
+         * @return the entities referenced by the i-th axiom; the array must
+         *         not be modified
+         */
+        public OWLEntity[] getSignature(int i) {
+            return signatures[i];
+        }
+
+        /**
+         * Returns the axioms in this set that reference an entity.
+         * 
+         * @param entity
+         *        the entity
+         * @return the numbers of the axioms referencing the entity, in
+         *         increasing order; the array must not be modified
+         */
+        public int[] getReferencingAxioms(OWLEntity entity) {
+            int[] axioms = referencingAxioms.get(entity);
+            if (axioms == null) {
+                return NO_AXIOMS;
+            }
+            return axioms;
         }
 
         /**
@@ -220,6 +292,13 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
     final OWLOntology rootOntology, ontology;
     /** Represents the manager for the associated ontology. */
     final OWLOntologyManager manager;
+    /** Batches smaller than this are not worth evaluating in parallel. */
+    private static final int PARALLEL_THRESHOLD = 1024;
+    /** Number of threads evaluating the locality of axioms. */
+    private int threads = 1;
+    /** The axioms that are non-local for every signature, by locality class. */
+    private final Map<LocalityClass, boolean[]> globalAxioms = new EnumMap<LocalityClass, boolean[]>(
+            LocalityClass.class);
 
     private OWLOntology createOntology(OWLOntologyManager man, OWLOntology ont,
             Set<OWLAxiom> axs) {
@@ -287,6 +366,34 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
         this.moduleType = moduleType;
     }
 
+    /**
+     * Sets the number of threads used to evaluate the locality of axioms. With
+     * more than one thread, large batches of axioms, such as the whole
+     * ontology at the start of an extraction, are evaluated in parallel; the
+     * modules do not change. The threads only live for the duration of an
+     * extraction.
+     * 
+     * @param threads
+     *        the number of threads; 1, the default, evaluates all axioms on
+     *        the calling thread
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "The number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the number of threads used to evaluate the locality of axioms.
+     * 
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
     /**
      * Returns the module type for this extractor.
      * 
@@ -317,52 +424,237 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
      */
     boolean[] extractLogicalAxioms(boolean[] subOnt, Set<OWLEntity> signature,
             LocalityClass localityClass, boolean verbose) {
+        return extractLogicalAxioms(subOnt, signature, localityClass, threads,
+                verbose);
+    }
+
+    private boolean[] extractLogicalAxioms(boolean[] subOnt,
+            Set<OWLEntity> signature, LocalityClass localityClass,
+            int threadCount, boolean verbose) {
         boolean[] mod = ontologyAxiomSet.getSubset(false);
         boolean[] q2 = ontologyAxiomSet.cloneSubset(subOnt);
         SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
                 localityClass);
-        boolean change = true;
-        int loopNumber = 0;
-        while (change) {
-            change = false;
-            loopNumber++;
-            if (verbose) {
-                logger.info("  Loop " + loopNumber);
+        // the locality of an axiom only changes when an entity in its
+        // signature is added to the module signature: the axioms that do not
+        // reference the seed signature are local unless they are non-local
+        // for every signature, and after that only the axioms referencing new
+        // entities are evaluated again
+        Worklist worklist = new Worklist(q2.length);
+        boolean[] global = getGlobalAxioms(localityClass);
+        for (int i = 0; i < q2.length; i++) {
+            if (q2[i] && global[i]) {
+                worklist.add(i);
             }
-            for (int i = 0; i < q2.length; i = i + 1) {
+        }
+        for (OWLEntity entity : signature) {
+            for (int i : ontologyAxiomSet.getReferencingAxioms(entity)) {
                 if (q2[i]) {
-                    if (!sle.isLocal(ontologyAxiomSet.getAxiom(i), signature)) {
-                        if (verbose) {
-                            logger.info("      Non-local axiom:   "
-                                    + minusOntologyURI(ontologyAxiomSet
-                                            .getAxiom(i).toString()));
-                        }
-                        mod[i] = true;
-                        q2[i] = false;
-                        int oldSize = signature.size();
-                        signature.addAll(ontologyAxiomSet.getAxiom(i)
-                                .getSignature());
-                        // only triggering a change when the signature has
-                        // changed doesn't improve performance
-                        if (signature.size() > oldSize) {
-                            change = true;
-                            if (verbose) {
-                                logger.info("    New signature:   " + signature);
+                    worklist.add(i);
+                }
+            }
+        }
+        ExecutorService executor = null;
+        try {
+            while (!worklist.isEmpty()) {
+                if (threadCount > 1 && worklist.size() >= PARALLEL_THRESHOLD) {
+                    if (executor == null) {
+                        executor = Executors.newFixedThreadPool(threadCount);
+                    }
+                    int[] batch = worklist.removeAll();
+                    boolean[] local = evaluate(executor, threadCount, batch,
+                            signature, localityClass);
+                    for (int k = 0; k < batch.length; k++) {
+                        int i = batch[k];
+                        if (q2[i]) {
+                            logLocality(i, local[k], verbose);
+                            if (!local[k]) {
+                                addToModule(i, mod, q2, signature, worklist,
+                                        verbose);
                             }
                         }
-                    } else {
-                        if (verbose) {
-                            logger.info("      Local axiom:       "
-                                    + minusOntologyURI(ontologyAxiomSet
-                                            .getAxiom(i).toString()));
+                    }
+                } else {
+                    int i = worklist.remove();
+                    if (q2[i]) {
+                        boolean local = sle.isLocal(
+                                ontologyAxiomSet.getAxiom(i), signature);
+                        logLocality(i, local, verbose);
+                        if (!local) {
+                            addToModule(i, mod, q2, signature, worklist,
+                                    verbose);
                         }
                     }
                 }
             }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
         }
         return mod;
     }
 
+    private void logLocality(int i, boolean local, boolean verbose) {
+        if (verbose) {
+            logger.info((local ? "      Local axiom:       "
+                    : "      Non-local axiom:   ")
+                    + minusOntologyURI(ontologyAxiomSet.getAxiom(i).toString()));
+        }
+    }
+
+    /**
+     * Moves a non-local axiom into the module, and schedules the axioms still
+     * outside the module that reference the entities it adds to the
+     * signature.
+     */
+    private void addToModule(int i, boolean[] mod, boolean[] q2,
+            Set<OWLEntity> signature, Worklist worklist, boolean verbose) {
+        mod[i] = true;
+        q2[i] = false;
+        boolean changed = false;
+        for (OWLEntity entity : ontologyAxiomSet.getSignature(i)) {
+            if (signature.add(entity)) {
+                changed = true;
+                for (int j : ontologyAxiomSet.getReferencingAxioms(entity)) {
+                    if (q2[j]) {
+                        worklist.add(j);
+                    }
+                }
+            }
+        }
+        if (changed && verbose) {
+            logger.info("    New signature:   " + signature);
+        }
+    }
+
+    /**
+     * Evaluates the locality of a batch of axioms on the executor. The
+     * signature is not modified while the batch is evaluated; every task has
+     * its own evaluator, since evaluators are not thread safe.
+     */
+    private boolean[] evaluate(ExecutorService executor, int threadCount,
+            final int[] batch, final Set<OWLEntity> signature,
+            final LocalityClass localityClass) {
+        final boolean[] local = new boolean[batch.length];
+        int chunk = (batch.length + threadCount - 1) / threadCount;
+        List<Future<?>> tasks = new ArrayList<Future<?>>(threadCount);
+        for (int start = 0; start < batch.length; start += chunk) {
+            final int from = start;
+            final int to = Math.min(batch.length, start + chunk);
+            tasks.add(executor.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                            localityClass);
+                    for (int k = from; k < to; k++) {
+                        local[k] = sle.isLocal(
+                                ontologyAxiomSet.getAxiom(batch[k]), signature);
+                    }
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OWLRuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new OWLRuntimeException(e.getCause());
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Returns the axioms that are not local for the empty signature, and
+     * therefore for any signature that shares no entities with them; they are
+     * found once for each locality class, and are the only axioms evaluated
+     * for a seed signature besides those referencing it.
+     */
+    private synchronized boolean[] getGlobalAxioms(LocalityClass localityClass) {
+        boolean[] global = globalAxioms.get(localityClass);
+        if (global != null) {
+            return global;
+        }
+        int[] all = new int[ontologyAxiomSet.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        Set<OWLEntity> empty = Collections.emptySet();
+        boolean[] local;
+        if (threads > 1 && all.length >= PARALLEL_THRESHOLD) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                local = evaluate(executor, threads, all, empty, localityClass);
+            } finally {
+                executor.shutdown();
+            }
+        } else {
+            SyntacticLocalityEvaluator sle = new SyntacticLocalityEvaluator(
+                    localityClass);
+            local = new boolean[all.length];
+            for (int i = 0; i < all.length; i++) {
+                local[i] = sle.isLocal(ontologyAxiomSet.getAxiom(i), empty);
+            }
+        }
+        global = new boolean[all.length];
+        for (int i = 0; i < all.length; i++) {
+            global[i] = !local[i];
+        }
+        globalAxioms.put(localityClass, global);
+        return global;
+    }
+
+    /**
+     * A queue of axiom numbers in which every axiom appears at most once.
+     */
+    private static class Worklist {
+
+        private final int[] queue;
+        private final boolean[] queued;
+        private int head;
+        private int size;
+
+        Worklist(int capacity) {
+            queue = new int[Math.max(1, capacity)];
+            queued = new boolean[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(int i) {
+            if (!queued[i]) {
+                queued[i] = true;
+                queue[(head + size++) % queue.length] = i;
+            }
+        }
+
+        int remove() {
+            int i = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            queued[i] = false;
+            return i;
+        }
+
+        int[] removeAll() {
+            int[] toReturn = new int[size];
+            for (int k = 0; k < toReturn.length; k++) {
+                toReturn[k] = remove();
+            }
+            return toReturn;
+        }
+    }
+
     /**
      * This method extracts a module from a given sub-ontology of the associated
      * ontology for a given signature and locality type. The module will only
@@ -519,15 +811,76 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
         }
     }
 
-    Set<OWLAxiom> extractUnnestedModule(Set<OWLEntity> sig, LocalityClass cls,
+    boolean[] extractUnnestedModule(Set<OWLEntity> sig,
+            Set<OWLEntity> signature, LocalityClass cls, int threadCount,
             boolean verbose) {
         outputSignature("\nExtracting " + cls
                 + " module for the following seed signature ... ", sig, verbose);
         boolean[] subOnt = ontologyAxiomSet.getSubset(true);
-        Set<OWLEntity> signature = new HashSet<OWLEntity>(sig);
-        boolean[] module = extractLogicalAxioms(subOnt, signature, cls, verbose);
-        Set<OWLAxiom> moduleAsSet = ontologyAxiomSet.toSet(module);
-        return enrich(moduleAsSet, signature, verbose);
+        signature.addAll(sig);
+        return extractLogicalAxioms(subOnt, signature, cls, threadCount,
+                verbose);
+    }
+
+    /**
+     * Extracts the logical axioms of the module of the current type for a
+     * seed signature.
+     * 
+     * @param sig
+     *        the seed signature
+     * @param signature
+     *        an empty set; on return of the method, this will contain the
+     *        signature of the module
+     * @param threadCount
+     *        the number of threads evaluating locality
+     * @param verbose
+     *        a flag for verbose output (test purposes)
+     * @return an array of Booleans representing the module
+     */
+    boolean[] extractLogicalModule(Set<OWLEntity> sig,
+            Set<OWLEntity> signature, int threadCount, boolean verbose) {
+        switch (moduleType) {
+            case TOP: {
+                return extractUnnestedModule(sig, signature,
+                        LocalityClass.TOP_TOP, threadCount, verbose);
+            }
+            case BOT: {
+                return extractUnnestedModule(sig, signature,
+                        LocalityClass.BOTTOM_BOTTOM, threadCount, verbose);
+            }
+            case STAR: {
+                boolean[] subOnt = ontologyAxiomSet.getSubset(true);
+                boolean nextStepNecessary = true;
+                boolean inFirstStep = true;
+                LocalityClass localityClass = LocalityClass.BOTTOM_BOTTOM;
+                Set<OWLEntity> seedSig = new HashSet<OWLEntity>(sig);
+                while (nextStepNecessary) {
+                    outputSignature("\nExtracting " + localityClass
+                            + " module for the following seed signature: ",
+                            sig, verbose);
+                    int previousModuleSize = ontologyAxiomSet
+                            .subsetCardinality(subOnt);
+                    seedSig = new HashSet<OWLEntity>(sig);
+                    subOnt = extractLogicalAxioms(subOnt, seedSig,
+                            localityClass, threadCount, verbose);
+                    if (ontologyAxiomSet.subsetCardinality(subOnt) == previousModuleSize
+                            && !inFirstStep) {
+                        nextStepNecessary = false;
+                    }
+                    inFirstStep = false;
+                    if (localityClass == LocalityClass.BOTTOM_BOTTOM) {
+                        localityClass = LocalityClass.TOP_TOP;
+                    } else {
+                        localityClass = LocalityClass.BOTTOM_BOTTOM;
+                    }
+                }
+                signature.addAll(seedSig);
+                return subOnt;
+            }
+            default:
+                throw new RuntimeException("Unsupported module type: "
+                        + moduleType);
+        }
     }
 
     Set<OWLClass>
@@ -647,48 +1000,87 @@ public class SyntacticLocalityModuleExtractor implements OntologySegmenter {
             int subClassLevel, OWLReasoner reasoner, boolean verbose) {
         Set<OWLEntity> enrichedSig = enrichSignature(sig, superClassLevel,
                 subClassLevel, reasoner);
-        switch (moduleType) {
-            case TOP: {
-                return extractUnnestedModule(enrichedSig,
-                        LocalityClass.TOP_TOP, verbose);
-            }
-            case BOT: {
-                return extractUnnestedModule(enrichedSig,
-                        LocalityClass.BOTTOM_BOTTOM, verbose);
-            }
-            case STAR: {
-                boolean[] subOnt = ontologyAxiomSet.getSubset(true);
-                boolean nextStepNecessary = true;
-                boolean inFirstStep = true;
-                LocalityClass localityClass = LocalityClass.BOTTOM_BOTTOM;
-                Set<OWLEntity> seedSig = new HashSet<OWLEntity>(enrichedSig);
-                while (nextStepNecessary) {
-                    outputSignature("\nExtracting " + localityClass
-                            + " module for the following seed signature: ",
-                            enrichedSig, verbose);
-                    int previousModuleSize = ontologyAxiomSet
-                            .subsetCardinality(subOnt);
-                    seedSig = new HashSet<OWLEntity>(enrichedSig);
-                    subOnt = extractLogicalAxioms(subOnt, seedSig,
-                            localityClass, verbose);
-                    if (ontologyAxiomSet.subsetCardinality(subOnt) == previousModuleSize
-                            && !inFirstStep) {
-                        nextStepNecessary = false;
-                    }
-                    inFirstStep = false;
-                    if (localityClass == LocalityClass.BOTTOM_BOTTOM) {
-                        localityClass = LocalityClass.TOP_TOP;
-                    } else {
-                        localityClass = LocalityClass.BOTTOM_BOTTOM;
-                    }
+        Set<OWLEntity> signature = new HashSet<OWLEntity>();
+        boolean[] module = extractLogicalModule(enrichedSig, signature,
+                threads, verbose);
+        return enrich(ontologyAxiomSet.toSet(module), signature, verbose);
+    }
+
+    /**
+     * Extracts the modules of the associated ontology for many seed
+     * signatures, and returns them in the order of the signatures. The
+     * preprocessing of the ontology is shared between all the modules, each
+     * distinct signature is extracted once, and with more than one thread
+     * (see {@link #setThreads(int)}) the modules are extracted in parallel,
+     * each on a single thread. The modules are the same as those returned by
+     * {@link #extract(Set)}.
+     * 
+     * @param signatures
+     *        the seed signatures
+     * @return a map from each distinct seed signature to its module
+     */
+    public Map<Set<OWLEntity>, Set<OWLAxiom>> extractModules(
+            Collection<? extends Set<OWLEntity>> signatures) {
+        Map<Set<OWLEntity>, Set<OWLAxiom>> modules = new LinkedHashMap<Set<OWLEntity>, Set<OWLAxiom>>();
+        for (Set<OWLEntity> sig : signatures) {
+            modules.put(sig, null);
+        }
+        // the shared preprocessing is done once, before the modules
+        if (moduleType != ModuleType.TOP) {
+            getGlobalAxioms(LocalityClass.BOTTOM_BOTTOM);
+        }
+        if (moduleType != ModuleType.BOT) {
+            getGlobalAxioms(LocalityClass.TOP_TOP);
+        }
+        List<Set<OWLEntity>> keys = new ArrayList<Set<OWLEntity>>(
+                modules.keySet());
+        List<Set<OWLEntity>> moduleSignatures = new ArrayList<Set<OWLEntity>>(
+                keys.size());
+        List<boolean[]> logicalModules = new ArrayList<boolean[]>(keys.size());
+        if (threads > 1 && keys.size() > 1) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<boolean[]>> tasks = new ArrayList<Future<boolean[]>>(
+                        keys.size());
+                for (final Set<OWLEntity> sig : keys) {
+                    final Set<OWLEntity> signature = new HashSet<OWLEntity>();
+                    moduleSignatures.add(signature);
+                    tasks.add(executor.submit(new Callable<boolean[]>() {
+
+                        @Override
+                        public boolean[] call() {
+                            return extractLogicalModule(sig, signature, 1,
+                                    false);
+                        }
+                    }));
                 }
-                Set<OWLAxiom> moduleAsSet = ontologyAxiomSet.toSet(subOnt);
-                return enrich(moduleAsSet, seedSig, verbose);
+                for (Future<boolean[]> task : tasks) {
+                    logicalModules.add(task.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OWLRuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new OWLRuntimeException(e.getCause());
+            } finally {
+                executor.shutdownNow();
             }
-            default:
-                throw new RuntimeException("Unsupported module type: "
-                        + moduleType);
+        } else {
+            for (Set<OWLEntity> sig : keys) {
+                Set<OWLEntity> signature = new HashSet<OWLEntity>();
+                moduleSignatures.add(signature);
+                logicalModules.add(extractLogicalModule(sig, signature, 1,
+                        false));
+            }
+        }
+        // enrichment reads the ontology indexes, which are built lazily and
+        // must not be built by several threads at once
+        for (int i = 0; i < keys.size(); i++) {
+            modules.put(keys.get(i), enrich(
+                    ontologyAxiomSet.toSet(logicalModules.get(i)),
+                    moduleSignatures.get(i), false));
         }
+        return modules;
     }
 
     @Override